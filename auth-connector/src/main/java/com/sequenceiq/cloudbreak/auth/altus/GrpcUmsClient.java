@@ -214,7 +214,7 @@ public class GrpcUmsClient {
      * @param userCrn   the CRN of the user.
      * @return the user associated with this user CRN
      */
-    @Cacheable(cacheNames = "umsUserCache", key = "{ #userCrn }")
+    @Cacheable(cacheNames = "umsUserCache", key = "{ #userCrn }", sync = true)
     public User getUserDetails(String userCrn,
         RegionAwareInternalCrnGeneratorFactory regionAwareInternalCrnGeneratorFactory) {
         UmsClient client = makeClient(channelWrapper.getChannel(), regionAwareInternalCrnGeneratorFactory);
@@ -497,7 +497,7 @@ public class GrpcUmsClient {
         return makeCheckRightCall(userCrn, right, resource, regionAwareInternalCrnGeneratorFactory);
     }
 
-    @Cacheable(cacheNames = "umsUserRightsCache", key = "{ #userCrn, #right }")
+    @Cacheable(cacheNames = "umsUserRightsCache", key = "{ #userCrn, #right }", sync = true)
     public boolean checkAccountRight(String userCrn, String right,
         RegionAwareInternalCrnGeneratorFactory regionAwareInternalCrnGeneratorFactory) {
         if (RegionAwareInternalCrnGeneratorUtil.isInternalCrn(userCrn)) {
@@ -5,16 +5,19 @@ import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import com.sequenceiq.cloudbreak.cache.common.AbstractCacheDefinition;
+import com.sequenceiq.cloudbreak.cache.common.AbstractTieredCacheDefinition;
 
 @Service
-public class UmsUserCache extends AbstractCacheDefinition {
+public class UmsUserCache extends AbstractTieredCacheDefinition {
 
     private static final long MAX_ENTRIES = 1000L;
 
     @Value("${altus.ums.user.cache.ttl:1}")
     private long ttlMinutes;
 
+    @Value("${altus.ums.user.cache.refresh.seconds:45}")
+    private long refreshSeconds;
+
     @Override
     protected String getName() {
         return "umsUserCache";
@@ -29,4 +32,9 @@ public class UmsUserCache extends AbstractCacheDefinition {
     protected long getTimeToLiveSeconds() {
         return ttlMinutes == 0L ? 1 : TimeUnit.MINUTES.toSeconds(ttlMinutes);
     }
+
+    @Override
+    protected long getRefreshAfterWriteSeconds() {
+        return refreshSeconds;
+    }
 }
@@ -5,10 +5,10 @@ import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import com.sequenceiq.cloudbreak.cache.common.AbstractCacheDefinition;
+import com.sequenceiq.cloudbreak.cache.common.AbstractTieredCacheDefinition;
 
 @Service
-public class UmsUserRightsCache extends AbstractCacheDefinition {
+public class UmsUserRightsCache extends AbstractTieredCacheDefinition {
 
     private static final long MAX_ENTRIES = 1000L;
 
@@ -22,6 +22,9 @@ public class UmsUserRightsCache extends AbstractCacheDefinition {
     @Value("${altus.ums.rights.cache.seconds.ttl:0}")
     private long ttlSeconds;
 
+    @Value("${altus.ums.rights.cache.refresh.seconds:45}")
+    private long refreshSeconds;
+
     @Override
     protected String getName() {
         return "umsUserRightsCache";
@@ -39,4 +42,9 @@ public class UmsUserRightsCache extends AbstractCacheDefinition {
         }
         return ttlMinutes == 0L ? 1 : TimeUnit.MINUTES.toSeconds(ttlMinutes);
     }
+
+    @Override
+    protected long getRefreshAfterWriteSeconds() {
+        return refreshSeconds;
+    }
 }
@@ -19,7 +19,13 @@ public enum MetricType implements Metric {
     THREADPOOL_QUEUE_SIZE("threadpool.queue.size"),
     THREADPOOL_ACTIVE_THREADS("threadpool.threads.active"),
     THREADPOOL_THREADS_TOTAL("threadpool.threads.coresize"),
-    THREADPOOL_TASKS_COMPLETED("threadpool.tasks.completed");
+    THREADPOOL_TASKS_COMPLETED("threadpool.tasks.completed"),
+    THREADPOOL_EVALUATION_QUEUE_SIZE("threadpool.evaluation.queue.size"),
+
+    EVALUATION_COALESCED("evaluation.coalesced"),
+    EVALUATION_DROPPED_NOT_OWNED("evaluation.dropped.not.owned"),
+    EVALUATION_WAIT_TIME("evaluation.wait.time"),
+    EVALUATION_RUN_TIME("evaluation.run.time");
 
     private final String metricName;
 
@@ -1,7 +1,8 @@
 package com.sequenceiq.periscope.monitor;
 
+import java.util.Date;
 import java.util.List;
-import java.util.concurrent.RejectedExecutionException;
+import java.util.Optional;
 
 import org.quartz.JobDataMap;
 import org.quartz.JobExecutionContext;
@@ -12,7 +13,7 @@ import org.springframework.context.ApplicationContext;
 import com.sequenceiq.cloudbreak.logger.MDCBuilder;
 import com.sequenceiq.periscope.monitor.context.EvaluatorContext;
 import com.sequenceiq.periscope.monitor.evaluator.EvaluatorExecutor;
-import com.sequenceiq.periscope.monitor.executor.ExecutorServiceWithRegistry;
+import com.sequenceiq.periscope.monitor.executor.EvaluationPipeline;
 import com.sequenceiq.periscope.service.RejectedThreadService;
 
 public abstract class AbstractMonitor<M extends Monitored> implements Monitor<M> {
@@ -21,7 +22,7 @@ public abstract class AbstractMonitor<M extends Monitored> implements Monitor<M>
 
     private ApplicationContext applicationContext;
 
-    private ExecutorServiceWithRegistry executorServiceWithRegistry;
+    private EvaluationPipeline evaluationPipeline;
 
     private RejectedThreadService rejectedThreadService;
 
@@ -31,27 +32,28 @@ public abstract class AbstractMonitor<M extends Monitored> implements Monitor<M>
         evalContext(context);
         List<M> monitoredData = getMonitored();
         LOGGER.debug("Job started: {}, monitored: {}", context.getJobDetail().getKey(), monitoredData.size());
+        long dueTimeMillis = Optional.ofNullable(context.getScheduledFireTime()).map(Date::getTime).orElseGet(System::currentTimeMillis);
         for (M monitored : monitoredData) {
-            try {
-                EvaluatorExecutor evaluatorExecutor = getEvaluatorExecutorBean(monitored);
-                EvaluatorContext evaluatorContext = getContext(monitored);
-                evaluatorExecutor.setContext(evaluatorContext);
-                executorServiceWithRegistry.submitIfAbsent(evaluatorExecutor, evaluatorContext.getItemId());
-                // TODO CB-14972: The size of the queue needs to be logged occasionally.
-                LOGGER.debug("Successfully submitted {} for cluster {}.", evaluatorExecutor.getName(), evaluatorContext.getData());
-                rejectedThreadService.remove(evaluatorContext.getData());
-                monitored.setLastEvaluated(System.currentTimeMillis());
-                save(monitored);
-            } catch (RejectedExecutionException ignore) {
-                LOGGER.info("Error in processing monitor: {}", monitored, ignore);
-            }
+            EvaluatorExecutor evaluatorExecutor = getEvaluatorExecutorBean(monitored);
+            EvaluatorContext evaluatorContext = getContext(monitored);
+            evaluatorExecutor.setContext(evaluatorContext);
+            evaluationPipeline.enqueue(evaluatorExecutor, evaluatorContext.getItemId(), getEvaluationPriority(), dueTimeMillis,
+                    isClusterOwnershipRequired());
+            LOGGER.debug("Successfully queued {} for cluster {}.", evaluatorExecutor.getName(), evaluatorContext.getData());
+            rejectedThreadService.remove(evaluatorContext.getData());
+            monitored.setLastEvaluated(System.currentTimeMillis());
         }
+        if (!monitoredData.isEmpty()) {
+            saveAll(monitoredData);
+        }
+        LOGGER.debug("Job finished: {}, queued: {}, evaluation queue size: {}", context.getJobDetail().getKey(), monitoredData.size(),
+                evaluationPipeline.queueSize());
     }
 
     void evalContext(JobExecutionContext context) {
         JobDataMap monitorContext = context.getJobDetail().getJobDataMap();
         applicationContext = (ApplicationContext) monitorContext.get(MonitorContext.APPLICATION_CONTEXT.name());
-        executorServiceWithRegistry = applicationContext.getBean(ExecutorServiceWithRegistry.class);
+        evaluationPipeline = applicationContext.getBean(EvaluationPipeline.class);
         rejectedThreadService = applicationContext.getBean(RejectedThreadService.class);
     }
 
@@ -65,8 +67,20 @@ public abstract class AbstractMonitor<M extends Monitored> implements Monitor<M>
 
     protected abstract List<M> getMonitored();
 
+    /**
+     * Whether the monitored items are clusters allocated to this node, so their queued evaluations are dropped if the cluster
+     * is handed off to another node before they are dispatched.
+     */
+    protected boolean isClusterOwnershipRequired() {
+        return false;
+    }
+
     protected abstract void save(M monitored);
 
+    protected void saveAll(List<M> monitored) {
+        monitored.forEach(this::save);
+    }
+
     protected RejectedThreadService getRejectedThreadService() {
         return rejectedThreadService;
     }
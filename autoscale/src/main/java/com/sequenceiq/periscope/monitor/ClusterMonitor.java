@@ -1,6 +1,7 @@
 package com.sequenceiq.periscope.monitor;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.quartz.JobExecutionContext;
 
@@ -30,12 +31,23 @@ public abstract class ClusterMonitor extends AbstractMonitor<Cluster> {
         periscopeNodeConfig = getApplicationContext().getBean(PeriscopeNodeConfig.class);
     }
 
+    @Override
+    protected boolean isClusterOwnershipRequired() {
+        return true;
+    }
+
     @Override
     protected void save(Cluster monitored) {
         //In Monitor context, only lastEvaluated is updated.
         clusterService.setLastEvaluated(monitored.getId(), monitored.getLastEvaluated());
     }
 
+    @Override
+    protected void saveAll(List<Cluster> monitored) {
+        long lastEvaluated = monitored.stream().mapToLong(Cluster::getLastEvaluated).max().orElse(0L);
+        clusterService.setLastEvaluated(monitored.stream().map(Cluster::getId).collect(Collectors.toList()), lastEvaluated);
+    }
+
     PeriscopeNodeConfig getPeriscopeNodeConfig() {
         return periscopeNodeConfig;
     }
@@ -9,6 +9,7 @@ import org.springframework.stereotype.Component;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.common.StackType;
 import com.sequenceiq.periscope.domain.Cluster;
 import com.sequenceiq.periscope.monitor.evaluator.ClusterDeleteEvaluator;
+import com.sequenceiq.periscope.monitor.executor.EvaluationPriority;
 
 @Component
 @ConditionalOnProperty(prefix = "periscope.enabledAutoscaleMonitors.delete-monitor", name = "enabled", havingValue = "true")
@@ -19,6 +20,11 @@ public class DeleteMonitor extends ClusterMonitor {
         return "delete-monitor";
     }
 
+    @Override
+    public EvaluationPriority getEvaluationPriority() {
+        return EvaluationPriority.LOW;
+    }
+
     @Override
     public String getTriggerExpression() {
         return MonitorUpdateRate.EVERY_TEN_MIN_RATE_CRON;
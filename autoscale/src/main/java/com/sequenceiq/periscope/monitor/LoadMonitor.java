@@ -11,6 +11,7 @@ import com.sequenceiq.periscope.api.model.ClusterState;
 import com.sequenceiq.periscope.domain.Cluster;
 import com.sequenceiq.periscope.monitor.evaluator.EvaluatorExecutor;
 import com.sequenceiq.periscope.monitor.evaluator.load.YarnLoadEvaluator;
+import com.sequenceiq.periscope.monitor.executor.EvaluationPriority;
 
 @Component
 @ConditionalOnProperty(prefix = "periscope.enabledAutoscaleMonitors.load-monitor", name = "enabled", havingValue = "true")
@@ -21,6 +22,11 @@ public class LoadMonitor extends ClusterMonitor {
         return "load-monitor";
     }
 
+    @Override
+    public EvaluationPriority getEvaluationPriority() {
+        return EvaluationPriority.HIGH;
+    }
+
     @Override
     public String getTriggerExpression() {
         return MonitorUpdateRate.EVERY_MIN_RATE_CRON;
@@ -3,6 +3,7 @@ package com.sequenceiq.periscope.monitor;
 import org.quartz.Job;
 
 import com.sequenceiq.periscope.monitor.context.EvaluatorContext;
+import com.sequenceiq.periscope.monitor.executor.EvaluationPriority;
 
 public interface Monitor<M extends Monitored> extends Job {
 
@@ -13,4 +14,8 @@ public interface Monitor<M extends Monitored> extends Job {
     Class<?> getEvaluatorType(M monitored);
 
     EvaluatorContext getContext(M monitored);
+
+    default EvaluationPriority getEvaluationPriority() {
+        return EvaluationPriority.NORMAL;
+    }
 }
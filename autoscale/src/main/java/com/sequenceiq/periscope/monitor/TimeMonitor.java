@@ -9,6 +9,7 @@ import org.springframework.stereotype.Component;
 import com.sequenceiq.cloudbreak.api.endpoint.v4.common.StackType;
 import com.sequenceiq.periscope.domain.Cluster;
 import com.sequenceiq.periscope.monitor.evaluator.CronTimeEvaluator;
+import com.sequenceiq.periscope.monitor.executor.EvaluationPriority;
 
 @Component
 @ConditionalOnProperty(prefix = "periscope.enabledAutoscaleMonitors.time-monitor", name = "enabled", havingValue = "true")
@@ -19,6 +20,11 @@ public class TimeMonitor extends ClusterMonitor {
         return "time-monitor";
     }
 
+    @Override
+    public EvaluationPriority getEvaluationPriority() {
+        return EvaluationPriority.HIGH;
+    }
+
     @Override
     public String getTriggerExpression() {
         return MonitorUpdateRate.TIME_UPDATE_RATE_CRON;
@@ -61,8 +61,6 @@ public class YarnMetricsClient {
                 .orElseThrow(() -> new RuntimeException(String.format("ClusterProxy Not Configured for Cluster %s, " +
                         " cannot query YARN Metrics.", cluster.getStackCrn())));
 
-        Client restClient = RestClientUtil.createClient(tlsConfig.getServerCert(),
-                tlsConfig.getClientCert(), tlsConfig.getClientKey(), true);
         String yarnApiUrl = String.format(YARN_API_URL, clusterProxyUrl, cluster.getStackCrn());
 
         InstanceConfig instanceConfig = yarnServiceConfigClient.getInstanceConfigFromCM(cluster, stackV4Response, hostGroup);
@@ -79,12 +77,19 @@ public class YarnMetricsClient {
         maxDecommissionNodeCount.ifPresent(
                 scaleDownCount -> yarnMetricsURI.queryParam(PARAM_DOWNSCALE_FACTOR_IN_NODE_COUNT, stackV4Response.getNodeCount()));
 
-        YarnScalingServiceV1Response yarnResponse = requestLogging.logResponseTime(
-                () -> restClient.target(yarnMetricsURI).request()
-                        .accept(MediaType.APPLICATION_JSON_VALUE)
-                        .header(HEADER_ACTOR_CRN, pollingUserCrn)
-                        .post(Entity.json(yarnScalingServiceV1Request), YarnScalingServiceV1Response.class),
-                String.format("YarnScalingAPI query for cluster crn '%s'", cluster.getStackCrn()));
+        Client restClient = RestClientUtil.getSharedClient(tlsConfig.getServerCert(),
+                tlsConfig.getClientCert(), tlsConfig.getClientKey(), true);
+        YarnScalingServiceV1Response yarnResponse;
+        try {
+            yarnResponse = requestLogging.logResponseTime(
+                    () -> restClient.target(yarnMetricsURI).request()
+                            .accept(MediaType.APPLICATION_JSON_VALUE)
+                            .header(HEADER_ACTOR_CRN, pollingUserCrn)
+                            .post(Entity.json(yarnScalingServiceV1Request), YarnScalingServiceV1Response.class),
+                    String.format("YarnScalingAPI query for cluster crn '%s'", cluster.getStackCrn()));
+        } finally {
+            restClient.close();
+        }
 
         LOGGER.info("YarnScalingAPI response for cluster crn '{}',  response '{}'", cluster.getStackCrn(), yarnResponse);
         return yarnResponse;
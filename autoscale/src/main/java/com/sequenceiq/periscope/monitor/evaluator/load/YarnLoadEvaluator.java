@@ -65,6 +65,9 @@ public class YarnLoadEvaluator extends EvaluatorExecutor {
     @Inject
     private CloudbreakCommunicator cloudbreakCommunicator;
 
+    @Inject
+    private YarnMetricsTimeSeriesStore yarnMetricsTimeSeriesStore;
+
     private long clusterId;
 
     private Cluster cluster;
@@ -112,6 +115,10 @@ public class YarnLoadEvaluator extends EvaluatorExecutor {
 
             if (isCoolDownTimeElapsed(stackCrn, "polled", loadAlertConfiguration.getPollingCoolDownMillis(),
                     cluster.getLastScalingActivity())) {
+                if (yarnMetricsTimeSeriesStore.isEvaluationSkippable(clusterId)) {
+                    LOGGER.debug("Cluster '{}' had no scaling recommendation recently, skipping this evaluation", stackCrn);
+                    return;
+                }
                 StackV4Response stackV4Response = cloudbreakCommunicator.getByCrn(stackCrn);
 
                 int serviceHealthyHostGroupSize = stackResponseUtils.getCloudInstanceIdsWithServicesHealthyForHostGroup(stackV4Response, policyHostGroup).size();
@@ -121,6 +128,7 @@ public class YarnLoadEvaluator extends EvaluatorExecutor {
                         existingHostGroupSize, serviceHealthyHostGroupSize);
 
                 if (mandatoryAdjustmentRequired(scalingAdjustmentParameters)) {
+                    yarnMetricsTimeSeriesStore.invalidate(clusterId);
                     if (stopStartEnabled) {
                         stopStartScalingAdjustmentService.performMandatoryAdjustment(cluster, pollingUserCrn, stackV4Response, scalingAdjustmentParameters);
                     } else {
@@ -0,0 +1,80 @@
+package com.sequenceiq.periscope.monitor.evaluator.load;
+
+/**
+ * Fixed size ring buffer of the recent YARN scaling recommendations of a cluster. Only the recommended counts are kept in primitive
+ * arrays, the YARN responses themselves are not retained.
+ */
+public class YarnMetricsTimeSeries {
+
+    private final long[] timestamps;
+
+    private final int[] scaleUpCounts;
+
+    private final int[] decommissionCounts;
+
+    private int next;
+
+    private int size;
+
+    private int skippedEvaluations;
+
+    public YarnMetricsTimeSeries(int capacity) {
+        timestamps = new long[capacity];
+        scaleUpCounts = new int[capacity];
+        decommissionCounts = new int[capacity];
+    }
+
+    public synchronized void add(long timestamp, int scaleUpCount, int decommissionCount) {
+        timestamps[next] = timestamp;
+        scaleUpCounts[next] = scaleUpCount;
+        decommissionCounts[next] = decommissionCount;
+        next = (next + 1) % timestamps.length;
+        size = Math.min(size + 1, timestamps.length);
+        skippedEvaluations = 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized long getLastTimestamp() {
+        return size == 0 ? 0L : timestamps[index(0)];
+    }
+
+    /**
+     * Returns the smallest decommission count of the last {@code window} samples, or 0 if there are fewer samples than the window.
+     */
+    public synchronized int getMinDecommissionCount(int window) {
+        if (window <= 0 || size < window) {
+            return 0;
+        }
+        int min = Integer.MAX_VALUE;
+        for (int i = 0; i < window; i++) {
+            min = Math.min(min, decommissionCounts[index(i)]);
+        }
+        return min;
+    }
+
+    /**
+     * Returns the number of the latest consecutive samples without any scale up or decommission recommendation.
+     */
+    public synchronized int getIdleSampleCount() {
+        int idle = 0;
+        while (idle < size && scaleUpCounts[index(idle)] == 0 && decommissionCounts[index(idle)] == 0) {
+            idle++;
+        }
+        return idle;
+    }
+
+    public synchronized boolean skipEvaluation(int maxSkippedEvaluations) {
+        if (skippedEvaluations < maxSkippedEvaluations) {
+            skippedEvaluations++;
+            return true;
+        }
+        return false;
+    }
+
+    private int index(int age) {
+        return (next - 1 - age + timestamps.length) % timestamps.length;
+    }
+}
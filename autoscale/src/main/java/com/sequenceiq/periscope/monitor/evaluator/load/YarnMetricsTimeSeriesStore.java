@@ -0,0 +1,87 @@
+package com.sequenceiq.periscope.monitor.evaluator.load;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.CacheBuilder;
+
+/**
+ * Keeps the recent YARN scaling recommendations per cluster. Downscaling follows the smoothed recommendation of the last few polls instead
+ * of a single snapshot, and clusters which have been idle for a while are polled less often, which also skips the cloudbreak, CM and YARN
+ * lookups of the skipped evaluations.
+ */
+@Component
+public class YarnMetricsTimeSeriesStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(YarnMetricsTimeSeriesStore.class);
+
+    @Value("${periscope.yarn.metrics.history.size:10}")
+    private int historySize;
+
+    @Value("${periscope.yarn.metrics.downscale.window:3}")
+    private int downscaleWindow;
+
+    @Value("${periscope.yarn.metrics.idle.samples:5}")
+    private int idleSamples;
+
+    @Value("${periscope.yarn.metrics.idle.max.skipped.evaluations:4}")
+    private int maxSkippedEvaluations;
+
+    @Value("${periscope.yarn.metrics.history.expiry.minutes:60}")
+    private long expiryMinutes;
+
+    private ConcurrentMap<Long, YarnMetricsTimeSeries> timeSeries;
+
+    @PostConstruct
+    public void init() {
+        timeSeries = CacheBuilder.newBuilder()
+                .expireAfterAccess(expiryMinutes, TimeUnit.MINUTES)
+                .<Long, YarnMetricsTimeSeries>build()
+                .asMap();
+    }
+
+    /**
+     * Records the YARN recommendation of the current poll and returns how many hosts can be decommissioned based on the recent polls.
+     */
+    public int recordAndGetDecommissionCount(Long clusterId, long timestamp, int scaleUpCount, int decommissionCount) {
+        YarnMetricsTimeSeries series = timeSeries.computeIfAbsent(clusterId, id -> new YarnMetricsTimeSeries(Math.max(historySize, downscaleWindow)));
+        series.add(timestamp, scaleUpCount, decommissionCount);
+        int smoothedDecommissionCount = series.getMinDecommissionCount(downscaleWindow);
+        if (smoothedDecommissionCount < decommissionCount) {
+            LOGGER.debug("Decommission recommendation of {} hosts is smoothed to {} hosts for cluster {} based on the last {} polls",
+                    decommissionCount, smoothedDecommissionCount, clusterId, downscaleWindow);
+        }
+        return smoothedDecommissionCount;
+    }
+
+    /**
+     * Returns true if the cluster had no scaling recommendation for a while and the current evaluation can be skipped. The number of skipped
+     * evaluations between two polls grows with the idle period up to the configured maximum.
+     */
+    public boolean isEvaluationSkippable(Long clusterId) {
+        YarnMetricsTimeSeries series = timeSeries.get(clusterId);
+        if (series == null) {
+            return false;
+        }
+        int idle = series.getIdleSampleCount();
+        if (idle < idleSamples) {
+            return false;
+        }
+        boolean skippable = series.skipEvaluation(Math.min(idle - idleSamples + 1, maxSkippedEvaluations));
+        if (skippable) {
+            LOGGER.debug("Cluster {} was idle in the last {} polls, the last poll was at {}", clusterId, idle, series.getLastTimestamp());
+        }
+        return skippable;
+    }
+
+    public void invalidate(Long clusterId) {
+        timeSeries.remove(clusterId);
+    }
+}
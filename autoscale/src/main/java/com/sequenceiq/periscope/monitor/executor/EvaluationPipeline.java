@@ -0,0 +1,246 @@
+package com.sequenceiq.periscope.monitor.executor;
+
+import static com.sequenceiq.periscope.domain.MetricType.EVALUATION_COALESCED;
+import static com.sequenceiq.periscope.domain.MetricType.EVALUATION_DROPPED_NOT_OWNED;
+import static com.sequenceiq.periscope.domain.MetricType.EVALUATION_WAIT_TIME;
+import static com.sequenceiq.periscope.domain.MetricType.THREADPOOL_EVALUATION_QUEUE_SIZE;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.periscope.monitor.evaluator.EvaluatorExecutor;
+import com.sequenceiq.periscope.service.ClusterService;
+import com.sequenceiq.periscope.service.PeriscopeMetricService;
+import com.sequenceiq.periscope.service.ha.PeriscopeNodeConfig;
+
+/**
+ * Queue of the evaluations requested by the monitors. The evaluations are dispatched to the executor only while it has free
+ * capacity, so an overloaded instance builds a backlog instead of dropping evaluations. The backlog is ordered by the priority of
+ * the monitor and then by the time the evaluation was due. An evaluation that is requested again while it is still queued is
+ * coalesced with the queued one.
+ * <p>
+ * The leader hands clusters off between the nodes, while their evaluations may still be queued on the previous owner. The evaluation
+ * of a cluster is therefore dispatched only if the cluster is still allocated to this node, otherwise it is dropped and the new owner
+ * evaluates the cluster with its own monitors.
+ */
+@Service
+public class EvaluationPipeline {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EvaluationPipeline.class);
+
+    private static final Comparator<PendingEvaluation> DISPATCH_ORDER = Comparator.comparing((PendingEvaluation e) -> e.priority)
+            .thenComparingLong(e -> e.dueTimeMillis)
+            .thenComparingLong(e -> e.sequence);
+
+    @Value("${periscope.evaluation.pipeline.max.inflight:${periscope.executorservice.pool.size:40}}")
+    private int maxInFlight;
+
+    @Value("${periscope.evaluation.pipeline.dispatch.interval.millis:200}")
+    private long dispatchIntervalMillis;
+
+    @Inject
+    private ExecutorServiceWithRegistry executorServiceWithRegistry;
+
+    @Inject
+    private PeriscopeMetricService metricService;
+
+    @Inject
+    private Clock clock;
+
+    @Inject
+    private ClusterService clusterService;
+
+    @Inject
+    private PeriscopeNodeConfig periscopeNodeConfig;
+
+    private final Object lock = new Object();
+
+    private final PriorityQueue<PendingEvaluation> queue = new PriorityQueue<>(DISPATCH_ORDER);
+
+    private final Map<EvaluationKey, PendingEvaluation> pendingEvaluations = new HashMap<>();
+
+    private long sequence;
+
+    private volatile boolean running;
+
+    private Thread dispatcher;
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        dispatcher = new ThreadFactoryBuilder().setNameFormat("autoscale-evaluation-dispatcher-%d").setDaemon(true).build()
+                .newThread(this::dispatch);
+        dispatcher.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+    }
+
+    /**
+     * Queues the evaluation of a resource. If the same evaluation of the resource is already queued, the queued one keeps the earlier
+     * due time and the higher priority of the two.
+     */
+    public void enqueue(EvaluatorExecutor evaluatorExecutor, long resourceId, EvaluationPriority priority, long dueTimeMillis) {
+        enqueue(evaluatorExecutor, resourceId, priority, dueTimeMillis, false);
+    }
+
+    /**
+     * Queues the evaluation of a resource. If {@code clusterOwnershipRequired} is set, the resource is a cluster and the evaluation is
+     * dropped at dispatch time if the cluster is not allocated to this node any more.
+     */
+    public void enqueue(EvaluatorExecutor evaluatorExecutor, long resourceId, EvaluationPriority priority, long dueTimeMillis,
+            boolean clusterOwnershipRequired) {
+        synchronized (lock) {
+            EvaluationKey key = new EvaluationKey(evaluatorExecutor.getName(), resourceId);
+            PendingEvaluation pendingEvaluation = pendingEvaluations.get(key);
+            if (pendingEvaluation == null) {
+                pendingEvaluation = new PendingEvaluation(key, evaluatorExecutor, clock.getCurrentTimeMillis());
+                pendingEvaluation.priority = priority;
+                pendingEvaluation.dueTimeMillis = dueTimeMillis;
+                pendingEvaluation.sequence = sequence++;
+                pendingEvaluation.clusterOwnershipRequired = clusterOwnershipRequired;
+                pendingEvaluations.put(key, pendingEvaluation);
+            } else {
+                LOGGER.debug("{} for resource {} is already queued, the evaluations are coalesced", key.evaluatorName, resourceId);
+                metricService.incrementMetricCounter(EVALUATION_COALESCED);
+                queue.remove(pendingEvaluation);
+                pendingEvaluation.priority = priority.compareTo(pendingEvaluation.priority) < 0 ? priority : pendingEvaluation.priority;
+                pendingEvaluation.dueTimeMillis = Math.min(dueTimeMillis, pendingEvaluation.dueTimeMillis);
+                pendingEvaluation.clusterOwnershipRequired |= clusterOwnershipRequired;
+            }
+            queue.add(pendingEvaluation);
+            metricService.submit(THREADPOOL_EVALUATION_QUEUE_SIZE, queue.size());
+            lock.notifyAll();
+        }
+    }
+
+    public int queueSize() {
+        synchronized (lock) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * Dispatches the next queued evaluation if the executor has free capacity.
+     *
+     * @return whether an evaluation was taken from the queue
+     */
+    boolean dispatchNext() {
+        PendingEvaluation next;
+        synchronized (lock) {
+            if (queue.isEmpty() || executorServiceWithRegistry.activeCount() >= maxInFlight) {
+                return false;
+            }
+            next = queue.poll();
+            pendingEvaluations.remove(next.key);
+            metricService.submit(THREADPOOL_EVALUATION_QUEUE_SIZE, queue.size());
+        }
+        if (next.clusterOwnershipRequired && !isClusterAllocatedToThisNode(next.key.resourceId)) {
+            LOGGER.info("{} for cluster {} is dropped, because the cluster is allocated to another node.", next.key.evaluatorName, next.key.resourceId);
+            metricService.incrementMetricCounter(EVALUATION_DROPPED_NOT_OWNED);
+            return true;
+        }
+        long waitMillis = clock.getCurrentTimeMillis() - next.enqueuedMillis;
+        metricService.recordTimerMetric(EVALUATION_WAIT_TIME, Duration.ofMillis(waitMillis), "evaluator", String.valueOf(next.key.evaluatorName));
+        try {
+            executorServiceWithRegistry.submitIfAbsent(next.evaluatorExecutor, next.key.resourceId);
+            LOGGER.debug("Dispatched {} for resource {} after {} ms in queue.", next.key.evaluatorName, next.key.resourceId, waitMillis);
+        } catch (RejectedExecutionException e) {
+            LOGGER.info("{} for resource {} is rejected by the executor.", next.key.evaluatorName, next.key.resourceId, e);
+        }
+        return true;
+    }
+
+    private boolean isClusterAllocatedToThisNode(long clusterId) {
+        return !periscopeNodeConfig.isNodeIdSpecified() || clusterService.isAllocatedToNode(clusterId, periscopeNodeConfig.getId());
+    }
+
+    private void dispatch() {
+        while (running) {
+            try {
+                if (!dispatchNext()) {
+                    synchronized (lock) {
+                        lock.wait(dispatchIntervalMillis);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.warn("Failed to dispatch evaluation.", e);
+            }
+        }
+    }
+
+    private static class PendingEvaluation {
+
+        private final EvaluationKey key;
+
+        private final EvaluatorExecutor evaluatorExecutor;
+
+        private final long enqueuedMillis;
+
+        private EvaluationPriority priority;
+
+        private long dueTimeMillis;
+
+        private long sequence;
+
+        private boolean clusterOwnershipRequired;
+
+        PendingEvaluation(EvaluationKey key, EvaluatorExecutor evaluatorExecutor, long enqueuedMillis) {
+            this.key = key;
+            this.evaluatorExecutor = evaluatorExecutor;
+            this.enqueuedMillis = enqueuedMillis;
+        }
+    }
+
+    private static class EvaluationKey {
+
+        private final String evaluatorName;
+
+        private final long resourceId;
+
+        EvaluationKey(String evaluatorName, long resourceId) {
+            this.evaluatorName = evaluatorName;
+            this.resourceId = resourceId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (o == null || !getClass().equals(o.getClass())) {
+                return false;
+            }
+            EvaluationKey that = (EvaluationKey) o;
+            return resourceId == that.resourceId && Objects.equals(evaluatorName, that.evaluatorName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(evaluatorName, resourceId);
+        }
+    }
+}
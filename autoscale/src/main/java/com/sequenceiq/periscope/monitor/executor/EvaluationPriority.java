@@ -0,0 +1,10 @@
+package com.sequenceiq.periscope.monitor.executor;
+
+/**
+ * Order in which the queued evaluations are dispatched, evaluations that lead to scaling decisions come first.
+ */
+public enum EvaluationPriority {
+    HIGH,
+    NORMAL,
+    LOW
+}
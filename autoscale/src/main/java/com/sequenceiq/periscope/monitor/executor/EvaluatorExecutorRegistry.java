@@ -2,6 +2,7 @@ package com.sequenceiq.periscope.monitor.executor;
 
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 
 import javax.inject.Inject;
@@ -49,9 +50,14 @@ public class EvaluatorExecutorRegistry {
         return false;
     }
 
-    public void remove(EvaluatorExecutor evaluator, long clusterId) {
+    /**
+     * Removes the evaluator of the cluster from the registry.
+     *
+     * @return the time the evaluator was submitted at or empty if it was not registered
+     */
+    public Optional<Long> remove(EvaluatorExecutor evaluator, long clusterId) {
         Element element = new Element(evaluator, clusterId);
-        submittedEvaluators.remove(element);
+        return Optional.ofNullable(submittedEvaluators.remove(element)).map(Element::getTimestampMillis);
     }
 
     public int activeCount() {
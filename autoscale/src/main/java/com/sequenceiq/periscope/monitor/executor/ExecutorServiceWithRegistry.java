@@ -1,5 +1,8 @@
 package com.sequenceiq.periscope.monitor.executor;
 
+import static com.sequenceiq.periscope.domain.MetricType.EVALUATION_RUN_TIME;
+
+import java.time.Duration;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 
@@ -10,7 +13,9 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
+import com.sequenceiq.cloudbreak.common.service.Clock;
 import com.sequenceiq.periscope.monitor.evaluator.EvaluatorExecutor;
+import com.sequenceiq.periscope.service.PeriscopeMetricService;
 
 @Service
 public class ExecutorServiceWithRegistry {
@@ -24,6 +29,12 @@ public class ExecutorServiceWithRegistry {
     @Qualifier("periscopeListeningScheduledExecutorService")
     private ExecutorService executorService;
 
+    @Inject
+    private PeriscopeMetricService metricService;
+
+    @Inject
+    private Clock clock;
+
     public void submitIfAbsent(EvaluatorExecutor evaluatorExecutor, long resourceId) {
         if (evaluatorExecutorRegistry.putIfAbsent(evaluatorExecutor, resourceId)) {
             try {
@@ -38,7 +49,8 @@ public class ExecutorServiceWithRegistry {
     }
 
     public void finished(EvaluatorExecutor evaluator, long clusterId) {
-        evaluatorExecutorRegistry.remove(evaluator, clusterId);
+        evaluatorExecutorRegistry.remove(evaluator, clusterId).ifPresent(submittedAt -> metricService.recordTimerMetric(EVALUATION_RUN_TIME,
+                Duration.ofMillis(clock.getCurrentTimeMillis() - submittedAt), "evaluator", String.valueOf(evaluator.getName())));
     }
 
     public int activeCount() {
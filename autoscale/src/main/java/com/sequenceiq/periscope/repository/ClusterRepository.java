@@ -1,5 +1,6 @@
 package com.sequenceiq.periscope.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -87,10 +88,24 @@ public interface ClusterRepository extends CrudRepository<Cluster, Long> {
     @Query("UPDATE Cluster c SET c.periscopeNodeId = NULL WHERE c.periscopeNodeId = :periscopeNodeId")
     void deallocateClustersOfNode(@Param("periscopeNodeId") String periscopeNodeId);
 
+    @Query("SELECT c.periscopeNodeId FROM Cluster c WHERE c.id = :clusterId")
+    Optional<String> findPeriscopeNodeIdById(@Param("clusterId") Long clusterId);
+
+    @Query("SELECT c.id FROM Cluster c WHERE c.periscopeNodeId = :periscopeNodeId")
+    List<Long> findClusterIdsByPeriscopeNodeId(@Param("periscopeNodeId") String periscopeNodeId);
+
+    @Modifying
+    @Query("UPDATE Cluster c SET c.periscopeNodeId = :periscopeNodeId WHERE c.id IN (:clusterIds)")
+    void allocateClustersToNode(@Param("clusterIds") Collection<Long> clusterIds, @Param("periscopeNodeId") String periscopeNodeId);
+
     @Modifying
     @Query("UPDATE Cluster c SET c.lastEvaluated = :lastEvaluated WHERE c.id = :clusterId")
     void setClusterLastEvaluated(@Param("clusterId") Long clusterId, @Param("lastEvaluated") Long lastEvaluated);
 
+    @Modifying
+    @Query("UPDATE Cluster c SET c.lastEvaluated = :lastEvaluated WHERE c.id IN (:clusterIds)")
+    void setClustersLastEvaluated(@Param("clusterIds") Collection<Long> clusterIds, @Param("lastEvaluated") Long lastEvaluated);
+
     @Modifying
     @Query("UPDATE Cluster c SET c.environmentCrn = :environmentCrn WHERE c.id = :clusterId")
     void setEnvironmentCrn(@Param("clusterId") Long clusterId, @Param("environmentCrn") String environmentCrn);
@@ -6,6 +6,7 @@ import static com.sequenceiq.periscope.common.MessageCode.CLUSTER_EXISTS_FOR_CRN
 import static com.sequenceiq.periscope.service.NotFoundException.notFound;
 import static org.springframework.util.StringUtils.isEmpty;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -226,6 +227,10 @@ public class ClusterService {
         clusterRepository.setClusterLastEvaluated(clusterId, lastEvaluated);
     }
 
+    public void setLastEvaluated(Collection<Long> clusterIds, Long lastEvaluated) {
+        clusterRepository.setClustersLastEvaluated(clusterIds, lastEvaluated);
+    }
+
     public void setEnvironmentCrn(Long clusterId, String environmentCrn) {
         clusterRepository.setEnvironmentCrn(clusterId, environmentCrn);
     }
@@ -246,6 +251,10 @@ public class ClusterService {
         return clusterRepository.findAllByPeriscopeNodeId(nodeId);
     }
 
+    public boolean isAllocatedToNode(Long clusterId, String nodeId) {
+        return clusterRepository.findPeriscopeNodeIdById(clusterId).map(nodeId::equals).orElse(Boolean.FALSE);
+    }
+
     public List<Cluster> findAllByStateAndNode(ClusterState state, String nodeId) {
         return clusterRepository.findByStateAndPeriscopeNodeId(state, nodeId);
     }
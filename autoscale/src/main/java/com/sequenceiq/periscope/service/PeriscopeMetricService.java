@@ -20,7 +20,7 @@ public class PeriscopeMetricService extends AbstractMetricService {
     @PostConstruct
     protected void init() {
         Arrays.stream(MetricType.values())
-                .filter(m -> !gaugeMetric(m))
+                .filter(m -> !gaugeMetric(m) && !timerMetric(m))
                 .forEach(this::initMicrometerMetricCounter);
 
         Arrays.stream(MetricType.values())
@@ -32,4 +32,8 @@ public class PeriscopeMetricService extends AbstractMetricService {
     protected Optional<String> getMetricPrefix() {
         return Optional.of(METRIC_PREFIX);
     }
+
+    private boolean timerMetric(MetricType metric) {
+        return metric.getMetricName().endsWith(".time");
+    }
 }
@@ -26,6 +26,7 @@ import com.sequenceiq.periscope.domain.ScalingActivity;
 import com.sequenceiq.periscope.model.ScalingAdjustmentType;
 import com.sequenceiq.periscope.model.yarn.YarnScalingServiceV1Response;
 import com.sequenceiq.periscope.monitor.client.YarnMetricsClient;
+import com.sequenceiq.periscope.monitor.evaluator.load.YarnMetricsTimeSeriesStore;
 import com.sequenceiq.periscope.monitor.evaluator.load.YarnResponseUtils;
 import com.sequenceiq.periscope.monitor.sender.ScalingEventSender;
 import com.sequenceiq.periscope.utils.ClusterUtils;
@@ -65,6 +66,9 @@ public class YarnBasedScalingAdjustmentService {
     @Inject
     private ScalingEventSender eventSender;
 
+    @Inject
+    private YarnMetricsTimeSeriesStore yarnMetricsTimeSeriesStore;
+
     public void pollYarnMetricsAndScaleCluster(Cluster cluster, String pollingUserCrn, boolean stopStartEnabled, StackV4Response stackV4Response)
             throws Exception {
 
@@ -114,6 +118,11 @@ public class YarnBasedScalingAdjustmentService {
         allowedDownscale = Math.min(allowedDownscale, loadAlertConfiguration.getMaxScaleDownStepSize());
         List<String> yarnRecommendedDecommissionHosts =
                 yarnResponseUtils.getYarnRecommendedDecommissionHostsForHostGroup(yarnResponse, policyHostGroupInstanceInfo.getHostFqdnsToInstanceId());
+        int smoothedDecommissionCount = yarnMetricsTimeSeriesStore.recordAndGetDecommissionCount(cluster.getId(), clock.getCurrentTimeMillis(),
+                yarnRecommendedScaleUpCount, yarnRecommendedDecommissionHosts.size());
+        if (maxDecommissionNodeCount.isEmpty()) {
+            allowedDownscale = Math.min(allowedDownscale, smoothedDecommissionCount);
+        }
         List<String> finalHostsToDecommission = yarnRecommendedDecommissionHosts.stream()
                 .limit(allowedDownscale).collect(Collectors.toList());
 
@@ -147,6 +156,7 @@ public class YarnBasedScalingAdjustmentService {
         LoadAlert loadAlert = policyHostGroupInstanceInfo.getLoadAlert();
         StringBuilder sb = new StringBuilder(yarnRecommendationMessage);
         if (upscalable(cluster, loadAlert.getLoadAlertConfiguration(), finalScaleUpCount)) {
+            yarnMetricsTimeSeriesStore.invalidate(cluster.getId());
             ScalingActivity scalingActivity =
                     scalingActivityService.create(cluster, METRICS_COLLECTION_SUCCESS, sb.append(UPSCALE_MESSAGE).toString(), clock.getCurrentTimeMillis());
             if (STOPSTART.equals(adjustmentType)) {
@@ -158,6 +168,7 @@ public class YarnBasedScalingAdjustmentService {
                         policyHostGroupInstanceInfo.getServicesHealthyInstanceIds().size(), finalScaleUpCount, scalingActivity.getId());
             }
         } else if (downscalable(cluster, loadAlert.getLoadAlertConfiguration(), hostsToDecommission)) {
+            yarnMetricsTimeSeriesStore.invalidate(cluster.getId());
             ScalingActivity scalingActivity = scalingActivityService.create(cluster, METRICS_COLLECTION_SUCCESS, sb.append(DOWNSCALE_MESSAGE).toString(),
                     clock.getCurrentTimeMillis());
             eventSender.sendScaleDownEvent(loadAlert, policyHostGroupInstanceInfo.getServicesHealthyInstanceIds().size(), hostsToDecommission,
@@ -0,0 +1,51 @@
+package com.sequenceiq.periscope.service.ha;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Maps clusters to periscope nodes with consistent hashing. Every node is placed on the ring with a number of virtual nodes, a
+ * cluster belongs to the first virtual node following its hash. When a node joins or leaves only the clusters of the ring segments
+ * next to its virtual nodes change their owner, every other cluster stays on its node.
+ */
+public class ConsistentHashRing {
+
+    private static final HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    private final Set<String> nodeIds;
+
+    public ConsistentHashRing(Collection<String> nodeIds, int virtualNodes) {
+        this.nodeIds = new TreeSet<>(nodeIds);
+        for (String nodeId : this.nodeIds) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(hash(nodeId + '#' + i), nodeId);
+            }
+        }
+    }
+
+    public Set<String> getNodeIds() {
+        return nodeIds;
+    }
+
+    public String getOwner(Long clusterId) {
+        if (ring.isEmpty()) {
+            throw new IllegalStateException("There is no periscope node on the hash ring");
+        }
+        Map.Entry<Long, String> owner = ring.ceilingEntry(hash(String.valueOf(clusterId)));
+        return owner == null ? ring.firstEntry().getValue() : owner.getValue();
+    }
+
+    private static long hash(String key) {
+        return HASH_FUNCTION.hashString(key, StandardCharsets.UTF_8).asLong();
+    }
+}
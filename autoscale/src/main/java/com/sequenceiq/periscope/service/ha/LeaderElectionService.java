@@ -4,11 +4,14 @@ import static com.sequenceiq.periscope.service.NotFoundException.notFound;
 
 import java.time.ZonedDateTime;
 import java.time.temporal.ChronoUnit;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.function.Supplier;
@@ -50,6 +53,12 @@ public class LeaderElectionService {
     @Value("${periscope.ha.heartbeat.threshold:60000}")
     private Integer heartbeatThresholdRate;
 
+    @Value("${periscope.ha.ring.virtual.nodes:100}")
+    private Integer virtualNodes;
+
+    @Value("${periscope.ha.rebalance.max.clusters:500}")
+    private Integer maxClustersPerRebalance;
+
     @Inject
     private ApplicationContext applicationContext;
 
@@ -78,6 +87,8 @@ public class LeaderElectionService {
 
     private Supplier<Timer> timerFactory = Timer::new;
 
+    private Set<String> balancedNodeIds = Collections.emptySet();
+
     @PostConstruct
     public void init() {
         timer = timerFactory.get();
@@ -91,6 +102,7 @@ public class LeaderElectionService {
                 metricService.submit(MetricType.LEADER, 0);
                 LOGGER.info("There is no active leader available");
                 resetTimer();
+                balancedNodeIds = Collections.emptySet();
                 try {
                     transactionService.required(() -> {
                         periscopeNodeRepository.deallocateLeader();
@@ -133,21 +145,71 @@ public class LeaderElectionService {
             return;
         }
         List<String> nodeIds = activeNodes.stream().map(PeriscopeNode::getUuid).collect(Collectors.toList());
+        ConsistentHashRing ring = new ConsistentHashRing(nodeIds, virtualNodes);
+        int budget = maxClustersPerRebalance;
         List<Cluster> orphanClusters = clusterRepository.findAllByPeriscopeNodeIdNotInOrPeriscopeNodeIdIsNull(nodeIds);
         if (!orphanClusters.isEmpty()) {
-            Iterator<PeriscopeNode> iterator = activeNodes.iterator();
-            for (Cluster cluster : orphanClusters) {
-                if (!iterator.hasNext()) {
-                    iterator = activeNodes.iterator();
-                }
+            List<Cluster> allocatedClusters = orphanClusters.subList(0, Math.min(orphanClusters.size(), budget));
+            for (Cluster cluster : allocatedClusters) {
                 if (isExecutionOfMissedTimeBasedAlertsNeeded(cluster)) {
                     LOGGER.info("Executing missed alerts on cluster {}", cluster.getId());
                     executeMissedTimeBasedAlerts(cluster);
                 }
-                cluster.setPeriscopeNodeId(iterator.next().getUuid());
+                cluster.setPeriscopeNodeId(ring.getOwner(cluster.getId()));
                 LOGGER.info("Allocationg cluster {} to node {}", cluster.getId(), cluster.getPeriscopeNodeId());
             }
-            clusterRepository.saveAll(orphanClusters);
+            clusterRepository.saveAll(allocatedClusters);
+            budget -= allocatedClusters.size();
+            if (allocatedClusters.size() < orphanClusters.size()) {
+                LOGGER.info("{} orphan clusters are left for the next allocation round", orphanClusters.size() - allocatedClusters.size());
+                return;
+            }
+        }
+        rebalanceClusters(ring, budget);
+    }
+
+    private void rebalanceClusters(ConsistentHashRing ring, int budget) {
+        if (ring.getNodeIds().equals(balancedNodeIds)) {
+            return;
+        }
+        Map<String, List<Long>> handoffs = new HashMap<>();
+        int moved = 0;
+        for (String nodeId : ring.getNodeIds()) {
+            for (Long clusterId : clusterRepository.findClusterIdsByPeriscopeNodeId(nodeId)) {
+                String owner = ring.getOwner(clusterId);
+                if (!owner.equals(nodeId)) {
+                    if (moved == budget) {
+                        allocateClusters(handoffs);
+                        LOGGER.info("Moved {} clusters towards their owner on the hash ring, continuing in the next round", moved);
+                        return;
+                    }
+                    handoffs.computeIfAbsent(owner, k -> new ArrayList<>()).add(clusterId);
+                    moved++;
+                }
+            }
+        }
+        if (allocateClusters(handoffs)) {
+            LOGGER.info("Moved {} clusters towards their owner on the hash ring, cluster allocation is balanced on nodes {}", moved, ring.getNodeIds());
+            balancedNodeIds = ring.getNodeIds();
+        }
+    }
+
+    private boolean allocateClusters(Map<String, List<Long>> handoffs) {
+        if (handoffs.isEmpty()) {
+            return true;
+        }
+        try {
+            transactionService.required(() -> {
+                handoffs.forEach((nodeId, clusterIds) -> {
+                    LOGGER.debug("Handing off clusters {} to node {}", clusterIds, nodeId);
+                    clusterRepository.allocateClustersToNode(clusterIds, nodeId);
+                });
+                return null;
+            });
+            return true;
+        } catch (TransactionExecutionException e) {
+            LOGGER.error("Unable to hand off clusters to their owner nodes", e);
+            return false;
         }
     }
 
@@ -27,6 +27,7 @@ import com.sequenceiq.periscope.monitor.executor.EvaluatorExecutorRegistry;
 import com.sequenceiq.periscope.monitor.executor.ExecutorServiceWithRegistry;
 import com.sequenceiq.periscope.monitor.handler.PersistRejectedThreadExecutionHandler;
 import com.sequenceiq.periscope.service.ClusterService;
+import com.sequenceiq.periscope.service.PeriscopeMetricService;
 import com.sequenceiq.periscope.service.RejectedThreadService;
 import com.sequenceiq.periscope.service.configuration.CloudbreakClientConfiguration;
 import com.sequenceiq.periscope.service.ha.PeriscopeNodeConfig;
@@ -51,7 +52,7 @@ public class RejectedThreadContext {
                     })
     )
     @MockBean({Clock.class, ClusterService.class, CloudbreakClientConfiguration.class,
-            MetricUtils.class, RegionAwareInternalCrnGenerator.class})
+            MetricUtils.class, RegionAwareInternalCrnGenerator.class, PeriscopeMetricService.class})
     @EnableAsync
     @Profile("devtest")
     public static class SpringConfig implements AsyncConfigurer {
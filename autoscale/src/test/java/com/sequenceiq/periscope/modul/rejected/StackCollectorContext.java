@@ -30,6 +30,7 @@ import com.sequenceiq.periscope.monitor.handler.PersistRejectedThreadExecutionHa
 import com.sequenceiq.periscope.notification.HttpNotificationSender;
 import com.sequenceiq.periscope.service.ClusterService;
 import com.sequenceiq.periscope.service.HistoryService;
+import com.sequenceiq.periscope.service.PeriscopeMetricService;
 import com.sequenceiq.periscope.service.RejectedThreadService;
 import com.sequenceiq.periscope.service.configuration.CloudbreakClientConfiguration;
 import com.sequenceiq.periscope.service.ha.PeriscopeNodeConfig;
@@ -55,7 +56,8 @@ public class StackCollectorContext {
                     })
     )
     @MockBean({ClusterService.class, CloudbreakClientConfiguration.class, TlsSecurityService.class, SecurityConfigService.class,
-            HistoryService.class, HttpNotificationSender.class, MetricUtils.class, Clock.class, ClouderaManagerApiFactory.class, SecretService.class})
+            HistoryService.class, HttpNotificationSender.class, MetricUtils.class, Clock.class, ClouderaManagerApiFactory.class, SecretService.class,
+            PeriscopeMetricService.class})
     @EnableAsync
     @Profile("devtest")
     public static class StackCollectorSpringConfig implements AsyncConfigurer {
@@ -1,6 +1,7 @@
 package com.sequenceiq.periscope.monitor;
 
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -23,7 +24,8 @@ import com.sequenceiq.periscope.api.model.ClusterState;
 import com.sequenceiq.periscope.domain.Cluster;
 import com.sequenceiq.periscope.monitor.context.EvaluatorContext;
 import com.sequenceiq.periscope.monitor.evaluator.EvaluatorExecutor;
-import com.sequenceiq.periscope.monitor.executor.ExecutorServiceWithRegistry;
+import com.sequenceiq.periscope.monitor.executor.EvaluationPipeline;
+import com.sequenceiq.periscope.monitor.executor.EvaluationPriority;
 import com.sequenceiq.periscope.service.ClusterService;
 import com.sequenceiq.periscope.service.RejectedThreadService;
 import com.sequenceiq.periscope.service.ha.PeriscopeNodeConfig;
@@ -44,7 +46,7 @@ public class AbstractMonitorTest {
     private ApplicationContext applicationContext;
 
     @Mock
-    private ExecutorServiceWithRegistry executorServiceWithRegistry;
+    private EvaluationPipeline evaluationPipeline;
 
     @Mock
     private RejectedThreadService rejectedThreadService;
@@ -69,7 +71,7 @@ public class AbstractMonitorTest {
 
         underTest.execute(getContext());
 
-        verify(executorServiceWithRegistry).submitIfAbsent(testExecutor, CLUSTER_ID);
+        verify(evaluationPipeline).enqueue(eq(testExecutor), eq(CLUSTER_ID), eq(EvaluationPriority.NORMAL), anyLong(), eq(false));
         verify(monitored).setLastEvaluated(anyLong());
         verify(rejectedThreadService).remove(CLUSTER_ID);
     }
@@ -83,7 +85,7 @@ public class AbstractMonitorTest {
         when(jobExecutionContext.getJobDetail()).thenReturn(jobDetail);
         when(jobDetail.getJobDataMap()).thenReturn(jobDataMap);
         when(jobDataMap.get("APPLICATION_CONTEXT")).thenReturn(applicationContext);
-        when(applicationContext.getBean(ExecutorServiceWithRegistry.class)).thenReturn(executorServiceWithRegistry);
+        when(applicationContext.getBean(EvaluationPipeline.class)).thenReturn(evaluationPipeline);
         when(applicationContext.getBean(ClusterService.class)).thenReturn(clusterService);
         when(applicationContext.getBean(PeriscopeNodeConfig.class)).thenReturn(periscopeNodeConfig);
         when(applicationContext.getBean(testExecutor.getClass().getSimpleName(), EvaluatorExecutor.class)).thenReturn(testExecutor);
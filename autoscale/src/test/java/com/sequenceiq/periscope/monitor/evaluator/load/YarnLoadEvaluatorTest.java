@@ -94,6 +94,9 @@ public class YarnLoadEvaluatorTest {
     @Mock
     private RegularScalingAdjustmentService regularScalingAdjustmentService;
 
+    @Mock
+    private YarnMetricsTimeSeriesStore yarnMetricsTimeSeriesStore;
+
     @Captor
     private ArgumentCaptor<MandatoryScalingAdjustmentParameters> adjustmentParamsCaptor;
 
@@ -121,6 +124,18 @@ public class YarnLoadEvaluatorTest {
         verifyNoInteractions(cloudbreakCommunicator, stopStartScalingAdjustmentService, yarnBasedScalingAdjustmentService);
     }
 
+    @Test
+    void testExecuteSkippedForIdleCluster() {
+        Cluster cluster = getARunningCluster();
+        doReturn(cluster).when(clusterService).findById(anyLong());
+        doReturn(true).when(yarnMetricsTimeSeriesStore).isEvaluationSkippable(AUTOSCALE_CLUSTER_ID);
+        underTest.setContext(new ClusterIdEvaluatorContext(AUTOSCALE_CLUSTER_ID));
+
+        underTest.execute();
+
+        verifyNoInteractions(cloudbreakCommunicator, stopStartScalingAdjustmentService, yarnBasedScalingAdjustmentService);
+    }
+
     @Test
     void testExecutePollingUserCrnFallsBackToUserCrnIfMachineUserNotInitialised() throws Exception {
         Cluster cluster = getARunningCluster();
@@ -0,0 +1,79 @@
+package com.sequenceiq.periscope.monitor.evaluator.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class YarnMetricsTimeSeriesStoreTest {
+
+    private static final Long CLUSTER_ID = 1L;
+
+    private final YarnMetricsTimeSeriesStore underTest = new YarnMetricsTimeSeriesStore();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(underTest, "historySize", 5);
+        ReflectionTestUtils.setField(underTest, "downscaleWindow", 3);
+        ReflectionTestUtils.setField(underTest, "idleSamples", 2);
+        ReflectionTestUtils.setField(underTest, "maxSkippedEvaluations", 2);
+        ReflectionTestUtils.setField(underTest, "expiryMinutes", 60L);
+        underTest.init();
+    }
+
+    @Test
+    void testDecommissionCountIsSmoothedOverWindow() {
+        assertEquals(0, underTest.recordAndGetDecommissionCount(CLUSTER_ID, 1L, 0, 4));
+        assertEquals(0, underTest.recordAndGetDecommissionCount(CLUSTER_ID, 2L, 0, 2));
+        assertEquals(2, underTest.recordAndGetDecommissionCount(CLUSTER_ID, 3L, 0, 5));
+        assertEquals(2, underTest.recordAndGetDecommissionCount(CLUSTER_ID, 4L, 0, 3));
+        assertEquals(3, underTest.recordAndGetDecommissionCount(CLUSTER_ID, 5L, 0, 6));
+        assertEquals(0, underTest.recordAndGetDecommissionCount(CLUSTER_ID, 6L, 0, 0));
+    }
+
+    @Test
+    void testInvalidateResetsHistory() {
+        underTest.recordAndGetDecommissionCount(CLUSTER_ID, 1L, 0, 4);
+        underTest.recordAndGetDecommissionCount(CLUSTER_ID, 2L, 0, 4);
+        underTest.invalidate(CLUSTER_ID);
+
+        assertEquals(0, underTest.recordAndGetDecommissionCount(CLUSTER_ID, 3L, 0, 4));
+    }
+
+    @Test
+    void testEvaluationIsNotSkippableWithoutHistory() {
+        assertFalse(underTest.isEvaluationSkippable(CLUSTER_ID));
+    }
+
+    @Test
+    void testEvaluationIsNotSkippableWhenClusterIsBusy() {
+        underTest.recordAndGetDecommissionCount(CLUSTER_ID, 1L, 0, 0);
+        underTest.recordAndGetDecommissionCount(CLUSTER_ID, 2L, 3, 0);
+
+        assertFalse(underTest.isEvaluationSkippable(CLUSTER_ID));
+    }
+
+    @Test
+    void testSkippedEvaluationsGrowWithIdlePeriod() {
+        underTest.recordAndGetDecommissionCount(CLUSTER_ID, 1L, 0, 0);
+        underTest.recordAndGetDecommissionCount(CLUSTER_ID, 2L, 0, 0);
+
+        assertTrue(underTest.isEvaluationSkippable(CLUSTER_ID));
+        assertFalse(underTest.isEvaluationSkippable(CLUSTER_ID));
+
+        underTest.recordAndGetDecommissionCount(CLUSTER_ID, 3L, 0, 0);
+
+        assertTrue(underTest.isEvaluationSkippable(CLUSTER_ID));
+        assertTrue(underTest.isEvaluationSkippable(CLUSTER_ID));
+        assertFalse(underTest.isEvaluationSkippable(CLUSTER_ID));
+
+        underTest.recordAndGetDecommissionCount(CLUSTER_ID, 4L, 0, 0);
+
+        assertTrue(underTest.isEvaluationSkippable(CLUSTER_ID));
+        assertTrue(underTest.isEvaluationSkippable(CLUSTER_ID));
+        assertFalse(underTest.isEvaluationSkippable(CLUSTER_ID));
+    }
+}
@@ -0,0 +1,142 @@
+package com.sequenceiq.periscope.monitor.executor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.periscope.domain.MetricType;
+import com.sequenceiq.periscope.monitor.evaluator.EvaluatorExecutor;
+import com.sequenceiq.periscope.service.ClusterService;
+import com.sequenceiq.periscope.service.PeriscopeMetricService;
+import com.sequenceiq.periscope.service.ha.PeriscopeNodeConfig;
+
+public class EvaluationPipelineTest {
+
+    private static final int MAX_IN_FLIGHT = 2;
+
+    private static final String NODE_ID = "node1";
+
+    @Mock
+    private ExecutorServiceWithRegistry executorServiceWithRegistry;
+
+    @Mock
+    private PeriscopeMetricService metricService;
+
+    @Mock
+    private Clock clock;
+
+    @Mock
+    private ClusterService clusterService;
+
+    @Mock
+    private PeriscopeNodeConfig periscopeNodeConfig;
+
+    @InjectMocks
+    private EvaluationPipeline underTest;
+
+    @BeforeEach
+    public void setup() {
+        MockitoAnnotations.initMocks(this);
+        ReflectionTestUtils.setField(underTest, "maxInFlight", MAX_IN_FLIGHT);
+    }
+
+    @Test
+    public void testHigherPriorityAndEarlierDueTimeAreDispatchedFirst() {
+        EvaluatorExecutor update = getEvaluatorExecutor("update");
+        EvaluatorExecutor lateLoad = getEvaluatorExecutor("load");
+        EvaluatorExecutor earlyLoad = getEvaluatorExecutor("load");
+        underTest.enqueue(update, 1L, EvaluationPriority.NORMAL, 100L);
+        underTest.enqueue(lateLoad, 2L, EvaluationPriority.HIGH, 300L);
+        underTest.enqueue(earlyLoad, 3L, EvaluationPriority.HIGH, 200L);
+
+        dispatchAll();
+
+        InOrder inOrder = inOrder(executorServiceWithRegistry);
+        inOrder.verify(executorServiceWithRegistry).submitIfAbsent(earlyLoad, 3L);
+        inOrder.verify(executorServiceWithRegistry).submitIfAbsent(lateLoad, 2L);
+        inOrder.verify(executorServiceWithRegistry).submitIfAbsent(update, 1L);
+        assertEquals(0, underTest.queueSize());
+    }
+
+    @Test
+    public void testQueuedEvaluationsAreCoalesced() {
+        EvaluatorExecutor first = getEvaluatorExecutor("load");
+        EvaluatorExecutor second = getEvaluatorExecutor("load");
+        EvaluatorExecutor other = getEvaluatorExecutor("update");
+        underTest.enqueue(first, 1L, EvaluationPriority.NORMAL, 300L);
+        underTest.enqueue(other, 2L, EvaluationPriority.NORMAL, 200L);
+        underTest.enqueue(second, 1L, EvaluationPriority.NORMAL, 100L);
+
+        assertEquals(2, underTest.queueSize());
+        dispatchAll();
+
+        InOrder inOrder = inOrder(executorServiceWithRegistry);
+        inOrder.verify(executorServiceWithRegistry).submitIfAbsent(first, 1L);
+        inOrder.verify(executorServiceWithRegistry).submitIfAbsent(other, 2L);
+        verify(executorServiceWithRegistry, never()).submitIfAbsent(second, 1L);
+        verify(metricService).incrementMetricCounter(MetricType.EVALUATION_COALESCED);
+    }
+
+    @Test
+    public void testEvaluationsWaitWhileTheExecutorIsFull() {
+        when(executorServiceWithRegistry.activeCount()).thenReturn(MAX_IN_FLIGHT);
+        underTest.enqueue(getEvaluatorExecutor("load"), 1L, EvaluationPriority.HIGH, 100L);
+
+        assertFalse(underTest.dispatchNext());
+        verify(executorServiceWithRegistry, never()).submitIfAbsent(any(), anyLong());
+        assertEquals(1, underTest.queueSize());
+
+        when(executorServiceWithRegistry.activeCount()).thenReturn(MAX_IN_FLIGHT - 1);
+        assertTrue(underTest.dispatchNext());
+        assertEquals(0, underTest.queueSize());
+    }
+
+    @Test
+    public void testEvaluationOfClusterHandedOffToAnotherNodeIsDropped() {
+        when(periscopeNodeConfig.isNodeIdSpecified()).thenReturn(true);
+        when(periscopeNodeConfig.getId()).thenReturn(NODE_ID);
+        when(clusterService.isAllocatedToNode(1L, NODE_ID)).thenReturn(true);
+        when(clusterService.isAllocatedToNode(2L, NODE_ID)).thenReturn(false);
+        EvaluatorExecutor owned = getEvaluatorExecutor("load");
+        EvaluatorExecutor handedOff = getEvaluatorExecutor("load");
+        underTest.enqueue(owned, 1L, EvaluationPriority.HIGH, 100L, true);
+        underTest.enqueue(handedOff, 2L, EvaluationPriority.HIGH, 200L, true);
+
+        dispatchAll();
+
+        verify(executorServiceWithRegistry).submitIfAbsent(owned, 1L);
+        verify(executorServiceWithRegistry, never()).submitIfAbsent(handedOff, 2L);
+        verify(metricService).incrementMetricCounter(MetricType.EVALUATION_DROPPED_NOT_OWNED);
+        assertEquals(0, underTest.queueSize());
+    }
+
+    private void dispatchAll() {
+        int dispatched = 0;
+        while (underTest.dispatchNext()) {
+            dispatched++;
+        }
+        assertTrue(dispatched > 0);
+    }
+
+    private EvaluatorExecutor getEvaluatorExecutor(String name) {
+        EvaluatorExecutor evaluatorExecutor = mock(EvaluatorExecutor.class);
+        when(evaluatorExecutor.getName()).thenReturn(name);
+        return evaluatorExecutor;
+    }
+}
@@ -9,6 +9,8 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 
@@ -18,7 +20,10 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.periscope.domain.MetricType;
 import com.sequenceiq.periscope.monitor.evaluator.EvaluatorExecutor;
+import com.sequenceiq.periscope.service.PeriscopeMetricService;
 
 public class ExecutorServiceWithRegistryTest {
 
@@ -30,6 +35,12 @@ public class ExecutorServiceWithRegistryTest {
     @Mock
     private ExecutorService executorService;
 
+    @Mock
+    private PeriscopeMetricService metricService;
+
+    @Mock
+    private Clock clock;
+
     @InjectMocks
     private ExecutorServiceWithRegistry executorServiceWithRegistry;
 
@@ -74,6 +85,16 @@ public class ExecutorServiceWithRegistryTest {
         verify(evaluatorExecutorRegistry).remove(any(), eq(CLUSTER_ID));
     }
 
+    @Test
+    public void testFinishedRecordsRunTime() {
+        when(evaluatorExecutorRegistry.remove(any(), eq(CLUSTER_ID))).thenReturn(Optional.of(1000L));
+        when(clock.getCurrentTimeMillis()).thenReturn(1500L);
+
+        executorServiceWithRegistry.finished(getEvaluatorExecutor(), CLUSTER_ID);
+
+        verify(metricService).recordTimerMetric(MetricType.EVALUATION_RUN_TIME, Duration.ofMillis(500L), "evaluator", "");
+    }
+
     private EvaluatorExecutor getEvaluatorExecutor() {
         EvaluatorExecutor evaluatorExecutor = mock(EvaluatorExecutor.class);
         when(evaluatorExecutor.getName()).thenReturn("");
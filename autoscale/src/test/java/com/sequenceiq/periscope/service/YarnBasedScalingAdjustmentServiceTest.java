@@ -18,6 +18,7 @@ import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
@@ -57,6 +58,7 @@ import com.sequenceiq.periscope.model.ScalingAdjustmentType;
 import com.sequenceiq.periscope.model.yarn.YarnScalingServiceV1Response;
 import com.sequenceiq.periscope.monitor.client.YarnMetricsClient;
 import com.sequenceiq.periscope.monitor.evaluator.EventPublisher;
+import com.sequenceiq.periscope.monitor.evaluator.load.YarnMetricsTimeSeriesStore;
 import com.sequenceiq.periscope.monitor.evaluator.load.YarnResponseUtils;
 import com.sequenceiq.periscope.monitor.event.ScalingEvent;
 import com.sequenceiq.periscope.monitor.sender.ScalingEventSender;
@@ -111,6 +113,9 @@ class YarnBasedScalingAdjustmentServiceTest {
     @Mock
     private ScalingActivity scalingActivity;
 
+    @Mock
+    private YarnMetricsTimeSeriesStore yarnMetricsTimeSeriesStore;
+
     @Captor
     private ArgumentCaptor<ScalingEvent> eventCaptor;
 
@@ -120,6 +125,8 @@ class YarnBasedScalingAdjustmentServiceTest {
     @BeforeEach
     void setUp() {
         ReflectionTestUtils.setField(scalingEventSender, "eventPublisher", eventPublisher);
+        lenient().when(yarnMetricsTimeSeriesStore.recordAndGetDecommissionCount(anyLong(), anyLong(), anyInt(), anyInt()))
+                .thenAnswer(invocation -> invocation.getArgument(3));
     }
 
     public static Stream<Arguments> dataUpScaling() {
@@ -0,0 +1,79 @@
+package com.sequenceiq.periscope.service.ha;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+
+class ConsistentHashRingTest {
+
+    private static final int VIRTUAL_NODES = 100;
+
+    private static final long CLUSTER_COUNT = 10000L;
+
+    @Test
+    void testOwnerIsStableForSameNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node1", "node2", "node3"), VIRTUAL_NODES);
+        ConsistentHashRing sameRing = new ConsistentHashRing(List.of("node3", "node1", "node2"), VIRTUAL_NODES);
+
+        LongStream.range(0L, CLUSTER_COUNT).forEach(id -> assertEquals(ring.getOwner(id), sameRing.getOwner(id)));
+    }
+
+    @Test
+    void testClustersAreSpreadOnNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node1", "node2", "node3", "node4"), VIRTUAL_NODES);
+
+        Map<String, Long> clustersPerNode = LongStream.range(0L, CLUSTER_COUNT).boxed()
+                .collect(Collectors.groupingBy(ring::getOwner, Collectors.counting()));
+
+        assertEquals(4, clustersPerNode.size());
+        clustersPerNode.values().forEach(count -> assertTrue(count > CLUSTER_COUNT / 8, "Cluster allocation is skewed: " + clustersPerNode));
+    }
+
+    @Test
+    void testAddingNodeMovesClustersOnlyToNewNode() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node1", "node2", "node3"), VIRTUAL_NODES);
+        ConsistentHashRing scaledRing = new ConsistentHashRing(List.of("node1", "node2", "node3", "node4"), VIRTUAL_NODES);
+
+        Map<Long, String> owners = ownersOf(ring);
+        Map<Long, String> newOwners = ownersOf(scaledRing);
+
+        long moved = owners.keySet().stream().filter(id -> !owners.get(id).equals(newOwners.get(id))).count();
+        owners.keySet().stream()
+                .filter(id -> !owners.get(id).equals(newOwners.get(id)))
+                .forEach(id -> assertEquals("node4", newOwners.get(id)));
+        assertTrue(moved < CLUSTER_COUNT / 2, "Too many clusters moved: " + moved);
+    }
+
+    @Test
+    void testRemovingNodeMovesOnlyItsClusters() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("node1", "node2", "node3"), VIRTUAL_NODES);
+        ConsistentHashRing shrunkRing = new ConsistentHashRing(List.of("node1", "node3"), VIRTUAL_NODES);
+
+        Map<Long, String> owners = ownersOf(ring);
+        Map<Long, String> newOwners = ownersOf(shrunkRing);
+
+        owners.keySet().stream()
+                .filter(id -> !"node2".equals(owners.get(id)))
+                .forEach(id -> assertEquals(owners.get(id), newOwners.get(id)));
+    }
+
+    @Test
+    void testEmptyRing() {
+        ConsistentHashRing ring = new ConsistentHashRing(Collections.emptyList(), VIRTUAL_NODES);
+
+        assertThrows(IllegalStateException.class, () -> ring.getOwner(1L));
+    }
+
+    private Map<Long, String> ownersOf(ConsistentHashRing ring) {
+        return LongStream.range(0L, CLUSTER_COUNT).boxed().collect(Collectors.toMap(Function.identity(), ring::getOwner));
+    }
+}
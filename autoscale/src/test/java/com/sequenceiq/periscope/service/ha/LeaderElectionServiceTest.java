@@ -1,5 +1,6 @@
 package com.sequenceiq.periscope.service.ha;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
@@ -7,6 +8,7 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -16,13 +18,17 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -88,6 +94,8 @@ class LeaderElectionServiceTest {
         when(clock.getCurrentTimeMillis()).thenReturn(5000L);
         lenient().when(applicationContext.getBean(eq("CronTimeEvaluator"), eq(CronTimeEvaluator.class))).thenReturn(cronTimeEvaluator);
         ReflectionTestUtils.setField(underTest, "heartbeatThresholdRate", 70000);
+        ReflectionTestUtils.setField(underTest, "virtualNodes", 100);
+        ReflectionTestUtils.setField(underTest, "maxClustersPerRebalance", 2);
     }
 
     @Test
@@ -161,6 +169,52 @@ class LeaderElectionServiceTest {
         verify(clusterRepository, times(1)).saveAll(any(List.class));
     }
 
+    @Test
+    void testReallocateOrphanClustersIsBoundedPerRound() {
+        when(periscopeNodeRepository.countByLeaderIsTrueAndLastUpdatedIsGreaterThan(anyLong())).thenReturn(0L);
+        SpyTimer spyTimer = new SpyTimer();
+        when(timerFactory.get()).thenReturn(spyTimer);
+        PeriscopeNode leader = new PeriscopeNode("nodeid");
+        leader.setLeader(true);
+        when(periscopeNodeRepository.findAllByLastUpdatedIsGreaterThan(anyLong())).thenReturn(Collections.singletonList(leader));
+        when(clusterRepository.findAllByPeriscopeNodeIdNotInOrPeriscopeNodeIdIsNull(any()))
+                .thenReturn(List.of(getCluster(1L), getCluster(2L), getCluster(3L)));
+
+        underTest.leaderElection();
+
+        spyTimer.lastTask.run();
+
+        ArgumentCaptor<List<Cluster>> captor = ArgumentCaptor.forClass(List.class);
+        verify(clusterRepository, times(1)).saveAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertTrue(captor.getValue().stream().allMatch(cluster -> "nodeid".equals(cluster.getPeriscopeNodeId())));
+        verify(clusterRepository, never()).findClusterIdsByPeriscopeNodeId(anyString());
+    }
+
+    @Test
+    void testRebalanceMovesClustersToRingOwnerWithinBudget() throws TransactionExecutionException {
+        when(periscopeNodeRepository.countByLeaderIsTrueAndLastUpdatedIsGreaterThan(anyLong())).thenReturn(0L);
+        when(transactionService.required(any(Supplier.class))).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        SpyTimer spyTimer = new SpyTimer();
+        when(timerFactory.get()).thenReturn(spyTimer);
+        PeriscopeNode leader = new PeriscopeNode("nodeid");
+        leader.setLeader(true);
+        PeriscopeNode newNode = new PeriscopeNode("newnodeid");
+        when(periscopeNodeRepository.findById("nodeid")).thenReturn(Optional.of(leader));
+        when(periscopeNodeRepository.findAllByLastUpdatedIsGreaterThan(anyLong())).thenReturn(List.of(leader, newNode));
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("nodeid", "newnodeid"), 100);
+        List<Long> clusterIds = LongStream.rangeClosed(1L, 50L).boxed().collect(Collectors.toList());
+        List<Long> misplacedIds = clusterIds.stream().filter(id -> "newnodeid".equals(ring.getOwner(id))).collect(Collectors.toList());
+        when(clusterRepository.findClusterIdsByPeriscopeNodeId("nodeid")).thenReturn(clusterIds);
+
+        underTest.leaderElection();
+
+        spyTimer.lastTask.run();
+
+        verify(clusterRepository, times(1)).allocateClustersToNode(eq(misplacedIds.subList(0, 2)), eq("newnodeid"));
+        verify(clusterRepository, never()).saveAll(any(List.class));
+    }
+
     @Test
     void testIsExecutionOfMissedTimeBasedAlertsNeededNoPeriscopeNodeId() {
         Cluster cluster = getValidIsMissedNeeded();
@@ -256,6 +310,12 @@ class LeaderElectionServiceTest {
         verify(cronTimeEvaluator, times(1)).publishIfNeeded(eq(expectedAlerts));
     }
 
+    private Cluster getCluster(Long id) {
+        Cluster cluster = new Cluster();
+        cluster.setId(id);
+        return cluster;
+    }
+
     private Cluster getValidIsMissedNeeded() {
         Cluster cluster = new Cluster();
         cluster.setPeriscopeNodeId("");
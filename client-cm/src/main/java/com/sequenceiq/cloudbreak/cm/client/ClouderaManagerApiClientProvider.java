@@ -2,6 +2,7 @@ package com.sequenceiq.cloudbreak.cm.client;
 
 import java.util.concurrent.TimeUnit;
 
+import javax.inject.Inject;
 import javax.net.ssl.SSLContext;
 
 import org.apache.commons.lang3.StringUtils;
@@ -12,6 +13,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import com.cloudera.api.swagger.client.ApiClient;
+import com.squareup.okhttp.OkHttpClient;
 import com.sequenceiq.cloudbreak.client.CertificateTrustManager;
 import com.sequenceiq.cloudbreak.client.HttpClientConfig;
 import com.sequenceiq.cloudbreak.client.KeyStoreUtil;
@@ -47,6 +49,12 @@ public class ClouderaManagerApiClientProvider {
     @Value("${cb.cm.client.write.timeout.seconds}")
     private Integer writeTimeoutSeconds;
 
+    @Value("${cb.cm.client.pool.enabled:true}")
+    private boolean clientPoolEnabled;
+
+    @Inject
+    private ClouderaManagerHttpClientPool httpClientPool;
+
     public ApiClient getDefaultClient(Integer gatewayPort, HttpClientConfig clientConfig, String apiVersion) throws ClouderaManagerClientInitException {
         ApiClient client = getClouderaManagerClient(clientConfig, gatewayPort, "admin", "admin", apiVersion);
         if (clientConfig.isClusterProxyEnabled()) {
@@ -88,25 +96,35 @@ public class ClouderaManagerApiClientProvider {
             throws ClouderaManagerClientInitException {
         try {
             ApiClient cmClient = new ApiClient();
+            String endpoint;
             if (clientConfig.isClusterProxyEnabled()) {
-                cmClient.setBasePath(clientConfig.getClusterProxyUrl() + "/proxy/" + clientConfig.getClusterCrn() + "/cb-internal" + context);
+                endpoint = clientConfig.getClusterProxyUrl() + "/proxy/" + clientConfig.getClusterCrn() + "/cb-internal";
                 cmClient.addDefaultHeader("Proxy-Ignore-Auth", "true");
                 cmClient.addDefaultHeader("Proxy-With-Timeout", clusterProxyTimeout.toString());
             } else if (port != null && !HostUtil.hasPort(clientConfig.getApiAddress())) {
-                cmClient.setBasePath("https://" + clientConfig.getApiAddress() + ':' + port + context);
+                endpoint = "https://" + clientConfig.getApiAddress() + ':' + port;
+            } else {
+                endpoint = "https://" + clientConfig.getApiAddress();
+            }
+            cmClient.setBasePath(endpoint + context);
+            cmClient.setUsername(userName);
+            cmClient.setPassword(password);
+            if (clientPoolEnabled) {
+                cmClient.setHttpClient(httpClientPool.getHttpClient(endpoint, clientConfig, () -> createHttpClient(clientConfig)));
             } else {
-                cmClient.setBasePath("https://" + clientConfig.getApiAddress() + context);
+                cmClient.setHttpClient(createHttpClient(clientConfig));
             }
-            return decorateClient(clientConfig, userName, password, cmClient);
+            return cmClient;
+        } catch (ClouderaManagerClientInitException e) {
+            throw e;
         } catch (Exception e) {
             LOGGER.warn("Couldn't create client", e);
             throw new ClouderaManagerClientInitException("Couldn't create client", e);
         }
     }
 
-    private ApiClient decorateClient(HttpClientConfig clientConfig, String userName, String password, ApiClient cmClient) throws Exception {
-        cmClient.setUsername(userName);
-        cmClient.setPassword(password);
+    private OkHttpClient createHttpClient(HttpClientConfig clientConfig) throws ClouderaManagerClientInitException {
+        ApiClient cmClient = new ApiClient();
         cmClient.setVerifyingSsl(true);
         try {
             if (isCmSslConfigValidClientConfigValid(clientConfig) && !clientConfig.isClusterProxyEnabled()) {
@@ -120,7 +138,7 @@ public class ClouderaManagerApiClientProvider {
             cmClient.getHttpClient().setConnectTimeout(Long.valueOf(connectTimeoutSeconds), TimeUnit.SECONDS);
             cmClient.getHttpClient().setReadTimeout(Long.valueOf(readTimeoutSeconds), TimeUnit.SECONDS);
             cmClient.getHttpClient().setWriteTimeout(Long.valueOf(writeTimeoutSeconds), TimeUnit.SECONDS);
-            return cmClient;
+            return cmClient.getHttpClient();
         } catch (Exception e) {
             LOGGER.info("Cannot create SSL context for Cloudera Manager", e);
             throw new ClouderaManagerClientInitException("Couldn't create client", e);
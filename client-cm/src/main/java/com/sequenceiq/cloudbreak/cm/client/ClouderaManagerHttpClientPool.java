@@ -0,0 +1,190 @@
+package com.sequenceiq.cloudbreak.cm.client;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.squareup.okhttp.ConnectionPool;
+import com.squareup.okhttp.OkHttpClient;
+import com.sequenceiq.cloudbreak.client.HttpClientConfig;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.metrics.type.MetricTag;
+import com.sequenceiq.cloudbreak.common.metrics.type.MetricType;
+
+/**
+ * Bounded pool of the HTTP clients used to reach the Cloudera Manager of a cluster. A pooled client holds the SSL socket factory and a
+ * keep-alive connection pool of one endpoint and TLS configuration, so consecutive API clients of the same cluster reuse the open
+ * connections and TLS sessions instead of doing a new handshake for every call. The key contains the fingerprint of the certificates,
+ * a certificate rotation therefore starts a new pooled client, the old one is evicted when it is not used anymore. Credentials are not
+ * part of the pooled client, they are set on every API client.
+ */
+@Component
+public class ClouderaManagerHttpClientPool {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClouderaManagerHttpClientPool.class);
+
+    @Value("${cb.cm.client.pool.max.size:1000}")
+    private long maxSize;
+
+    @Value("${cb.cm.client.pool.idle.minutes:30}")
+    private long idleMinutes;
+
+    @Value("${cb.cm.client.pool.max.idle.connections:5}")
+    private int maxIdleConnections;
+
+    @Value("${cb.cm.client.pool.keep.alive.seconds:300}")
+    private long keepAliveSeconds;
+
+    @Inject
+    private Optional<MetricService> metricService;
+
+    private Cache<PoolKey, PooledHttpClient> clients;
+
+    @PostConstruct
+    public void init() {
+        clients = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(idleMinutes, TimeUnit.MINUTES)
+                .removalListener(this::onRemoval)
+                .build();
+        metricService.ifPresent(ms -> ms.registerGaugeMetric(MetricType.CM_CLIENT_POOL_SIZE, clients, Cache::size, Map.of()));
+    }
+
+    /**
+     * Returns a copy of the pooled HTTP client of the endpoint, the copy shares the connection pool and the SSL socket factory of the
+     * pooled client but can be configured by the caller without affecting other callers.
+     */
+    public OkHttpClient getHttpClient(String endpoint, HttpClientConfig clientConfig, HttpClientFactory httpClientFactory) throws Exception {
+        PoolKey key = new PoolKey(endpoint, clientConfig);
+        try {
+            return clients.get(key, () -> createPooledClient(key, httpClientFactory)).copy();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+        }
+    }
+
+    public void invalidate(String endpoint) {
+        clients.asMap().keySet().removeIf(key -> key.endpoint.equals(endpoint));
+    }
+
+    public long size() {
+        return clients.size();
+    }
+
+    private PooledHttpClient createPooledClient(PoolKey key, HttpClientFactory httpClientFactory) throws Exception {
+        LOGGER.debug("Creating pooled Cloudera Manager HTTP client for {}", key.endpoint);
+        OkHttpClient httpClient = httpClientFactory.create();
+        httpClient.setConnectionPool(new ConnectionPool(maxIdleConnections, TimeUnit.SECONDS.toMillis(keepAliveSeconds)));
+        PooledHttpClient pooledHttpClient = new PooledHttpClient(key.endpoint, httpClient);
+        if (httpClient.getSslSocketFactory() != null) {
+            httpClient.setSslSocketFactory(new HandshakeCountingSslSocketFactory(httpClient.getSslSocketFactory(),
+                    () -> pooledHttpClient.recordHandshake(metricService)));
+        }
+        httpClient.networkInterceptors().add(chain -> {
+            pooledHttpClient.recordRequest(metricService);
+            return chain.proceed(chain.request());
+        });
+        return pooledHttpClient;
+    }
+
+    private void onRemoval(RemovalNotification<PoolKey, PooledHttpClient> notification) {
+        PooledHttpClient pooledHttpClient = notification.getValue();
+        if (pooledHttpClient != null) {
+            LOGGER.debug("Pooled Cloudera Manager HTTP client of {} is removed ({}), requests: {}, TLS handshakes: {}", pooledHttpClient.endpoint,
+                    notification.getCause(), pooledHttpClient.requests.sum(), pooledHttpClient.handshakes.sum());
+            pooledHttpClient.httpClient.getConnectionPool().evictAll();
+        }
+    }
+
+    @FunctionalInterface
+    public interface HttpClientFactory {
+
+        OkHttpClient create() throws Exception;
+    }
+
+    private static class PooledHttpClient {
+
+        private final String endpoint;
+
+        private final OkHttpClient httpClient;
+
+        private final LongAdder requests = new LongAdder();
+
+        private final LongAdder handshakes = new LongAdder();
+
+        PooledHttpClient(String endpoint, OkHttpClient httpClient) {
+            this.endpoint = endpoint;
+            this.httpClient = httpClient;
+        }
+
+        OkHttpClient copy() {
+            return httpClient.clone();
+        }
+
+        void recordRequest(Optional<MetricService> metricService) {
+            requests.increment();
+            metricService.ifPresent(ms -> ms.incrementMetricCounter(MetricType.CM_CLIENT_REQUEST, MetricTag.URI.name(), endpoint));
+        }
+
+        void recordHandshake(Optional<MetricService> metricService) {
+            handshakes.increment();
+            metricService.ifPresent(ms -> ms.incrementMetricCounter(MetricType.CM_CLIENT_TLS_HANDSHAKE, MetricTag.URI.name(), endpoint));
+        }
+    }
+
+    private static class PoolKey {
+
+        private final String endpoint;
+
+        private final boolean clusterProxyEnabled;
+
+        private final String tlsFingerprint;
+
+        PoolKey(String endpoint, HttpClientConfig clientConfig) {
+            this.endpoint = endpoint;
+            clusterProxyEnabled = clientConfig.isClusterProxyEnabled();
+            Hasher hasher = Hashing.sha256().newHasher();
+            for (String tlsMaterial : new String[]{clientConfig.getServerCert(), clientConfig.getClientCert(), clientConfig.getClientKey()}) {
+                hasher.putString(Objects.toString(tlsMaterial, ""), UTF_8).putChar('\0');
+            }
+            tlsFingerprint = hasher.hash().toString();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            PoolKey poolKey = (PoolKey) o;
+            return clusterProxyEnabled == poolKey.clusterProxyEnabled
+                    && Objects.equals(endpoint, poolKey.endpoint)
+                    && Objects.equals(tlsFingerprint, poolKey.tlsFingerprint);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(endpoint, clusterProxyEnabled, tlsFingerprint);
+        }
+    }
+}
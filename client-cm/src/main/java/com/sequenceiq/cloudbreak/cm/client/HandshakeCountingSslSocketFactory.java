@@ -0,0 +1,63 @@
+package com.sequenceiq.cloudbreak.cm.client;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+
+import javax.net.ssl.SSLSocketFactory;
+
+/**
+ * Delegating socket factory which reports every new TLS socket. OkHttp creates a TLS socket only for a new connection, requests on a
+ * pooled keep-alive connection do not reach the factory, so the reported count is the number of TLS handshakes.
+ */
+class HandshakeCountingSslSocketFactory extends SSLSocketFactory {
+
+    private final SSLSocketFactory delegate;
+
+    private final Runnable handshakeListener;
+
+    HandshakeCountingSslSocketFactory(SSLSocketFactory delegate, Runnable handshakeListener) {
+        this.delegate = delegate;
+        this.handshakeListener = handshakeListener;
+    }
+
+    @Override
+    public String[] getDefaultCipherSuites() {
+        return delegate.getDefaultCipherSuites();
+    }
+
+    @Override
+    public String[] getSupportedCipherSuites() {
+        return delegate.getSupportedCipherSuites();
+    }
+
+    @Override
+    public Socket createSocket(Socket socket, String host, int port, boolean autoClose) throws IOException {
+        handshakeListener.run();
+        return delegate.createSocket(socket, host, port, autoClose);
+    }
+
+    @Override
+    public Socket createSocket(String host, int port) throws IOException {
+        handshakeListener.run();
+        return delegate.createSocket(host, port);
+    }
+
+    @Override
+    public Socket createSocket(String host, int port, InetAddress localHost, int localPort) throws IOException {
+        handshakeListener.run();
+        return delegate.createSocket(host, port, localHost, localPort);
+    }
+
+    @Override
+    public Socket createSocket(InetAddress host, int port) throws IOException {
+        handshakeListener.run();
+        return delegate.createSocket(host, port);
+    }
+
+    @Override
+    public Socket createSocket(InetAddress address, int port, InetAddress localAddress, int localPort) throws IOException {
+        handshakeListener.run();
+        return delegate.createSocket(address, port, localAddress, localPort);
+    }
+}
@@ -0,0 +1,90 @@
+package com.sequenceiq.cloudbreak.cm.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.squareup.okhttp.OkHttpClient;
+import com.sequenceiq.cloudbreak.client.HttpClientConfig;
+
+class ClouderaManagerHttpClientPoolTest {
+
+    private static final String ENDPOINT = "https://cm.example.com:9443";
+
+    private static final String OTHER_ENDPOINT = "https://other.example.com:9443";
+
+    private static final int CONNECT_TIMEOUT_SECONDS = 10;
+
+    private final AtomicInteger createdClients = new AtomicInteger();
+
+    private ClouderaManagerHttpClientPool underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new ClouderaManagerHttpClientPool();
+        ReflectionTestUtils.setField(underTest, "maxSize", 10L);
+        ReflectionTestUtils.setField(underTest, "idleMinutes", 1L);
+        ReflectionTestUtils.setField(underTest, "maxIdleConnections", 1);
+        ReflectionTestUtils.setField(underTest, "keepAliveSeconds", 1L);
+        ReflectionTestUtils.setField(underTest, "metricService", Optional.empty());
+        underTest.init();
+    }
+
+    @Test
+    void testClientsOfTheSameEndpointShareTheConnectionPool() throws Exception {
+        HttpClientConfig clientConfig = new HttpClientConfig("cm.example.com", "serverCert", "clientCert", "clientKey");
+
+        OkHttpClient first = underTest.getHttpClient(ENDPOINT, clientConfig, this::createHttpClient);
+        OkHttpClient second = underTest.getHttpClient(ENDPOINT, clientConfig, this::createHttpClient);
+
+        assertEquals(1, createdClients.get());
+        assertNotSame(first, second);
+        assertSame(first.getConnectionPool(), second.getConnectionPool());
+    }
+
+    @Test
+    void testCopiesCanBeConfiguredIndependently() throws Exception {
+        HttpClientConfig clientConfig = new HttpClientConfig("cm.example.com");
+
+        OkHttpClient first = underTest.getHttpClient(ENDPOINT, clientConfig, this::createHttpClient);
+        first.setConnectTimeout(1, TimeUnit.SECONDS);
+        OkHttpClient second = underTest.getHttpClient(ENDPOINT, clientConfig, this::createHttpClient);
+
+        assertEquals(TimeUnit.SECONDS.toMillis(CONNECT_TIMEOUT_SECONDS), second.getConnectTimeout());
+    }
+
+    @Test
+    void testRotatedCertificatesAndOtherEndpointsGetNewClient() throws Exception {
+        underTest.getHttpClient(ENDPOINT, new HttpClientConfig("cm.example.com", "serverCert", "clientCert", "clientKey"), this::createHttpClient);
+        underTest.getHttpClient(ENDPOINT, new HttpClientConfig("cm.example.com", "serverCert", "rotatedCert", "rotatedKey"), this::createHttpClient);
+        underTest.getHttpClient(OTHER_ENDPOINT, new HttpClientConfig("other.example.com"), this::createHttpClient);
+
+        assertEquals(3, createdClients.get());
+    }
+
+    @Test
+    void testInvalidate() throws Exception {
+        HttpClientConfig clientConfig = new HttpClientConfig("cm.example.com");
+        underTest.getHttpClient(ENDPOINT, clientConfig, this::createHttpClient);
+
+        underTest.invalidate(ENDPOINT);
+        underTest.getHttpClient(ENDPOINT, clientConfig, this::createHttpClient);
+
+        assertEquals(2, createdClients.get());
+    }
+
+    private OkHttpClient createHttpClient() {
+        createdClients.incrementAndGet();
+        OkHttpClient httpClient = new OkHttpClient();
+        httpClient.setConnectTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        return httpClient;
+    }
+}
@@ -8,8 +8,9 @@ import org.springframework.context.annotation.Configuration;
 
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.sequenceiq.cloudbreak.logger.concurrent.MDCCleanerScheduledExecutor;
+import com.sequenceiq.cloudbreak.logger.concurrent.ThreadFactories;
+import com.sequenceiq.cloudbreak.logger.concurrent.ThreadMode;
 
 @Configuration
 public class CloudApiExecutorServiceConfiguration {
@@ -17,11 +18,14 @@ public class CloudApiExecutorServiceConfiguration {
     @Value("${cb.cloud.api.executorservice.pool.size:40}")
     private int executorServicePoolSize;
 
+    @Value("${cb.cloud.api.executorservice.thread.mode:${cb.executor.thread.mode:PLATFORM}}")
+    private ThreadMode threadMode;
+
     @Bean
     ListeningScheduledExecutorService cloudApiListeningScheduledExecutorService() {
         return MoreExecutors
                 .listeningDecorator(new MDCCleanerScheduledExecutor(executorServicePoolSize,
-                        new ThreadFactoryBuilder().setNameFormat("cloud-api-%d").build(),
+                        ThreadFactories.create(threadMode, "cloud-api", false),
                         new CallerRunsPolicy()));
     }
 }
@@ -10,9 +10,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.sequenceiq.cloudbreak.cloud.model.TagSpecification;
 import com.sequenceiq.cloudbreak.logger.concurrent.MDCCopyingThreadPoolExecutor;
+import com.sequenceiq.cloudbreak.logger.concurrent.ThreadFactories;
+import com.sequenceiq.cloudbreak.logger.concurrent.ThreadMode;
 
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
@@ -48,6 +49,9 @@ public class AzureConfig {
     @Value("${cb.azure.client.thread.keepAliveTimeInSeconds:20}")
     private Integer azureClientThreadKeepAliveTimeInSeconds;
 
+    @Value("${cb.azure.client.thread.mode:${cb.executor.thread.mode:PLATFORM}}")
+    private ThreadMode azureClientThreadMode;
+
     @Bean(name = "AzureTagSpecification")
     public TagSpecification getTagSpecification() {
         return new TagSpecification(maxAmount, minKeyLength, maxKeyLength, keyValidator, minValueLength, maxValueLength, valueValidator);
@@ -57,7 +61,7 @@ public class AzureConfig {
     public ExecutorService azureClientThreadPool(MeterRegistry meterRegistry) {
         ExecutorService threadPoolExecutor = new MDCCopyingThreadPoolExecutor(
                 0, Integer.MAX_VALUE, azureClientThreadKeepAliveTimeInSeconds, TimeUnit.SECONDS, new SynchronousQueue<>(),
-                new ThreadFactoryBuilder().setDaemon(true).setNameFormat(AZURE_CLIENT_THREAD_POOL + "-%s").build(),
+                ThreadFactories.create(azureClientThreadMode, AZURE_CLIENT_THREAD_POOL, true),
                 (r, executor) -> LOGGER.error("Task has been rejected from 'azure-worker' threadpool. Executor state: " + executor));
         return ExecutorServiceMetrics.monitor(meterRegistry, threadPoolExecutor, AZURE_CLIENT_THREAD_POOL, "threadpool");
     }
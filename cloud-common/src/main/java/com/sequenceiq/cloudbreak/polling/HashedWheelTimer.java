@@ -0,0 +1,213 @@
+package com.sequenceiq.cloudbreak.polling;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Approximate timer for a large number of short lived timeouts. Timeouts are hashed into the buckets of a wheel by their deadline, one
+ * thread advances the wheel in every tick and hands the expired timeouts over to the executor, so scheduling and cancelling is O(1) and
+ * no thread is parked per timeout. A timeout fires at most one tick later than its deadline.
+ */
+public class HashedWheelTimer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private final long tickNanos;
+
+    private final int mask;
+
+    private final List<List<Timeout>> wheel;
+
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+
+    private final Executor executor;
+
+    private final Thread workerThread;
+
+    private volatile long startTime;
+
+    private volatile boolean stopped;
+
+    private long tick;
+
+    public HashedWheelTimer(ThreadFactory threadFactory, Executor executor, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (tickDuration <= 0 || ticksPerWheel <= 0) {
+            throw new IllegalArgumentException("Tick duration and ticks per wheel must be positive.");
+        }
+        int wheelSize = Integer.highestOneBit(ticksPerWheel - 1) << 1;
+        wheelSize = Math.max(wheelSize, 1);
+        tickNanos = unit.toNanos(tickDuration);
+        mask = wheelSize - 1;
+        wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.executor = executor;
+        workerThread = threadFactory.newThread(this::run);
+    }
+
+    public synchronized void start() {
+        if (startTime == 0) {
+            startTime = System.nanoTime();
+            workerThread.start();
+        }
+    }
+
+    public void stop() {
+        stopped = true;
+        workerThread.interrupt();
+    }
+
+    /**
+     * Schedules the task to be executed on the executor of the timer after the given delay.
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        if (stopped) {
+            throw new RejectedExecutionException("Timer has been stopped.");
+        }
+        start();
+        Timeout timeout = new Timeout(task, System.nanoTime() - startTime + unit.toNanos(Math.max(delay, 0)));
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Returns the number of timeouts which are neither expired nor cancelled.
+     */
+    public int pendingTimeouts() {
+        int pending = (int) pendingTimeouts.stream().filter(timeout -> !timeout.isCancelled()).count();
+        synchronized (wheel) {
+            for (List<Timeout> bucket : wheel) {
+                pending += (int) bucket.stream().filter(timeout -> !timeout.isCancelled()).count();
+            }
+        }
+        return pending;
+    }
+
+    private void run() {
+        while (!stopped) {
+            long deadline = waitForNextTick();
+            if (deadline >= 0) {
+                synchronized (wheel) {
+                    transferPendingTimeouts();
+                    expireTimeouts(wheel.get((int) (tick & mask)), deadline);
+                }
+                tick++;
+            }
+        }
+        LOGGER.debug("Hashed wheel timer stopped with {} pending timeouts.", pendingTimeouts());
+    }
+
+    private long waitForNextTick() {
+        long deadline = tickNanos * (tick + 1);
+        while (!stopped) {
+            long currentTime = System.nanoTime() - startTime;
+            long sleepNanos = deadline - currentTime;
+            if (sleepNanos <= 0) {
+                return currentTime;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                if (stopped) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        return -1;
+    }
+
+    private void transferPendingTimeouts() {
+        Timeout timeout = pendingTimeouts.poll();
+        while (timeout != null) {
+            if (!timeout.isCancelled()) {
+                long calculatedTick = timeout.deadline / tickNanos;
+                timeout.remainingRounds = (calculatedTick - tick) / wheel.size();
+                long bucketTick = Math.max(calculatedTick, tick);
+                wheel.get((int) (bucketTick & mask)).add(timeout);
+            }
+            timeout = pendingTimeouts.poll();
+        }
+    }
+
+    private void expireTimeouts(List<Timeout> bucket, long deadline) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.isCancelled()) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                iterator.remove();
+                fire(timeout);
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    private void fire(Timeout timeout) {
+        if (timeout.expire()) {
+            try {
+                executor.execute(timeout.task);
+            } catch (RejectedExecutionException e) {
+                LOGGER.warn("Timeout task was rejected by the executor.", e);
+            }
+        }
+    }
+
+    public static class Timeout {
+
+        private static final int WAITING = 0;
+
+        private static final int CANCELLED = 1;
+
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+
+        private final long deadline;
+
+        private long remainingRounds;
+
+        private int state = WAITING;
+
+        Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        public synchronized boolean cancel() {
+            if (state == WAITING) {
+                state = CANCELLED;
+                return true;
+            }
+            return false;
+        }
+
+        public synchronized boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        public synchronized boolean isExpired() {
+            return state == EXPIRED;
+        }
+
+        private synchronized boolean expire() {
+            if (state == WAITING) {
+                state = EXPIRED;
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.sequenceiq.cloudbreak.polling;
+
+/**
+ * One attempt of an asynchronous poll executed by the {@link PollingEngine}. An exception thrown by the attempt completes the poll
+ * exceptionally.
+ */
+@FunctionalInterface
+public interface PollingAttempt<R> {
+
+    PollingAttemptResult<R> attempt() throws Exception;
+}
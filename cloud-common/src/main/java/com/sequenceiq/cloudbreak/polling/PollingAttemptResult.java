@@ -0,0 +1,56 @@
+package com.sequenceiq.cloudbreak.polling;
+
+public class PollingAttemptResult<R> {
+
+    private final boolean finished;
+
+    private final R result;
+
+    private final Exception exception;
+
+    private final long nextDelayMillis;
+
+    private PollingAttemptResult(boolean finished, R result, Exception exception, long nextDelayMillis) {
+        this.finished = finished;
+        this.result = result;
+        this.exception = exception;
+        this.nextDelayMillis = nextDelayMillis;
+    }
+
+    public static <R> PollingAttemptResult<R> finish(R result) {
+        return new PollingAttemptResult<>(true, result, null, 0L);
+    }
+
+    public static <R> PollingAttemptResult<R> fail(Exception exception) {
+        return new PollingAttemptResult<>(true, null, exception, 0L);
+    }
+
+    public static <R> PollingAttemptResult<R> continueAfter(long delayMillis) {
+        return new PollingAttemptResult<>(false, null, null, delayMillis);
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public R getResult() {
+        return result;
+    }
+
+    public Exception getException() {
+        return exception;
+    }
+
+    public long getNextDelayMillis() {
+        return nextDelayMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "PollingAttemptResult{"
+                + "finished=" + finished
+                + ", exception=" + exception
+                + ", nextDelayMillis=" + nextDelayMillis
+                + '}';
+    }
+}
@@ -0,0 +1,127 @@
+package com.sequenceiq.cloudbreak.polling;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sequenceiq.cloudbreak.logger.concurrent.MDCCleanerThreadPoolExecutor;
+import com.sequenceiq.cloudbreak.logger.concurrent.ThreadFactories;
+import com.sequenceiq.cloudbreak.logger.concurrent.ThreadMode;
+
+/**
+ * Runs polls without parking a thread between the attempts. The waits are kept in a {@link HashedWheelTimer} and the attempts are
+ * executed on a small worker pool, so the number of in-flight polls is not limited by the number of threads. The MDC context of the
+ * caller is propagated to every attempt of the poll.
+ */
+@Component
+public class PollingEngine {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PollingEngine.class);
+
+    private final ExecutorService workers;
+
+    private final HashedWheelTimer timer;
+
+    public PollingEngine(@Value("${cb.polling.engine.worker.threads:8}") int workerThreads,
+            @Value("${cb.polling.engine.tick.millis:100}") long tickMillis,
+            @Value("${cb.polling.engine.ticks.per.wheel:512}") int ticksPerWheel) {
+        workers = new MDCCleanerThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                ThreadFactories.create(ThreadMode.PLATFORM, "polling-engine", true), new ThreadPoolExecutor.AbortPolicy());
+        timer = new HashedWheelTimer(ThreadFactories.create(ThreadMode.PLATFORM, "polling-engine-timer", true), workers, tickMillis,
+                TimeUnit.MILLISECONDS, ticksPerWheel);
+        LOGGER.info("Polling engine created with {} worker threads and {} ms timer ticks.", workerThreads, tickMillis);
+    }
+
+    /**
+     * Executes the attempt after the initial delay and then again after the delay returned by the previous attempt, until an attempt
+     * finishes or fails. Cancelling the returned future stops the poll before its next attempt.
+     */
+    public <R> CompletableFuture<R> poll(PollingAttempt<R> attempt, long initialDelayMillis) {
+        PollingRun<R> run = new PollingRun<>(attempt, MDC.getCopyOfContextMap());
+        run.future.whenComplete((result, throwable) -> {
+            if (run.future.isCancelled()) {
+                HashedWheelTimer.Timeout timeout = run.nextAttempt.get();
+                if (timeout != null) {
+                    timeout.cancel();
+                }
+            }
+        });
+        schedule(run, initialDelayMillis);
+        return run.future;
+    }
+
+    public int pendingPolls() {
+        return timer.pendingTimeouts();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.stop();
+        workers.shutdownNow();
+    }
+
+    private <R> void schedule(PollingRun<R> run, long delayMillis) {
+        if (run.future.isDone()) {
+            return;
+        }
+        try {
+            run.nextAttempt.set(timer.newTimeout(() -> executeAttempt(run), delayMillis, TimeUnit.MILLISECONDS));
+            if (run.future.isCancelled()) {
+                run.nextAttempt.get().cancel();
+            }
+        } catch (RejectedExecutionException e) {
+            run.future.completeExceptionally(e);
+        }
+    }
+
+    private <R> void executeAttempt(PollingRun<R> run) {
+        if (run.future.isDone()) {
+            return;
+        }
+        if (run.mdcContext != null) {
+            MDC.setContextMap(run.mdcContext);
+        }
+        try {
+            PollingAttemptResult<R> result = run.attempt.attempt();
+            if (!result.isFinished()) {
+                schedule(run, result.getNextDelayMillis());
+            } else if (result.getException() != null) {
+                run.future.completeExceptionally(result.getException());
+            } else {
+                run.future.complete(result.getResult());
+            }
+        } catch (Exception e) {
+            LOGGER.debug("Polling attempt failed with exception, the poll is finished.", e);
+            run.future.completeExceptionally(e);
+        }
+    }
+
+    private static class PollingRun<R> {
+
+        private final PollingAttempt<R> attempt;
+
+        private final Map<String, String> mdcContext;
+
+        private final CompletableFuture<R> future = new CompletableFuture<>();
+
+        private final AtomicReference<HashedWheelTimer.Timeout> nextAttempt = new AtomicReference<>();
+
+        PollingRun(PollingAttempt<R> attempt, Map<String, String> mdcContext) {
+            this.attempt = attempt;
+            this.mdcContext = mdcContext;
+        }
+    }
+}
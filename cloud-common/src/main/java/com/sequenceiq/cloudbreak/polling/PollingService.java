@@ -1,5 +1,10 @@
 package com.sequenceiq.cloudbreak.polling;
 
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import javax.inject.Inject;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
@@ -11,6 +16,9 @@ public class PollingService<T> {
 
     private static final int DEFAULT_MAX_CONSECUTIVE_FAILURES = 5;
 
+    @Inject
+    private PollingEngine pollingEngine;
+
     /**
      * Executes a {@link StatusCheckerTask} until it signals success, or the
      * maximum attempts are reached. A {@link StatusCheckerTask} has no
@@ -33,66 +41,35 @@ public class PollingService<T> {
 
     public ExtendedPollingResult pollWithTimeout(StatusCheckerTask<T> statusCheckerTask, T t, long interval, TimeoutChecker timeoutChecker,
             int maxConsecutiveFailures) {
-        boolean success = false;
-        boolean timeout = false;
-        int attempts = 0;
-        int consecutiveFailures = 0;
-        long defaultInterval = interval;
-        Exception actual = null;
-        boolean exit = false;
-        if (statusCheckerTask.initialExitCheck(t)) {
-            exit = statusCheckerTask.exitPolling(t);
-        }
-        while (!timeout && !exit) {
-            LOGGER.debug("Polling attempt {}.", attempts);
-            try {
-                success = statusCheckerTask.checkStatus(t);
-                consecutiveFailures = 0;
-                interval = defaultInterval;
-            } catch (Exception ex) {
-                consecutiveFailures++;
-                actual = ex;
-                LOGGER.debug("Exception occurred in the polling: {}. Number of consecutive failures: [{}/{}]",
-                        ex.getMessage(), consecutiveFailures, maxConsecutiveFailures, ex);
-                interval = statusCheckerTask.increasePollingBackoff(defaultInterval, consecutiveFailures);
-            }
-            if (consecutiveFailures >= maxConsecutiveFailures) {
-                LOGGER.debug("Polling failure reached the limit which was {}, poller will drop the last exception.", maxConsecutiveFailures);
-                statusCheckerTask.sendFailureEvent(t);
-                statusCheckerTask.handleException(actual);
-                return new ExtendedPollingResult.ExtendedPollingResultBuilder()
-                        .failure()
-                        .withException(actual)
-                        .build();
-            } else if (success) {
-                LOGGER.debug(statusCheckerTask.successMessage(t));
-                LOGGER.debug("Set the number of consecutive failures to 0, since we received a positive answer. Original number of consecutiveFailures: {}",
-                        consecutiveFailures);
-                return new ExtendedPollingResult.ExtendedPollingResultBuilder()
-                        .success()
-                        .build();
-            }
-            sleep(interval);
-            attempts++;
-            timeout = timeoutChecker.checkTimeout();
-            exit = statusCheckerTask.exitPolling(t);
-            statusCheckerTask.sendWarningTimeoutEventIfNecessary(t);
+        StatusCheckerPolling<T> polling = new StatusCheckerPolling<>(statusCheckerTask, t, interval, timeoutChecker, maxConsecutiveFailures);
+        Optional<ExtendedPollingResult> result = polling.step();
+        while (result.isEmpty()) {
+            sleep(polling.getInterval());
+            result = polling.step();
         }
-        if (timeout) {
-            LOGGER.debug("Poller timeout.");
-            statusCheckerTask.sendTimeoutEvent(t);
-            statusCheckerTask.handleTimeout(t);
-            return new ExtendedPollingResult.ExtendedPollingResultBuilder()
-                    .timeout()
-                    .withException(actual)
-                    .withPayload(statusCheckerTask.getFailedInstanceIds())
-                    .build();
-        }
-        LOGGER.debug("Poller exiting.");
-        return new ExtendedPollingResult.ExtendedPollingResultBuilder()
-                .exit()
-                .withException(actual)
-                .build();
+        return result.get();
+    }
+
+    /**
+     * Same as {@link #pollWithTimeout(StatusCheckerTask, Object, long, TimeoutChecker, int)}, but no thread is blocked between the status
+     * checking attempts. The status checks are executed on the threads of the {@link PollingEngine}. Exceptions thrown by the
+     * {@link StatusCheckerTask} complete the returned future exceptionally, cancelling it stops the polling.
+     */
+    public CompletableFuture<ExtendedPollingResult> pollWithTimeoutAsync(StatusCheckerTask<T> statusCheckerTask, T t, long interval,
+            TimeoutChecker timeoutChecker, int maxConsecutiveFailures) {
+        StatusCheckerPolling<T> polling = new StatusCheckerPolling<>(statusCheckerTask, t, interval, timeoutChecker, maxConsecutiveFailures);
+        return pollingEngine.poll(() -> polling.step()
+                .map(PollingAttemptResult::finish)
+                .orElseGet(() -> PollingAttemptResult.continueAfter(polling.getInterval())), 0L);
+    }
+
+    public CompletableFuture<ExtendedPollingResult> pollWithTimeoutAsync(StatusCheckerTask<T> statusCheckerTask, T t, long interval,
+            int maxAttempts, int maxConsecutiveFailures) {
+        return pollWithTimeoutAsync(statusCheckerTask, t, interval, new AttemptBasedTimeoutChecker(maxAttempts), maxConsecutiveFailures);
+    }
+
+    public CompletableFuture<ExtendedPollingResult> pollWithAttemptAsync(StatusCheckerTask<T> statusCheckerTask, T t, int interval, int maxAttempts) {
+        return pollWithTimeoutAsync(statusCheckerTask, t, interval, new AttemptBasedTimeoutChecker(maxAttempts), DEFAULT_MAX_CONSECUTIVE_FAILURES);
     }
 
     public ExtendedPollingResult pollWithAbsoluteTimeout(StatusCheckerTask<T> statusCheckerTask, T t, int interval, long maximumWaitTimeInSeconds) {
@@ -0,0 +1,123 @@
+package com.sequenceiq.cloudbreak.polling;
+
+import java.util.Optional;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * State of one {@link StatusCheckerTask} poll. Every {@link #step()} executes one status check and returns the result of the poll once it
+ * is finished, otherwise the caller waits {@link #getInterval()} milliseconds before the next step. The same state machine is driven by
+ * the blocking and by the asynchronous polling of {@link PollingService}.
+ */
+class StatusCheckerPolling<T> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StatusCheckerPolling.class);
+
+    private final StatusCheckerTask<T> statusCheckerTask;
+
+    private final T t;
+
+    private final long defaultInterval;
+
+    private final TimeoutChecker timeoutChecker;
+
+    private final int maxConsecutiveFailures;
+
+    private long interval;
+
+    private int attempts;
+
+    private int consecutiveFailures;
+
+    private Exception actual;
+
+    private boolean started;
+
+    StatusCheckerPolling(StatusCheckerTask<T> statusCheckerTask, T t, long interval, TimeoutChecker timeoutChecker, int maxConsecutiveFailures) {
+        this.statusCheckerTask = statusCheckerTask;
+        this.t = t;
+        this.interval = interval;
+        defaultInterval = interval;
+        this.timeoutChecker = timeoutChecker;
+        this.maxConsecutiveFailures = maxConsecutiveFailures;
+    }
+
+    Optional<ExtendedPollingResult> step() {
+        Optional<ExtendedPollingResult> result = started ? checkAfterWait() : checkBeforeFirstAttempt();
+        started = true;
+        return result.isPresent() ? result : attempt();
+    }
+
+    long getInterval() {
+        return interval;
+    }
+
+    private Optional<ExtendedPollingResult> checkBeforeFirstAttempt() {
+        if (statusCheckerTask.initialExitCheck(t) && statusCheckerTask.exitPolling(t)) {
+            return Optional.of(exit());
+        }
+        return Optional.empty();
+    }
+
+    private Optional<ExtendedPollingResult> checkAfterWait() {
+        attempts++;
+        boolean timeout = timeoutChecker.checkTimeout();
+        boolean exit = statusCheckerTask.exitPolling(t);
+        statusCheckerTask.sendWarningTimeoutEventIfNecessary(t);
+        if (timeout) {
+            LOGGER.debug("Poller timeout.");
+            statusCheckerTask.sendTimeoutEvent(t);
+            statusCheckerTask.handleTimeout(t);
+            return Optional.of(new ExtendedPollingResult.ExtendedPollingResultBuilder()
+                    .timeout()
+                    .withException(actual)
+                    .withPayload(statusCheckerTask.getFailedInstanceIds())
+                    .build());
+        } else if (exit) {
+            return Optional.of(exit());
+        }
+        return Optional.empty();
+    }
+
+    private Optional<ExtendedPollingResult> attempt() {
+        LOGGER.debug("Polling attempt {}.", attempts);
+        boolean success = false;
+        try {
+            success = statusCheckerTask.checkStatus(t);
+            consecutiveFailures = 0;
+            interval = defaultInterval;
+        } catch (Exception ex) {
+            consecutiveFailures++;
+            actual = ex;
+            LOGGER.debug("Exception occurred in the polling: {}. Number of consecutive failures: [{}/{}]",
+                    ex.getMessage(), consecutiveFailures, maxConsecutiveFailures, ex);
+            interval = statusCheckerTask.increasePollingBackoff(defaultInterval, consecutiveFailures);
+        }
+        if (consecutiveFailures >= maxConsecutiveFailures) {
+            LOGGER.debug("Polling failure reached the limit which was {}, poller will drop the last exception.", maxConsecutiveFailures);
+            statusCheckerTask.sendFailureEvent(t);
+            statusCheckerTask.handleException(actual);
+            return Optional.of(new ExtendedPollingResult.ExtendedPollingResultBuilder()
+                    .failure()
+                    .withException(actual)
+                    .build());
+        } else if (success) {
+            LOGGER.debug(statusCheckerTask.successMessage(t));
+            LOGGER.debug("Set the number of consecutive failures to 0, since we received a positive answer. Original number of consecutiveFailures: {}",
+                    consecutiveFailures);
+            return Optional.of(new ExtendedPollingResult.ExtendedPollingResultBuilder()
+                    .success()
+                    .build());
+        }
+        return Optional.empty();
+    }
+
+    private ExtendedPollingResult exit() {
+        LOGGER.debug("Poller exiting.");
+        return new ExtendedPollingResult.ExtendedPollingResultBuilder()
+                .exit()
+                .withException(actual)
+                .build();
+    }
+}
@@ -0,0 +1,159 @@
+package com.sequenceiq.cloudbreak.polling;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class PollingEngineTest {
+
+    private static final int WORKER_THREADS = 2;
+
+    private static final long TICK_MILLIS = 5L;
+
+    private static final int TICKS_PER_WHEEL = 64;
+
+    private static final int CONCURRENT_POLLERS = 10_000;
+
+    private static final int ATTEMPTS_PER_POLLER = 5;
+
+    private static final long INTERVAL_MILLIS = 20L;
+
+    private static final long TIMEOUT_SECONDS = 60L;
+
+    private PollingEngine underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new PollingEngine(WORKER_THREADS, TICK_MILLIS, TICKS_PER_WHEEL);
+    }
+
+    @AfterEach
+    void tearDown() {
+        underTest.shutdown();
+    }
+
+    @Test
+    void testPollFinishesWithResultOfLastAttempt() throws Exception {
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletableFuture<String> result = underTest.poll(() -> attempts.incrementAndGet() < ATTEMPTS_PER_POLLER
+                ? PollingAttemptResult.continueAfter(INTERVAL_MILLIS)
+                : PollingAttemptResult.finish("done"), 0L);
+
+        assertEquals("done", result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertEquals(ATTEMPTS_PER_POLLER, attempts.get());
+    }
+
+    @Test
+    void testPollFailsWithExceptionOfAttempt() {
+        IllegalStateException failure = new IllegalStateException("failed");
+
+        CompletableFuture<Object> result = underTest.poll(() -> {
+            throw failure;
+        }, 0L);
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(TIMEOUT_SECONDS, TimeUnit.SECONDS));
+        assertSame(failure, exception.getCause());
+    }
+
+    @Test
+    void testCancelledPollIsNotAttemptedAgain() throws InterruptedException {
+        AtomicInteger attempts = new AtomicInteger();
+        CompletableFuture<Object> result = underTest.poll(() -> {
+            attempts.incrementAndGet();
+            return PollingAttemptResult.continueAfter(INTERVAL_MILLIS);
+        }, 0L);
+        while (attempts.get() == 0) {
+            Thread.sleep(TICK_MILLIS);
+        }
+
+        result.cancel(false);
+        int attemptsAfterCancel = attempts.get();
+        Thread.sleep(INTERVAL_MILLIS * ATTEMPTS_PER_POLLER);
+
+        assertTrue(attempts.get() <= attemptsAfterCancel + 1);
+        assertEquals(0, underTest.pendingPolls());
+    }
+
+    @Test
+    void testManyConcurrentPollersOnFewThreads() throws Exception {
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        List<CompletableFuture<Integer>> results = new ArrayList<>(CONCURRENT_POLLERS);
+        long start = System.nanoTime();
+        for (int i = 0; i < CONCURRENT_POLLERS; i++) {
+            AtomicInteger attempts = new AtomicInteger();
+            results.add(underTest.poll(() -> {
+                threadNames.add(Thread.currentThread().getName());
+                int attempt = attempts.incrementAndGet();
+                return attempt < ATTEMPTS_PER_POLLER ? PollingAttemptResult.continueAfter(INTERVAL_MILLIS) : PollingAttemptResult.finish(attempt);
+            }, INTERVAL_MILLIS));
+        }
+
+        CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        for (CompletableFuture<Integer> result : results) {
+            assertEquals(ATTEMPTS_PER_POLLER, result.get());
+        }
+        assertTrue(threadNames.size() <= WORKER_THREADS, "Attempts were executed on " + threadNames);
+        assertTrue(elapsedMillis < TimeUnit.SECONDS.toMillis(TIMEOUT_SECONDS));
+    }
+
+    @Test
+    void testAsyncStatusCheckerPollingHonoursConsecutiveFailureLimit() throws Exception {
+        PollingService<Object> pollingService = new PollingService<>();
+        ReflectionTestUtils.setField(pollingService, "pollingEngine", underTest);
+        AtomicInteger backoffs = new AtomicInteger();
+        StatusCheckerTask<Object> task = new SimpleStatusCheckerTask<>() {
+            @Override
+            public boolean checkStatus(Object o) {
+                throw new IllegalStateException("not reachable");
+            }
+
+            @Override
+            public void handleTimeout(Object o) {
+            }
+
+            @Override
+            public String successMessage(Object o) {
+                return "success";
+            }
+
+            @Override
+            public boolean exitPolling(Object o) {
+                return false;
+            }
+
+            @Override
+            public void handleException(Exception e) {
+            }
+
+            @Override
+            public long increasePollingBackoff(long defaultInterval, long consecutiveFailures) {
+                backoffs.incrementAndGet();
+                return defaultInterval * consecutiveFailures;
+            }
+        };
+
+        ExtendedPollingResult result = pollingService.pollWithTimeoutAsync(task, new Object(), 1L, new AttemptBasedTimeoutChecker(-1), 3)
+                .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertTrue(result.isFailure());
+        assertEquals(3, backoffs.get());
+    }
+}
@@ -20,6 +20,7 @@ import com.sequenceiq.consumption.api.v1.ConsumptionApi;
 import com.sequenceiq.consumption.endpoint.ConsumptionInternalV1Controller;
 import com.sequenceiq.flow.controller.FlowController;
 import com.sequenceiq.flow.controller.FlowPublicController;
+import com.sequenceiq.flow.controller.FlowStreamController;
 
 import io.swagger.jaxrs.config.BeanConfig;
 import io.swagger.jaxrs.config.SwaggerConfigLocator;
@@ -32,6 +33,7 @@ public class EndpointConfig extends ResourceConfig {
     private static final List<Class<?>> CONTROLLERS = List.of(
             FlowController.class,
             FlowPublicController.class,
+            FlowStreamController.class,
             AuthorizationInfoController.class,
             AuthorizationUtilEndpoint.class,
             CDPStructuredEventV1Controller.class,
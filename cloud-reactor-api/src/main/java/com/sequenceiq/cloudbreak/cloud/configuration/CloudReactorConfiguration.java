@@ -6,8 +6,9 @@ import org.springframework.context.annotation.Configuration;
 
 import com.google.common.util.concurrent.ListeningScheduledExecutorService;
 import com.google.common.util.concurrent.MoreExecutors;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.sequenceiq.cloudbreak.logger.concurrent.MDCCleanerScheduledExecutor;
+import com.sequenceiq.cloudbreak.logger.concurrent.ThreadFactories;
+import com.sequenceiq.cloudbreak.logger.concurrent.ThreadMode;
 
 @Configuration
 public class CloudReactorConfiguration {
@@ -15,10 +16,13 @@ public class CloudReactorConfiguration {
     @Value("${cb.reactor.executorservice.pool.size:40}")
     private int executorServicePoolSize;
 
+    @Value("${cb.reactor.executorservice.thread.mode:${cb.executor.thread.mode:PLATFORM}}")
+    private ThreadMode threadMode;
+
     @Bean
     ListeningScheduledExecutorService reactorListeningScheduledExecutorService() {
         return MoreExecutors
                 .listeningDecorator(new MDCCleanerScheduledExecutor(executorServicePoolSize,
-                        new ThreadFactoryBuilder().setNameFormat("cloud-reactor-%d").build()));
+                        ThreadFactories.create(threadMode, "cloud-reactor", false)));
     }
 }
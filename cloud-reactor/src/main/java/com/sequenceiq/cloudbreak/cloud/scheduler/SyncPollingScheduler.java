@@ -1,9 +1,12 @@
 package com.sequenceiq.cloudbreak.cloud.scheduler;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import javax.inject.Inject;
+
 import org.springframework.stereotype.Component;
 
 import com.dyngr.Polling;
@@ -11,6 +14,8 @@ import com.dyngr.core.AttemptResults;
 import com.dyngr.exception.PollerStoppedException;
 import com.dyngr.exception.UserBreakException;
 import com.sequenceiq.cloudbreak.cloud.task.PollTask;
+import com.sequenceiq.cloudbreak.polling.PollingAttemptResult;
+import com.sequenceiq.cloudbreak.polling.PollingEngine;
 
 @Component
 public class SyncPollingScheduler<T> {
@@ -21,6 +26,9 @@ public class SyncPollingScheduler<T> {
 
     public static final int FAILURE_TOLERANT_ATTEMPT = 5;
 
+    @Inject
+    private PollingEngine pollingEngine;
+
     public T schedule(PollTask<T> task) throws Exception {
         return schedule(task, POLLING_INTERVAL, MAX_POLLING_ATTEMPT, FAILURE_TOLERANT_ATTEMPT);
     }
@@ -50,11 +58,49 @@ public class SyncPollingScheduler<T> {
                         return AttemptResults.justContinue();
                     });
         } catch (PollerStoppedException e) {
-            int duration = interval * maxAttempt;
-            throw new TimeoutException(String.format("Task (%s) did not finish within %d seconds",
-                    task.getClass().getSimpleName(), TimeUnit.MILLISECONDS.toSeconds(duration)));
+            throw timeoutException(task, interval, maxAttempt);
         } catch (UserBreakException e) {
             throw (Exception) e.getCause();
         }
     }
+
+    public CompletableFuture<T> scheduleAsync(PollTask<T> task) {
+        return scheduleAsync(task, POLLING_INTERVAL, MAX_POLLING_ATTEMPT, FAILURE_TOLERANT_ATTEMPT);
+    }
+
+    /**
+     * Non-blocking variant of {@link #schedule(PollTask, int, int, int)}: the attempts are executed by the {@link PollingEngine} and no
+     * thread waits between them. The returned future fails with the same exceptions the blocking variant throws.
+     */
+    public CompletableFuture<T> scheduleAsync(PollTask<T> task, int interval, int maxAttempt, int maxFailureTolerant) {
+        AtomicInteger actualFailureTolerant = new AtomicInteger(0);
+        AtomicInteger attempts = new AtomicInteger(0);
+
+        return pollingEngine.poll(() -> {
+            if (task.cancelled()) {
+                return PollingAttemptResult.fail(new CancellationException("Task was cancelled."));
+            }
+            try {
+                T callResult = task.call();
+                if (task.completed(callResult)) {
+                    return PollingAttemptResult.finish(callResult);
+                }
+            } catch (Exception ex) {
+                int currentTolerant = actualFailureTolerant.incrementAndGet();
+                if (currentTolerant >= maxFailureTolerant) {
+                    return PollingAttemptResult.fail(ex);
+                }
+            }
+            if (attempts.incrementAndGet() >= maxAttempt) {
+                return PollingAttemptResult.fail(timeoutException(task, interval, maxAttempt));
+            }
+            return PollingAttemptResult.continueAfter(interval);
+        }, 0L);
+    }
+
+    private TimeoutException timeoutException(PollTask<T> task, int interval, int maxAttempt) {
+        int duration = interval * maxAttempt;
+        return new TimeoutException(String.format("Task (%s) did not finish within %d seconds",
+                task.getClass().getSimpleName(), TimeUnit.MILLISECONDS.toSeconds(duration)));
+    }
 }
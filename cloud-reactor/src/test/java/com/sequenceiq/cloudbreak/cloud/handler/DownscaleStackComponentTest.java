@@ -16,6 +16,7 @@ import com.sequenceiq.cloudbreak.cloud.handler.testcontext.TestApplicationContex
 import com.sequenceiq.cloudbreak.cloud.scheduler.SyncPollingScheduler;
 import com.sequenceiq.cloudbreak.cloud.task.PollResourcesStateTask;
 import com.sequenceiq.cloudbreak.cloud.task.PollTaskFactory;
+import com.sequenceiq.cloudbreak.polling.PollingEngine;
 
 @SpringBootTest(classes = { TestApplicationContext.class, DownscaleStackComponentTest.TestConfig.class },
         properties = "spring.main.allow-bean-definition-overriding=true")
@@ -46,7 +47,7 @@ public class DownscaleStackComponentTest extends AbstractComponentTest<Downscale
     }
 
     @Configuration
-    @Import({DownscaleStackHandler.class, SyncPollingScheduler.class, PollTaskFactory.class, PollResourcesStateTask.class})
+    @Import({DownscaleStackHandler.class, SyncPollingScheduler.class, PollingEngine.class, PollTaskFactory.class, PollResourcesStateTask.class})
     public static class TestConfig {
     }
 }
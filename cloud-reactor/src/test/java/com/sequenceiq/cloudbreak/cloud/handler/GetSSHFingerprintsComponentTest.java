@@ -21,6 +21,7 @@ import com.sequenceiq.cloudbreak.cloud.model.CloudInstance;
 import com.sequenceiq.cloudbreak.cloud.scheduler.SyncPollingScheduler;
 import com.sequenceiq.cloudbreak.cloud.task.PollInstanceConsoleOutputTask;
 import com.sequenceiq.cloudbreak.cloud.task.PollTaskFactory;
+import com.sequenceiq.cloudbreak.polling.PollingEngine;
 
 @SpringBootTest(classes = { TestApplicationContext.class, GetSSHFingerprintsComponentTest.TestConfig.class },
         properties = "spring.main.allow-bean-definition-overriding=true")
@@ -64,7 +65,7 @@ public class GetSSHFingerprintsComponentTest extends AbstractComponentTest<GetSS
     }
 
     @Configuration
-    @Import({GetSSHFingerprintsHandler.class, PollTaskFactory.class, SyncPollingScheduler.class, PollInstanceConsoleOutputTask.class})
+    @Import({GetSSHFingerprintsHandler.class, PollTaskFactory.class, SyncPollingScheduler.class, PollingEngine.class, PollInstanceConsoleOutputTask.class})
     public static class TestConfig {
     }
 }
@@ -21,6 +21,7 @@ import com.sequenceiq.cloudbreak.cloud.notification.PersistenceNotifier;
 import com.sequenceiq.cloudbreak.cloud.scheduler.SyncPollingScheduler;
 import com.sequenceiq.cloudbreak.cloud.task.PollResourcesStateTask;
 import com.sequenceiq.cloudbreak.cloud.task.PollTaskFactory;
+import com.sequenceiq.cloudbreak.polling.PollingEngine;
 import com.sequenceiq.common.api.type.AdjustmentType;
 
 @SpringBootTest(classes = { TestApplicationContext.class, LaunchStackComponentTest.TestConfig.class },
@@ -50,7 +51,7 @@ public class LaunchStackComponentTest extends AbstractComponentTest<LaunchStackR
     }
 
     @Configuration
-    @Import({LaunchStackHandler.class, SyncPollingScheduler.class, PollTaskFactory.class, PollResourcesStateTask.class})
+    @Import({LaunchStackHandler.class, SyncPollingScheduler.class, PollingEngine.class, PollTaskFactory.class, PollResourcesStateTask.class})
     public static class TestConfig {
     }
 }
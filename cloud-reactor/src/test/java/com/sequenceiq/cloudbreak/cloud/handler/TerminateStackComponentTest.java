@@ -16,6 +16,7 @@ import com.sequenceiq.cloudbreak.cloud.handler.testcontext.TestApplicationContex
 import com.sequenceiq.cloudbreak.cloud.scheduler.SyncPollingScheduler;
 import com.sequenceiq.cloudbreak.cloud.task.PollResourcesStateTask;
 import com.sequenceiq.cloudbreak.cloud.task.PollTaskFactory;
+import com.sequenceiq.cloudbreak.polling.PollingEngine;
 
 @SpringBootTest(classes = { TestApplicationContext.class, TerminateStackComponentTest.TestConfig.class },
         properties = "spring.main.allow-bean-definition-overriding=true")
@@ -40,7 +41,7 @@ public class TerminateStackComponentTest extends AbstractComponentTest<Terminate
     }
 
     @Configuration
-    @Import({TerminateStackHandler.class, PollTaskFactory.class, SyncPollingScheduler.class, PollResourcesStateTask.class})
+    @Import({TerminateStackHandler.class, PollTaskFactory.class, SyncPollingScheduler.class, PollingEngine.class, PollResourcesStateTask.class})
     public static class TestConfig {
     }
 
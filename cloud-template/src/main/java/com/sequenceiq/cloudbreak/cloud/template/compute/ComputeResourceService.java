@@ -8,9 +8,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.EnumMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -367,25 +369,24 @@ public class ComputeResourceService {
                     }
                     ComputeResourceBuilder<ResourceBuilderContext> builder = builderOpt.get();
                     LOGGER.debug("Determined resource builder for instances: {}", builder.resourceType());
-                    for (CloudResourceStatus instanceResourceStatus : instanceResourceStatuses) {
-                        PollGroup pollGroup = InMemoryStateStore.getStack(auth.getCloudContext().getId());
-                        if (pollGroup == null || CANCELLED.equals(pollGroup)) {
-                            throw new CancellationException(format("Building of %s has been cancelled", instanceResourceStatus));
-                        }
-                        CloudResource instance = instanceResourceStatus.getCloudResource();
-                        PollTask<List<CloudResourceStatus>> pollTask = resourcePollTaskFactory
-                                .newPollResourceTask(builder, auth, List.of(instance), ctx, true);
-                        try {
-                            List<CloudResourceStatus> statuses = syncPollingScheduler.schedule(pollTask);
-                            instanceResourceStatus.setStatus(statuses.get(0).getStatus());
-                        } catch (Exception e) {
-                            LOGGER.debug("Failure during polling the instance status of {}", instanceResourceStatus, e);
-                            cloudResourceStatuses.stream().filter(crs -> crs.getPrivateId().equals(instanceResourceStatus.getPrivateId())).forEach(crs -> {
-                                crs.setStatus(ResourceStatus.FAILED);
-                                crs.setStatusReason(e.getMessage());
-                            });
+                    Map<CloudResourceStatus, CompletableFuture<List<CloudResourceStatus>>> instancePolls = new LinkedHashMap<>();
+                    try {
+                        for (CloudResourceStatus instanceResourceStatus : instanceResourceStatuses) {
+                            PollGroup pollGroup = InMemoryStateStore.getStack(auth.getCloudContext().getId());
+                            if (pollGroup == null || CANCELLED.equals(pollGroup)) {
+                                throw new CancellationException(format("Building of %s has been cancelled", instanceResourceStatus));
+                            }
+                            CloudResource instance = instanceResourceStatus.getCloudResource();
+                            PollTask<List<CloudResourceStatus>> pollTask = resourcePollTaskFactory
+                                    .newPollResourceTask(builder, auth, List.of(instance), ctx, true);
+                            instancePolls.put(instanceResourceStatus, syncPollingScheduler.scheduleAsync(pollTask));
                         }
+                    } catch (RuntimeException e) {
+                        instancePolls.values().forEach(instancePoll -> instancePoll.cancel(false));
+                        throw e;
                     }
+                    instancePolls.forEach((instanceResourceStatus, instancePoll) ->
+                            waitForInstanceCreation(cloudResourceStatuses, instanceResourceStatus, instancePoll));
                     result.addAll(cloudResourceStatuses);
                 } else {
                     result.addAll(cloudResourceStatuses);
@@ -395,6 +396,29 @@ public class ComputeResourceService {
             return result;
         }
 
+        private void waitForInstanceCreation(List<CloudResourceStatus> cloudResourceStatuses, CloudResourceStatus instanceResourceStatus,
+                CompletableFuture<List<CloudResourceStatus>> instancePoll) {
+            try {
+                List<CloudResourceStatus> statuses = instancePoll.get();
+                instanceResourceStatus.setStatus(statuses.get(0).getStatus());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                markInstanceFailed(cloudResourceStatuses, instanceResourceStatus, e);
+            } catch (ExecutionException e) {
+                markInstanceFailed(cloudResourceStatuses, instanceResourceStatus, e.getCause());
+            } catch (RuntimeException e) {
+                markInstanceFailed(cloudResourceStatuses, instanceResourceStatus, e);
+            }
+        }
+
+        private void markInstanceFailed(List<CloudResourceStatus> cloudResourceStatuses, CloudResourceStatus instanceResourceStatus, Throwable e) {
+            LOGGER.debug("Failure during polling the instance status of {}", instanceResourceStatus, e);
+            cloudResourceStatuses.stream().filter(crs -> crs.getPrivateId().equals(instanceResourceStatus.getPrivateId())).forEach(crs -> {
+                crs.setStatus(ResourceStatus.FAILED);
+                crs.setStatusReason(e.getMessage());
+            });
+        }
+
         private List<CloudResourceStatus> filterResourceStatuses(List<CloudResourceStatus> cloudResourceStatuses, ResourceStatus resourceStatus) {
             return cloudResourceStatuses.stream().filter(rs -> resourceStatus.equals(rs.getStatus())).collect(Collectors.toList());
         }
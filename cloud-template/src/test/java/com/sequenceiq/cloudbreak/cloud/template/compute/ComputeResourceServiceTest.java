@@ -12,8 +12,10 @@ import static org.mockito.Mockito.when;
 
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeoutException;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,22 +33,29 @@ import com.sequenceiq.cloudbreak.cloud.exception.CloudConnectorException;
 import com.sequenceiq.cloudbreak.cloud.model.CloudInstance;
 import com.sequenceiq.cloudbreak.cloud.model.CloudResource;
 import com.sequenceiq.cloudbreak.cloud.model.CloudResourceStatus;
+import com.sequenceiq.cloudbreak.cloud.model.CloudStack;
 import com.sequenceiq.cloudbreak.cloud.model.CloudVmInstanceStatus;
+import com.sequenceiq.cloudbreak.cloud.model.Group;
 import com.sequenceiq.cloudbreak.cloud.model.InstanceStatus;
 import com.sequenceiq.cloudbreak.cloud.model.ResourceStatus;
 import com.sequenceiq.cloudbreak.cloud.model.Variant;
+import com.sequenceiq.cloudbreak.cloud.scheduler.PollGroup;
 import com.sequenceiq.cloudbreak.cloud.scheduler.SyncPollingScheduler;
+import com.sequenceiq.cloudbreak.cloud.store.InMemoryStateStore;
 import com.sequenceiq.cloudbreak.cloud.task.PollTask;
 import com.sequenceiq.cloudbreak.cloud.template.ComputeResourceBuilder;
 import com.sequenceiq.cloudbreak.cloud.template.context.ResourceBuilderContext;
 import com.sequenceiq.cloudbreak.cloud.template.init.ResourceBuilders;
 import com.sequenceiq.cloudbreak.cloud.template.task.ResourcePollTaskFactory;
+import com.sequenceiq.common.api.type.ResourceType;
 
 @ExtendWith(MockitoExtension.class)
 class ComputeResourceServiceTest {
 
     private static final Variant AWS_VARIANT = Variant.variant("AWS");
 
+    private static final Long STACK_ID = 1L;
+
     @InjectMocks
     private ComputeResourceService computeResourceService;
 
@@ -65,6 +74,12 @@ class ComputeResourceServiceTest {
     @Mock
     private SyncPollingScheduler<List<CloudVmInstanceStatus>> syncVMPollingScheduler;
 
+    @Mock
+    private SyncPollingScheduler<List<CloudResourceStatus>> syncPollingScheduler;
+
+    @Mock
+    private CloudFailureHandler cloudFailureHandler;
+
     @Mock
     private ResourceBuilderContext resourceBuilderContext;
 
@@ -158,6 +173,53 @@ class ComputeResourceServiceTest {
         assertEquals("Resource deletion failed. Reason: No permission to delete.", cloudConnectorException.getMessage());
     }
 
+    @Test
+    void testInstanceCreationsArePolledConcurrently() throws Exception {
+        when(cloudContext.getId()).thenReturn(STACK_ID);
+        InMemoryStateStore.putStack(STACK_ID, PollGroup.POLLABLE);
+        try {
+            CloudStack cloudStack = mock(CloudStack.class);
+            Group group = mock(Group.class);
+            when(cloudStack.getGroups()).thenReturn(List.of(group));
+            when(group.getInstances()).thenReturn(List.of(mock(CloudInstance.class), mock(CloudInstance.class)));
+            when(resourceBuilders.getCreateBatchSize(AWS_VARIANT)).thenReturn(2);
+            when(resourceBuilders.compute(AWS_VARIANT)).thenReturn(List.of(computeResourceBuilder1));
+            when(computeResourceBuilder1.resourceType()).thenReturn(ResourceType.GCP_INSTANCE);
+            ResourceCreationCallable resourceCreationCallable = mock(ResourceCreationCallable.class);
+            when(resourceActionFactory.buildCreationCallable(any())).thenReturn(resourceCreationCallable);
+            CloudResource instance1 = mock(CloudResource.class);
+            CloudResource instance2 = mock(CloudResource.class);
+            when(instance1.getType()).thenReturn(ResourceType.GCP_INSTANCE);
+            when(instance2.getType()).thenReturn(ResourceType.GCP_INSTANCE);
+            CloudResourceStatus instanceStatus1 = new CloudResourceStatus(instance1, ResourceStatus.IN_PROGRESS, 1L);
+            CloudResourceStatus instanceStatus2 = new CloudResourceStatus(instance2, ResourceStatus.IN_PROGRESS, 2L);
+            Future<ResourceRequestResult<List<CloudResourceStatus>>> future = mock(Future.class);
+            when(resourceBuilderExecutor.submit(resourceCreationCallable)).thenReturn(future);
+            when(future.get()).thenReturn(new ResourceRequestResult<>(FutureResult.SUCCESS, List.of(instanceStatus1, instanceStatus2)));
+            PollTask<List<CloudResourceStatus>> pollTask1 = mock(PollTask.class);
+            PollTask<List<CloudResourceStatus>> pollTask2 = mock(PollTask.class);
+            when(resourcePollTaskFactory.newPollResourceTask(computeResourceBuilder1, authenticatedContext, List.of(instance1), resourceBuilderContext, true))
+                    .thenReturn(pollTask1);
+            when(resourcePollTaskFactory.newPollResourceTask(computeResourceBuilder1, authenticatedContext, List.of(instance2), resourceBuilderContext, true))
+                    .thenReturn(pollTask2);
+            CompletableFuture<List<CloudResourceStatus>> poll1 = new CompletableFuture<>();
+            when(syncPollingScheduler.scheduleAsync(pollTask1)).thenReturn(poll1);
+            // the first poll only finishes once the second one is started, so waiting for them one by one would never return
+            when(syncPollingScheduler.scheduleAsync(pollTask2)).thenAnswer(invocation -> {
+                poll1.complete(List.of(new CloudResourceStatus(instance1, ResourceStatus.CREATED)));
+                return CompletableFuture.failedFuture(new TimeoutException("Task did not finish"));
+            });
+
+            List<CloudResourceStatus> result = computeResourceService.buildResourcesForLaunch(resourceBuilderContext, authenticatedContext, cloudStack, null);
+
+            assertThat(result).containsExactly(instanceStatus1);
+            assertEquals(ResourceStatus.FAILED, instanceStatus2.getStatus());
+            assertEquals("Task did not finish", instanceStatus2.getStatusReason());
+        } finally {
+            InMemoryStateStore.deleteStack(STACK_ID);
+        }
+    }
+
     private Future<ResourceRequestResult<List<CloudResourceStatus>>> givenDeletionResult(FutureResult futureResult, CloudResourceStatus cloudResourceStatus)
             throws ExecutionException, InterruptedException {
         ResourceDeletionCallable resourceDeletionCallable = mock(ResourceDeletionCallable.class);
@@ -0,0 +1,58 @@
+package com.sequenceiq.cloudbreak.cache.common;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import javax.inject.Inject;
+
+import org.springframework.cache.Cache;
+
+import com.sequenceiq.cloudbreak.cache.CacheDefinition;
+import com.sequenceiq.cloudbreak.cache.invalidation.CacheInvalidationBroadcaster;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+
+/**
+ * Cache definition for caches in front of remote services (UMS, Vault, other Cloudbreak services) which are read by every replica.
+ * Besides expire-after-write it supports refresh-ahead, a separate time to live for null values, single-flight loading and the
+ * invalidation of evicted entries on the other replicas, see {@link TieredCache}.
+ */
+public abstract class AbstractTieredCacheDefinition implements CacheDefinition {
+
+    @Inject
+    private Optional<CacheInvalidationBroadcaster> cacheInvalidationBroadcaster;
+
+    @Inject
+    private Optional<MetricService> metricService;
+
+    @Override
+    public final Cache cacheConfiguration() {
+        return new TieredCache(getName(), getMaxEntries(), Duration.ofSeconds(getTimeToLiveSeconds()),
+                Duration.ofSeconds(getNegativeTimeToLiveSeconds()), Duration.ofSeconds(getRefreshAfterWriteSeconds()),
+                isInvalidationBroadcast() && cacheInvalidationBroadcaster != null ? cacheInvalidationBroadcaster.orElse(null) : null,
+                metricService != null ? metricService.orElse(null) : null);
+    }
+
+    protected abstract String getName();
+
+    protected abstract long getMaxEntries();
+
+    protected abstract long getTimeToLiveSeconds();
+
+    /**
+     * Entries older than this are reloaded by the first reader. Zero disables refresh-ahead.
+     */
+    protected long getRefreshAfterWriteSeconds() {
+        return 0L;
+    }
+
+    /**
+     * Time to live of null values, by default the same as for any other value.
+     */
+    protected long getNegativeTimeToLiveSeconds() {
+        return getTimeToLiveSeconds();
+    }
+
+    protected boolean isInvalidationBroadcast() {
+        return true;
+    }
+}
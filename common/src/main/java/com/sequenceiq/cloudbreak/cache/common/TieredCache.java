@@ -0,0 +1,374 @@
+package com.sequenceiq.cloudbreak.cache.common;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.cache.support.NullValue;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheWriter;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.sequenceiq.cloudbreak.cache.invalidation.CacheInvalidationBroadcaster;
+import com.sequenceiq.cloudbreak.cache.invalidation.CacheKeyTokens;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.metrics.type.MetricTag;
+import com.sequenceiq.cloudbreak.common.metrics.type.MetricType;
+import com.sequenceiq.cloudbreak.logger.concurrent.MDCCopyingThreadPoolExecutor;
+import com.sequenceiq.cloudbreak.logger.concurrent.ThreadFactories;
+import com.sequenceiq.cloudbreak.logger.concurrent.ThreadMode;
+
+/**
+ * Caffeine based cache with the following additions over {@link org.springframework.cache.caffeine.CaffeineCache}:
+ * <ul>
+ *     <li>refresh-ahead: for {@code @Cacheable(sync = true)} methods the first read of an entry older than the refresh time starts
+ *     a reload on a small background pool, while every reader, including the one that triggered it, is served with the cached value,
+ *     so a frequently used entry never expires under its readers. A reload which did not store a new value within the refresh timeout
+ *     (because it failed or the pool was full) is retried by the next reader. Reads without a loader are served from the cache until
+ *     the entry expires,</li>
+ *     <li>negative caching: null values are kept for their own, usually shorter time to live,</li>
+ *     <li>single-flight loading: for {@code @Cacheable(sync = true)} methods concurrent misses of the same key wait for one load,</li>
+ *     <li>invalidation broadcast: evictions are propagated to the other replicas by the {@link CacheInvalidationBroadcaster}. A remote
+ *     eviction removes the keys of its token through an index kept next to the entries, without scanning the cache.</li>
+ * </ul>
+ * Puts are not broadcast, because most of them come from loads after a miss and the value on the other replicas is not stale then.
+ */
+public class TieredCache extends AbstractValueAdaptingCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TieredCache.class);
+
+    private static final long REFRESH_TIMEOUT_NANOS = Duration.ofSeconds(5).toNanos();
+
+    private static final int REFRESH_THREADS = 4;
+
+    private static final int REFRESH_QUEUE_SIZE = 1000;
+
+    private final String name;
+
+    private final Cache<Object, CacheEntry> store;
+
+    private final long refreshAfterWriteNanos;
+
+    private final CacheInvalidationBroadcaster broadcaster;
+
+    private final MetricService metricService;
+
+    private final Ticker ticker;
+
+    private final Executor refreshExecutor;
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> loadsInFlight = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Set<Object>> keysByToken = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder negativeHits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder refreshes = new LongAdder();
+
+    private final LongAdder loadFailures = new LongAdder();
+
+    private final LongAdder remoteInvalidations = new LongAdder();
+
+    public TieredCache(String name, long maxEntries, Duration timeToLive, Duration negativeTimeToLive, Duration refreshAfterWrite,
+            CacheInvalidationBroadcaster broadcaster, MetricService metricService) {
+        this(name, maxEntries, timeToLive, negativeTimeToLive, refreshAfterWrite, broadcaster, metricService, Ticker.systemTicker(),
+                RefreshExecutorHolder.REFRESH_EXECUTOR);
+    }
+
+    TieredCache(String name, long maxEntries, Duration timeToLive, Duration negativeTimeToLive, Duration refreshAfterWrite,
+            CacheInvalidationBroadcaster broadcaster, MetricService metricService, Ticker ticker, Executor refreshExecutor) {
+        super(true);
+        this.name = name;
+        this.refreshAfterWriteNanos = refreshAfterWrite.toNanos();
+        this.broadcaster = broadcaster;
+        this.metricService = metricService;
+        this.ticker = ticker;
+        this.refreshExecutor = refreshExecutor;
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .ticker(ticker);
+        if (broadcaster != null) {
+            builder.writer(new KeyTokenIndexWriter());
+        }
+        this.store = builder
+                .expireAfter(new TieredExpiry(timeToLive.toNanos(), negativeTimeToLive.toNanos()))
+                .build();
+        if (broadcaster != null) {
+            broadcaster.register(name, this::invalidateLocally);
+        }
+        registerMetrics();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return store;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        CacheEntry entry = store.getIfPresent(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        recordHit(entry);
+        return entry.value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        CacheEntry entry = store.getIfPresent(key);
+        if (entry == null) {
+            misses.increment();
+            return (T) fromStoreValue(load(key, valueLoader));
+        }
+        if (shouldRefreshAhead(entry)) {
+            refreshes.increment();
+            refreshAsync(key, valueLoader);
+        }
+        recordHit(entry);
+        return (T) fromStoreValue(entry.value);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        store.put(key, newEntry(toStoreValue(value), ticker.read()));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        CacheEntry existing = store.asMap().putIfAbsent(key, newEntry(toStoreValue(value), ticker.read()));
+        return existing == null ? null : toValueWrapper(existing.value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        store.invalidate(key);
+        broadcastEviction(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = store.asMap().remove(key) != null;
+        broadcastEviction(key);
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        store.invalidateAll();
+        broadcastClear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean notEmpty = !store.asMap().isEmpty();
+        clear();
+        return notEmpty;
+    }
+
+    void invalidateLocally(String keyToken) {
+        remoteInvalidations.increment();
+        if (keyToken == null) {
+            LOGGER.debug("Clearing cache {} on remote invalidation", name);
+            store.invalidateAll();
+        } else {
+            Set<Object> keys = keysByToken.get(keyToken);
+            if (keys != null) {
+                store.invalidateAll(Set.copyOf(keys));
+            }
+        }
+    }
+
+    private void refreshAsync(Object key, Callable<?> valueLoader) {
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(key, valueLoader);
+                } catch (ValueRetrievalException e) {
+                    LOGGER.warn("Failed to refresh entry of cache {}, the cached value is served until the next attempt", name, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Refresh of cache {} is skipped, because the refresh pool is full, the next reader retries it", name);
+        }
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> loading = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loadsInFlight.putIfAbsent(key, loading);
+        if (inFlight != null) {
+            return awaitLoad(key, valueLoader, inFlight);
+        }
+        try {
+            long start = ticker.read();
+            Object value = toStoreValue(valueLoader.call());
+            long end = ticker.read();
+            store.put(key, newEntry(value, end));
+            recordLoadTime(end - start);
+            loading.complete(value);
+            return value;
+        } catch (Exception e) {
+            loadFailures.increment();
+            loading.completeExceptionally(e);
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            loadsInFlight.remove(key, loading);
+        }
+    }
+
+    private Object awaitLoad(Object key, Callable<?> valueLoader, CompletableFuture<Object> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    private CacheEntry newEntry(Object storeValue, long writeTime) {
+        return new CacheEntry(storeValue, writeTime + refreshAfterWriteNanos);
+    }
+
+    private boolean shouldRefreshAhead(CacheEntry entry) {
+        if (refreshAfterWriteNanos <= 0 || entry.value == NullValue.INSTANCE) {
+            return false;
+        }
+        long now = ticker.read();
+        long refreshAt = entry.refreshAt.get();
+        return now - refreshAt >= 0 && entry.refreshAt.compareAndSet(refreshAt, now + REFRESH_TIMEOUT_NANOS);
+    }
+
+    private void recordHit(CacheEntry entry) {
+        if (entry.value == NullValue.INSTANCE) {
+            negativeHits.increment();
+        } else {
+            hits.increment();
+        }
+    }
+
+    private void broadcastEviction(Object key) {
+        if (broadcaster != null) {
+            broadcaster.broadcast(name, CacheKeyTokens.toToken(key).orElse(null));
+        }
+    }
+
+    private void broadcastClear() {
+        if (broadcaster != null) {
+            broadcaster.broadcast(name, null);
+        }
+    }
+
+    private void recordLoadTime(long nanos) {
+        if (metricService != null) {
+            metricService.recordTimerMetric(MetricType.CACHE_LOAD, Duration.ofNanos(nanos), MetricTag.CACHE_NAME.name(), name);
+        }
+    }
+
+    private void registerMetrics() {
+        if (metricService != null) {
+            Map<String, String> tags = Map.of(MetricTag.CACHE_NAME.name(), name);
+            metricService.registerFunctionCounterMetric(MetricType.CACHE_HIT, hits, LongAdder::doubleValue, tags);
+            metricService.registerFunctionCounterMetric(MetricType.CACHE_NEGATIVE_HIT, negativeHits, LongAdder::doubleValue, tags);
+            metricService.registerFunctionCounterMetric(MetricType.CACHE_MISS, misses, LongAdder::doubleValue, tags);
+            metricService.registerFunctionCounterMetric(MetricType.CACHE_REFRESH_AHEAD, refreshes, LongAdder::doubleValue, tags);
+            metricService.registerFunctionCounterMetric(MetricType.CACHE_LOAD_FAILED, loadFailures, LongAdder::doubleValue, tags);
+            metricService.registerFunctionCounterMetric(MetricType.CACHE_REMOTE_INVALIDATION, remoteInvalidations, LongAdder::doubleValue, tags);
+        }
+    }
+
+    private final class KeyTokenIndexWriter implements CacheWriter<Object, CacheEntry> {
+
+        @Override
+        public void write(Object key, CacheEntry entry) {
+            CacheKeyTokens.toToken(key).ifPresent(token -> keysByToken.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(key));
+        }
+
+        @Override
+        public void delete(Object key, CacheEntry entry, RemovalCause cause) {
+            CacheKeyTokens.toToken(key).ifPresent(token -> keysByToken.computeIfPresent(token, (t, keys) -> {
+                keys.remove(key);
+                return keys.isEmpty() ? null : keys;
+            }));
+        }
+    }
+
+    private static final class RefreshExecutorHolder {
+
+        private static final Executor REFRESH_EXECUTOR = createRefreshExecutor();
+
+        private static Executor createRefreshExecutor() {
+            ThreadPoolExecutor executor = new MDCCopyingThreadPoolExecutor(REFRESH_THREADS, REFRESH_THREADS, 1L, TimeUnit.MINUTES,
+                    new ArrayBlockingQueue<>(REFRESH_QUEUE_SIZE), ThreadFactories.create(ThreadMode.PLATFORM, "tiered-cache-refresh", true),
+                    new ThreadPoolExecutor.AbortPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+    }
+
+    private static final class CacheEntry {
+
+        private final Object value;
+
+        private final AtomicLong refreshAt = new AtomicLong();
+
+        private CacheEntry(Object value, long refreshAt) {
+            this.value = value;
+            this.refreshAt.set(refreshAt);
+        }
+    }
+
+    private static final class TieredExpiry implements Expiry<Object, CacheEntry> {
+
+        private final long timeToLiveNanos;
+
+        private final long negativeTimeToLiveNanos;
+
+        private TieredExpiry(long timeToLiveNanos, long negativeTimeToLiveNanos) {
+            this.timeToLiveNanos = timeToLiveNanos;
+            this.negativeTimeToLiveNanos = negativeTimeToLiveNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(Object key, CacheEntry entry, long currentTime) {
+            return entry.value == NullValue.INSTANCE ? negativeTimeToLiveNanos : timeToLiveNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Object key, CacheEntry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Object key, CacheEntry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.sequenceiq.cloudbreak.cache.invalidation;
+
+/**
+ * Propagates cache invalidations to the other replicas of the service, so an entry evicted on one node does not stay stale on the others.
+ */
+public interface CacheInvalidationBroadcaster {
+
+    /**
+     * Sends the invalidation to the other replicas. Failures are logged but not thrown, a lost invalidation only makes the remote
+     * entries live until their time to live.
+     *
+     * @param cacheName the name of the cache
+     * @param keyToken  the portable form of the evicted key, or null if every entry of the cache was evicted
+     */
+    void broadcast(String cacheName, String keyToken);
+
+    void register(String cacheName, CacheInvalidationListener listener);
+}
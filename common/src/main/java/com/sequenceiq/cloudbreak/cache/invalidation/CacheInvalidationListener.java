@@ -0,0 +1,9 @@
+package com.sequenceiq.cloudbreak.cache.invalidation;
+
+public interface CacheInvalidationListener {
+
+    /**
+     * Called when another replica evicted the entry with the given key token, or every entry if the key token is null.
+     */
+    void invalidate(String keyToken);
+}
@@ -0,0 +1,31 @@
+package com.sequenceiq.cloudbreak.cache.invalidation;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Converts cache keys to a form which is the same on every replica. Only keys built from strings, numbers, booleans, enums and UUIDs,
+ * or collections of these, are portable; for any other key the whole cache has to be invalidated on the other replicas.
+ */
+public class CacheKeyTokens {
+
+    private CacheKeyTokens() {
+    }
+
+    public static Optional<String> toToken(Object key) {
+        return isPortable(key) ? Optional.of(String.valueOf(key)) : Optional.empty();
+    }
+
+    private static boolean isPortable(Object key) {
+        if (key instanceof Collection) {
+            return ((Collection<?>) key).stream().allMatch(CacheKeyTokens::isPortable);
+        }
+        return key == null
+                || key instanceof CharSequence
+                || key instanceof Number
+                || key instanceof Boolean
+                || key instanceof Enum
+                || key instanceof UUID;
+    }
+}
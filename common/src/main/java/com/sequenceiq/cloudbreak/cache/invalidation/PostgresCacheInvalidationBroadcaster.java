@@ -0,0 +1,259 @@
+package com.sequenceiq.cloudbreak.cache.invalidation;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Pattern;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.sql.DataSource;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Broadcasts cache invalidations over the shared Postgres database with NOTIFY, and listens for the invalidations of the other replicas
+ * with LISTEN. Both happen on one dedicated connection, opened with the settings of the application pool but outside of it, so the
+ * broadcast never takes a connection from the pool. Evictions are not sent immediately: they are collected, coalesced per cache
+ * (a clear supersedes the evicted keys, too many keys become a clear) and sent by the listener thread in one batch after every poll.
+ * Evictions made in a transaction are only collected after it is committed. Notifications sent while the listener is disconnected are
+ * lost, so after a reconnect every registered cache is cleared.
+ */
+@Component
+@ConditionalOnProperty(name = "cb.cache.invalidation.broadcast.enabled", havingValue = "true")
+public class PostgresCacheInvalidationBroadcaster implements CacheInvalidationBroadcaster {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PostgresCacheInvalidationBroadcaster.class);
+
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private static final String SEPARATOR = "|";
+
+    private static final String ALL_KEYS = "*";
+
+    private static final String KEY_PREFIX = "=";
+
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    @Value("${cb.cache.invalidation.channel:cache_invalidation}")
+    private String channel;
+
+    @Value("${cb.cache.invalidation.poll.timeout.millis:200}")
+    private int pollTimeoutMillis;
+
+    @Value("${cb.cache.invalidation.reconnect.delay.millis:5000}")
+    private long reconnectDelayMillis;
+
+    @Value("${cb.cache.invalidation.max.keys.per.cache:100}")
+    private int maxKeysPerCache;
+
+    @Inject
+    @Qualifier("defaultDataSource")
+    private DataSource dataSource;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Map<String, List<CacheInvalidationListener>> listeners = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<String>> pendingInvalidations = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+
+    private Thread listenerThread;
+
+    @PostConstruct
+    public void start() {
+        if (!CHANNEL_PATTERN.matcher(channel).matches()) {
+            throw new IllegalStateException("Invalid cache invalidation channel name: " + channel);
+        }
+        running = true;
+        listenerThread = new Thread(this::listen, "cache-invalidation-listener");
+        listenerThread.setDaemon(true);
+        listenerThread.start();
+        LOGGER.info("Cache invalidation broadcast is enabled on channel {}, node id: {}", channel, nodeId);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listenerThread != null) {
+            listenerThread.interrupt();
+        }
+    }
+
+    @Override
+    public void broadcast(String cacheName, String keyToken) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    addPendingInvalidation(cacheName, keyToken);
+                }
+            });
+        } else {
+            addPendingInvalidation(cacheName, keyToken);
+        }
+    }
+
+    @Override
+    public void register(String cacheName, CacheInvalidationListener listener) {
+        listeners.computeIfAbsent(cacheName, name -> new CopyOnWriteArrayList<>()).add(listener);
+    }
+
+    void handleNotification(String payload) {
+        String[] parts = payload.split(Pattern.quote(SEPARATOR), 3);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        String keyToken = parts[2].startsWith(KEY_PREFIX) ? parts[2].substring(KEY_PREFIX.length()) : null;
+        LOGGER.debug("Invalidating cache {} from node {}, key: {}", parts[1], parts[0], keyToken == null ? ALL_KEYS : keyToken);
+        listeners.getOrDefault(parts[1], List.of()).forEach(listener -> invalidate(listener, keyToken));
+    }
+
+    void addPendingInvalidation(String cacheName, String keyToken) {
+        addPendingInvalidations(cacheName, Set.of(keyToken == null ? ALL_KEYS : KEY_PREFIX + keyToken));
+    }
+
+    /**
+     * Sends the pending invalidations in one batch. The invalidations which could not be sent are pending again, and are sent after
+     * the reconnect.
+     */
+    void sendPendingInvalidations(Connection connection) throws SQLException {
+        if (pendingInvalidations.isEmpty()) {
+            return;
+        }
+        Map<String, Set<String>> sending = new HashMap<>();
+        for (String cacheName : Set.copyOf(pendingInvalidations.keySet())) {
+            Set<String> targets = pendingInvalidations.remove(cacheName);
+            if (targets != null) {
+                sending.put(cacheName, targets);
+            }
+        }
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_notify(?, ?)")) {
+            for (Map.Entry<String, Set<String>> invalidation : sending.entrySet()) {
+                for (String target : invalidation.getValue()) {
+                    statement.setString(1, channel);
+                    statement.setString(2, createPayloadForTarget(invalidation.getKey(), target));
+                    statement.addBatch();
+                }
+            }
+            statement.executeBatch();
+        } catch (SQLException | RuntimeException e) {
+            sending.forEach(this::addPendingInvalidations);
+            throw e;
+        }
+    }
+
+    String createPayload(String cacheName, String keyToken) {
+        return createPayloadForTarget(cacheName, keyToken == null ? ALL_KEYS : KEY_PREFIX + keyToken);
+    }
+
+    private String createPayloadForTarget(String cacheName, String target) {
+        String payload = nodeId + SEPARATOR + cacheName + SEPARATOR + target;
+        if (payload.getBytes(StandardCharsets.UTF_8).length > MAX_PAYLOAD_BYTES) {
+            return nodeId + SEPARATOR + cacheName + SEPARATOR + ALL_KEYS;
+        }
+        return payload;
+    }
+
+    private void addPendingInvalidations(String cacheName, Set<String> targets) {
+        pendingInvalidations.compute(cacheName, (name, pendingTargets) -> {
+            Set<String> pending = pendingTargets == null ? new HashSet<>() : pendingTargets;
+            if (!pending.contains(ALL_KEYS)) {
+                pending.addAll(targets);
+                if (pending.contains(ALL_KEYS) || pending.size() > maxKeysPerCache) {
+                    pending.clear();
+                    pending.add(ALL_KEYS);
+                }
+            }
+            return pending;
+        });
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = openDedicatedConnection()) {
+                connection.setAutoCommit(true);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                if (reconnect) {
+                    LOGGER.info("Cache invalidation listener reconnected, clearing every cache because invalidations might have been missed");
+                    listeners.values().forEach(cacheListeners -> cacheListeners.forEach(listener -> invalidate(listener, null)));
+                }
+                reconnect = true;
+                while (running) {
+                    sendPendingInvalidations(connection);
+                    PGNotification[] notifications = pgConnection.getNotifications(pollTimeoutMillis);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            handleNotification(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    LOGGER.warn("Cache invalidation listener failed, reconnecting in {} ms", reconnectDelayMillis, e);
+                    reconnect = true;
+                    sleepBeforeReconnect();
+                }
+            }
+        }
+    }
+
+    private Connection openDedicatedConnection() throws SQLException {
+        if (dataSource.isWrapperFor(HikariDataSource.class)) {
+            HikariDataSource hikariDataSource = dataSource.unwrap(HikariDataSource.class);
+            Properties properties = new Properties();
+            properties.putAll(hikariDataSource.getDataSourceProperties());
+            properties.setProperty("user", hikariDataSource.getUsername());
+            properties.setProperty("password", hikariDataSource.getPassword());
+            return DriverManager.getConnection(hikariDataSource.getJdbcUrl(), properties);
+        }
+        LOGGER.warn("The data source is not a Hikari pool, cache invalidations are sent and received on a connection of the pool");
+        return dataSource.getConnection();
+    }
+
+    private void invalidate(CacheInvalidationListener listener, String keyToken) {
+        try {
+            listener.invalidate(keyToken);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Failed to invalidate cache entries of key {}", keyToken, e);
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(reconnectDelayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.sequenceiq.cloudbreak.client;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.OptionalInt;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.ws.rs.client.Client;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.sequenceiq.cloudbreak.common.metrics.type.MetricType;
+
+import io.micrometer.core.instrument.Metrics;
+
+/**
+ * Size and idle bounded cache of the mutual TLS JAX-RS clients. A client is identified by the fingerprint of its certificates and key
+ * and by its timeouts, so a certificate rotation creates a new client. Reusing the client reuses its SSL context, which keeps the TLS
+ * sessions and the keep-alive connections of the connector instead of a full handshake for every request. Evicted clients are closed
+ * once every {@link SharedClient} handle of them is closed.
+ */
+public class RestClientCache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RestClientCache.class);
+
+    private final Cache<Key, CachedClient> clients;
+
+    public RestClientCache(long maxSize, Duration idleTimeout) {
+        clients = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(idleTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .removalListener(this::onRemoval)
+                .build();
+        Metrics.gauge(MetricType.REST_CLIENT_CACHE_SIZE.getMetricName(), clients, Cache::size);
+    }
+
+    public SharedClient get(Key key, ClientFactory clientFactory) throws Exception {
+        while (true) {
+            boolean[] created = {false};
+            CachedClient cachedClient;
+            try {
+                cachedClient = clients.get(key, () -> {
+                    created[0] = true;
+                    return createClient(key, clientFactory);
+                });
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+            SharedClient sharedClient = cachedClient.acquire();
+            if (sharedClient != null) {
+                if (!created[0]) {
+                    Metrics.counter(MetricType.REST_CLIENT_CACHE_HIT.getMetricName()).increment();
+                }
+                return sharedClient;
+            }
+            LOGGER.debug("Rest client was evicted concurrently, creating a new one for {}", key);
+        }
+    }
+
+    public long size() {
+        return clients.size();
+    }
+
+    public void invalidateAll() {
+        clients.invalidateAll();
+    }
+
+    private CachedClient createClient(Key key, ClientFactory clientFactory) throws Exception {
+        Metrics.counter(MetricType.REST_CLIENT_CACHE_MISS.getMetricName()).increment();
+        long start = System.nanoTime();
+        Client client = clientFactory.create();
+        Duration creationTime = Duration.ofNanos(System.nanoTime() - start);
+        Metrics.timer(MetricType.REST_CLIENT_CREATE.getMetricName()).record(creationTime);
+        LOGGER.debug("Rest client created in {} ms for {}, cache size: {}", creationTime.toMillis(), key, clients.size());
+        return new CachedClient(client);
+    }
+
+    private void onRemoval(RemovalNotification<Key, CachedClient> notification) {
+        if (notification.getValue() != null) {
+            LOGGER.debug("Rest client of {} is removed from the cache: {}", notification.getKey(), notification.getCause());
+            notification.getValue().evict();
+        }
+    }
+
+    @FunctionalInterface
+    public interface ClientFactory {
+
+        Client create() throws Exception;
+    }
+
+    static class CachedClient {
+
+        private final Client client;
+
+        private int handles;
+
+        private boolean evicted;
+
+        private boolean closed;
+
+        CachedClient(Client client) {
+            this.client = client;
+        }
+
+        synchronized SharedClient acquire() {
+            if (evicted) {
+                return null;
+            }
+            handles++;
+            return new SharedClient(this, client);
+        }
+
+        synchronized void release() {
+            handles--;
+            closeIfUnused();
+        }
+
+        synchronized void evict() {
+            evicted = true;
+            closeIfUnused();
+        }
+
+        private void closeIfUnused() {
+            if (evicted && handles <= 0 && !closed) {
+                closed = true;
+                client.close();
+            }
+        }
+    }
+
+    public static class Key {
+
+        private static final int LOGGED_FINGERPRINT_LENGTH = 12;
+
+        private final String tlsFingerprint;
+
+        private final int connectionTimeout;
+
+        private final OptionalInt readTimeout;
+
+        private final boolean debug;
+
+        public Key(String serverCert, String clientCert, String clientKey, int connectionTimeout, OptionalInt readTimeout, boolean debug) {
+            Hasher hasher = Hashing.sha256().newHasher();
+            for (String tlsMaterial : new String[]{serverCert, clientCert, clientKey}) {
+                hasher.putString(Objects.toString(tlsMaterial, ""), UTF_8).putChar('\0');
+            }
+            tlsFingerprint = hasher.hash().toString();
+            this.connectionTimeout = connectionTimeout;
+            this.readTimeout = readTimeout;
+            this.debug = debug;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return connectionTimeout == key.connectionTimeout
+                    && debug == key.debug
+                    && Objects.equals(tlsFingerprint, key.tlsFingerprint)
+                    && Objects.equals(readTimeout, key.readTimeout);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tlsFingerprint, connectionTimeout, readTimeout, debug);
+        }
+
+        @Override
+        public String toString() {
+            return "Key{"
+                    + "tlsFingerprint='" + tlsFingerprint.substring(0, LOGGED_FINGERPRINT_LENGTH) + '\''
+                    + ", connectionTimeout=" + connectionTimeout
+                    + ", readTimeout=" + readTimeout
+                    + ", debug=" + debug
+                    + '}';
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.sequenceiq.cloudbreak.client;
 
+import java.time.Duration;
 import java.util.Map;
 import java.util.OptionalInt;
 import java.util.concurrent.ConcurrentHashMap;
@@ -28,21 +29,46 @@ public class RestClientUtil {
 
     private static final int READ_TIMEOUT_MS = 60_000;
 
+    private static final long CACHED_CLIENTS_MAX_SIZE = 1000L;
+
+    private static final Duration CACHED_CLIENTS_IDLE_TIMEOUT = Duration.ofMinutes(10);
+
     private static final Map<ConfigKey, Client> CLIENTS = new ConcurrentHashMap<>();
 
+    private static final RestClientCache CLIENT_CACHE = new RestClientCache(CACHED_CLIENTS_MAX_SIZE, CACHED_CLIENTS_IDLE_TIMEOUT);
+
     private RestClientUtil() {
     }
 
-    public static synchronized Client get() {
+    public static Client get() {
         return get(new ConfigKey(false, false, false));
     }
 
-    public static synchronized Client get(ConfigKey configKey) {
+    public static Client get(ConfigKey configKey) {
         Client client = CLIENTS.computeIfAbsent(configKey, RestClientUtil::createClient);
         LOGGER.debug("RestClient cache size: {}, key: {}, fetched client: {}", CLIENTS.size(), configKey, client);
         return client;
     }
 
+    /**
+     * Returns a client shared by every caller with the same certificates, key and timeouts, see {@link RestClientCache}. The returned
+     * client has to be closed by the caller when it is not needed anymore, and its configuration cannot be modified.
+     */
+    public static Client getSharedClient(String serverCert, String clientCert, String clientKey, int connectionTimeout, OptionalInt readTimeout,
+            boolean debug) throws Exception {
+        return CLIENT_CACHE.get(new RestClientCache.Key(serverCert, clientCert, clientKey, connectionTimeout, readTimeout, debug),
+                () -> createClient(serverCert, clientCert, clientKey, connectionTimeout, readTimeout, debug));
+    }
+
+    public static Client getSharedClient(String serverCert, String clientCert, String clientKey, int connectionTimeout, int readTimeout, boolean debug)
+            throws Exception {
+        return getSharedClient(serverCert, clientCert, clientKey, connectionTimeout, OptionalInt.of(readTimeout), debug);
+    }
+
+    public static Client getSharedClient(String serverCert, String clientCert, String clientKey, boolean debug) throws Exception {
+        return getSharedClient(serverCert, clientCert, clientKey, CONNECT_TIMEOUT_MS, OptionalInt.empty(), debug);
+    }
+
     public static Client createClient(String serverCert, String clientCert, String clientKey, boolean debug) throws Exception {
         return createClient(serverCert, clientCert, clientKey, CONNECT_TIMEOUT_MS, OptionalInt.empty(), debug);
     }
@@ -0,0 +1,129 @@
+package com.sequenceiq.cloudbreak.client;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Invocation;
+import javax.ws.rs.client.WebTarget;
+import javax.ws.rs.core.Configuration;
+import javax.ws.rs.core.Link;
+import javax.ws.rs.core.UriBuilder;
+
+/**
+ * Handle of a JAX-RS client shared through {@link RestClientCache}. Closing the handle only releases it, the underlying client is closed
+ * when it is evicted from the cache and no handle uses it anymore. The configuration of a shared client cannot be modified, features
+ * and properties have to be registered on the {@link WebTarget} instead.
+ */
+public class SharedClient implements Client {
+
+    private final RestClientCache.CachedClient cachedClient;
+
+    private final Client delegate;
+
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    SharedClient(RestClientCache.CachedClient cachedClient, Client delegate) {
+        this.cachedClient = cachedClient;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void close() {
+        if (released.compareAndSet(false, true)) {
+            cachedClient.release();
+        }
+    }
+
+    @Override
+    public WebTarget target(String uri) {
+        return delegate.target(uri);
+    }
+
+    @Override
+    public WebTarget target(URI uri) {
+        return delegate.target(uri);
+    }
+
+    @Override
+    public WebTarget target(UriBuilder uriBuilder) {
+        return delegate.target(uriBuilder);
+    }
+
+    @Override
+    public WebTarget target(Link link) {
+        return delegate.target(link);
+    }
+
+    @Override
+    public Invocation.Builder invocation(Link link) {
+        return delegate.invocation(link);
+    }
+
+    @Override
+    public SSLContext getSslContext() {
+        return delegate.getSslContext();
+    }
+
+    @Override
+    public HostnameVerifier getHostnameVerifier() {
+        return delegate.getHostnameVerifier();
+    }
+
+    @Override
+    public Configuration getConfiguration() {
+        return delegate.getConfiguration();
+    }
+
+    @Override
+    public Client property(String name, Object value) {
+        throw unsupportedModification();
+    }
+
+    @Override
+    public Client register(Class<?> componentClass) {
+        throw unsupportedModification();
+    }
+
+    @Override
+    public Client register(Class<?> componentClass, int priority) {
+        throw unsupportedModification();
+    }
+
+    @Override
+    public Client register(Class<?> componentClass, Class<?>... contracts) {
+        throw unsupportedModification();
+    }
+
+    @Override
+    public Client register(Class<?> componentClass, Map<Class<?>, Integer> contracts) {
+        throw unsupportedModification();
+    }
+
+    @Override
+    public Client register(Object component) {
+        throw unsupportedModification();
+    }
+
+    @Override
+    public Client register(Object component, int priority) {
+        throw unsupportedModification();
+    }
+
+    @Override
+    public Client register(Object component, Class<?>... contracts) {
+        throw unsupportedModification();
+    }
+
+    @Override
+    public Client register(Object component, Map<Class<?>, Integer> contracts) {
+        throw unsupportedModification();
+    }
+
+    private UnsupportedOperationException unsupportedModification() {
+        return new UnsupportedOperationException("The configuration of a shared rest client cannot be modified, configure the WebTarget instead.");
+    }
+}
@@ -17,6 +17,7 @@ import com.sequenceiq.cloudbreak.common.metrics.type.MetricType;
 import com.sequenceiq.cloudbreak.common.service.TransactionMetricsContext;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Tag;
 import io.micrometer.core.instrument.Tags;
@@ -61,6 +62,12 @@ public abstract class AbstractMetricService implements MetricService {
         incrementMetricCounter(getMetricName(metric), tags);
     }
 
+    @Override
+    public void incrementMetricCounterBy(Metric metric, double amount, String... tags) {
+        Counter counter = Metrics.counter(getMetricName(metric), tags);
+        counter.increment(amount);
+    }
+
     @Override
     public <T, U> Map<T, U> gaugeMapSize(Metric metric, Map<T, U> map) {
         return Metrics.gaugeMapSize(getMetricName(metric), Tags.empty(), map);
@@ -102,6 +109,13 @@ public abstract class AbstractMetricService implements MetricService {
         Metrics.gauge(getMetricName(metric), tagList, object, valueFunction);
     }
 
+    @Override
+    public <T> void registerFunctionCounterMetric(Metric metric, T object, ToDoubleFunction<T> countFunction, Map<String, String> tags) {
+        FunctionCounter.builder(getMetricName(metric), object, countFunction)
+                .tags(getTagList(tags))
+                .register(Metrics.globalRegistry);
+    }
+
     private List<Tag> getTagList(Map<String, String> tags) {
         if (tags == null) {
             return Collections.emptyList();
@@ -16,11 +16,15 @@ public interface MetricService {
 
     void incrementMetricCounter(Metric metric, String... tags);
 
+    void incrementMetricCounterBy(Metric metric, double amount, String... tags);
+
     <T, U> Map<T, U> gaugeMapSize(Metric metric, Map<T, U> map);
 
     void recordTimerMetric(Metric metric, Duration duration, String... tags);
 
     <T> void registerGaugeMetric(Metric metric, T object, ToDoubleFunction<T> valueFunction, Map<String, String> tags);
 
+    <T> void registerFunctionCounterMetric(Metric metric, T object, ToDoubleFunction<T> countFunction, Map<String, String> tags);
+
     void recordTransactionTime(TransactionMetricsContext transactionMetricsContext, long duration);
 }
@@ -11,5 +11,6 @@ public enum MetricTag {
     TENANT,
     REGION,
     URI,
-    CALLER_ID
+    CALLER_ID,
+    CACHE_NAME
 }
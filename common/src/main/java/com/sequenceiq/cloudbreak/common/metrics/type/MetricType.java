@@ -11,7 +11,27 @@ public enum MetricType implements Metric {
     REST_OPERATION("rest.operation"),
     REST_OPERATION_FAILED("rest.operation.failed"),
     REST_OPERATION_CALLER_ID("rest.operation.caller.id"),
-    DB_TRANSACTION_ID("db.transaction");
+    DB_TRANSACTION_ID("db.transaction"),
+    CACHE_HIT("cache.hit"),
+    CACHE_MISS("cache.miss"),
+    CACHE_NEGATIVE_HIT("cache.negative.hit"),
+    CACHE_REFRESH_AHEAD("cache.refresh.ahead"),
+    CACHE_LOAD("cache.load"),
+    CACHE_LOAD_FAILED("cache.load.failed"),
+    CACHE_REMOTE_INVALIDATION("cache.remote.invalidation"),
+    CM_CLIENT_POOL_SIZE("cm.client.pool.size"),
+    CM_CLIENT_REQUEST("cm.client.request"),
+    CM_CLIENT_TLS_HANDSHAKE("cm.client.tls.handshake"),
+    REST_CLIENT_CACHE_SIZE("rest.client.cache.size"),
+    REST_CLIENT_CACHE_HIT("rest.client.cache.hit"),
+    REST_CLIENT_CACHE_MISS("rest.client.cache.miss"),
+    REST_CLIENT_CREATE("rest.client.create"),
+    METRICS_REMOTE_WRITE_BATCH_SIZE("metrics.remote.write.batch.size"),
+    METRICS_REMOTE_WRITE_RECORDS("metrics.remote.write.records"),
+    METRICS_REMOTE_WRITE_FLUSH("metrics.remote.write.flush"),
+    METRICS_REMOTE_WRITE_RETRY("metrics.remote.write.retry"),
+    METRICS_REMOTE_WRITE_DROPPED("metrics.remote.write.dropped"),
+    STRUCTURED_EVENT_JOURNAL_DROPPED("structured.event.journal.dropped");
 
     private final String metricName;
 
@@ -4,6 +4,7 @@ import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 import com.google.common.base.Preconditions;
 import com.sequenceiq.cloudbreak.logger.MDCBuilder;
@@ -14,9 +15,16 @@ public class EventBus {
 
     private final Executor executor;
 
+    private final Function<Event<?>, Object> partitionKeyResolver;
+
     public EventBus(EventRouter eventRouter, Executor executor) {
+        this(eventRouter, executor, event -> null);
+    }
+
+    public EventBus(EventRouter eventRouter, Executor executor, Function<Event<?>, Object> partitionKeyResolver) {
         this.eventRouter = Preconditions.checkNotNull(eventRouter, "eventRouter must not be null.");
         this.executor = Preconditions.checkNotNull(executor, "executor must not be null.");
+        this.partitionKeyResolver = Preconditions.checkNotNull(partitionKeyResolver, "partitionKeyResolver must not be null.");
     }
 
     public void notify(String key, Event<?> event) {
@@ -24,14 +32,19 @@ public class EventBus {
         Preconditions.checkNotNull(event, "event must not be null.");
         event.setKey(key);
         Map<String, String> mdcContext = MDCBuilder.getMdcContextMap();
-        executor.execute(() -> {
+        Runnable task = () -> {
             try {
                 MDCBuilder.buildMdcContextFromMap(mdcContext);
                 eventRouter.handle(event);
             } finally {
                 MDCBuilder.cleanupMdc();
             }
-        });
+        };
+        if (executor instanceof PartitionedEventExecutor) {
+            ((PartitionedEventExecutor) executor).execute(partitionKeyResolver.apply(event), task);
+        } else {
+            executor.execute(task);
+        }
     }
 
     public <T extends Event<?>> void on(String key, Consumer<T> handler) {
@@ -52,6 +65,8 @@ public class EventBus {
 
         private BiConsumer<Event<?>, Throwable> exceptionHandler;
 
+        private Function<Event<?>, Object> partitionKeyResolver = event -> null;
+
         public Builder executor(Executor executor) {
             this.executor = Preconditions.checkNotNull(executor, "executor must not be null.");
             return this;
@@ -67,8 +82,13 @@ public class EventBus {
             return this;
         }
 
+        public Builder partitionKeyResolver(Function<Event<?>, Object> partitionKeyResolver) {
+            this.partitionKeyResolver = Preconditions.checkNotNull(partitionKeyResolver, "partitionKeyResolver must not be null.");
+            return this;
+        }
+
         public EventBus build() {
-            return new EventBus(new EventRouter(unhandledEventHandler, exceptionHandler), executor);
+            return new EventBus(new EventRouter(unhandledEventHandler, exceptionHandler), executor, partitionKeyResolver);
         }
     }
 }
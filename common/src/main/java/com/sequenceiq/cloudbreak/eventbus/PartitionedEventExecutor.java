@@ -0,0 +1,365 @@
+package com.sequenceiq.cloudbreak.eventbus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.sequenceiq.cloudbreak.logger.MDCBuilder;
+
+/**
+ * Executor which keeps a serial queue for every partition key on top of a shared thread pool.
+ * Tasks with the same key are executed one after the other in submission order, tasks of different keys run in parallel,
+ * so a slow flow only delays its own events. Tasks without a partition key are executed in parallel.
+ * The keyed queues and the unkeyed tasks are scheduled from one ready queue by at most {@code parallelism} workers
+ * running on the shared pool, so no task is rejected by the pool.
+ * A keyed queue executes one task per turn and goes to the end of the ready queue if it has more, to be fair between the flows.
+ * At most {@code capacity} tasks wait in the executor. A producer over the limit blocks until a task finishes, and the task is
+ * rejected if that takes longer than the offer timeout. Tasks submitted by a running task are not limited, otherwise the workers
+ * could block each other.
+ */
+public class PartitionedEventExecutor extends AbstractExecutorService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PartitionedEventExecutor.class);
+
+    private final ExecutorService executor;
+
+    private final int parallelism;
+
+    private final Semaphore capacity;
+
+    private final long offerTimeoutMillis;
+
+    private final ThreadLocal<Boolean> workerThread = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    private final Map<Object, SerialQueue> serialQueues = new ConcurrentHashMap<>();
+
+    private final Queue<Runnable> readyQueue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger activeWorkers = new AtomicInteger();
+
+    private final AtomicInteger queuedTasks = new AtomicInteger();
+
+    private final AtomicLong completedTaskCount = new AtomicLong();
+
+    private final AtomicLong totalWaitMillis = new AtomicLong();
+
+    private final AtomicLong maxWaitMillis = new AtomicLong();
+
+    private volatile boolean shutdown;
+
+    private volatile boolean stopped;
+
+    public PartitionedEventExecutor(ExecutorService executor, int parallelism, int capacity, long offerTimeoutMillis) {
+        Preconditions.checkArgument(parallelism > 0, "parallelism must be positive.");
+        Preconditions.checkArgument(capacity > 0, "capacity must be positive.");
+        this.executor = Preconditions.checkNotNull(executor, "executor must not be null.");
+        this.parallelism = parallelism;
+        this.capacity = new Semaphore(capacity);
+        this.offerTimeoutMillis = offerTimeoutMillis;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        execute(null, command);
+    }
+
+    public void execute(Object partitionKey, Runnable command) {
+        Preconditions.checkNotNull(command, "command must not be null.");
+        if (shutdown) {
+            throw new RejectedExecutionException("Partitioned event executor has been shut down.");
+        }
+        TimedTask task = new TimedTask(command, !workerThread.get());
+        if (task.limited) {
+            acquireCapacity();
+        }
+        queuedTasks.incrementAndGet();
+        if (partitionKey == null) {
+            readyQueue.add(task);
+        } else {
+            serialQueues.compute(partitionKey, (key, queue) -> {
+                SerialQueue serialQueue = queue == null ? new SerialQueue(key) : queue;
+                serialQueue.tasks.add(task);
+                if (queue == null) {
+                    readyQueue.add(serialQueue);
+                }
+                return serialQueue;
+            });
+        }
+        startWorkerIfNeeded();
+    }
+
+    private void acquireCapacity() {
+        try {
+            if (!capacity.tryAcquire(offerTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("Partitioned event executor is full, queued tasks: " + queuedTasks.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for free capacity in partitioned event executor.", e);
+        }
+        if (shutdown) {
+            capacity.release();
+            throw new RejectedExecutionException("Partitioned event executor has been shut down.");
+        }
+    }
+
+    public Statistics getStatistics() {
+        long completed = completedTaskCount.get();
+        return new Statistics(serialQueues.size(), queuedTasks.get(), activeWorkers.get(), completed,
+                completed == 0 ? 0 : totalWaitMillis.get() / completed, maxWaitMillis.get());
+    }
+
+    public int getQueueSize() {
+        return queuedTasks.get();
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        executor.shutdown();
+    }
+
+    /**
+     * Returns the tasks which have not been started, including the queued tasks of the partitions that are running right now.
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown = true;
+        stopped = true;
+        List<Runnable> remaining = new ArrayList<>();
+        for (Runnable unit = readyQueue.poll(); unit != null; unit = readyQueue.poll()) {
+            if (unit instanceof TimedTask) {
+                remaining.add(drain((TimedTask) unit));
+            }
+        }
+        for (SerialQueue serialQueue : serialQueues.values()) {
+            for (TimedTask task = serialQueue.tasks.poll(); task != null; task = serialQueue.tasks.poll()) {
+                remaining.add(drain(task));
+            }
+        }
+        executor.shutdownNow();
+        return remaining;
+    }
+
+    private Runnable drain(TimedTask task) {
+        queuedTasks.decrementAndGet();
+        task.releaseCapacity();
+        return task.command;
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown && executor.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return executor.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    public String toString() {
+        return "PartitionedEventExecutor{" +
+                "statistics=" + getStatistics() +
+                ", shutdown=" + shutdown +
+                ", executor=" + executor +
+                '}';
+    }
+
+    private void startWorkerIfNeeded() {
+        int active = activeWorkers.get();
+        while (active < parallelism && !readyQueue.isEmpty()) {
+            if (activeWorkers.compareAndSet(active, active + 1)) {
+                try {
+                    executor.execute(this::work);
+                } catch (RejectedExecutionException e) {
+                    activeWorkers.decrementAndGet();
+                    LOGGER.warn("Worker of partitioned event executor has been rejected, queued tasks: {}", queuedTasks.get(), e);
+                }
+                return;
+            }
+            active = activeWorkers.get();
+        }
+    }
+
+    /**
+     * Checks the stop flag before taking the next unit, so a unit taken from the ready queue is always run and never lost.
+     */
+    private void work() {
+        workerThread.set(Boolean.TRUE);
+        try {
+            while (!stopped) {
+                Runnable unit = readyQueue.poll();
+                if (unit == null) {
+                    break;
+                }
+                unit.run();
+            }
+        } finally {
+            workerThread.remove();
+            activeWorkers.decrementAndGet();
+        }
+        if (!stopped) {
+            startWorkerIfNeeded();
+        }
+    }
+
+    private void runTask(TimedTask task) {
+        queuedTasks.decrementAndGet();
+        task.releaseCapacity();
+        long waitMillis = System.currentTimeMillis() - task.enqueuedAt;
+        totalWaitMillis.addAndGet(waitMillis);
+        maxWaitMillis.accumulateAndGet(waitMillis, Math::max);
+        try {
+            task.command.run();
+        } catch (RuntimeException e) {
+            LOGGER.error("Unhandled exception in partitioned event executor", e);
+        } finally {
+            completedTaskCount.incrementAndGet();
+            MDCBuilder.cleanupMdc();
+        }
+    }
+
+    private final class SerialQueue implements Runnable {
+
+        private final Object key;
+
+        private final Queue<TimedTask> tasks = new ConcurrentLinkedQueue<>();
+
+        private SerialQueue(Object key) {
+            this.key = key;
+        }
+
+        /**
+         * Runs the oldest task of the key, then removes the queue if it is empty or puts it back to the end of the ready queue.
+         * Both happen under the lock of the map entry, so a concurrently submitted task is never left behind.
+         */
+        @Override
+        public void run() {
+            try {
+                TimedTask task = tasks.poll();
+                if (task != null) {
+                    runTask(task);
+                }
+            } finally {
+                serialQueues.compute(key, (k, queue) -> {
+                    if (tasks.isEmpty()) {
+                        return null;
+                    }
+                    readyQueue.add(this);
+                    return this;
+                });
+            }
+        }
+    }
+
+    private final class TimedTask implements Runnable {
+
+        private final Runnable command;
+
+        private final long enqueuedAt;
+
+        private final boolean limited;
+
+        private TimedTask(Runnable command, boolean limited) {
+            this.command = command;
+            this.enqueuedAt = System.currentTimeMillis();
+            this.limited = limited;
+        }
+
+        private void releaseCapacity() {
+            if (limited) {
+                capacity.release();
+            }
+        }
+
+        @Override
+        public void run() {
+            runTask(this);
+        }
+    }
+
+    public static class Statistics {
+
+        private final int activePartitions;
+
+        private final int queueSize;
+
+        private final int activeWorkers;
+
+        private final long completedTaskCount;
+
+        private final long averageWaitMillis;
+
+        private final long maxWaitMillis;
+
+        public Statistics(int activePartitions, int queueSize, int activeWorkers, long completedTaskCount, long averageWaitMillis,
+                long maxWaitMillis) {
+            this.activePartitions = activePartitions;
+            this.queueSize = queueSize;
+            this.activeWorkers = activeWorkers;
+            this.completedTaskCount = completedTaskCount;
+            this.averageWaitMillis = averageWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+        }
+
+        public int getActivePartitions() {
+            return activePartitions;
+        }
+
+        public int getQueueSize() {
+            return queueSize;
+        }
+
+        public int getActiveWorkers() {
+            return activeWorkers;
+        }
+
+        public long getCompletedTaskCount() {
+            return completedTaskCount;
+        }
+
+        public long getAverageWaitMillis() {
+            return averageWaitMillis;
+        }
+
+        public long getMaxWaitMillis() {
+            return maxWaitMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "Statistics{" +
+                    "activePartitions=" + activePartitions +
+                    ", queueSize=" + queueSize +
+                    ", activeWorkers=" + activeWorkers +
+                    ", completedTaskCount=" + completedTaskCount +
+                    ", averageWaitMillis=" + averageWaitMillis +
+                    ", maxWaitMillis=" + maxWaitMillis +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.sequenceiq.cloudbreak.logger.concurrent;
+
+import java.lang.reflect.Method;
+import java.util.Optional;
+import java.util.concurrent.ThreadFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * Creates thread factories for the configured {@link ThreadMode}. Virtual threads are looked up reflectively, because the code base
+ * is compiled for Java 11. They need a Java 21 runtime: configuring {@link ThreadMode#VIRTUAL} on an older runtime fails the creation
+ * of the executor instead of silently running on platform threads sized for virtual ones.
+ */
+public class ThreadFactories {
+
+    private static final Optional<Method> OF_VIRTUAL = findOfVirtualMethod();
+
+    private ThreadFactories() {
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        return OF_VIRTUAL.isPresent();
+    }
+
+    public static ThreadFactory create(ThreadMode threadMode, String namePrefix, boolean daemon) {
+        if (threadMode == ThreadMode.VIRTUAL) {
+            if (!isVirtualThreadSupported()) {
+                throw new IllegalStateException(String.format("Virtual threads are configured for '%s', but the current runtime (%s) " +
+                        "does not support them, Java 21 or newer is required.", namePrefix, Runtime.version()));
+            }
+            return createVirtualThreadFactory(namePrefix);
+        }
+        return new ThreadFactoryBuilder().setNameFormat(namePrefix + "-%d").setDaemon(daemon).build();
+    }
+
+    private static ThreadFactory createVirtualThreadFactory(String namePrefix) {
+        try {
+            Object builder = OF_VIRTUAL.get().invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix + "-virtual-", 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create virtual thread factory for " + namePrefix, e);
+        }
+    }
+
+    private static Optional<Method> findOfVirtualMethod() {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            ofVirtual.invoke(null);
+            return Optional.of(ofVirtual);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+}
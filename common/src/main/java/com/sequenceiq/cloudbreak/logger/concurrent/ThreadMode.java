@@ -0,0 +1,6 @@
+package com.sequenceiq.cloudbreak.logger.concurrent;
+
+public enum ThreadMode {
+    PLATFORM,
+    VIRTUAL
+}
@@ -24,10 +24,22 @@ public class StatusCheckerConfig {
     @Value("${statuschecker.enabled:true}")
     private boolean autoSyncEnabled;
 
+    @Value("${statuschecker.batch.enabled:false}")
+    private boolean batchSyncEnabled;
+
+    @Value("${statuschecker.batch.shards:4}")
+    private int batchShards;
+
+    @Value("${statuschecker.batch.size:100}")
+    private int batchSize;
+
     @PostConstruct
     void logEnablement() {
         if (autoSyncEnabled) {
             LOGGER.info("Auto sync is enabled. Short sync period is {} sec. Long sync period is {} sec.", intervalInSeconds, longIntervalInSeconds);
+            if (batchSyncEnabled) {
+                LOGGER.info("Batched auto sync is enabled with {} shards and batches of {} resources.", batchShards, batchSize);
+            }
         } else {
             LOGGER.info("Auto sync is disabled.");
         }
@@ -49,4 +61,16 @@ public class StatusCheckerConfig {
         return snoozeSeconds;
     }
 
+    public boolean isBatchSyncEnabled() {
+        return batchSyncEnabled;
+    }
+
+    public int getBatchShards() {
+        return batchShards;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
 }
@@ -0,0 +1,82 @@
+package com.sequenceiq.cloudbreak.quartz.statuschecker.job;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Lists;
+import com.sequenceiq.cloudbreak.logger.MdcContextInfoProvider;
+import com.sequenceiq.cloudbreak.quartz.MdcQuartzJob;
+import com.sequenceiq.cloudbreak.quartz.statuschecker.StatusCheckerConfig;
+
+/**
+ * Status checker job of one shard of the resources of a service. Instead of a Quartz job per resource, a shard job sweeps every
+ * resource whose id falls into its shard ({@code id mod shardCount = shardIndex}, evaluated by the query of the service) and syncs
+ * them in batches, so the resources of a batch can be loaded with bulk queries and grouped for the provider calls.
+ * The shard jobs are stored in the clustered job store, so the shards are spread over the replicas.
+ */
+public abstract class BatchStatusCheckerJob extends MdcQuartzJob {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchStatusCheckerJob.class);
+
+    @Inject
+    private StatusCheckerConfig statusCheckerConfig;
+
+    private int shardIndex;
+
+    private int shardCount;
+
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    public void setShardIndex(int shardIndex) {
+        this.shardIndex = shardIndex;
+    }
+
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public void setShardCount(int shardCount) {
+        this.shardCount = shardCount;
+    }
+
+    @Override
+    protected Optional<MdcContextInfoProvider> getMdcContextConfigProvider() {
+        return Optional.empty();
+    }
+
+    @Override
+    protected void executeTracedJob(JobExecutionContext context) throws JobExecutionException {
+        int count = Math.max(1, shardCount);
+        int index = count == 1 ? 0 : shardIndex;
+        List<Long> shardResourceIds = getResourceIdsForSync(index, count).stream()
+                .sorted()
+                .collect(Collectors.toList());
+        LOGGER.debug(":::Auto sync::: {} resources to sync in shard {}/{}", shardResourceIds.size(), shardIndex, shardCount);
+        for (List<Long> batch : Lists.partition(shardResourceIds, Math.max(1, statusCheckerConfig.getBatchSize()))) {
+            try {
+                syncBatch(batch);
+            } catch (Exception e) {
+                LOGGER.info(":::Auto sync::: Error occurred during the sync of batch {}", batch, e);
+            }
+        }
+    }
+
+    /**
+     * Returns the ids of the resources of the shard that have to be synced. The shard predicate
+     * ({@code MOD(id, :shardCount) = :shardIndex}) belongs to the query, so a sweep of all the shards reads every id only once.
+     */
+    protected abstract Collection<Long> getResourceIdsForSync(int shardIndex, int shardCount);
+
+    protected abstract void syncBatch(List<Long> resourceIds);
+}
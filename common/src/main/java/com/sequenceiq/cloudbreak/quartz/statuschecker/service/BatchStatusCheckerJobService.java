@@ -0,0 +1,102 @@
+package com.sequenceiq.cloudbreak.quartz.statuschecker.service;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Date;
+
+import javax.inject.Inject;
+
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.JobKey;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.matchers.GroupMatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import com.sequenceiq.cloudbreak.quartz.JobSchedulerService;
+import com.sequenceiq.cloudbreak.quartz.statuschecker.StatusCheckerConfig;
+import com.sequenceiq.cloudbreak.quartz.statuschecker.job.BatchStatusCheckerJob;
+
+@Service
+public class BatchStatusCheckerJobService implements JobSchedulerService {
+
+    public static final String SHARD_INDEX = "shardIndex";
+
+    public static final String SHARD_COUNT = "shardCount";
+
+    private static final String JOB_GROUP = "batch-status-checker-jobs";
+
+    private static final String TRIGGER_GROUP = "batch-status-checker-triggers";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchStatusCheckerJobService.class);
+
+    @Inject
+    private StatusCheckerConfig statusCheckerConfig;
+
+    @Inject
+    private Scheduler scheduler;
+
+    /**
+     * Schedules one job per shard for the resources of a service. The starts of the shards are spread evenly over the sync interval.
+     */
+    public void schedule(String name, Class<? extends BatchStatusCheckerJob> jobClass) {
+        unschedule(name);
+        int shardCount = Math.max(1, statusCheckerConfig.getBatchShards());
+        int intervalInSeconds = statusCheckerConfig.getIntervalInSeconds();
+        for (int shardIndex = 0; shardIndex < shardCount; shardIndex++) {
+            JobDetail jobDetail = JobBuilder.newJob(jobClass)
+                    .withIdentity(getShardJobName(name, shardIndex), JOB_GROUP)
+                    .withDescription(String.format("Checking %s status batch job, shard %d/%d", name, shardIndex, shardCount))
+                    .usingJobData(SHARD_INDEX, shardIndex)
+                    .usingJobData(SHARD_COUNT, shardCount)
+                    .storeDurably()
+                    .build();
+            int delayInSeconds = statusCheckerConfig.getSnoozeSeconds() + intervalInSeconds * shardIndex / shardCount;
+            Trigger trigger = TriggerBuilder.newTrigger()
+                    .forJob(jobDetail)
+                    .usingJobData(jobDetail.getJobDataMap())
+                    .withIdentity(jobDetail.getKey().getName(), TRIGGER_GROUP)
+                    .withDescription(String.format("Checking %s status batch trigger, shard %d/%d", name, shardIndex, shardCount))
+                    .startAt(Date.from(ZonedDateTime.now().toInstant().plus(Duration.ofSeconds(delayInSeconds))))
+                    .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                            .withIntervalInSeconds(intervalInSeconds)
+                            .repeatForever()
+                            .withMisfireHandlingInstructionNextWithRemainingCount())
+                    .build();
+            try {
+                scheduler.scheduleJob(jobDetail, trigger);
+            } catch (SchedulerException e) {
+                LOGGER.error("Error during scheduling batch status checker job {}", jobDetail.getKey().getName(), e);
+            }
+        }
+        LOGGER.info("Batch status checker of {} is scheduled with {} shards", name, shardCount);
+    }
+
+    public void unschedule(String name) {
+        try {
+            for (JobKey jobKey : scheduler.getJobKeys(GroupMatcher.jobGroupEquals(JOB_GROUP))) {
+                if (jobKey.getName().startsWith(getShardJobName(name, ""))) {
+                    LOGGER.info("Unscheduling batch status checker job with key: '{}'", jobKey.getName());
+                    scheduler.deleteJob(jobKey);
+                }
+            }
+        } catch (SchedulerException e) {
+            LOGGER.error("Error during unscheduling batch status checker jobs of {}", name, e);
+        }
+    }
+
+    private String getShardJobName(String name, Object shardIndex) {
+        return name + "-shard-" + shardIndex;
+    }
+
+    @Override
+    public String getJobGroup() {
+        return JOB_GROUP;
+    }
+}
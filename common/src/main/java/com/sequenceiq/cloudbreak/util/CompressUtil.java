@@ -12,6 +12,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
 import java.util.zip.ZipOutputStream;
@@ -33,6 +35,8 @@ public class CompressUtil {
 
     private static final int BYTES_BUFFER_SIZE = 1024;
 
+    private final ConcurrentMap<List<String>, byte[]> compressedClasspathFolders = new ConcurrentHashMap<>();
+
     /**
      * It generates new compressed content in bytes from folders (in the classpath).
      * Generate compressed output
@@ -43,6 +47,24 @@ public class CompressUtil {
         return generateCompressedOutputFromFolders(Arrays.asList(classpathFolders), new ArrayList<>());
     }
 
+    /**
+     * Returns the compressed content of folders (in the classpath). The classpath does not change while the application runs,
+     * so the content is generated only once per folder list, later calls get a copy of the cached content.
+     * @param classpathFolders base folders that contain files that will be compressed
+     * @return compressed data in bytes
+     */
+    public byte[] getCachedCompressedOutputFromFolders(String... classpathFolders) throws IOException {
+        List<String> key = List.of(classpathFolders);
+        byte[] compressedOutput = compressedClasspathFolders.get(key);
+        if (compressedOutput == null) {
+            LOGGER.debug("Compressed content is not cached yet for folders: {}", key);
+            compressedOutput = generateCompressedOutputFromFolders(classpathFolders);
+            byte[] concurrentlyCached = compressedClasspathFolders.putIfAbsent(key, compressedOutput);
+            compressedOutput = concurrentlyCached == null ? compressedOutput : concurrentlyCached;
+        }
+        return compressedOutput.clone();
+    }
+
     /**
      * It generates new compressed content in bytes from folders (in the classpath).
      * @param classpathFolders base folders that contain files that will be compressed.
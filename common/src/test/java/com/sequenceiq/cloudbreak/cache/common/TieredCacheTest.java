@@ -0,0 +1,235 @@
+package com.sequenceiq.cloudbreak.cache.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache.ValueRetrievalException;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.sequenceiq.cloudbreak.cache.invalidation.CacheInvalidationBroadcaster;
+import com.sequenceiq.cloudbreak.cache.invalidation.CacheInvalidationListener;
+
+@ExtendWith(MockitoExtension.class)
+class TieredCacheTest {
+
+    private static final String CACHE_NAME = "testCache";
+
+    private static final Duration TTL = Duration.ofSeconds(60);
+
+    private static final Duration NEGATIVE_TTL = Duration.ofSeconds(5);
+
+    private static final Duration REFRESH_AFTER_WRITE = Duration.ofSeconds(45);
+
+    private final AtomicLong time = new AtomicLong();
+
+    private final Ticker ticker = time::get;
+
+    private final List<Runnable> refreshTasks = new ArrayList<>();
+
+    @Mock
+    private CacheInvalidationBroadcaster broadcaster;
+
+    private TieredCache underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new TieredCache(CACHE_NAME, 100L, TTL, NEGATIVE_TTL, REFRESH_AFTER_WRITE, broadcaster, null, ticker, refreshTasks::add);
+    }
+
+    @Test
+    void testNullValueExpiresAfterNegativeTimeToLive() {
+        underTest.put("missing", null);
+        underTest.put("present", "value");
+
+        advance(Duration.ofSeconds(10));
+
+        assertNull(underTest.get("missing"));
+        assertEquals("value", underTest.get("present").get());
+    }
+
+    @Test
+    void testRefreshAheadReloadsInTheBackgroundOnceWhileReadersGetCachedValue() {
+        AtomicInteger loads = new AtomicInteger();
+        underTest.get("key", () -> "old");
+        advance(Duration.ofSeconds(50));
+
+        assertEquals("old", underTest.get("key", () -> "new" + loads.incrementAndGet()));
+        assertEquals("old", underTest.get("key", () -> "new" + loads.incrementAndGet()));
+        assertEquals(1, refreshTasks.size());
+        assertEquals(0, loads.get());
+
+        runRefreshTasks();
+
+        assertEquals("new1", underTest.get("key", () -> "new" + loads.incrementAndGet()));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testRefreshAheadServesCachedValueWhenReloadFails() {
+        underTest.get("key", () -> "old");
+        advance(Duration.ofSeconds(50));
+
+        String value = underTest.get("key", () -> {
+            throw new IllegalStateException("UMS is not available");
+        });
+        runRefreshTasks();
+
+        assertEquals("old", value);
+        assertEquals("old", underTest.get("key", () -> "new"));
+        assertEquals(0, refreshTasks.size());
+        advance(Duration.ofSeconds(5));
+        assertEquals("old", underTest.get("key", () -> "new"));
+        runRefreshTasks();
+        assertEquals("new", underTest.get("key", () -> "new"));
+    }
+
+    @Test
+    void testRejectedRefreshIsRetriedAfterRefreshTimeout() {
+        AtomicBoolean rejectRefresh = new AtomicBoolean(true);
+        underTest = new TieredCache(CACHE_NAME, 100L, TTL, NEGATIVE_TTL, REFRESH_AFTER_WRITE, broadcaster, null, ticker, task -> {
+            if (rejectRefresh.get()) {
+                throw new RejectedExecutionException("Refresh pool is full");
+            }
+            refreshTasks.add(task);
+        });
+        underTest.get("key", () -> "old");
+        advance(Duration.ofSeconds(50));
+
+        assertEquals("old", underTest.get("key", () -> "new"));
+        rejectRefresh.set(false);
+        assertEquals("old", underTest.get("key", () -> "new"));
+        assertEquals(0, refreshTasks.size());
+
+        advance(Duration.ofSeconds(5));
+        assertEquals("old", underTest.get("key", () -> "new"));
+        runRefreshTasks();
+        assertEquals("new", underTest.get("key", () -> "new"));
+    }
+
+    @Test
+    void testLookupServesCachedValueWithoutRefresh() {
+        underTest.put("key", "old");
+        advance(Duration.ofSeconds(50));
+
+        assertEquals("old", underTest.get("key").get());
+        assertEquals(0, refreshTasks.size());
+    }
+
+    @Test
+    void testConcurrentMissesAreLoadedOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loadStarted = new CountDownLatch(1);
+        CountDownLatch releaseLoad = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executorService.submit(() -> underTest.get("key", () -> {
+                loads.incrementAndGet();
+                loadStarted.countDown();
+                releaseLoad.await(10, TimeUnit.SECONDS);
+                return "value";
+            }));
+            loadStarted.await(10, TimeUnit.SECONDS);
+            Future<String> second = executorService.submit(() -> underTest.get("key", () -> {
+                loads.incrementAndGet();
+                return "other";
+            }));
+            releaseLoad.countDown();
+
+            assertEquals("value", first.get(10, TimeUnit.SECONDS));
+            assertEquals("value", second.get(10, TimeUnit.SECONDS));
+            assertEquals(1, loads.get());
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Test
+    void testFailedLoadIsNotCached() {
+        assertThrows(ValueRetrievalException.class, () -> underTest.get("key", () -> {
+            throw new IllegalStateException("UMS is not available");
+        }));
+
+        assertNull(underTest.get("key"));
+        assertEquals("value", underTest.get("key", () -> "value"));
+    }
+
+    @Test
+    void testEvictionIsBroadcast() {
+        underTest.put(List.of("crn", "right"), Boolean.TRUE);
+
+        underTest.evict(List.of("crn", "right"));
+        underTest.evict(new Object());
+        underTest.clear();
+
+        verify(broadcaster).broadcast(CACHE_NAME, "[crn, right]");
+        verify(broadcaster, times(2)).broadcast(eq(CACHE_NAME), isNull());
+    }
+
+    @Test
+    void testRemoteInvalidationEvictsMatchingKeyOnly() {
+        ArgumentCaptor<CacheInvalidationListener> listenerCaptor = ArgumentCaptor.forClass(CacheInvalidationListener.class);
+        verify(broadcaster).register(eq(CACHE_NAME), listenerCaptor.capture());
+        underTest.put(List.of("crn1"), "user1");
+        underTest.put(List.of("crn2"), "user2");
+
+        listenerCaptor.getValue().invalidate("[crn1]");
+
+        assertNull(underTest.get(List.of("crn1")));
+        assertNotNull(underTest.get(List.of("crn2")));
+
+        listenerCaptor.getValue().invalidate(null);
+
+        assertNull(underTest.get(List.of("crn2")));
+        verify(broadcaster, never()).broadcast(any(), any());
+    }
+
+    @Test
+    void testRemoteInvalidationEvictsReinsertedKey() {
+        ArgumentCaptor<CacheInvalidationListener> listenerCaptor = ArgumentCaptor.forClass(CacheInvalidationListener.class);
+        verify(broadcaster).register(eq(CACHE_NAME), listenerCaptor.capture());
+        underTest.put("crn1", "user1");
+        underTest.evict("crn1");
+        underTest.get("crn1", () -> "user2");
+
+        listenerCaptor.getValue().invalidate("crn1");
+
+        assertNull(underTest.get("crn1"));
+    }
+
+    private void runRefreshTasks() {
+        List<Runnable> tasks = new ArrayList<>(refreshTasks);
+        refreshTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private void advance(Duration duration) {
+        time.addAndGet(duration.toNanos());
+    }
+}
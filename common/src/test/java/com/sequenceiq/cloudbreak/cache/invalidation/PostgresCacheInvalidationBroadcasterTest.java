@@ -0,0 +1,128 @@
+package com.sequenceiq.cloudbreak.cache.invalidation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class PostgresCacheInvalidationBroadcasterTest {
+
+    private static final String CACHE_NAME = "testCache";
+
+    private static final int MAX_KEYS_PER_CACHE = 2;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private PreparedStatement statement;
+
+    private PostgresCacheInvalidationBroadcaster underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new PostgresCacheInvalidationBroadcaster();
+        ReflectionTestUtils.setField(underTest, "channel", "cache_invalidation");
+        ReflectionTestUtils.setField(underTest, "maxKeysPerCache", MAX_KEYS_PER_CACHE);
+    }
+
+    @Test
+    void testEvictionsAreCoalescedAndSentInOneBatch() throws SQLException {
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        underTest.broadcast(CACHE_NAME, "key1");
+        underTest.broadcast(CACHE_NAME, "key1");
+        underTest.broadcast(CACHE_NAME, "key2");
+
+        underTest.sendPendingInvalidations(connection);
+
+        assertEquals(Set.of("=key1", "=key2"), sentTargets());
+        verify(statement).executeBatch();
+    }
+
+    @Test
+    void testClearSupersedesEvictedKeys() throws SQLException {
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        underTest.broadcast(CACHE_NAME, "key1");
+        underTest.broadcast(CACHE_NAME, null);
+        underTest.broadcast(CACHE_NAME, "key2");
+
+        underTest.sendPendingInvalidations(connection);
+
+        assertEquals(Set.of("*"), sentTargets());
+    }
+
+    @Test
+    void testTooManyKeysBecomeClear() throws SQLException {
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        underTest.broadcast(CACHE_NAME, "key1");
+        underTest.broadcast(CACHE_NAME, "key2");
+        underTest.broadcast(CACHE_NAME, "key3");
+
+        underTest.sendPendingInvalidations(connection);
+
+        assertEquals(Set.of("*"), sentTargets());
+    }
+
+    @Test
+    void testEvictionInTransactionIsSentAfterCommit() throws SQLException {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            underTest.broadcast(CACHE_NAME, "key1");
+            underTest.sendPendingInvalidations(connection);
+            verify(connection, never()).prepareStatement(anyString());
+
+            when(connection.prepareStatement(anyString())).thenReturn(statement);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        underTest.sendPendingInvalidations(connection);
+
+        assertEquals(Set.of("=key1"), sentTargets());
+    }
+
+    @Test
+    void testFailedInvalidationsArePendingAgain() throws SQLException {
+        when(connection.prepareStatement(anyString())).thenReturn(statement);
+        when(statement.executeBatch()).thenThrow(new SQLException("connection lost")).thenReturn(new int[0]);
+        underTest.broadcast(CACHE_NAME, "key1");
+
+        assertThrows(SQLException.class, () -> underTest.sendPendingInvalidations(connection));
+        underTest.sendPendingInvalidations(connection);
+
+        verify(connection, times(2)).prepareStatement(anyString());
+    }
+
+    private Set<String> sentTargets() throws SQLException {
+        ArgumentCaptor<String> payloadCaptor = ArgumentCaptor.forClass(String.class);
+        verify(statement, atLeastOnce()).setString(eq(2), payloadCaptor.capture());
+        List<String> payloads = payloadCaptor.getAllValues();
+        return payloads.stream()
+                .map(payload -> payload.split("\\|", 3)[2])
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,80 @@
+package com.sequenceiq.cloudbreak.client;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.OptionalInt;
+
+import javax.ws.rs.client.Client;
+
+import org.junit.jupiter.api.Test;
+
+class RestClientCacheTest {
+
+    private static final int CONNECTION_TIMEOUT = 1000;
+
+    private final List<Client> createdClients = new ArrayList<>();
+
+    private final RestClientCache underTest = new RestClientCache(10L, Duration.ofMinutes(1));
+
+    @Test
+    void testClientIsSharedForTheSameCertificatesAndTimeouts() throws Exception {
+        SharedClient first = underTest.get(key("clientCert", OptionalInt.empty()), this::createClient);
+        SharedClient second = underTest.get(key("clientCert", OptionalInt.empty()), this::createClient);
+        first.target("https://first");
+        second.target("https://second");
+
+        assertEquals(1, createdClients.size());
+        verify(createdClients.get(0)).target("https://first");
+        verify(createdClients.get(0)).target("https://second");
+    }
+
+    @Test
+    void testRotatedCertificateOrOtherTimeoutCreatesNewClient() throws Exception {
+        underTest.get(key("clientCert", OptionalInt.empty()), this::createClient);
+        underTest.get(key("rotatedClientCert", OptionalInt.empty()), this::createClient);
+        underTest.get(key("clientCert", OptionalInt.of(CONNECTION_TIMEOUT)), this::createClient);
+
+        assertEquals(3, createdClients.size());
+    }
+
+    @Test
+    void testClientIsClosedWhenEvictedAndEveryHandleIsClosed() throws Exception {
+        SharedClient first = underTest.get(key("clientCert", OptionalInt.empty()), this::createClient);
+        SharedClient second = underTest.get(key("clientCert", OptionalInt.empty()), this::createClient);
+        Client client = createdClients.get(0);
+
+        first.close();
+        first.close();
+        underTest.invalidateAll();
+        verify(client, never()).close();
+
+        second.close();
+        verify(client, times(1)).close();
+    }
+
+    @Test
+    void testSharedClientConfigurationCannotBeModified() throws Exception {
+        SharedClient sharedClient = underTest.get(key("clientCert", OptionalInt.empty()), this::createClient);
+
+        assertThrows(UnsupportedOperationException.class, () -> sharedClient.register(RequestIdProviderFeature.class));
+        assertThrows(UnsupportedOperationException.class, () -> sharedClient.property("name", "value"));
+    }
+
+    private RestClientCache.Key key(String clientCert, OptionalInt readTimeout) {
+        return new RestClientCache.Key("serverCert", clientCert, "clientKey", CONNECTION_TIMEOUT, readTimeout, false);
+    }
+
+    private Client createClient() {
+        Client client = mock(Client.class);
+        createdClients.add(client);
+        return client;
+    }
+}
@@ -2,9 +2,12 @@ package com.sequenceiq.cloudbreak.eventbus;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
+import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.function.Consumer;
 
@@ -44,6 +47,17 @@ class EventBusTest {
         verify(eventRouter).handle(data);
     }
 
+    @Test
+    void testNotifyWithPartitionedExecutor() {
+        PartitionedEventExecutor partitionedEventExecutor = mock(PartitionedEventExecutor.class);
+        underTest = new EventBus(eventRouter, partitionedEventExecutor, event -> event.getHeaders().get("FLOW_ID"));
+        Event<String> data = new Event<>(new Event.Headers(Map.of("FLOW_ID", "flow1")), "Data");
+
+        underTest.notify("KEY", data);
+
+        verify(partitionedEventExecutor).execute(eq("flow1"), any(Runnable.class));
+    }
+
     @Test
     void testAddHandler() {
         Consumer<Event<?>> consumer = e -> {
@@ -0,0 +1,171 @@
+package com.sequenceiq.cloudbreak.eventbus;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class PartitionedEventExecutorTest {
+
+    private static final int PARALLELISM = 4;
+
+    private static final int CAPACITY = 2000;
+
+    private static final long OFFER_TIMEOUT_MILLIS = 100L;
+
+    private ExecutorService executor;
+
+    private PartitionedEventExecutor underTest;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(PARALLELISM);
+        underTest = new PartitionedEventExecutor(executor, PARALLELISM, CAPACITY, OFFER_TIMEOUT_MILLIS);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        underTest.shutdownNow();
+        underTest.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testTasksWithSameKeyAreExecutedInOrder() throws InterruptedException {
+        List<Integer> executed = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(100);
+        IntStream.range(0, 100).forEach(i -> underTest.execute("flowId", () -> {
+            executed.add(i);
+            latch.countDown();
+        }));
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertEquals(IntStream.range(0, 100).boxed().collect(Collectors.toList()), executed);
+    }
+
+    @Test
+    void testSlowFlowDoesNotBlockOtherFlows() throws InterruptedException {
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(11);
+        underTest.execute("slowFlowId", () -> awaitQuietly(blocker));
+        underTest.execute("slowFlowId", latch::countDown);
+        IntStream.range(0, 10).forEach(i -> underTest.execute("flowId" + i, latch::countDown));
+
+        assertEquals(1L, waitForCount(latch, 1L));
+        blocker.countDown();
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testTasksWithoutKeyAreExecutedInParallel() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(PARALLELISM);
+        CountDownLatch blocker = new CountDownLatch(1);
+        IntStream.range(0, PARALLELISM).forEach(i -> underTest.execute(() -> {
+            started.countDown();
+            awaitQuietly(blocker);
+        }));
+
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        blocker.countDown();
+    }
+
+    @Test
+    void testTasksAreNotDroppedWhenWorkersAreBusy() throws InterruptedException {
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch latch = new CountDownLatch(1000);
+        IntStream.range(0, PARALLELISM).forEach(i -> underTest.execute(() -> awaitQuietly(blocker)));
+        IntStream.range(0, 1000).forEach(i -> underTest.execute(i % 2 == 0 ? null : "flowId" + i % 7, latch::countDown));
+
+        assertEquals(1000, latch.getCount());
+        blocker.countDown();
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testTaskCanNotifyItsOwnFlow() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(1);
+        underTest.execute("flowId", () -> underTest.execute("flowId", latch::countDown));
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testProducerIsRejectedWhenTheExecutorIsFull() throws InterruptedException {
+        underTest = new PartitionedEventExecutor(executor, PARALLELISM, 1, OFFER_TIMEOUT_MILLIS);
+        CountDownLatch started = new CountDownLatch(PARALLELISM);
+        CountDownLatch blocker = new CountDownLatch(1);
+        IntStream.range(0, PARALLELISM).forEach(i -> underTest.execute(() -> {
+            started.countDown();
+            awaitQuietly(blocker);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        underTest.execute("flowId", () -> { });
+
+        assertThrows(RejectedExecutionException.class, () -> underTest.execute("flowId", () -> { }));
+        blocker.countDown();
+    }
+
+    @Test
+    void testTaskCanNotifyItsOwnFlowWhenTheExecutorIsFull() throws InterruptedException {
+        underTest = new PartitionedEventExecutor(executor, PARALLELISM, 1, OFFER_TIMEOUT_MILLIS);
+        CountDownLatch latch = new CountDownLatch(10);
+        underTest.execute("flowId", () -> IntStream.range(0, 10).forEach(i -> underTest.execute("flowId", latch::countDown)));
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testShutdownNowReturnsTheQueuedTasksOfARunningFlow() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch blocker = new CountDownLatch(1);
+        Runnable queued = () -> { };
+        underTest.execute("flowId", () -> {
+            started.countDown();
+            awaitQuietly(blocker);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        underTest.execute("flowId", queued);
+
+        List<Runnable> remaining = underTest.shutdownNow();
+
+        assertEquals(List.of(queued), remaining);
+        assertEquals(0, underTest.getQueueSize());
+    }
+
+    @Test
+    void testExecuteAfterShutdownIsRejected() {
+        underTest.shutdown();
+
+        assertTrue(underTest.isShutdown());
+        assertTrue(executor.isShutdown());
+        assertThrows(RejectedExecutionException.class, () -> underTest.execute("flowId", () -> { }));
+    }
+
+    private long waitForCount(CountDownLatch latch, long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (latch.getCount() > count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        return latch.getCount();
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
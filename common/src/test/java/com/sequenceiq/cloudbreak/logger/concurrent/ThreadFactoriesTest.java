@@ -0,0 +1,36 @@
+package com.sequenceiq.cloudbreak.logger.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ThreadFactory;
+
+import org.junit.jupiter.api.Test;
+
+class ThreadFactoriesTest {
+
+    @Test
+    void testPlatformThreadFactory() {
+        ThreadFactory threadFactory = ThreadFactories.create(ThreadMode.PLATFORM, "test", true);
+
+        Thread thread = threadFactory.newThread(() -> { });
+
+        assertEquals("test-0", thread.getName());
+        assertTrue(thread.isDaemon());
+    }
+
+    @Test
+    void testVirtualThreadFactoryFailsWhenNotSupported() {
+        if (ThreadFactories.isVirtualThreadSupported()) {
+            Thread thread = ThreadFactories.create(ThreadMode.VIRTUAL, "test", false).newThread(() -> { });
+
+            assertEquals("test-virtual-0", thread.getName());
+        } else {
+            IllegalStateException exception = assertThrows(IllegalStateException.class,
+                    () -> ThreadFactories.create(ThreadMode.VIRTUAL, "test", false));
+
+            assertTrue(exception.getMessage().contains("Java 21"));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.sequenceiq.cloudbreak.quartz.statuschecker.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.quartz.JobExecutionContext;
+
+import com.sequenceiq.cloudbreak.quartz.statuschecker.StatusCheckerConfig;
+
+@ExtendWith(MockitoExtension.class)
+class BatchStatusCheckerJobTest {
+
+    private static final int SHARD_COUNT = 3;
+
+    @Mock
+    private StatusCheckerConfig statusCheckerConfig;
+
+    @Mock
+    private JobExecutionContext context;
+
+    @InjectMocks
+    private TestBatchStatusCheckerJob underTest;
+
+    @Test
+    void testResourcesOfTheShardAreSyncedInBatches() throws Exception {
+        when(statusCheckerConfig.getBatchSize()).thenReturn(2);
+        underTest.setShardIndex(1);
+        underTest.setShardCount(SHARD_COUNT);
+
+        underTest.executeTracedJob(context);
+
+        assertEquals(List.of(List.of(1L, 4L), List.of(7L)), underTest.batches);
+    }
+
+    @Test
+    void testFailedBatchDoesNotStopTheOthers() throws Exception {
+        when(statusCheckerConfig.getBatchSize()).thenReturn(1);
+        underTest.setShardIndex(0);
+        underTest.setShardCount(SHARD_COUNT);
+        underTest.failingResourceId = 3L;
+
+        underTest.executeTracedJob(context);
+
+        assertEquals(List.of(List.of(0L), List.of(3L), List.of(6L), List.of(9L)), underTest.batches);
+    }
+
+    @Test
+    void testEveryResourceIsInTheOnlyShard() throws Exception {
+        when(statusCheckerConfig.getBatchSize()).thenReturn(10);
+        underTest.setShardIndex(3);
+        underTest.setShardCount(0);
+
+        underTest.executeTracedJob(context);
+
+        assertEquals(List.of(LongStream.range(0, 10).boxed().collect(Collectors.toList())), underTest.batches);
+        assertEquals(List.of(0, 1), underTest.queriedShard);
+    }
+
+    static class TestBatchStatusCheckerJob extends BatchStatusCheckerJob {
+
+        private final List<List<Long>> batches = new ArrayList<>();
+
+        private Long failingResourceId;
+
+        private List<Integer> queriedShard;
+
+        @Override
+        protected Collection<Long> getResourceIdsForSync(int shardIndex, int shardCount) {
+            queriedShard = List.of(shardIndex, shardCount);
+            return LongStream.range(0, 10).boxed()
+                    .filter(id -> id % shardCount == shardIndex)
+                    .sorted(Comparator.reverseOrder())
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        protected void syncBatch(List<Long> resourceIds) {
+            batches.add(resourceIds);
+            if (resourceIds.contains(failingResourceId)) {
+                throw new IllegalStateException("Sync failed");
+            }
+        }
+    }
+}
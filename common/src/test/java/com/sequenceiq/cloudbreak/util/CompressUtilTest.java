@@ -2,6 +2,7 @@ package com.sequenceiq.cloudbreak.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.IOException;
@@ -38,4 +39,15 @@ public class CompressUtilTest {
         assertFalse(component1ContentMatch);
         assertTrue(component2ContentMatch);
     }
+
+    @Test
+    public void testCachedCompressedOutputIsGeneratedOnceAndCopied() throws IOException {
+        byte[] first = underTest.getCachedCompressedOutputFromFolders("test-salt/case1");
+        first[0] = 0;
+        byte[] second = underTest.getCachedCompressedOutputFromFolders("test-salt/case1");
+
+        assertNotSame(first, second);
+        assertTrue(underTest.compareCompressedContent(underTest.generateCompressedOutputFromFolders("test-salt/case1"), second));
+        assertEquals("myinit1", underTest.getZipEntries(second).get("/pillar/component1/init.sls"));
+    }
 }
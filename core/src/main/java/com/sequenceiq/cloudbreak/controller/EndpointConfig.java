@@ -52,6 +52,7 @@ import com.sequenceiq.distrox.v1.distrox.controller.DistroXV1Controller;
 import com.sequenceiq.distrox.v1.distrox.controller.DistroXV1EventController;
 import com.sequenceiq.flow.controller.FlowController;
 import com.sequenceiq.flow.controller.FlowPublicController;
+import com.sequenceiq.flow.controller.FlowStreamController;
 
 import io.swagger.jaxrs.config.BeanConfig;
 import io.swagger.jaxrs.config.SwaggerConfigLocator;
@@ -90,6 +91,7 @@ public class EndpointConfig extends ResourceConfig {
             CloudProviderServicesV4Controller.class,
             FlowController.class,
             FlowPublicController.class,
+            FlowStreamController.class,
             AuthorizationInfoController.class,
             DistroXUpgradeV1Controller.class,
             DistroXDatabaseServerV1Controller.class,
@@ -87,7 +87,7 @@ public class CdpNodeStatusMonitorClientFactory {
 
         Client restClient;
         try {
-            restClient = RestClientUtil.createClient(clientConfig.getServerCert(), clientConfig.getClientCert(), clientConfig.getClientKey(),
+            restClient = RestClientUtil.getSharedClient(clientConfig.getServerCert(), clientConfig.getClientCert(), clientConfig.getClientKey(),
                     connectionTimeoutMillis, readTimeoutMillis, restDebug);
         } catch (Exception e) {
             throw new CloudbreakServiceException("Unable to create client for node status checks", e);
@@ -16,7 +16,7 @@ public class CachedWorkspaceService {
     @Inject
     private WorkspaceService workspaceService;
 
-    @Cacheable(cacheNames = "workspaceServiceCache", key = "#workspace")
+    @Cacheable(cacheNames = "workspaceServiceCache", key = "#workspace", sync = true)
     public Optional<Workspace> getByName(String workspace, User user) {
         return workspaceService.getByNameForTenant(workspace, user.getTenant());
     }
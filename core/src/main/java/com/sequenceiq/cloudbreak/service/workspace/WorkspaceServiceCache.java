@@ -5,10 +5,10 @@ import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import com.sequenceiq.cloudbreak.cache.common.AbstractCacheDefinition;
+import com.sequenceiq.cloudbreak.cache.common.AbstractTieredCacheDefinition;
 
 @Service
-public class WorkspaceServiceCache extends AbstractCacheDefinition {
+public class WorkspaceServiceCache extends AbstractTieredCacheDefinition {
 
     private static final long MAX_ENTRIES = 1000L;
 
@@ -18,6 +18,14 @@ public class DatabusRequest extends RecordRequest {
         return Optional.ofNullable(context);
     }
 
+    /**
+     * Requests of the same resource (or account if there is no resource) are sent in order.
+     */
+    @Override
+    public Optional<String> getRoutingKey() {
+        return getContext().map(ctx -> ctx.getResourceCrn() != null ? ctx.getResourceCrn() : ctx.getAccountId());
+    }
+
     @Override
     public String toString() {
         return "DatabusRequest{" +
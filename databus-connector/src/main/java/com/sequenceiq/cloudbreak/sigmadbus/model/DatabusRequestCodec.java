@@ -0,0 +1,63 @@
+package com.sequenceiq.cloudbreak.sigmadbus.model;
+
+import static com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodecUtil.readMessage;
+import static com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodecUtil.readString;
+import static com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodecUtil.writeMessage;
+import static com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodecUtil.writeString;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Map;
+
+import com.google.protobuf.GeneratedMessageV3;
+import com.google.protobuf.Parser;
+import com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodec;
+
+public class DatabusRequestCodec implements RecordRequestCodec<DatabusRequest> {
+
+    private final Parser<? extends GeneratedMessageV3> messageParser;
+
+    public DatabusRequestCodec(Parser<? extends GeneratedMessageV3> messageParser) {
+        this.messageParser = messageParser;
+    }
+
+    @Override
+    public void write(DatabusRequest request, DataOutput output) throws IOException {
+        writeString(output, request.getRawBody().orElse(null));
+        writeMessage(output, request.getMessageBody().orElse(null));
+        output.writeBoolean(request.getContext().isPresent());
+        if (request.getContext().isPresent()) {
+            DatabusRequestContext context = request.getContext().get();
+            writeString(output, context.getAccountId());
+            writeString(output, context.getEnvironmentCrn());
+            writeString(output, context.getResourceCrn());
+            writeString(output, context.getResourceName());
+            output.writeInt(context.getAdditionalDatabusHeaders().size());
+            for (Map.Entry<String, String> header : context.getAdditionalDatabusHeaders().entrySet()) {
+                writeString(output, header.getKey());
+                writeString(output, header.getValue());
+            }
+        }
+    }
+
+    @Override
+    public DatabusRequest read(DataInput input) throws IOException {
+        DatabusRequest.Builder builder = DatabusRequest.Builder.newBuilder()
+                .withRawBody(readString(input))
+                .withMessageBody(readMessage(input, messageParser));
+        if (input.readBoolean()) {
+            DatabusRequestContext.Builder contextBuilder = DatabusRequestContext.Builder.newBuilder()
+                    .withAccountId(readString(input))
+                    .withEnvironmentCrn(readString(input))
+                    .withRecourceCrn(readString(input))
+                    .withResourceName(readString(input));
+            int headerCount = input.readInt();
+            for (int i = 0; i < headerCount; i++) {
+                contextBuilder.addAdditionalDatabusHeader(readString(input), readString(input));
+            }
+            builder.withContext(contextBuilder.build());
+        }
+        return builder.build();
+    }
+}
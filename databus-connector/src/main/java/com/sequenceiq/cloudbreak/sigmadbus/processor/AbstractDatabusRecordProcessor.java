@@ -1,5 +1,6 @@
 package com.sequenceiq.cloudbreak.sigmadbus.processor;
 
+import java.util.Optional;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -9,9 +10,13 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.protobuf.GeneratedMessageV3;
+import com.google.protobuf.Parser;
 import com.sequenceiq.cloudbreak.auth.crn.RegionAwareInternalCrnGeneratorFactory;
 import com.sequenceiq.cloudbreak.sigmadbus.config.SigmaDatabusConfig;
 import com.sequenceiq.cloudbreak.sigmadbus.model.DatabusRequest;
+import com.sequenceiq.cloudbreak.sigmadbus.model.DatabusRequestCodec;
+import com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodec;
 import com.sequenceiq.cloudbreak.streaming.processor.AbstractRecordProcessor;
 import com.sequenceiq.cloudbreak.telemetry.databus.AbstractDatabusStreamConfiguration;
 import com.sequenceiq.cloudbreak.telemetry.streaming.CommonStreamingConfiguration;
@@ -104,6 +109,22 @@ public abstract class AbstractDatabusRecordProcessor<C extends AbstractDatabusSt
         return new DatabusRecordWorker<>(threadName, processingQueue, this, getRegionAwareInternalCrnGeneratorFactory());
     }
 
+    /**
+     * Codec used to spill the requests to the local disk when the processing queues are full.
+     * Only available if the processor provides the parser of its message type.
+     */
+    @Override
+    public Optional<RecordRequestCodec<DatabusRequest>> getSpillCodec() {
+        return getMessageParser().map(DatabusRequestCodec::new);
+    }
+
+    /**
+     * Override this to provide the parser of the message type that is sent by the processor, it enables spilling the requests to disk.
+     */
+    public Optional<Parser<? extends GeneratedMessageV3>> getMessageParser() {
+        return Optional.empty();
+    }
+
     /**
      * Check whether input is valid for processing.
      * @param input Input to be validated.
@@ -35,6 +35,7 @@ import com.sequenceiq.datalake.controller.sdx.SdxRestoreController;
 import com.sequenceiq.datalake.controller.sdx.SdxUpgradeController;
 import com.sequenceiq.datalake.controller.util.UtilController;
 import com.sequenceiq.flow.controller.FlowPublicController;
+import com.sequenceiq.flow.controller.FlowStreamController;
 import com.sequenceiq.sdx.api.SdxApi;
 
 import io.swagger.jaxrs.config.BeanConfig;
@@ -53,6 +54,7 @@ public class EndpointConfig extends ResourceConfig {
             UtilController.class,
             SdxFlowController.class,
             FlowPublicController.class,
+            FlowStreamController.class,
             AuthorizationInfoController.class,
             DiagnosticsController.class,
             ProgressController.class,
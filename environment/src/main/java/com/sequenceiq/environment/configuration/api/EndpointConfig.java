@@ -30,6 +30,7 @@ import com.sequenceiq.environment.telemetry.v1.controller.AccountTelemetryContro
 import com.sequenceiq.environment.util.v1.UtilController;
 import com.sequenceiq.flow.controller.FlowController;
 import com.sequenceiq.flow.controller.FlowPublicController;
+import com.sequenceiq.flow.controller.FlowStreamController;
 
 import io.swagger.jaxrs.config.BeanConfig;
 import io.swagger.jaxrs.config.SwaggerConfigLocator;
@@ -54,6 +55,7 @@ public class EndpointConfig extends ResourceConfig {
             UtilController.class,
             FlowController.class,
             FlowPublicController.class,
+            FlowStreamController.class,
             AuthorizationInfoController.class,
             AuthorizationUtilEndpoint.class,
             CDPStructuredEventV1Controller.class,
@@ -42,6 +42,7 @@ import com.sequenceiq.cloudbreak.common.json.Json;
 import com.sequenceiq.cloudbreak.common.service.TransactionService;
 import com.sequenceiq.cloudbreak.event.ResourceEvent;
 import com.sequenceiq.cloudbreak.message.CloudbreakMessagesService;
+import com.sequenceiq.cloudbreak.service.secret.service.SecretAspectService;
 import com.sequenceiq.cloudbreak.service.secret.service.SecretService;
 import com.sequenceiq.cloudbreak.validation.ValidationResult;
 import com.sequenceiq.common.model.CredentialType;
@@ -80,6 +81,9 @@ public class CredentialService extends AbstractCredentialService implements Comp
     @Inject
     private SecretService secretService;
 
+    @Inject
+    private SecretAspectService secretAspectService;
+
     @Inject
     private OwnerAssignmentService ownerAssignmentService;
 
@@ -98,7 +102,9 @@ public class CredentialService extends AbstractCredentialService implements Comp
     }
 
     public Set<Credential> listAvailablesByAccountId(String accountId, CredentialType type) {
-        return repository.findAllByAccountId(accountId, getValidPlatformsForAccountId(accountId, type), type);
+        Set<Credential> credentials = repository.findAllByAccountId(accountId, getValidPlatformsForAccountId(accountId, type), type);
+        secretAspectService.preloadSecrets(credentials);
+        return credentials;
     }
 
     public List<ResourceWithId> findAsAuthorizationResourcesInAccountByType(String accountId, CredentialType type) {
@@ -106,7 +112,9 @@ public class CredentialService extends AbstractCredentialService implements Comp
     }
 
     public Set<Credential> findAllById(Iterable<Long> ids) {
-        return Sets.newLinkedHashSet(repository.findAllById(ids));
+        Set<Credential> credentials = Sets.newLinkedHashSet(repository.findAllById(ids));
+        secretAspectService.preloadSecrets(credentials);
+        return credentials;
     }
 
     @Cacheable(cacheNames = "credentialCloudPlatformCache")
@@ -15,7 +15,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import com.sequenceiq.cloudbreak.eventbus.Event;
-import com.sequenceiq.cloudbreak.polling.ExtendedPollingResult;
 import com.sequenceiq.cloudbreak.polling.PollingService;
 import com.sequenceiq.environment.environment.domain.Environment;
 import com.sequenceiq.environment.environment.dto.EnvironmentDeletionDto;
@@ -75,23 +74,29 @@ public class FreeIpaDeletionHandler extends EventSenderAwareHandler<EnvironmentD
                 if (Objects.nonNull(environment.getParentEnvironment())) {
                     detachChildEnvironmentFromFreeIpa(environment);
                 } else {
-                    deleteFreeIpa(environment, environmentDeletionDto.isForceDelete());
+                    deleteFreeIpa(environment, environmentDtoEvent);
+                    return;
                 }
             }
             eventSender().sendEvent(getNextStepEvent(environmentDeletionDto), environmentDtoEvent.getHeaders());
         } catch (Exception e) {
-            LOGGER.error("FreeIPA deletion failed", e);
-            EnvDeleteFailedEvent failedEvent = EnvDeleteFailedEvent.builder()
-                    .withEnvironmentId(environmentDto.getId())
-                    .withException(e)
-                    .withResourceCrn(environmentDto.getResourceCrn())
-                    .withResourceName(environmentDto.getName())
-                    .build();
-            eventSender().sendEvent(failedEvent, environmentDtoEvent.getHeaders());
+            sendFailedEvent(environmentDtoEvent, e);
         }
         LOGGER.debug("FreeIPA deletion flow step completed.");
     }
 
+    private void sendFailedEvent(Event<EnvironmentDeletionDto> environmentDtoEvent, Exception e) {
+        LOGGER.error("FreeIPA deletion failed", e);
+        EnvironmentDto environmentDto = environmentDtoEvent.getData().getEnvironmentDto();
+        EnvDeleteFailedEvent failedEvent = EnvDeleteFailedEvent.builder()
+                .withEnvironmentId(environmentDto.getId())
+                .withException(e)
+                .withResourceCrn(environmentDto.getResourceCrn())
+                .withResourceName(environmentDto.getName())
+                .build();
+        eventSender().sendEvent(failedEvent, environmentDtoEvent.getHeaders());
+    }
+
     private boolean shouldRemoveFreeIpa(Environment environment) {
         return Objects.nonNull(environment)
                 && freeIpaExistsForEnvironment(environment);
@@ -147,20 +152,36 @@ public class FreeIpaDeletionHandler extends EventSenderAwareHandler<EnvironmentD
         return Objects.equals(sibling.getNetwork().getNetworkCidr(), environment.getNetwork().getNetworkCidr());
     }
 
-    private void deleteFreeIpa(Environment environment, boolean forced) {
-        freeIpaService.delete(environment.getResourceCrn(), forced);
-        ExtendedPollingResult result = freeIpaPollingService.pollWithTimeout(
+    /**
+     * Deletes the FreeIPA and waits for the deletion on the polling engine, so the flow thread is released while FreeIPA is being
+     * terminated. The next step, or the failure, is sent from the completion of the poll.
+     */
+    private void deleteFreeIpa(Environment environment, Event<EnvironmentDeletionDto> environmentDtoEvent) {
+        freeIpaService.delete(environment.getResourceCrn(), environmentDtoEvent.getData().isForceDelete());
+        freeIpaPollingService.pollWithTimeoutAsync(
                 new FreeIpaDeletionRetrievalTask(freeIpaService),
                 new FreeIpaPollerObject(environment.getId(), environment.getResourceCrn()),
                 FreeIpaDeletionRetrievalTask.FREEIPA_RETRYING_INTERVAL,
                 FreeIpaDeletionRetrievalTask.FREEIPA_RETRYING_COUNT,
-                FreeIpaDeletionRetrievalTask.FREEIPA_FAILURE_COUNT);
-        if (!result.isSuccess()) {
-            String message = "Failed to delete FreeIpa! (" + result.getPollingResult().name() + ") "
-                    + getIfNotNull(result.getException(), Throwable::getMessage);
-            LOGGER.info(message);
-            throw new FreeIpaOperationFailedException(message);
-        }
+                FreeIpaDeletionRetrievalTask.FREEIPA_FAILURE_COUNT)
+                .whenComplete((result, throwable) -> {
+                    try {
+                        if (throwable == null && result.isSuccess()) {
+                            eventSender().sendEvent(getNextStepEvent(environmentDtoEvent.getData()), environmentDtoEvent.getHeaders());
+                            LOGGER.debug("FreeIPA deletion flow step completed.");
+                        } else if (throwable != null) {
+                            sendFailedEvent(environmentDtoEvent, new FreeIpaOperationFailedException("Failed to delete FreeIpa! "
+                                    + throwable.getMessage(), throwable));
+                        } else {
+                            String message = "Failed to delete FreeIpa! (" + result.getPollingResult().name() + ") "
+                                    + getIfNotNull(result.getException(), Throwable::getMessage);
+                            LOGGER.info(message);
+                            sendFailedEvent(environmentDtoEvent, new FreeIpaOperationFailedException(message));
+                        }
+                    } catch (RuntimeException e) {
+                        LOGGER.error("Failed to send the result of the FreeIPA deletion", e);
+                    }
+                });
     }
 
     @Override
@@ -42,6 +42,7 @@ import com.sequenceiq.cloudbreak.common.exception.NotFoundException;
 import com.sequenceiq.cloudbreak.common.json.JsonUtil;
 import com.sequenceiq.cloudbreak.common.service.TransactionService;
 import com.sequenceiq.cloudbreak.message.CloudbreakMessagesService;
+import com.sequenceiq.cloudbreak.service.secret.service.SecretAspectService;
 import com.sequenceiq.cloudbreak.service.secret.service.SecretService;
 import com.sequenceiq.cloudbreak.validation.ValidationResult;
 import com.sequenceiq.common.model.CredentialType;
@@ -114,6 +115,9 @@ class CredentialServiceTest {
     @MockBean
     private SecretService secretService;
 
+    @MockBean
+    private SecretAspectService secretAspectService;
+
     @MockBean
     private NotificationSender notificationSender;
 
@@ -162,6 +166,7 @@ class CredentialServiceTest {
         assertThat(credentialServiceUnderTest.listAvailablesByAccountId(ACCOUNT_ID, AUDIT)).isEqualTo(Set.of(ENV_CREDENTIAL));
         verify(credentialValidator, times(4))
                 .isCredentialCloudPlatformValid(anyString(), eq(ACCOUNT_ID), any(CredentialType.class));
+        verify(secretAspectService).preloadSecrets(Set.of(ENV_CREDENTIAL));
     }
 
     @Test
@@ -5,6 +5,8 @@ import static java.util.Optional.of;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
@@ -13,6 +15,7 @@ import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -30,6 +33,7 @@ import com.sequenceiq.environment.environment.dto.EnvironmentDeletionDto;
 import com.sequenceiq.environment.environment.dto.EnvironmentDto;
 import com.sequenceiq.environment.environment.flow.creation.handler.freeipa.FreeIpaPollerObject;
 import com.sequenceiq.environment.environment.flow.deletion.event.EnvDeleteEvent;
+import com.sequenceiq.environment.environment.flow.deletion.event.EnvDeleteFailedEvent;
 import com.sequenceiq.environment.environment.service.EnvironmentService;
 import com.sequenceiq.environment.environment.service.freeipa.FreeIpaService;
 import com.sequenceiq.environment.environment.service.recipe.EnvironmentRecipeService;
@@ -162,21 +166,51 @@ class FreeIpaDeletionHandlerTest {
 
         when(environmentService.findEnvironmentById(CHILD_ENVIRONMENT_ID)).thenReturn(of(anEnvironmentWithoutParent(Boolean.TRUE)));
         when(freeIpaService.describe(ENVIRONMENT_CRN)).thenReturn(of(new DescribeFreeIpaResponse()));
-        when(freeIpaPollingService.pollWithTimeout(any(),
+        CompletableFuture<ExtendedPollingResult> pollingResult = new CompletableFuture<>();
+        when(freeIpaPollingService.pollWithTimeoutAsync(any(),
                 any(),
                 eq((long) FreeIpaDeletionRetrievalTask.FREEIPA_RETRYING_INTERVAL),
                 eq(FreeIpaDeletionRetrievalTask.FREEIPA_RETRYING_COUNT),
-                eq(FreeIpaDeletionRetrievalTask.FREEIPA_FAILURE_COUNT))).thenReturn(extendedPollingResult);
+                eq(FreeIpaDeletionRetrievalTask.FREEIPA_FAILURE_COUNT))).thenReturn(pollingResult);
 
         victim.accept(new Event<>(environmentDeletionDto));
 
         verify(environmentRecipeService).deleteRecipes(1L);
         verify(freeIpaService).delete(ENVIRONMENT_CRN, true);
+        verify(eventSender, never()).sendEvent(any(), any(Event.Headers.class));
+
+        pollingResult.complete(extendedPollingResult);
+
         verify(eventSender).sendEvent(baseNamedFlowEventCaptor.capture(), any(Event.Headers.class));
         verifySuccessEvent();
         verifyNoMoreInteractions(freeIpaService);
     }
 
+    @Test
+    public void shouldSendFailedEventIfFreeIpaDeletionPollingTimesOut() {
+        EnvironmentDto environmentDto = new EnvironmentDto();
+        environmentDto.setId(CHILD_ENVIRONMENT_ID);
+        EnvironmentDeletionDto environmentDeletionDto = EnvironmentDeletionDto
+                .builder()
+                .withEnvironmentDto(environmentDto)
+                .withForceDelete(true)
+                .withId(CHILD_ENVIRONMENT_ID)
+                .build();
+        ExtendedPollingResult extendedPollingResult = new ExtendedPollingResult.ExtendedPollingResultBuilder()
+                .timeout()
+                .build();
+
+        when(environmentService.findEnvironmentById(CHILD_ENVIRONMENT_ID)).thenReturn(of(anEnvironmentWithoutParent(Boolean.TRUE)));
+        when(freeIpaService.describe(ENVIRONMENT_CRN)).thenReturn(of(new DescribeFreeIpaResponse()));
+        when(freeIpaPollingService.pollWithTimeoutAsync(any(), any(), anyLong(), anyInt(), anyInt()))
+                .thenReturn(CompletableFuture.completedFuture(extendedPollingResult));
+
+        victim.accept(new Event<>(environmentDeletionDto));
+
+        verify(eventSender).sendEvent(baseNamedFlowEventCaptor.capture(), any(Event.Headers.class));
+        assertThat(baseNamedFlowEventCaptor.getValue()).isInstanceOf(EnvDeleteFailedEvent.class);
+    }
+
     @Test
     public void shouldNotCallFreeIpaServiceIfFreeIpaCreationIsDisabled() {
         EnvironmentDto environmentDto = new EnvironmentDto();
@@ -0,0 +1,32 @@
+package com.sequenceiq.flow.api;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.PathParam;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiOperation;
+
+@Path("/flow-stream")
+@Api(value = "/flow-stream", description = "Streaming of flow progress", protocols = "http,https")
+public interface FlowStreamEndpoint {
+
+    @GET
+    @Path("/flowId/{flowId}")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @ApiOperation(value = "Stream the state changes of a flow as server-sent events until the flow is completed", produces = "text/event-stream",
+            notes = "Flow progress operations", nickname = "streamFlowProgressByFlowId")
+    void streamFlowProgressByFlowId(@PathParam("flowId") String flowId, @Context SseEventSink eventSink, @Context Sse sse);
+
+    @GET
+    @Path("/chainId/{chainId}")
+    @Produces(MediaType.SERVER_SENT_EVENTS)
+    @ApiOperation(value = "Stream the state changes of the flows of a flow chain as server-sent events until the flow chain is completed",
+            produces = "text/event-stream", notes = "Flow progress operations", nickname = "streamFlowProgressByChainId")
+    void streamFlowProgressByChainId(@PathParam("chainId") String chainId, @Context SseEventSink eventSink, @Context Sse sse);
+}
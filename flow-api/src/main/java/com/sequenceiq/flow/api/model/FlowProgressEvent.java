@@ -0,0 +1,117 @@
+package com.sequenceiq.flow.api.model;
+
+import java.io.Serializable;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+/**
+ * State change of a flow or a flow chain pushed to the flow progress stream. Events of a flow have a flow id, the completion event
+ * of a flow chain has only the flow chain id.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class FlowProgressEvent implements Serializable {
+
+    private String flowId;
+
+    private String flowChainId;
+
+    private Long resourceId;
+
+    private String currentState;
+
+    private String nextEvent;
+
+    private String operationType;
+
+    private FlowProgressStatus status;
+
+    private Long created;
+
+    private Double elapsedTimeInSeconds;
+
+    public String getFlowId() {
+        return flowId;
+    }
+
+    public void setFlowId(String flowId) {
+        this.flowId = flowId;
+    }
+
+    public String getFlowChainId() {
+        return flowChainId;
+    }
+
+    public void setFlowChainId(String flowChainId) {
+        this.flowChainId = flowChainId;
+    }
+
+    public Long getResourceId() {
+        return resourceId;
+    }
+
+    public void setResourceId(Long resourceId) {
+        this.resourceId = resourceId;
+    }
+
+    public String getCurrentState() {
+        return currentState;
+    }
+
+    public void setCurrentState(String currentState) {
+        this.currentState = currentState;
+    }
+
+    public String getNextEvent() {
+        return nextEvent;
+    }
+
+    public void setNextEvent(String nextEvent) {
+        this.nextEvent = nextEvent;
+    }
+
+    public String getOperationType() {
+        return operationType;
+    }
+
+    public void setOperationType(String operationType) {
+        this.operationType = operationType;
+    }
+
+    public FlowProgressStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(FlowProgressStatus status) {
+        this.status = status;
+    }
+
+    public Long getCreated() {
+        return created;
+    }
+
+    public void setCreated(Long created) {
+        this.created = created;
+    }
+
+    public Double getElapsedTimeInSeconds() {
+        return elapsedTimeInSeconds;
+    }
+
+    public void setElapsedTimeInSeconds(Double elapsedTimeInSeconds) {
+        this.elapsedTimeInSeconds = elapsedTimeInSeconds;
+    }
+
+    @Override
+    public String toString() {
+        return "FlowProgressEvent{" +
+                "flowId='" + flowId + '\'' +
+                ", flowChainId='" + flowChainId + '\'' +
+                ", resourceId=" + resourceId +
+                ", currentState='" + currentState + '\'' +
+                ", nextEvent='" + nextEvent + '\'' +
+                ", operationType='" + operationType + '\'' +
+                ", status=" + status +
+                ", created=" + created +
+                '}';
+    }
+}
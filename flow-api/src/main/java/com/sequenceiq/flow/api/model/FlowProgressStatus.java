@@ -0,0 +1,9 @@
+package com.sequenceiq.flow.api.model;
+
+public enum FlowProgressStatus {
+    RUNNING, FINISHED, FAILED, CANCELLED;
+
+    public boolean isFinal() {
+        return this != RUNNING;
+    }
+}
@@ -12,6 +12,24 @@ public class FlowCleanupConfig {
     @Value("${flowcleanup.retention.period.hours:24}")
     private int retentionPeriodInHours;
 
+    @Value("${flowcleanup.payload.compaction.batch.size:500}")
+    private int payloadCompactionBatchSize;
+
+    @Value("${flowcleanup.payload.compaction.max.batches:20}")
+    private int payloadCompactionMaxBatches;
+
+    @Value("${flowcleanup.archive.enabled:false}")
+    private boolean archiveEnabled;
+
+    @Value("${flowcleanup.archive.batch.size:500}")
+    private int archiveBatchSize;
+
+    @Value("${flowcleanup.archive.max.batches:200}")
+    private int archiveMaxBatches;
+
+    @Value("${flowcleanup.archive.retention.period.hours:720}")
+    private int archiveRetentionPeriodInHours;
+
     public int getIntervalInHours() {
         return intervalInHours;
     }
@@ -19,4 +37,28 @@ public class FlowCleanupConfig {
     public int getRetentionPeriodInHours() {
         return retentionPeriodInHours;
     }
+
+    public int getPayloadCompactionBatchSize() {
+        return payloadCompactionBatchSize;
+    }
+
+    public int getPayloadCompactionMaxBatches() {
+        return payloadCompactionMaxBatches;
+    }
+
+    public boolean isArchiveEnabled() {
+        return archiveEnabled;
+    }
+
+    public int getArchiveBatchSize() {
+        return archiveBatchSize;
+    }
+
+    public int getArchiveMaxBatches() {
+        return archiveMaxBatches;
+    }
+
+    public int getArchiveRetentionPeriodInHours() {
+        return archiveRetentionPeriodInHours;
+    }
 }
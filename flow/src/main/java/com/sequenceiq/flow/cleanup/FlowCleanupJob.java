@@ -17,6 +17,7 @@ import com.sequenceiq.flow.core.FlowLogService;
 import com.sequenceiq.flow.core.FlowRegister;
 import com.sequenceiq.flow.core.cache.FlowStatCache;
 import com.sequenceiq.flow.service.flowlog.FlowChainLogService;
+import com.sequenceiq.flow.service.flowlog.archive.FlowLogArchiveService;
 
 @Component
 public class FlowCleanupJob extends MdcQuartzJob {
@@ -35,6 +36,9 @@ public class FlowCleanupJob extends MdcQuartzJob {
     @Inject
     private FlowCleanupConfig flowCleanupConfig;
 
+    @Inject
+    private FlowLogArchiveService flowLogArchiveService;
+
     @Inject
     private FlowRegister runningFlows;
 
@@ -49,7 +53,18 @@ public class FlowCleanupJob extends MdcQuartzJob {
     @Override
     protected void executeTracedJob(JobExecutionContext context) throws JobExecutionException {
         try {
-            purgeFinalisedFlowLogs(flowCleanupConfig.getRetentionPeriodInHours());
+            if (flowCleanupConfig.isArchiveEnabled() && !flowLogArchiveService.isArchiveStoreConfigured()) {
+                LOGGER.warn("Flow log archiving is enabled, but no archive store is configured with cb.flowlog.archive.store, purging flow logs");
+            }
+            if (flowCleanupConfig.isArchiveEnabled() && flowLogArchiveService.isArchiveStoreConfigured()) {
+                archiveFinalisedFlowLogs(flowCleanupConfig.getRetentionPeriodInHours(), flowCleanupConfig.getArchiveBatchSize(),
+                        flowCleanupConfig.getArchiveMaxBatches());
+                purgeExpiredFlowLogArchives(flowCleanupConfig.getArchiveRetentionPeriodInHours(), flowCleanupConfig.getArchiveBatchSize(),
+                        flowCleanupConfig.getArchiveMaxBatches());
+            } else {
+                purgeFinalisedFlowLogs(flowCleanupConfig.getRetentionPeriodInHours());
+            }
+            compactFinalisedFlowLogPayloads(flowCleanupConfig.getPayloadCompactionBatchSize(), flowCleanupConfig.getPayloadCompactionMaxBatches());
             purgeFlowStatCache();
         } catch (TransactionService.TransactionExecutionException e) {
             LOGGER.error("Transaction failed for flow cleanup.", e);
@@ -61,6 +76,61 @@ public class FlowCleanupJob extends MdcQuartzJob {
         flowStatCache.cleanOldCacheEntries(runningFlows.getRunningFlowIdsSnapshot());
     }
 
+    /**
+     * Backfills the configured binary payload format for finalized flow logs which were written as JSON text.
+     * Every batch runs in its own transaction, so a failing batch does not roll back the already compacted ones.
+     */
+    public void compactFinalisedFlowLogPayloads(int batchSize, int maxBatches) throws TransactionService.TransactionExecutionException {
+        int compacted = 0;
+        int batchCompacted;
+        int batches = 0;
+        do {
+            batchCompacted = transactionService.required(() -> flowLogService.compactFinalizedFlowLogPayloads(batchSize));
+            compacted += batchCompacted;
+            batches++;
+        } while (batchCompacted == batchSize && batches < maxBatches);
+        LOGGER.debug("Compacted flowlog payload count: {}", compacted);
+    }
+
+    /**
+     * Archives the finalised flow logs batch by batch instead of deleting them with one statement. Every batch runs in its own
+     * transaction, so the rows are locked only for a short time and live flow writes are not blocked by the cleanup.
+     */
+    public void archiveFinalisedFlowLogs(int retentionPeriodHours, int batchSize, int maxBatches) throws TransactionService.TransactionExecutionException {
+        int archived = 0;
+        int batchArchived;
+        int batches = 0;
+        do {
+            batchArchived = transactionService.required(() -> flowLogArchiveService.archiveFinalizedFlowLogs(retentionPeriodHours, batchSize));
+            archived += batchArchived;
+            batches++;
+        } while (batchArchived == batchSize && batches < maxBatches);
+        LOGGER.debug("Archived flowlog count: {}", archived);
+    }
+
+    /**
+     * Deletes the flow log archives older than the archive retention period, then the flow chain logs which belong neither to
+     * a flow log nor to a kept archive.
+     */
+    public void purgeExpiredFlowLogArchives(int archiveRetentionPeriodHours, int batchSize, int maxBatches)
+            throws TransactionService.TransactionExecutionException {
+        int purged = 0;
+        int batchPurged;
+        int batches = 0;
+        do {
+            batchPurged = transactionService.required(() -> flowLogArchiveService.purgeExpiredArchives(archiveRetentionPeriodHours, batchSize));
+            purged += batchPurged;
+            batches++;
+        } while (batchPurged == batchSize && batches < maxBatches);
+        LOGGER.debug("Purged flowlog archive count: {}", purged);
+        transactionService.required(() -> {
+            LOGGER.debug("Cleaning orphan flowchainlogs");
+            int purgedOrphanFLowChainLogs = flowChainLogService.purgeOrphanFlowChainLogsWithoutArchive();
+            LOGGER.debug("Deleted flowchainlog count: {}", purgedOrphanFLowChainLogs);
+            return null;
+        });
+    }
+
     public void purgeFinalisedFlowLogs(int retentionPeriodHours) throws TransactionService.TransactionExecutionException {
         transactionService.required(() -> {
             LOGGER.debug("Cleaning finalised flowlogs");
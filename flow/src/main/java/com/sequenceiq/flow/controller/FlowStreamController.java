@@ -0,0 +1,68 @@
+package com.sequenceiq.flow.controller;
+
+import java.util.concurrent.CompletionStage;
+
+import javax.inject.Inject;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.sse.Sse;
+import javax.ws.rs.sse.SseEventSink;
+
+import org.springframework.stereotype.Controller;
+
+import com.sequenceiq.authorization.annotation.AccountIdNotNeeded;
+import com.sequenceiq.authorization.annotation.InternalOnly;
+import com.sequenceiq.flow.api.FlowStreamEndpoint;
+import com.sequenceiq.flow.api.model.FlowProgressEvent;
+import com.sequenceiq.flow.core.stream.FlowProgressListener;
+import com.sequenceiq.flow.service.FlowProgressStreamService;
+
+@Controller
+@InternalOnly
+public class FlowStreamController implements FlowStreamEndpoint {
+
+    private static final String FLOW_PROGRESS_EVENT_NAME = "flow-progress";
+
+    @Inject
+    private FlowProgressStreamService flowProgressStreamService;
+
+    @Override
+    @AccountIdNotNeeded
+    public void streamFlowProgressByFlowId(String flowId, SseEventSink eventSink, Sse sse) {
+        flowProgressStreamService.subscribeByFlowId(flowId, new SseFlowProgressListener(eventSink, sse));
+    }
+
+    @Override
+    @AccountIdNotNeeded
+    public void streamFlowProgressByChainId(String chainId, SseEventSink eventSink, Sse sse) {
+        flowProgressStreamService.subscribeByFlowChainId(chainId, new SseFlowProgressListener(eventSink, sse));
+    }
+
+    private static class SseFlowProgressListener implements FlowProgressListener {
+
+        private final SseEventSink eventSink;
+
+        private final Sse sse;
+
+        SseFlowProgressListener(SseEventSink eventSink, Sse sse) {
+            this.eventSink = eventSink;
+            this.sse = sse;
+        }
+
+        @Override
+        public CompletionStage<?> onEvent(FlowProgressEvent event) {
+            if (eventSink.isClosed()) {
+                throw new IllegalStateException("The flow progress stream is closed by the client");
+            }
+            return eventSink.send(sse.newEventBuilder()
+                    .name(FLOW_PROGRESS_EVENT_NAME)
+                    .mediaType(MediaType.APPLICATION_JSON_TYPE)
+                    .data(FlowProgressEvent.class, event)
+                    .build());
+        }
+
+        @Override
+        public void onClose() {
+            eventSink.close();
+        }
+    }
+}
@@ -4,6 +4,7 @@ import org.springframework.stereotype.Component;
 
 import com.sequenceiq.flow.api.model.FlowLogResponse;
 import com.sequenceiq.flow.api.model.StateStatus;
+import com.sequenceiq.flow.domain.ArchivedFlowLog;
 import com.sequenceiq.flow.domain.FlowLog;
 
 @Component
@@ -26,4 +27,22 @@ public class FlowLogConverter {
         }
         return flowLogResponse;
     }
+
+    public FlowLogResponse convertArchived(ArchivedFlowLog source) {
+        FlowLogResponse flowLogResponse = new FlowLogResponse();
+        flowLogResponse.setCreated(source.getCreated());
+        flowLogResponse.setCurrentState(source.getCurrentState());
+        flowLogResponse.setFinalized(source.getFinalized());
+        flowLogResponse.setFlowChainId(source.getFlowChainId());
+        flowLogResponse.setFlowId(source.getFlowId());
+        flowLogResponse.setFlowTriggerUserCrn(source.getFlowTriggerUserCrn());
+        flowLogResponse.setResourceId(source.getResourceId());
+        flowLogResponse.setNextEvent(source.getNextEvent());
+        flowLogResponse.setNodeId(source.getCloudbreakNodeId());
+        flowLogResponse.setEndTime(source.getEndTime());
+        if (source.getStateStatus() != null) {
+            flowLogResponse.setStateStatus(StateStatus.valueOf(source.getStateStatus().name()));
+        }
+        return flowLogResponse;
+    }
 }
@@ -16,7 +16,10 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import javax.annotation.Resource;
 import javax.inject.Inject;
@@ -43,9 +46,12 @@ import com.sequenceiq.cloudbreak.service.flowlog.FlowLogUtil;
 import com.sequenceiq.cloudbreak.util.Benchmark;
 import com.sequenceiq.cloudbreak.util.NullUtil;
 import com.sequenceiq.flow.api.model.FlowIdentifier;
+import com.sequenceiq.flow.api.model.FlowProgressEvent;
+import com.sequenceiq.flow.api.model.FlowProgressStatus;
 import com.sequenceiq.flow.api.model.FlowType;
 import com.sequenceiq.flow.cleanup.InMemoryCleanup;
 import com.sequenceiq.flow.core.FlowState.FlowStateConstants;
+import com.sequenceiq.flow.core.cache.FlowStat;
 import com.sequenceiq.flow.core.cache.FlowStatCache;
 import com.sequenceiq.flow.core.chain.FlowChainHandler;
 import com.sequenceiq.flow.core.chain.FlowChains;
@@ -54,11 +60,14 @@ import com.sequenceiq.flow.core.config.FlowFinalizerCallback;
 import com.sequenceiq.flow.core.exception.FlowNotFoundException;
 import com.sequenceiq.flow.core.exception.FlowNotTriggerableException;
 import com.sequenceiq.flow.core.model.FlowAcceptResult;
+import com.sequenceiq.flow.core.stream.FlowProgressHub;
 import com.sequenceiq.flow.domain.FlowChainLog;
 import com.sequenceiq.flow.domain.FlowLog;
 import com.sequenceiq.flow.domain.FlowLogIdWithTypeAndTimestamp;
 import com.sequenceiq.flow.ha.NodeConfig;
 import com.sequenceiq.flow.service.flowlog.FlowChainLogService;
+import com.sequenceiq.flow.service.flowlog.FlowLogGroupCommitService;
+import com.sequenceiq.flow.service.flowlog.FlowLogTransition;
 
 @Component
 public class Flow2Handler implements Consumer<Event<? extends Payload>> {
@@ -104,6 +113,12 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
     @Inject
     private FlowChainLogService flowChainLogService;
 
+    @Inject
+    private FlowLogGroupCommitService flowLogGroupCommitService;
+
+    @Inject
+    private FlowProgressHub flowProgressHub;
+
     @Override
     public void accept(Event<? extends Payload> event) {
         String key = event.getKey();
@@ -165,6 +180,9 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
             flowChains.removeFullFlowChain(flowChainId, false);
         }
         Flow flow = runningFlows.remove(flowId);
+        if (flow != null) {
+            publishFlowProgress(flowId, flowChainId, stackId, flow.getCurrentState(), FLOW_CANCEL, FlowProgressStatus.CANCELLED);
+        }
         flowStatCache.remove(flowId, false);
         if (flow != null) {
             flow.stop();
@@ -176,9 +194,12 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
             throws TransactionExecutionException {
         String flowId = flowParameters.getFlowId();
         LOGGER.debug("flow finalizing arrived: id: {}", flowId);
+        runningFlows.markFinalizing(flowId);
         flowLogService.close(resourceId, flowId, false, contextParams);
         Flow flow = runningFlows.remove(flowId);
         Optional<FlowFinalizerCallback> finalizerCallback = createFinalizerCallback(flow);
+        publishFlowProgress(flowId, flowChainId, resourceId, flow.getCurrentState(), FLOW_FINAL,
+                flow.isFlowFailed() ? FlowProgressStatus.FAILED : FlowProgressStatus.FINISHED);
         flowStatCache.remove(flowId, flowChainId == null && !flow.isFlowFailed());
         if (flowChainId != null) {
             if (flow.isFlowFailed()) {
@@ -221,16 +242,33 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
             }
             flowConfig.getFinalizerCallBack().onFinalize(payload.getResourceId());
             throw new FlowNotTriggerableException("Trigger condition failed, skip flow.", true);
+        } else if (applicationFlowInformation.getAllowedParallelFlows().contains(key)) {
+            LOGGER.info("Parallel flow request. Key: {}.", key);
+            return createNewFlow(key, payload, flowParameters, flowChainId, flowChainType, contextParams, flowConfig);
         } else {
-            Set<FlowLogIdWithTypeAndTimestamp> flowLogItems = flowLogService.findAllRunningNonTerminationFlowsByResourceId(payload.getResourceId());
-            if (hasRunningAndParallelNotAllowed(key, flowLogItems)) {
-                return handleFlowConflict(key, payload, flowChainId, flowLogItems);
-            } else {
+            Set<FlowLogIdWithTypeAndTimestamp> flowLogItems = findRunningNonTerminationFlows(payload.getResourceId());
+            if (flowLogItems.isEmpty()) {
+                LOGGER.info("Not found other running flow.");
                 return createNewFlow(key, payload, flowParameters, flowChainId, flowChainType, contextParams, flowConfig);
+            } else {
+                return handleFlowConflict(key, payload, flowChainId, flowLogItems);
             }
         }
     }
 
+    private Set<FlowLogIdWithTypeAndTimestamp> findRunningNonTerminationFlows(Long resourceId) {
+        List<Class<? extends FlowConfiguration<?>>> terminationFlows = applicationFlowInformation.getTerminationFlow();
+        Set<FlowLogIdWithTypeAndTimestamp> flowsRunningOnThisNode = runningFlows.getRunningFlowsByResourceId(resourceId).stream()
+                .filter(runningFlow -> !terminationFlows.contains(runningFlow.getFlow().getFlowConfigClass()))
+                .collect(Collectors.toSet());
+        if (flowsRunningOnThisNode.isEmpty()) {
+            return flowLogService.findAllRunningNonTerminationFlowsByResourceId(resourceId);
+        } else {
+            LOGGER.debug("Found running flows for resource {} on this node: {}", resourceId, flowsRunningOnThisNode);
+            return flowsRunningOnThisNode;
+        }
+    }
+
     private void createNewFinishedFlow(String key, Payload payload, FlowParameters flowParameters, String flowChainId, FlowConfiguration<?> flowConfig,
             Map<Object, Object> contextParams, boolean success) throws TransactionExecutionException {
         transactionService.required(() -> {
@@ -256,40 +294,23 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
         return flowConfiguration;
     }
 
-    private boolean hasRunningAndParallelNotAllowed(String key, Set<FlowLogIdWithTypeAndTimestamp> flowLogItems) {
-        if (applicationFlowInformation.getAllowedParallelFlows().contains(key) || flowLogItems.isEmpty()) {
-            if (!flowLogItems.isEmpty()) {
-                LOGGER.info("Parallel flow request. Key: {}.", key);
-            } else {
-                LOGGER.info("Not found other running flow.");
-            }
-            return false;
-        }
-        return true;
-    }
-
     private AcceptResult handleFlowConflict(String key, Payload payload, String flowChainId, Set<FlowLogIdWithTypeAndTimestamp> flowLogItems) {
-        AcceptResult acceptResult = null;
-        Optional<FlowLog> initFlowLog = flowLogService.findAllByFlowIdOrderByCreatedDesc(flowLogItems.iterator().next().getFlowId())
-                .stream().min(Comparator.comparing(FlowLog::getCreated));
-        if (initFlowLog.isPresent()) {
-            LOGGER.info("Found previous init flow log: {}", initFlowLog.get());
-            if (NullUtil.allNotNull(initFlowLog.get().getFlowChainId(), flowChainId)) {
-                Optional<Pair<String, Payload>> previousTrigger = flowChains.getRootTriggerEvent(initFlowLog.get().getFlowChainId());
-                Optional<Pair<String, Payload>> currentTrigger = flowChains.getRootTriggerEvent(flowChainId);
-                if (previousTrigger.isPresent() && currentTrigger.isPresent()) {
-                    if (isIdempotentTriggers(previousTrigger.get().getRight(), currentTrigger.get().getRight())) {
-                        LOGGER.info("Idempotent flow chain trigger. Running {}, requested {}", previousTrigger, currentTrigger);
-                        acceptResult = FlowAcceptResult.runningInFlowChain(previousTrigger.get().getLeft());
-                    }
-                }
-            } else if (NullUtil.allNull(initFlowLog.get().getFlowChainId(), flowChainId)) {
-                Payload previousTrigger = FlowLogUtil.tryDeserializePayload(initFlowLog.get());
-                if (isIdempotentTriggers(previousTrigger, payload)) {
-                    LOGGER.info("Idempotent flow trigger. Running {}, requested {}", previousTrigger, payload);
-                    acceptResult = FlowAcceptResult.runningInFlow(initFlowLog.get().getFlowId());
-                }
-            }
+        FlowLogIdWithTypeAndTimestamp conflictingFlow = flowLogItems.iterator().next();
+        AcceptResult acceptResult;
+        if (conflictingFlow instanceof RunningFlow) {
+            RunningFlow runningFlow = (RunningFlow) conflictingFlow;
+            LOGGER.info("Found conflicting flow running on this node: {}", runningFlow);
+            Supplier<Payload> previousTrigger = runningFlow.isRestored() ? () -> findInitFlowLog(runningFlow.getFlowId())
+                    .map(FlowLogUtil::tryDeserializePayload).orElse(null) : runningFlow::getIdempotentTrigger;
+            acceptResult = getIdempotentAcceptResult(payload, flowChainId, runningFlow.getFlowId(), runningFlow.getFlowChainId(), previousTrigger);
+        } else {
+            acceptResult = findInitFlowLog(conflictingFlow.getFlowId())
+                    .map(initFlowLog -> {
+                        LOGGER.info("Found previous init flow log: {}", initFlowLog);
+                        return getIdempotentAcceptResult(payload, flowChainId, initFlowLog.getFlowId(), initFlowLog.getFlowChainId(),
+                                () -> FlowLogUtil.tryDeserializePayload(initFlowLog));
+                    })
+                    .orElse(null);
         }
         if (acceptResult == null) {
             LOGGER.info("Flow operation not allowed, other flow is running. Resource ID {}, event {}", payload.getResourceId(), key);
@@ -299,6 +320,33 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
         return acceptResult;
     }
 
+    private Optional<FlowLog> findInitFlowLog(String flowId) {
+        return flowLogService.findAllByFlowIdOrderByCreatedDesc(flowId)
+                .stream().min(Comparator.comparing(FlowLog::getCreated));
+    }
+
+    private AcceptResult getIdempotentAcceptResult(Payload payload, String flowChainId, String runningFlowId, String runningFlowChainId,
+            Supplier<Payload> runningFlowTrigger) {
+        AcceptResult acceptResult = null;
+        if (NullUtil.allNotNull(runningFlowChainId, flowChainId)) {
+            Optional<Pair<String, Payload>> previousTrigger = flowChains.getRootTriggerEvent(runningFlowChainId);
+            Optional<Pair<String, Payload>> currentTrigger = flowChains.getRootTriggerEvent(flowChainId);
+            if (previousTrigger.isPresent() && currentTrigger.isPresent()) {
+                if (isIdempotentTriggers(previousTrigger.get().getRight(), currentTrigger.get().getRight())) {
+                    LOGGER.info("Idempotent flow chain trigger. Running {}, requested {}", previousTrigger, currentTrigger);
+                    acceptResult = FlowAcceptResult.runningInFlowChain(previousTrigger.get().getLeft());
+                }
+            }
+        } else if (NullUtil.allNull(runningFlowChainId, flowChainId) && payload instanceof IdempotentEvent) {
+            Payload previousTrigger = runningFlowTrigger.get();
+            if (isIdempotentTriggers(previousTrigger, payload)) {
+                LOGGER.info("Idempotent flow trigger. Running {}, requested {}", previousTrigger, payload);
+                acceptResult = FlowAcceptResult.runningInFlow(runningFlowId);
+            }
+        }
+        return acceptResult;
+    }
+
     private boolean isIdempotentTriggers(Payload previousTrigger, Payload currentTrigger) {
         if (null == previousTrigger || null == currentTrigger) {
             return false;
@@ -322,7 +370,7 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
         Flow flow = flowConfig.createFlow(flowId, flowChainId, payload.getResourceId(), flowChainType);
         try {
             flow.initialize(contextParams);
-            runningFlows.put(flow, flowChainId);
+            runningFlows.put(flow, flowChainId, payload.getResourceId(), payload, false);
             Benchmark.measure(() -> flowStatCache.put(flowId, flowChainId, payload.getResourceId(),
                     flowConfig.getFlowOperationType().name(), flow.getFlowConfigClass(), false), LOGGER, "Creating flow stat took {}ms");
             transactionService.required(() -> {
@@ -333,6 +381,7 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
                 }
             });
             logFlowId(flowId);
+            publishFlowProgress(flowId, flowChainId, payload.getResourceId(), flow.getCurrentState(), key, FlowProgressStatus.RUNNING);
             FlowAcceptResult flowAcceptResult = getFlowAcceptResult(flowChainId, flowParameters.getFlowId());
             if (isAcceptablePayload(payload)) {
                 LOGGER.info("Accepting flow {}", flowAcceptResult);
@@ -384,6 +433,7 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
                 throw e;
             }
             if (!flowCancelled.booleanValue()) {
+                publishFlowProgress(flowId, flowChainId, payload.getResourceId(), flow.getCurrentState(), key, FlowProgressStatus.RUNNING);
                 LOGGER.debug("Send event: key: {}, flowid: {}, usercrn: {}, payload: {}", key, flowId, flowParameters.getFlowTriggerUserCrn(), payload);
                 flow.sendEvent(key, flowParameters.getFlowTriggerUserCrn(), payload, flowParameters.getFlowOperationType());
                 if (isAcceptablePayload(payload)) {
@@ -399,23 +449,48 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
 
     private void updateFlowLogStatusInTransaction(String key, Payload payload, FlowParameters flowParameters, String flowChainId, Flow flow,
             MutableBoolean flowCancelled) throws TransactionExecutionException {
-        transactionService.required(() -> {
-            Optional<FlowLog> lastFlowLog = flowLogService.findFirstByFlowIdOrderByCreatedDesc(flow.getFlowId());
+        if (flowLogGroupCommitService.isEnabled()) {
+            Optional<FlowLog> lastFlowLog = findLastFlowLogOfThisNode(flow, flowCancelled);
             if (lastFlowLog.isPresent()) {
-                String nodeId = nodeConfig.getId();
-                FlowLog flowLog = lastFlowLog.get();
-                if (flowLog.getFinalized() || flowLog.getCloudbreakNodeId() == null || flowLog.getCloudbreakNodeId().equals(nodeId)) {
-                    updateFlowLogStatus(key, payload, flowChainId, flow, flowLog, flowParameters);
-                } else {
-                    LOGGER.info("Flow {} was handled by another node {}, current node ID is {}, abandoning.",
-                            flow.getFlowId(), flowLog.getCloudbreakNodeId(), nodeId);
-                    inMemoryCleanup.cancelFlowWithoutDbUpdate(flow.getFlowId());
-                    flowCancelled.setTrue();
-                }
-            } else {
-                LOGGER.debug("Cannot find LastFlowLog with flowId: {}", flow.getFlowId());
+                flowLogGroupCommitService.commit(createFlowLogTransition(key, payload, flowChainId, flow, lastFlowLog.get(), flowParameters));
             }
-        });
+        } else {
+            transactionService.required(() -> findLastFlowLogOfThisNode(flow, flowCancelled)
+                    .ifPresent(flowLog -> updateFlowLogStatus(key, payload, flowChainId, flow, flowLog, flowParameters)));
+        }
+    }
+
+    private Optional<FlowLog> findLastFlowLogOfThisNode(Flow flow, MutableBoolean flowCancelled) {
+        Optional<FlowLog> lastFlowLog = flowLogService.findFirstByFlowIdOrderByCreatedDesc(flow.getFlowId());
+        if (lastFlowLog.isPresent()) {
+            String nodeId = nodeConfig.getId();
+            FlowLog flowLog = lastFlowLog.get();
+            if (flowLog.getFinalized() || flowLog.getCloudbreakNodeId() == null || flowLog.getCloudbreakNodeId().equals(nodeId)) {
+                return lastFlowLog;
+            }
+            LOGGER.info("Flow {} was handled by another node {}, current node ID is {}, abandoning.",
+                    flow.getFlowId(), flowLog.getCloudbreakNodeId(), nodeId);
+            inMemoryCleanup.cancelFlowWithoutDbUpdate(flow.getFlowId());
+            flowCancelled.setTrue();
+        } else {
+            LOGGER.debug("Cannot find LastFlowLog with flowId: {}", flow.getFlowId());
+        }
+        return Optional.empty();
+    }
+
+    private FlowLogTransition createFlowLogTransition(String key, Payload payload, String flowChainId, Flow flow, FlowLog lastFlowLog,
+            FlowParameters flowParameters) {
+        if (flowLogService.repeatedFlowState(lastFlowLog, key)) {
+            LOGGER.debug("Repeated flow state: {}, key: {}", lastFlowLog, key);
+            flowLogService.setFlowLogPayload(lastFlowLog, payload, flow.getVariables());
+            return FlowLogTransition.payloadUpdate(lastFlowLog);
+        } else {
+            boolean failureEvent = failHandledEvents.contains(key);
+            LOGGER.debug("New flow state: {}, key: {}, failure event: {}", lastFlowLog, key, failureEvent);
+            FlowLog flowLog = flowLogService.createFlowLog(flowParameters, flowChainId, key, payload, flow.getVariables(), flow.getFlowConfigClass(),
+                    flow.getCurrentState());
+            return FlowLogTransition.nextState(lastFlowLog, failureEvent, flowLog);
+        }
     }
 
     private void updateFlowLogStatus(String key, Payload payload, String flowChainId, Flow flow, FlowLog lastFlowLog, FlowParameters flowParameters) {
@@ -430,6 +505,26 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
         }
     }
 
+    private void publishFlowProgress(String flowId, String flowChainId, Long resourceId, FlowState currentState, String nextEvent,
+            FlowProgressStatus status) {
+        if (flowProgressHub.hasSubscribers()) {
+            FlowProgressEvent event = new FlowProgressEvent();
+            event.setFlowId(flowId);
+            event.setFlowChainId(flowChainId);
+            event.setResourceId(resourceId);
+            event.setCurrentState(currentState == null ? null : currentState.toString());
+            event.setNextEvent(nextEvent);
+            event.setStatus(status);
+            event.setCreated(System.currentTimeMillis());
+            FlowStat flowStat = flowStatCache.getFlowStatByFlowId(flowId);
+            if (flowStat != null) {
+                event.setOperationType(flowStat.getOperationType().name());
+                event.setElapsedTimeInSeconds((event.getCreated() - flowStat.getStartTime()) / (double) TimeUnit.SECONDS.toMillis(1));
+            }
+            flowProgressHub.publish(event, flowChainId == null ? List.of() : flowChains.getFlowChainIdWithParents(flowChainId));
+        }
+    }
+
     private boolean isAcceptablePayload(Payload payload) {
         return payload instanceof Acceptable
                 && ((Acceptable) payload).accepted() != null
@@ -526,7 +621,7 @@ public class Flow2Handler implements Consumer<Event<? extends Payload>> {
         String flowChainType = flowChainLogService.getFlowChainType(flowLog.getFlowChainId());
         Payload payload = deserializePayload(flowLog);
         Flow flow = flowConfig.createFlow(flowLog.getFlowId(), flowLog.getFlowChainId(), flowLog.getResourceId(), flowChainType);
-        runningFlows.put(flow, flowLog.getFlowChainId());
+        runningFlows.put(flow, flowLog.getFlowChainId(), flowLog.getResourceId(), null, true);
         flowStatCache.put(flowLog.getFlowId(), flowLog.getFlowChainId(), flowLog.getResourceId(),
                 flowConfig.getFlowOperationType().name(), flow.getFlowConfigClass(), true);
         if (flowLog.getFlowChainId() != null) {
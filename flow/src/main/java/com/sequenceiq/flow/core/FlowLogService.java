@@ -1,5 +1,6 @@
 package com.sequenceiq.flow.core;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -18,6 +19,9 @@ public interface FlowLogService {
     FlowLog save(FlowParameters flowParameters, String flowChanId, String key, Payload payload, Map<Object, Object> variables, Class<?> flowType,
             FlowState currentState);
 
+    FlowLog createFlowLog(FlowParameters flowParameters, String flowChainId, String key, Payload payload, Map<Object, Object> variables, Class<?> flowType,
+            FlowState currentState);
+
     Iterable<FlowLog> saveAll(Iterable<FlowLog> entities);
 
     FlowLog close(Long resourceId, String flowId, boolean failed, Map<Object, Object> contextParams) throws TransactionExecutionException;
@@ -36,10 +40,14 @@ public interface FlowLogService {
 
     boolean isOtherFlowRunning(Long resourceId);
 
+    Set<Long> findAllResourceIdsWithRunningFlow(Collection<Long> resourceIds);
+
     boolean repeatedFlowState(FlowLog lastFlowLog, String event);
 
     void updateLastFlowLogPayload(FlowLog lastFlowLog, Payload payload, Map<Object, Object> variables);
 
+    void setFlowLogPayload(FlowLog flowLog, Payload payload, Map<Object, Object> variables);
+
     Optional<FlowLogWithoutPayload> getLastFlowLog(String flowId);
 
     List<FlowLog> findAllByFlowIdOrderByCreatedDesc(String flowId);
@@ -72,6 +80,8 @@ public interface FlowLogService {
 
     int purgeFinalizedFlowLogs(int retentionPeriodHours);
 
+    int compactFinalizedFlowLogPayloads(int batchSize);
+
     List<FlowLogWithoutPayload> findAllWithoutPayloadByFlowIdOrderByCreatedDesc(String flowId);
 
     List<FlowLogWithoutPayload> getFlowLogsWithoutPayloadByFlowChainIdsCreatedDesc(Set<String> relatedFlowIds);
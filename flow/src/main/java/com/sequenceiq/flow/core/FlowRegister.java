@@ -1,21 +1,27 @@
 package com.sequenceiq.flow.core;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 
-import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.apache.commons.lang3.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import com.sequenceiq.cloudbreak.common.event.Payload;
 import com.sequenceiq.cloudbreak.common.metrics.MetricService;
 
+/**
+ * Register of the flows running on the current node. Besides the flow id based lookup it maintains an index by resource id,
+ * so the conflict check of a new flow request can be served from memory when the conflicting flow runs on this node.
+ * Flows running on other nodes are not known here, so an empty result does not mean that no flow is running for the resource.
+ */
 @Component
 public class FlowRegister {
 
@@ -24,7 +30,9 @@ public class FlowRegister {
     @Inject
     private MetricService metricService;
 
-    private Map<String, Pair<Flow, String>> runningFlows;
+    private Map<String, RunningFlow> runningFlows;
+
+    private final Map<Long, Set<String>> runningFlowIdsByResourceId = new ConcurrentHashMap<>();
 
     @PostConstruct
     public void init() {
@@ -32,27 +40,71 @@ public class FlowRegister {
     }
 
     public void put(Flow flow, String chainFlowId) {
+        put(flow, chainFlowId, null, null, false);
+    }
+
+    public void put(Flow flow, String chainFlowId, Long resourceId, Payload initTrigger, boolean restored) {
         LOGGER.info("Put flow {} to running flows", flow.getFlowId());
-        runningFlows.put(flow.getFlowId(), new ImmutablePair<>(flow, chainFlowId));
+        RunningFlow previous = runningFlows.put(flow.getFlowId(), new RunningFlow(flow, chainFlowId, resourceId, initTrigger, restored));
+        if (previous != null) {
+            removeFromResourceIndex(previous);
+        }
+        if (resourceId != null) {
+            runningFlowIdsByResourceId.compute(resourceId, (id, flowIds) -> {
+                Set<String> result = flowIds == null ? ConcurrentHashMap.newKeySet() : flowIds;
+                result.add(flow.getFlowId());
+                return result;
+            });
+        }
         LOGGER.info("Running flows after put: {}", runningFlows.keySet());
     }
 
     public Flow get(String flowId) {
-        Pair<Flow, String> p = runningFlows.get(flowId);
-        return p != null ? p.getLeft() : null;
+        RunningFlow runningFlow = runningFlows.get(flowId);
+        return runningFlow != null ? runningFlow.getFlow() : null;
     }
 
     public String getFlowChainId(String flowId) {
-        Pair<Flow, String> p = runningFlows.get(flowId);
-        return p != null ? p.getRight() : null;
+        RunningFlow runningFlow = runningFlows.get(flowId);
+        return runningFlow != null ? runningFlow.getFlowChainId() : null;
+    }
+
+    public RunningFlow getRunningFlow(String flowId) {
+        return runningFlows.get(flowId);
+    }
+
+    public List<RunningFlow> getRunningFlowsByResourceId(Long resourceId) {
+        Set<String> flowIds = resourceId == null ? null : runningFlowIdsByResourceId.get(resourceId);
+        if (flowIds == null) {
+            return List.of();
+        }
+        return flowIds.stream()
+                .map(runningFlows::get)
+                .filter(runningFlow -> runningFlow != null && !runningFlow.isFinalizing())
+                .collect(Collectors.toList());
     }
 
     public Flow remove(String flowId) {
         LOGGER.info("Remove flow {} from running flows", flowId);
-        Pair<Flow, String> pair = runningFlows.remove(flowId);
+        RunningFlow runningFlow = runningFlows.remove(flowId);
+        if (runningFlow != null) {
+            removeFromResourceIndex(runningFlow);
+        }
         metricService.submit(FlowMetricType.ACTIVE_FLOWS, runningFlows.size());
         LOGGER.info("Running flows after removal: {}", runningFlows.keySet());
-        return pair == null ? null : pair.getLeft();
+        return runningFlow == null ? null : runningFlow.getFlow();
+    }
+
+    /**
+     * Called before the flow is finalized in the database. From this point the flow is not reported as running from memory, so a request
+     * arriving between the finalization and the removal of the flow is decided by the database, like before the flow was registered.
+     */
+    public void markFinalizing(String flowId) {
+        RunningFlow runningFlow = runningFlows.get(flowId);
+        if (runningFlow != null) {
+            runningFlow.setFinalizing();
+            removeFromResourceIndex(runningFlow);
+        }
     }
 
     public Set<String> getRunningFlowIdsSnapshot() {
@@ -62,4 +114,13 @@ public class FlowRegister {
     public Set<String> getRunningFlowIds() {
         return runningFlows.keySet();
     }
+
+    private void removeFromResourceIndex(RunningFlow runningFlow) {
+        if (runningFlow.getResourceId() != null) {
+            runningFlowIdsByResourceId.computeIfPresent(runningFlow.getResourceId(), (id, flowIds) -> {
+                flowIds.remove(runningFlow.getFlowId());
+                return flowIds.isEmpty() ? null : flowIds;
+            });
+        }
+    }
 }
@@ -0,0 +1,92 @@
+package com.sequenceiq.flow.core;
+
+import com.sequenceiq.cloudbreak.common.event.IdempotentEvent;
+import com.sequenceiq.cloudbreak.common.event.Payload;
+import com.sequenceiq.flow.domain.ClassValue;
+import com.sequenceiq.flow.domain.FlowLogIdWithTypeAndTimestamp;
+
+/**
+ * A flow running on the current node, as registered in {@link FlowRegister}.
+ * The init trigger is kept only if it is an {@link IdempotentEvent}, because other triggers are never compared with a new one.
+ * For flows restored from the flow log the init trigger is not known, so it has to be loaded from the database if needed.
+ */
+public class RunningFlow implements FlowLogIdWithTypeAndTimestamp {
+
+    private final Flow flow;
+
+    private final String flowChainId;
+
+    private final Long resourceId;
+
+    private final Payload idempotentTrigger;
+
+    private final boolean restored;
+
+    private final Long created;
+
+    private volatile boolean finalizing;
+
+    public RunningFlow(Flow flow, String flowChainId, Long resourceId, Payload initTrigger, boolean restored) {
+        this.flow = flow;
+        this.flowChainId = flowChainId;
+        this.resourceId = resourceId;
+        this.idempotentTrigger = initTrigger instanceof IdempotentEvent ? initTrigger : null;
+        this.restored = restored;
+        this.created = System.currentTimeMillis();
+    }
+
+    public Flow getFlow() {
+        return flow;
+    }
+
+    @Override
+    public String getFlowId() {
+        return flow.getFlowId();
+    }
+
+    public String getFlowChainId() {
+        return flowChainId;
+    }
+
+    public Long getResourceId() {
+        return resourceId;
+    }
+
+    public Payload getIdempotentTrigger() {
+        return idempotentTrigger;
+    }
+
+    public boolean isRestored() {
+        return restored;
+    }
+
+    public boolean isFinalizing() {
+        return finalizing;
+    }
+
+    public void setFinalizing() {
+        finalizing = true;
+    }
+
+    @Override
+    public ClassValue getFlowType() {
+        return ClassValue.of(flow.getFlowConfigClass());
+    }
+
+    @Override
+    public Long getCreated() {
+        return created;
+    }
+
+    @Override
+    public String toString() {
+        return "RunningFlow{" +
+                "flowId='" + getFlowId() + '\'' +
+                ", flowChainId='" + flowChainId + '\'' +
+                ", resourceId=" + resourceId +
+                ", restored=" + restored +
+                ", finalizing=" + finalizing +
+                ", created=" + created +
+                '}';
+    }
+}
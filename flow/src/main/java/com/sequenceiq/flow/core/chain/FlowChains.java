@@ -29,6 +29,7 @@ import com.sequenceiq.flow.core.FlowConstants;
 import com.sequenceiq.flow.core.FlowLogService;
 import com.sequenceiq.flow.core.cache.FlowStatCache;
 import com.sequenceiq.flow.core.chain.config.FlowTriggerEventQueue;
+import com.sequenceiq.flow.core.stream.FlowProgressHub;
 import com.sequenceiq.flow.domain.FlowChainLog;
 import com.sequenceiq.flow.reactor.ErrorHandlerAwareReactorEventFactory;
 import com.sequenceiq.flow.service.flowlog.FlowChainLogService;
@@ -53,6 +54,9 @@ public class FlowChains {
     @Inject
     private FlowStatCache flowStatCache;
 
+    @Inject
+    private FlowProgressHub flowProgressHub;
+
     private final Map<String, FlowTriggerEventQueue> flowChainMap = new ConcurrentHashMap<>();
 
     private final Set<String> notSavedFlowChains = new ConcurrentSkipListSet<>();
@@ -93,6 +97,19 @@ public class FlowChains {
         }
     }
 
+    /**
+     * Returns the id of the flow chain followed by the ids of its parent flow chains, up to the root flow chain.
+     */
+    public List<String> getFlowChainIdWithParents(String flowChainId) {
+        List<String> flowChainIds = new ArrayList<>();
+        String currentFlowChainId = flowChainId;
+        while (currentFlowChainId != null) {
+            flowChainIds.add(currentFlowChainId);
+            currentFlowChainId = getParentFlowChainId(currentFlowChainId);
+        }
+        return flowChainIds;
+    }
+
     private String getRootFlowChainId(String flowChainId) {
         String parentFlowChainId = flowChainId;
         while (null != getParentFlowChainId(parentFlowChainId)) {
@@ -107,6 +124,7 @@ public class FlowChains {
             flowChainMap.remove(flowChainId);
             notSavedFlowChains.remove(flowChainId);
             flowStatCache.removeByFlowChainId(flowChainId, success);
+            flowProgressHub.publishFlowChainCompleted(flowChainId, success);
         }
     }
 
@@ -0,0 +1,213 @@
+package com.sequenceiq.flow.core.stream;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.ws.rs.ServiceUnavailableException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sequenceiq.cloudbreak.logger.concurrent.ThreadFactories;
+import com.sequenceiq.cloudbreak.logger.concurrent.ThreadMode;
+import com.sequenceiq.flow.api.model.FlowProgressEvent;
+import com.sequenceiq.flow.api.model.FlowProgressStatus;
+
+/**
+ * In-process fan-out of flow state changes to the subscribers of the flow progress stream. Publishing only appends the event to the
+ * bounded buffer of the matching subscriptions, the listeners are called on the stream threads of the hub, so a slow or stuck client
+ * never delays the flow which published the event. The events are sent asynchronously, the stream threads never wait for a client:
+ * the next event of a subscription is scheduled when the previous send is completed, and a send which is not completed within the
+ * send timeout closes the subscription.
+ * Only the flows running on the current node publish events here.
+ */
+@Component
+public class FlowProgressHub {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlowProgressHub.class);
+
+    @Value("${cb.flow.progress.stream.buffer.size:64}")
+    private int bufferSize;
+
+    @Value("${cb.flow.progress.stream.threads:2}")
+    private int threads;
+
+    @Value("${cb.flow.progress.stream.max.subscriptions:1000}")
+    private int maxSubscriptions;
+
+    @Value("${cb.flow.progress.stream.send.timeout.millis:10000}")
+    private long sendTimeoutMillis;
+
+    private final Map<String, Set<FlowProgressSubscription>> flowIdSubscriptions = new ConcurrentHashMap<>();
+
+    private final Map<String, Set<FlowProgressSubscription>> flowChainIdSubscriptions = new ConcurrentHashMap<>();
+
+    private final AtomicInteger subscriptionCount = new AtomicInteger();
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        executor = Executors.newFixedThreadPool(threads, ThreadFactories.create(ThreadMode.PLATFORM, "flowProgressStream", true));
+    }
+
+    @PreDestroy
+    public void stop() {
+        flowIdSubscriptions.values().forEach(subscriptions -> subscriptions.forEach(this::unsubscribe));
+        flowChainIdSubscriptions.values().forEach(subscriptions -> subscriptions.forEach(this::unsubscribe));
+        executor.shutdownNow();
+    }
+
+    public boolean hasSubscribers() {
+        return subscriptionCount.get() > 0;
+    }
+
+    public Set<String> getSubscribedFlowIds() {
+        return Set.copyOf(flowIdSubscriptions.keySet());
+    }
+
+    public Set<String> getSubscribedFlowChainIds() {
+        return Set.copyOf(flowChainIdSubscriptions.keySet());
+    }
+
+    /**
+     * Subscribes to the events of a flow. Events are buffered but not delivered until the subscription is started with the current
+     * state of the flow, so the listener always receives the current state first.
+     */
+    public FlowProgressSubscription subscribeByFlowId(String flowId, FlowProgressListener listener) {
+        return subscribe(flowIdSubscriptions, flowId, false, listener);
+    }
+
+    /**
+     * Subscribes to the events of the flows of a flow chain and its child flow chains, and to the completion of the flow chain.
+     */
+    public FlowProgressSubscription subscribeByFlowChainId(String flowChainId, FlowProgressListener listener) {
+        return subscribe(flowChainIdSubscriptions, flowChainId, true, listener);
+    }
+
+    public void start(FlowProgressSubscription subscription, FlowProgressEvent currentState) {
+        subscription.start(currentState);
+        scheduleDrain(subscription);
+    }
+
+    public void unsubscribe(FlowProgressSubscription subscription) {
+        if (subscription.close()) {
+            Map<String, Set<FlowProgressSubscription>> subscriptions = subscription.isFlowChain() ? flowChainIdSubscriptions : flowIdSubscriptions;
+            subscriptions.computeIfPresent(subscription.getKey(), (key, keySubscriptions) -> {
+                keySubscriptions.remove(subscription);
+                return keySubscriptions.isEmpty() ? null : keySubscriptions;
+            });
+            subscriptionCount.decrementAndGet();
+            LOGGER.debug("Flow progress subscription closed: {}", subscription);
+            try {
+                subscription.getListener().onClose();
+            } catch (RuntimeException e) {
+                LOGGER.debug("Failed to close flow progress listener of {}", subscription, e);
+            }
+        }
+    }
+
+    /**
+     * Publishes a flow event to the subscribers of the flow and of the given flow chains, or a flow chain completion event
+     * to the subscribers of the given flow chains.
+     */
+    public void publish(FlowProgressEvent event, List<String> flowChainIds) {
+        if (event.getFlowId() != null) {
+            offer(flowIdSubscriptions.get(event.getFlowId()), event);
+        }
+        for (String flowChainId : flowChainIds) {
+            offer(flowChainIdSubscriptions.get(flowChainId), event);
+        }
+    }
+
+    public void publishFlowChainCompleted(String flowChainId, boolean success) {
+        if (hasSubscribers()) {
+            FlowProgressEvent event = new FlowProgressEvent();
+            event.setFlowChainId(flowChainId);
+            event.setStatus(success ? FlowProgressStatus.FINISHED : FlowProgressStatus.FAILED);
+            event.setCreated(System.currentTimeMillis());
+            publish(event, List.of(flowChainId));
+        }
+    }
+
+    private FlowProgressSubscription subscribe(Map<String, Set<FlowProgressSubscription>> subscriptions, String key, boolean flowChain,
+            FlowProgressListener listener) {
+        if (subscriptionCount.incrementAndGet() > maxSubscriptions) {
+            subscriptionCount.decrementAndGet();
+            throw new ServiceUnavailableException("The maximum number of flow progress subscriptions is reached, please try again later.");
+        }
+        FlowProgressSubscription subscription = new FlowProgressSubscription(key, flowChain, listener, bufferSize);
+        subscriptions.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(subscription);
+        LOGGER.debug("Flow progress subscription created: {}", subscription);
+        return subscription;
+    }
+
+    private void offer(Set<FlowProgressSubscription> subscriptions, FlowProgressEvent event) {
+        if (subscriptions != null) {
+            for (FlowProgressSubscription subscription : subscriptions) {
+                subscription.offer(event);
+                scheduleDrain(subscription);
+            }
+        }
+    }
+
+    private void scheduleDrain(FlowProgressSubscription subscription) {
+        if (subscription.isStarted() && !subscription.isClosed() && subscription.tryScheduleDrain()) {
+            executeDrain(subscription);
+        }
+    }
+
+    private void executeDrain(FlowProgressSubscription subscription) {
+        try {
+            executor.execute(() -> drain(subscription));
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Flow progress stream is stopped, closing {}", subscription);
+            unsubscribe(subscription);
+        }
+    }
+
+    /**
+     * Sends the next buffered event of the subscription. The drain stays scheduled until the send is completed, then the next event
+     * is sent from a new stream task, so only one event of a subscription is in flight at a time.
+     */
+    private void drain(FlowProgressSubscription subscription) {
+        FlowProgressEvent event = subscription.isClosed() ? null : subscription.poll();
+        if (event == null) {
+            subscription.drainFinished();
+            if (subscription.hasPending() && !subscription.isClosed() && subscription.tryScheduleDrain()) {
+                executeDrain(subscription);
+            }
+        } else {
+            send(subscription, event).whenComplete((result, error) -> {
+                if (error != null) {
+                    LOGGER.debug("Failed to send flow progress event to {}, closing the subscription", subscription, error);
+                    unsubscribe(subscription);
+                } else if (subscription.isTerminal(event)) {
+                    unsubscribe(subscription);
+                } else {
+                    executeDrain(subscription);
+                }
+            });
+        }
+    }
+
+    private CompletableFuture<?> send(FlowProgressSubscription subscription, FlowProgressEvent event) {
+        try {
+            return subscription.getListener().onEvent(event).toCompletableFuture().orTimeout(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
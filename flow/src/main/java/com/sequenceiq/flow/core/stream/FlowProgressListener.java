@@ -0,0 +1,16 @@
+package com.sequenceiq.flow.core.stream;
+
+import java.util.concurrent.CompletionStage;
+
+import com.sequenceiq.flow.api.model.FlowProgressEvent;
+
+public interface FlowProgressListener {
+
+    /**
+     * Called on a stream thread of the {@link FlowProgressHub}, one event at a time. The next event is passed after the returned stage
+     * is completed. Must not block; throwing an exception, failing the stage or not completing it in time closes the subscription.
+     */
+    CompletionStage<?> onEvent(FlowProgressEvent event) throws Exception;
+
+    void onClose();
+}
@@ -0,0 +1,125 @@
+package com.sequenceiq.flow.core.stream;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.sequenceiq.flow.api.model.FlowProgressEvent;
+
+/**
+ * Subscription of a listener to the events of a flow or a flow chain. Events are buffered in a bounded queue; when a slow listener
+ * cannot keep up, the oldest buffered events are dropped, so publishing never blocks and the memory used by a subscription is bounded.
+ */
+public class FlowProgressSubscription {
+
+    private final String key;
+
+    private final boolean flowChain;
+
+    private final FlowProgressListener listener;
+
+    private final BlockingQueue<FlowProgressEvent> buffer;
+
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private volatile FlowProgressEvent initialEvent;
+
+    private volatile boolean started;
+
+    FlowProgressSubscription(String key, boolean flowChain, FlowProgressListener listener, int bufferSize) {
+        this.key = key;
+        this.flowChain = flowChain;
+        this.listener = listener;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public boolean isFlowChain() {
+        return flowChain;
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    FlowProgressListener getListener() {
+        return listener;
+    }
+
+    void start(FlowProgressEvent currentState) {
+        initialEvent = currentState;
+        started = true;
+    }
+
+    boolean isStarted() {
+        return started;
+    }
+
+    void offer(FlowProgressEvent event) {
+        while (!closed.get() && !buffer.offer(event)) {
+            if (buffer.poll() != null) {
+                droppedEvents.incrementAndGet();
+            }
+        }
+    }
+
+    FlowProgressEvent poll() {
+        FlowProgressEvent event = initialEvent;
+        if (event != null) {
+            initialEvent = null;
+            return event;
+        }
+        return buffer.poll();
+    }
+
+    boolean hasPending() {
+        return initialEvent != null || !buffer.isEmpty();
+    }
+
+    boolean tryScheduleDrain() {
+        return drainScheduled.compareAndSet(false, true);
+    }
+
+    void drainFinished() {
+        drainScheduled.set(false);
+    }
+
+    boolean close() {
+        if (closed.compareAndSet(false, true)) {
+            buffer.clear();
+            return true;
+        }
+        return false;
+    }
+
+    boolean isTerminal(FlowProgressEvent event) {
+        if (event.getStatus() == null || !event.getStatus().isFinal()) {
+            return false;
+        }
+        return flowChain
+                ? event.getFlowId() == null && key.equals(event.getFlowChainId())
+                : key.equals(event.getFlowId());
+    }
+
+    @Override
+    public String toString() {
+        return "FlowProgressSubscription{" +
+                "key='" + key + '\'' +
+                ", flowChain=" + flowChain +
+                ", droppedEvents=" + droppedEvents +
+                ", closed=" + closed +
+                '}';
+    }
+}
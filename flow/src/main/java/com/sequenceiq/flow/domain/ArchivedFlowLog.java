@@ -0,0 +1,270 @@
+package com.sequenceiq.flow.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.sequenceiq.flow.api.model.operation.OperationType;
+
+/**
+ * Flow log row as it is written to the flow log archive. Payload and variables are kept as JSON text, independently of the
+ * payload format the row was stored with in the database.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ArchivedFlowLog implements FlowLogWithoutPayload {
+
+    private Long id;
+
+    private Long resourceId;
+
+    private Long created;
+
+    private Long endTime;
+
+    private String flowId;
+
+    private String flowChainId;
+
+    private String nextEvent;
+
+    private String payload;
+
+    private String payloadTypeName;
+
+    private String variables;
+
+    private String flowTypeName;
+
+    private String currentState;
+
+    private Boolean finalized;
+
+    private String cloudbreakNodeId;
+
+    private Long version;
+
+    private StateStatus stateStatus;
+
+    private String resourceType;
+
+    private String flowTriggerUserCrn;
+
+    private OperationType operationType;
+
+    public static ArchivedFlowLog from(FlowLog flowLog) {
+        ArchivedFlowLog archivedFlowLog = new ArchivedFlowLog();
+        archivedFlowLog.id = flowLog.getId();
+        archivedFlowLog.resourceId = flowLog.getResourceId();
+        archivedFlowLog.created = flowLog.getCreated();
+        archivedFlowLog.endTime = flowLog.getEndTime();
+        archivedFlowLog.flowId = flowLog.getFlowId();
+        archivedFlowLog.flowChainId = flowLog.getFlowChainId();
+        archivedFlowLog.nextEvent = flowLog.getNextEvent();
+        archivedFlowLog.payload = flowLog.getPayloadJackson();
+        archivedFlowLog.payloadTypeName = flowLog.getPayloadType() == null ? null : flowLog.getPayloadType().getName();
+        archivedFlowLog.variables = flowLog.getVariablesJackson();
+        archivedFlowLog.flowTypeName = flowLog.getFlowType() == null ? null : flowLog.getFlowType().getName();
+        archivedFlowLog.currentState = flowLog.getCurrentState();
+        archivedFlowLog.finalized = flowLog.getFinalized();
+        archivedFlowLog.cloudbreakNodeId = flowLog.getCloudbreakNodeId();
+        archivedFlowLog.version = flowLog.getVersion();
+        archivedFlowLog.stateStatus = flowLog.getStateStatus();
+        archivedFlowLog.resourceType = flowLog.getResourceType();
+        archivedFlowLog.flowTriggerUserCrn = flowLog.getFlowTriggerUserCrn();
+        archivedFlowLog.operationType = flowLog.getOperationType();
+        return archivedFlowLog;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    @Override
+    public Long getResourceId() {
+        return resourceId;
+    }
+
+    public void setResourceId(Long resourceId) {
+        this.resourceId = resourceId;
+    }
+
+    @Override
+    public Long getCreated() {
+        return created;
+    }
+
+    public void setCreated(Long created) {
+        this.created = created;
+    }
+
+    @Override
+    public Long getEndTime() {
+        return endTime;
+    }
+
+    public void setEndTime(Long endTime) {
+        this.endTime = endTime;
+    }
+
+    @Override
+    public String getFlowId() {
+        return flowId;
+    }
+
+    public void setFlowId(String flowId) {
+        this.flowId = flowId;
+    }
+
+    @Override
+    public String getFlowChainId() {
+        return flowChainId;
+    }
+
+    public void setFlowChainId(String flowChainId) {
+        this.flowChainId = flowChainId;
+    }
+
+    @Override
+    public String getNextEvent() {
+        return nextEvent;
+    }
+
+    public void setNextEvent(String nextEvent) {
+        this.nextEvent = nextEvent;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public String getPayloadTypeName() {
+        return payloadTypeName;
+    }
+
+    public void setPayloadTypeName(String payloadTypeName) {
+        this.payloadTypeName = payloadTypeName;
+    }
+
+    @JsonIgnore
+    @Override
+    public ClassValue getPayloadType() {
+        return toClassValue(payloadTypeName);
+    }
+
+    @Override
+    public String getVariables() {
+        return variables;
+    }
+
+    public void setVariables(String variables) {
+        this.variables = variables;
+    }
+
+    public String getFlowTypeName() {
+        return flowTypeName;
+    }
+
+    public void setFlowTypeName(String flowTypeName) {
+        this.flowTypeName = flowTypeName;
+    }
+
+    @JsonIgnore
+    @Override
+    public ClassValue getFlowType() {
+        return toClassValue(flowTypeName);
+    }
+
+    @Override
+    public String getCurrentState() {
+        return currentState;
+    }
+
+    public void setCurrentState(String currentState) {
+        this.currentState = currentState;
+    }
+
+    @Override
+    public Boolean getFinalized() {
+        return finalized;
+    }
+
+    public void setFinalized(Boolean finalized) {
+        this.finalized = finalized;
+    }
+
+    @Override
+    public String getCloudbreakNodeId() {
+        return cloudbreakNodeId;
+    }
+
+    public void setCloudbreakNodeId(String cloudbreakNodeId) {
+        this.cloudbreakNodeId = cloudbreakNodeId;
+    }
+
+    @Override
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    @Override
+    public StateStatus getStateStatus() {
+        return stateStatus;
+    }
+
+    public void setStateStatus(StateStatus stateStatus) {
+        this.stateStatus = stateStatus;
+    }
+
+    @Override
+    public String getResourceType() {
+        return resourceType;
+    }
+
+    public void setResourceType(String resourceType) {
+        this.resourceType = resourceType;
+    }
+
+    @Override
+    public String getFlowTriggerUserCrn() {
+        return flowTriggerUserCrn;
+    }
+
+    public void setFlowTriggerUserCrn(String flowTriggerUserCrn) {
+        this.flowTriggerUserCrn = flowTriggerUserCrn;
+    }
+
+    @Override
+    public OperationType getOperationType() {
+        return operationType;
+    }
+
+    public void setOperationType(OperationType operationType) {
+        this.operationType = operationType;
+    }
+
+    private static ClassValue toClassValue(String className) {
+        if (className == null) {
+            return null;
+        }
+        try {
+            return ClassValue.of(className);
+        } catch (ClassNotFoundException e) {
+            return ClassValue.ofUnknown(className);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return minimizedString();
+    }
+}
@@ -0,0 +1,40 @@
+package com.sequenceiq.flow.domain;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+class DeflatedJsonPayloadCodec implements FlowLogBinaryPayloadCodec {
+
+    @Override
+    public byte[] encode(String json) {
+        if (json == null) {
+            return null;
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DeflaterOutputStream deflater = new DeflaterOutputStream(bytes, new Deflater(Deflater.BEST_SPEED))) {
+            deflater.write(json.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress flow log payload", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public String decode(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        try (InputStream inflater = new InflaterInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(inflater.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decompress flow log payload", e);
+        }
+    }
+}
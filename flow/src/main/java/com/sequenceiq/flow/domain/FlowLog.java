@@ -1,6 +1,8 @@
 package com.sequenceiq.flow.domain;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Optional;
 
 import javax.persistence.Column;
 import javax.persistence.Convert;
@@ -9,10 +11,12 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.SequenceGenerator;
+import javax.persistence.Transient;
 import javax.persistence.Version;
 
 import com.sequenceiq.flow.api.model.operation.OperationType;
 import com.sequenceiq.flow.converter.ClassValueConverter;
+import com.sequenceiq.flow.converter.FlowLogPayloadFormatConverter;
 import com.sequenceiq.flow.converter.OperationTypeConverter;
 import com.sequenceiq.flow.converter.StateStatusConverter;
 
@@ -71,6 +75,21 @@ public class FlowLog {
     @Column
     private Long endTime;
 
+    @Convert(converter = FlowLogPayloadFormatConverter.class)
+    private FlowLogPayloadFormat payloadFormat = FlowLogPayloadFormat.JSON;
+
+    @Column(columnDefinition = "bytea")
+    private byte[] payloadBinary;
+
+    @Column(columnDefinition = "bytea")
+    private byte[] variablesBinary;
+
+    @Transient
+    private String decodedPayloadJackson;
+
+    @Transient
+    private String decodedVariablesJackson;
+
     public FlowLog() {
 
     }
@@ -257,20 +276,58 @@ public class FlowLog {
         this.operationType = operationType;
     }
 
+    /**
+     * Returns the Jackson serialized payload. Binary payloads are decoded on the first call only, so loading flow logs
+     * without restoring the flow does not pay the decoding cost.
+     */
     public String getPayloadJackson() {
-        return payloadJackson;
+        if (payloadJackson == null && payloadBinary != null && decodedPayloadJackson == null) {
+            decodedPayloadJackson = decodeBinary(payloadBinary);
+        }
+        return payloadJackson != null ? payloadJackson : decodedPayloadJackson;
     }
 
     public void setPayloadJackson(String payloadJackson) {
         this.payloadJackson = payloadJackson;
+        payloadBinary = null;
+        decodedPayloadJackson = null;
     }
 
     public String getVariablesJackson() {
-        return variablesJackson;
+        if (variablesJackson == null && variablesBinary != null && decodedVariablesJackson == null) {
+            decodedVariablesJackson = decodeBinary(variablesBinary);
+        }
+        return variablesJackson != null ? variablesJackson : decodedVariablesJackson;
     }
 
     public void setVariablesJackson(String variablesJackson) {
         this.variablesJackson = variablesJackson;
+        variablesBinary = null;
+        decodedVariablesJackson = null;
+    }
+
+    public FlowLogPayloadFormat getPayloadFormat() {
+        return payloadFormat == null ? FlowLogPayloadFormat.JSON : payloadFormat;
+    }
+
+    /**
+     * Stores the payload and the variables in the given format. In case of a binary format the text columns are cleared.
+     */
+    public void setEncodedPayloadAndVariables(FlowLogPayloadFormat format, String payloadJackson, String variablesJackson) {
+        Optional<FlowLogBinaryPayloadCodec> binaryCodec = format.getBinaryCodec();
+        if (binaryCodec.isPresent()) {
+            this.payloadFormat = format;
+            this.payloadJackson = null;
+            this.variablesJackson = null;
+            payloadBinary = binaryCodec.get().encode(payloadJackson);
+            variablesBinary = binaryCodec.get().encode(variablesJackson);
+            decodedPayloadJackson = payloadJackson;
+            decodedVariablesJackson = variablesJackson;
+        } else {
+            this.payloadFormat = FlowLogPayloadFormat.JSON;
+            setPayloadJackson(payloadJackson);
+            setVariablesJackson(variablesJackson);
+        }
     }
 
     public Long getEndTime() {
@@ -291,6 +348,7 @@ public class FlowLog {
                 ", nextEvent=" + nextEvent +
                 ", operationType=" + operationType +
                 ", endTime=" + endTime +
+                ", payloadFormat=" + payloadFormat +
                 '}';
     }
 
@@ -304,4 +362,10 @@ public class FlowLog {
                 && flowType.isOnClassPath()
                 && flowTypeClass.equals(flowType.getClassValue());
     }
+
+    private String decodeBinary(byte[] bytes) {
+        return getPayloadFormat().getBinaryCodec()
+                .map(codec -> codec.decode(bytes))
+                .orElseGet(() -> new String(bytes, StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,106 @@
+package com.sequenceiq.flow.domain;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.SequenceGenerator;
+
+/**
+ * Index entry of an archived flow: the flow logs of {@code flowId} can be found in the archive at {@code location}.
+ * A flow may have more entries if its flow logs were archived by different cleanup runs.
+ */
+@Entity
+public class FlowLogArchive {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "flowlogarchive_generator")
+    @SequenceGenerator(name = "flowlogarchive_generator", sequenceName = "flowlogarchive_id_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false)
+    private String flowId;
+
+    private String flowChainId;
+
+    @Column(nullable = false)
+    private Long resourceId;
+
+    @Column(nullable = false)
+    private String location;
+
+    @Column(nullable = false)
+    private Long archived;
+
+    public FlowLogArchive() {
+    }
+
+    public FlowLogArchive(String flowId, String flowChainId, Long resourceId, String location, Long archived) {
+        this.flowId = flowId;
+        this.flowChainId = flowChainId;
+        this.resourceId = resourceId;
+        this.location = location;
+        this.archived = archived;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getFlowId() {
+        return flowId;
+    }
+
+    public void setFlowId(String flowId) {
+        this.flowId = flowId;
+    }
+
+    public String getFlowChainId() {
+        return flowChainId;
+    }
+
+    public void setFlowChainId(String flowChainId) {
+        this.flowChainId = flowChainId;
+    }
+
+    public Long getResourceId() {
+        return resourceId;
+    }
+
+    public void setResourceId(Long resourceId) {
+        this.resourceId = resourceId;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public Long getArchived() {
+        return archived;
+    }
+
+    public void setArchived(Long archived) {
+        this.archived = archived;
+    }
+
+    @Override
+    public String toString() {
+        return "FlowLogArchive{" +
+                "id=" + id +
+                ", flowId='" + flowId + '\'' +
+                ", flowChainId='" + flowChainId + '\'' +
+                ", resourceId=" + resourceId +
+                ", location='" + location + '\'' +
+                ", archived=" + archived +
+                '}';
+    }
+}
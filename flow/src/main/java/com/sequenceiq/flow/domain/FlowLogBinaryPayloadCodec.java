@@ -0,0 +1,12 @@
+package com.sequenceiq.flow.domain;
+
+/**
+ * Encodes the Jackson text of a flow log payload or variables into the bytes stored in the binary columns, and decodes them back.
+ * Only the binary {@link FlowLogPayloadFormat}s have a codec.
+ */
+public interface FlowLogBinaryPayloadCodec {
+
+    byte[] encode(String json);
+
+    String decode(byte[] bytes);
+}
@@ -0,0 +1,27 @@
+package com.sequenceiq.flow.domain;
+
+import java.util.Optional;
+
+/**
+ * Storage format of the payload and variables of a {@link FlowLog}. {@code JSON} rows keep the Jackson text in the
+ * {@code payloadjackson}/{@code variablesjackson} columns, binary formats store the bytes of their {@link FlowLogBinaryPayloadCodec}
+ * in the {@code payloadbinary}/{@code variablesbinary} columns.
+ */
+public enum FlowLogPayloadFormat {
+    JSON(null),
+    DEFLATED_JSON(new DeflatedJsonPayloadCodec());
+
+    private final FlowLogBinaryPayloadCodec binaryCodec;
+
+    FlowLogPayloadFormat(FlowLogBinaryPayloadCodec binaryCodec) {
+        this.binaryCodec = binaryCodec;
+    }
+
+    public Optional<FlowLogBinaryPayloadCodec> getBinaryCodec() {
+        return Optional.ofNullable(binaryCodec);
+    }
+
+    public boolean isBinary() {
+        return binaryCodec != null;
+    }
+}
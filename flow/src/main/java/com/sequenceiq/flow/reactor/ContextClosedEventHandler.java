@@ -1,5 +1,7 @@
 package com.sequenceiq.flow.reactor;
 
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
@@ -12,6 +14,7 @@ import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import com.sequenceiq.cloudbreak.eventbus.PartitionedEventExecutor;
 import com.sequenceiq.cloudbreak.logger.concurrent.MDCCleanerThreadPoolExecutor;
 import com.sequenceiq.flow.core.FlowRegister;
 
@@ -30,6 +33,9 @@ public class ContextClosedEventHandler {
     @Named("eventBusThreadPoolExecutor")
     private MDCCleanerThreadPoolExecutor executor;
 
+    @Inject
+    private Optional<PartitionedEventExecutor> partitionedEventExecutor;
+
     @EventListener
     public void handleContextClosedEvent(ContextClosedEvent event) {
         LOGGER.info("ContextClosedEvent received, shutdown eventBusThreadPoolExecutor. Running flows: {}", flowRegister.getRunningFlowIds());
@@ -38,10 +44,11 @@ public class ContextClosedEventHandler {
 
     private void shutdownEventBusThreadPoolExecutor() {
         LOGGER.debug("Shutting down executor service.");
-        executor.shutdownNow();
+        ExecutorService eventBusExecutor = partitionedEventExecutor.isPresent() ? partitionedEventExecutor.get() : executor;
+        eventBusExecutor.shutdownNow();
         LOGGER.info("Executor service has been shut down.");
         try {
-            if (!executor.awaitTermination(eventBusThreadpoolShutdownTimeout, TimeUnit.SECONDS)) {
+            if (!eventBusExecutor.awaitTermination(eventBusThreadpoolShutdownTimeout, TimeUnit.SECONDS)) {
                 LOGGER.warn("eventBusThreadPoolExecutor shutdown timed out.");
             }
         } catch (InterruptedException e) {
@@ -4,8 +4,8 @@ import java.util.Arrays;
 import java.util.LinkedHashSet;
 import java.util.Optional;
 import java.util.Timer;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
@@ -14,15 +14,18 @@ import javax.inject.Inject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.sequenceiq.cloudbreak.eventbus.Event;
 import com.sequenceiq.cloudbreak.eventbus.EventBus;
+import com.sequenceiq.cloudbreak.eventbus.PartitionedEventExecutor;
 import com.sequenceiq.cloudbreak.logger.MDCBuilder;
 import com.sequenceiq.cloudbreak.logger.concurrent.MDCCleanerThreadPoolExecutor;
+import com.sequenceiq.cloudbreak.logger.concurrent.ThreadFactories;
+import com.sequenceiq.cloudbreak.logger.concurrent.ThreadMode;
 import com.sequenceiq.flow.core.ApplicationFlowInformation;
 import com.sequenceiq.flow.core.FlowConstants;
 import com.sequenceiq.flow.service.flowlog.FlowLogDBService;
@@ -41,6 +44,15 @@ public class EventBusConfig {
     @Value("${cb.eventbus.threadpool.backlog.size:1000}")
     private int eventBusThreadPoolBacklogSize;
 
+    @Value("${cb.eventbus.threadpool.mode:${cb.executor.thread.mode:PLATFORM}}")
+    private ThreadMode eventBusThreadMode;
+
+    @Value("${cb.eventbus.dispatcher.partitioned.capacity:10000}")
+    private int partitionedDispatcherCapacity;
+
+    @Value("${cb.eventbus.dispatcher.partitioned.offer-timeout-millis:30000}")
+    private long partitionedDispatcherOfferTimeoutMillis;
+
     @Inject
     @Lazy
     private ApplicationFlowInformation applicationFlowInformation;
@@ -60,11 +72,13 @@ public class EventBusConfig {
     }
 
     @Bean
-    public EventBus reactor(MDCCleanerThreadPoolExecutor threadPoolExecutor) {
+    public EventBus reactor(MDCCleanerThreadPoolExecutor threadPoolExecutor, Optional<PartitionedEventExecutor> partitionedEventExecutor) {
+        ExecutorService executor = partitionedEventExecutor.isPresent() ? partitionedEventExecutor.get() : threadPoolExecutor;
         return EventBus.builder()
-                .executor(threadPoolExecutor)
-                .exceptionHandler((event, exception) -> handleException(event, exception, threadPoolExecutor))
-                .unhandledEventHandler(event -> handleUnhandledEvent(event, threadPoolExecutor))
+                .executor(executor)
+                .partitionKeyResolver(this::tryGetFlowIdFromEvent)
+                .exceptionHandler((event, exception) -> handleException(event, exception, executor))
+                .unhandledEventHandler(event -> handleUnhandledEvent(event, executor))
                 .build();
     }
 
@@ -82,22 +96,36 @@ public class EventBusConfig {
         return flowId;
     }
 
+    /**
+     * The thread mode only selects the thread factory, the pool is sized by the same properties in both modes. Virtual threads fail
+     * the startup on a runtime older than Java 21.
+     */
     @Bean("eventBusThreadPoolExecutor")
     public MDCCleanerThreadPoolExecutor getPoolExecutor() {
+        LOGGER.info("Event bus uses {} threads", eventBusThreadMode);
         return new MDCCleanerThreadPoolExecutor(eventBusThreadPoolCoreSize,
                 eventBusThreadPoolMaxSize,
                 0L,
                 TimeUnit.MILLISECONDS,
                 new LinkedBlockingQueue<>(eventBusThreadPoolBacklogSize),
-                new ThreadFactoryBuilder().setNameFormat("reactorDispatcher-%d").setDaemon(true).build(),
+                ThreadFactories.create(eventBusThreadMode, "reactorDispatcher", true),
                 (r, executor) -> LOGGER.error("Task has been rejected from 'reactorDispatcher' threadpool. Executor state: " + executor));
 
     }
 
-    private void handleException(Event<?> event, Throwable exception, ThreadPoolExecutor threadPoolExecutor) {
+    @Bean
+    @ConditionalOnProperty(name = "cb.eventbus.dispatcher.mode", havingValue = "partitioned")
+    public PartitionedEventExecutor partitionedEventExecutor(MDCCleanerThreadPoolExecutor threadPoolExecutor) {
+        LOGGER.info("Partitioned event bus dispatcher is enabled with {} parallel workers and capacity of {} events",
+                threadPoolExecutor.getCorePoolSize(), partitionedDispatcherCapacity);
+        return new PartitionedEventExecutor(threadPoolExecutor, threadPoolExecutor.getCorePoolSize(), partitionedDispatcherCapacity,
+                partitionedDispatcherOfferTimeoutMillis);
+    }
+
+    private void handleException(Event<?> event, Throwable exception, ExecutorService executor) {
         try {
             LOGGER.error("Exception during event: {}", event);
-            if (!threadPoolExecutor.isTerminating()) {
+            if (!executor.isShutdown()) {
                 String flowId = Optional.ofNullable(tryGetFlowIdFromEvent(event))
                         .or(() -> Optional.ofNullable(getFlowIdFromMDC()))
                         .orElse(null);
@@ -115,10 +143,10 @@ public class EventBusConfig {
         }
     }
 
-    private void handleUnhandledEvent(Event<?> event, ThreadPoolExecutor threadPoolExecutor) {
+    private void handleUnhandledEvent(Event<?> event, ExecutorService executor) {
         try {
             LOGGER.error("Unhandled event: {}", event);
-            if (!threadPoolExecutor.isTerminating()) {
+            if (!executor.isShutdown()) {
                 String flowId = tryGetFlowIdFromEvent(event);
                 if (flowId != null) {
                     closeFlow(flowId);
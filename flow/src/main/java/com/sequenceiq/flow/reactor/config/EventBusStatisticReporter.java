@@ -1,5 +1,7 @@
 package com.sequenceiq.flow.reactor.config;
 
+import java.util.Optional;
+
 import javax.inject.Inject;
 import javax.inject.Named;
 
@@ -7,6 +9,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import com.sequenceiq.cloudbreak.eventbus.PartitionedEventExecutor;
 import com.sequenceiq.cloudbreak.logger.concurrent.MDCCleanerThreadPoolExecutor;
 
 @Component
@@ -18,6 +21,9 @@ public class EventBusStatisticReporter {
     @Named("eventBusThreadPoolExecutor")
     private MDCCleanerThreadPoolExecutor executor;
 
+    @Inject
+    private Optional<PartitionedEventExecutor> partitionedEventExecutor;
+
     public void logInfoReport() {
         LOGGER.info("Reactor event bus statistics: {}", create());
     }
@@ -35,6 +41,7 @@ public class EventBusStatisticReporter {
         stats.setActiveCount(executor.getActiveCount());
         stats.setCompletedTaskCount(executor.getCompletedTaskCount());
         stats.setRemainingCapacity(executor.getQueue().remainingCapacity());
+        partitionedEventExecutor.ifPresent(partitioned -> stats.setPartitionedStatistics(partitioned.getStatistics()));
 
         return stats;
     }
@@ -53,6 +60,8 @@ public class EventBusStatisticReporter {
 
         private int remainingCapacity;
 
+        private PartitionedEventExecutor.Statistics partitionedStatistics;
+
         public void setTaskCount(long taskCount) {
             this.taskCount = taskCount;
         }
@@ -77,6 +86,10 @@ public class EventBusStatisticReporter {
             this.remainingCapacity = remainingCapacity;
         }
 
+        public void setPartitionedStatistics(PartitionedEventExecutor.Statistics partitionedStatistics) {
+            this.partitionedStatistics = partitionedStatistics;
+        }
+
         @Override
         public String toString() {
             return "EventBusStatistics{" +
@@ -86,6 +99,7 @@ public class EventBusStatisticReporter {
                     ", poolSize=" + poolSize +
                     ", activeCount=" + activeCount +
                     ", remainingCapacity=" + remainingCapacity +
+                    ", partitionedStatistics=" + partitionedStatistics +
                     '}';
         }
     }
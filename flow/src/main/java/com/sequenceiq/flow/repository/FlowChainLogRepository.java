@@ -41,6 +41,13 @@ public interface FlowChainLogRepository extends CrudRepository<FlowChainLog, Lon
             + " AND fch.flowChainId NOT IN (SELECT DISTINCT fc.parentFlowChainId FROM FlowChainLog fc)")
     int purgeOrphanFlowChainLogs();
 
+    @Modifying
+    @Query("DELETE FROM FlowChainLog fch "
+            + "WHERE fch.flowChainId NOT IN ( SELECT DISTINCT fl.flowChainId FROM FlowLog fl )"
+            + " AND fch.flowChainId NOT IN ( SELECT DISTINCT fla.flowChainId FROM FlowLogArchive fla WHERE fla.flowChainId IS NOT NULL )"
+            + " AND fch.flowChainId NOT IN (SELECT DISTINCT fc.parentFlowChainId FROM FlowChainLog fc)")
+    int purgeOrphanFlowChainLogsWithoutArchive();
+
     @Query(value = "SELECT fcl.* " + FIND_BY_FLOW_CHAIN_ID_BASE_QUERY, nativeQuery = true,
             countQuery = "SELECT count(fcl.*) " + FIND_BY_FLOW_CHAIN_ID_BASE_QUERY)
     Page<FlowChainLog> nativeFindByFlowChainIdInOrderByCreatedDesc(@Param("flowChainIds") Set<String> flowChainIds, Pageable pageable);
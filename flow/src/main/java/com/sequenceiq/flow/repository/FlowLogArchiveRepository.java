@@ -0,0 +1,31 @@
+package com.sequenceiq.flow.repository;
+
+import java.util.List;
+import java.util.Set;
+
+import javax.transaction.Transactional;
+import javax.transaction.Transactional.TxType;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import com.sequenceiq.flow.domain.FlowLogArchive;
+
+@Transactional(TxType.REQUIRED)
+public interface FlowLogArchiveRepository extends CrudRepository<FlowLogArchive, Long> {
+
+    List<FlowLogArchive> findAllByFlowId(String flowId);
+
+    List<FlowLogArchive> findAllByFlowChainIdIn(Set<String> flowChainIds);
+
+    @Query("SELECT fla.location FROM FlowLogArchive fla WHERE fla.archived < :archivedUpperBound GROUP BY fla.location ORDER BY min(fla.archived)")
+    List<String> findLocationsArchivedBefore(@Param("archivedUpperBound") Long archivedUpperBound, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM FlowLogArchive fla WHERE fla.location IN (:locations)")
+    int deleteByLocationIn(@Param("locations") List<String> locations);
+
+}
@@ -1,5 +1,6 @@
 package com.sequenceiq.flow.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -17,6 +18,7 @@ import org.springframework.data.repository.query.Param;
 import com.sequenceiq.flow.domain.ClassValue;
 import com.sequenceiq.flow.domain.FlowLog;
 import com.sequenceiq.flow.domain.FlowLogIdWithTypeAndTimestamp;
+import com.sequenceiq.flow.domain.FlowLogPayloadFormat;
 import com.sequenceiq.flow.domain.FlowLogWithoutPayload;
 import com.sequenceiq.flow.domain.StateStatus;
 
@@ -49,6 +51,9 @@ public interface FlowLogRepository extends CrudRepository<FlowLog, Long> {
             + "WHERE fl.stateStatus = 'PENDING' AND fl.resourceId = :resourceId")
     Set<FlowLogIdWithTypeAndTimestamp> findAllRunningFlowLogByResourceId(@Param("resourceId") Long resourceId);
 
+    @Query("SELECT DISTINCT fl.resourceId FROM FlowLog fl WHERE fl.stateStatus = 'PENDING' AND fl.resourceId IN (:resourceIds)")
+    Set<Long> findAllResourceIdsWithRunningFlow(@Param("resourceIds") Collection<Long> resourceIds);
+
     @Query("SELECT DISTINCT fl.flowId, fl.resourceId, fl.cloudbreakNodeId FROM FlowLog fl WHERE fl.stateStatus = 'PENDING'")
     List<Object[]> findAllPending();
 
@@ -88,6 +93,17 @@ public interface FlowLogRepository extends CrudRepository<FlowLog, Long> {
     @Query("DELETE FROM FlowLog fl WHERE fl.finalized = TRUE AND fl.endTime <= :endTime")
     int purgeFinalizedFlowLogs(@Param("endTime") Long endTime);
 
+    @Query("SELECT fl FROM FlowLog fl WHERE fl.finalized = TRUE AND fl.endTime <= :endTime ORDER BY fl.id")
+    List<FlowLog> findFinalizedFlowLogsEndedBefore(@Param("endTime") Long endTime, Pageable page);
+
+    @Modifying
+    @Query("DELETE FROM FlowLog fl WHERE fl.id IN (:ids)")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT fl FROM FlowLog fl WHERE fl.finalized = TRUE AND (fl.payloadFormat IS NULL OR fl.payloadFormat = :payloadFormat) " +
+            "AND (fl.payloadJackson IS NOT NULL OR fl.variablesJackson IS NOT NULL) ORDER BY fl.id")
+    List<FlowLog> findFinalizedFlowLogsByPayloadFormat(@Param("payloadFormat") FlowLogPayloadFormat payloadFormat, Pageable page);
+
     List<FlowLog> findAllByResourceIdOrderByCreatedDesc(Long resourceId);
 
     Optional<FlowLog> findFirstByResourceIdOrderByCreatedDesc(@Param("resourceId") Long resourceId);
@@ -0,0 +1,104 @@
+package com.sequenceiq.flow.service;
+
+import java.util.List;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.sequenceiq.flow.api.model.FlowCheckResponse;
+import com.sequenceiq.flow.api.model.FlowProgressEvent;
+import com.sequenceiq.flow.api.model.FlowProgressStatus;
+import com.sequenceiq.flow.core.FlowRegister;
+import com.sequenceiq.flow.core.stream.FlowProgressHub;
+import com.sequenceiq.flow.core.stream.FlowProgressListener;
+import com.sequenceiq.flow.core.stream.FlowProgressSubscription;
+
+/**
+ * Subscribes clients to the {@link FlowProgressHub}. The first event of every subscription is the current state of the flow or flow chain,
+ * the later events are pushed by the flow engine of this node. Flows and flow chains running on other nodes do not publish here,
+ * so their state is checked periodically, once per subscribed id regardless of the number of subscribers, and the completion is
+ * published when they are done.
+ */
+@Service
+public class FlowProgressStreamService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlowProgressStreamService.class);
+
+    @Inject
+    private FlowService flowService;
+
+    @Inject
+    private FlowRegister flowRegister;
+
+    @Inject
+    private FlowProgressHub flowProgressHub;
+
+    public FlowProgressSubscription subscribeByFlowId(String flowId, FlowProgressListener listener) {
+        FlowProgressSubscription subscription = flowProgressHub.subscribeByFlowId(flowId, listener);
+        try {
+            flowProgressHub.start(subscription, toFlowProgressEvent(flowId, null, flowService.getFlowState(flowId)));
+            return subscription;
+        } catch (RuntimeException e) {
+            flowProgressHub.unsubscribe(subscription);
+            throw e;
+        }
+    }
+
+    public FlowProgressSubscription subscribeByFlowChainId(String flowChainId, FlowProgressListener listener) {
+        FlowProgressSubscription subscription = flowProgressHub.subscribeByFlowChainId(flowChainId, listener);
+        try {
+            flowProgressHub.start(subscription, toFlowProgressEvent(null, flowChainId, flowService.getFlowChainState(flowChainId)));
+            return subscription;
+        } catch (RuntimeException e) {
+            flowProgressHub.unsubscribe(subscription);
+            throw e;
+        }
+    }
+
+    @Scheduled(initialDelayString = "${cb.flow.progress.stream.resync.interval.millis:10000}",
+            fixedDelayString = "${cb.flow.progress.stream.resync.interval.millis:10000}")
+    public void publishCompletionOfRemoteFlows() {
+        for (String flowId : flowProgressHub.getSubscribedFlowIds()) {
+            if (flowRegister.getRunningFlow(flowId) == null) {
+                try {
+                    publishIfCompleted(toFlowProgressEvent(flowId, null, flowService.getFlowState(flowId)), List.of());
+                } catch (RuntimeException e) {
+                    LOGGER.debug("Failed to check the state of flow {} for the flow progress stream", flowId, e);
+                }
+            }
+        }
+        for (String flowChainId : flowProgressHub.getSubscribedFlowChainIds()) {
+            try {
+                publishIfCompleted(toFlowProgressEvent(null, flowChainId, flowService.getFlowChainState(flowChainId)), List.of(flowChainId));
+            } catch (RuntimeException e) {
+                LOGGER.debug("Failed to check the state of flow chain {} for the flow progress stream", flowChainId, e);
+            }
+        }
+    }
+
+    private void publishIfCompleted(FlowProgressEvent event, List<String> flowChainIds) {
+        if (event.getStatus().isFinal()) {
+            LOGGER.debug("Publishing completion of {}", event);
+            flowProgressHub.publish(event, flowChainIds);
+        }
+    }
+
+    private FlowProgressEvent toFlowProgressEvent(String flowId, String flowChainId, FlowCheckResponse flowCheckResponse) {
+        FlowProgressEvent event = new FlowProgressEvent();
+        event.setFlowId(flowId);
+        event.setFlowChainId(flowChainId);
+        event.setCreated(System.currentTimeMillis());
+        if (Boolean.TRUE.equals(flowCheckResponse.getHasActiveFlow())) {
+            event.setStatus(FlowProgressStatus.RUNNING);
+        } else if (Boolean.TRUE.equals(flowCheckResponse.getLatestFlowFinalizedAndFailed())) {
+            event.setStatus(FlowProgressStatus.FAILED);
+        } else {
+            event.setStatus(FlowProgressStatus.FINISHED);
+        }
+        return event;
+    }
+}
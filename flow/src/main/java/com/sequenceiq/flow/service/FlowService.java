@@ -41,13 +41,18 @@ import com.sequenceiq.cloudbreak.util.Benchmark;
 import com.sequenceiq.flow.api.model.FlowCheckResponse;
 import com.sequenceiq.flow.api.model.FlowLogResponse;
 import com.sequenceiq.flow.converter.FlowLogConverter;
+import com.sequenceiq.flow.core.Flow;
 import com.sequenceiq.flow.core.FlowConstants;
+import com.sequenceiq.flow.core.FlowRegister;
+import com.sequenceiq.flow.core.FlowState;
+import com.sequenceiq.flow.core.RunningFlow;
 import com.sequenceiq.flow.domain.FlowChainLog;
 import com.sequenceiq.flow.domain.FlowLog;
 import com.sequenceiq.flow.domain.FlowLogWithoutPayload;
 import com.sequenceiq.flow.domain.StateStatus;
 import com.sequenceiq.flow.service.flowlog.FlowChainLogService;
 import com.sequenceiq.flow.service.flowlog.FlowLogDBService;
+import com.sequenceiq.flow.service.flowlog.archive.FlowLogArchiveService;
 
 @Service
 public class FlowService {
@@ -56,6 +61,8 @@ public class FlowService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(FlowService.class);
 
+    private static final String FAIL_STATE_MARKER = "FAIL";
+
     @Inject
     private FlowLogDBService flowLogDBService;
 
@@ -68,18 +75,32 @@ public class FlowService {
     @Inject
     private FlowLogConverter flowLogConverter;
 
+    @Inject
+    private FlowRegister flowRegister;
+
+    @Inject
+    private FlowLogArchiveService flowLogArchiveService;
+
     public FlowLogResponse getLastFlowById(String flowId) {
         LOGGER.info("Getting last flow log by flow id {}", flowId);
         Optional<FlowLog> lastFlowLog = flowLogDBService.findFirstByFlowIdOrderByCreatedDesc(flowId);
         if (lastFlowLog.isPresent()) {
             return flowLogConverter.convert(lastFlowLog.get());
         }
-        throw new BadRequestException("Not found flow for this flow id!");
+        return flowLogArchiveService.findAllArchivedByFlowIdOrderByCreatedDesc(flowId).stream()
+                .findFirst()
+                .map(flowLogConverter::convertArchived)
+                .orElseThrow(() -> new BadRequestException("Not found flow for this flow id!"));
     }
 
     public List<FlowLogResponse> getFlowLogsByFlowId(String flowId) {
         LOGGER.info("Getting flow logs by flow id {}", flowId);
         List<FlowLog> flowLogs = flowLogDBService.findAllByFlowIdOrderByCreatedDesc(flowId);
+        if (flowLogs.isEmpty()) {
+            return flowLogArchiveService.findAllArchivedByFlowIdOrderByCreatedDesc(flowId).stream()
+                    .map(flowLogConverter::convertArchived)
+                    .collect(Collectors.toList());
+        }
         return flowLogs.stream().map(flowLog -> flowLogConverter.convert(flowLog)).collect(Collectors.toList());
     }
 
@@ -135,7 +156,7 @@ public class FlowService {
             LOGGER.info("Checking if there is an active flow based on flow chain id {}", chainId);
             List<FlowChainLog> relatedChains = flowChainLogService.getRelatedFlowChainLogs(flowChains);
             Set<String> relatedChainIds = relatedChains.stream().map(FlowChainLog::getFlowChainId).collect(toSet());
-            List<FlowLogWithoutPayload> relatedFlowLogs = flowLogDBService.getFlowLogsWithoutPayloadByFlowChainIdsCreatedDesc(relatedChainIds);
+            List<FlowLogWithoutPayload> relatedFlowLogs = getFlowLogsWithoutPayloadByFlowChainIdsCreatedDesc(relatedChainIds);
             flowCheckResponse.setHasActiveFlow(!completed("Flow chain", chainId, relatedChains, relatedFlowLogs));
             flowCheckResponse.setLatestFlowFinalizedAndFailed(isFlowInFailedState(relatedFlowLogs, failHandledEvents));
             setEndTimeOnFlowCheckResponse(flowCheckResponse, relatedFlowLogs);
@@ -169,7 +190,7 @@ public class FlowService {
             LOGGER.info("Checking if there is an active flow based on flow chain id {}", chainId);
             List<FlowChainLog> relatedChains = flowChainLogService.getRelatedFlowChainLogs(flowChains);
             Set<String> relatedChainIds = relatedChains.stream().map(FlowChainLog::getFlowChainId).collect(toSet());
-            List<FlowLogWithoutPayload> relatedFlowLogs = flowLogDBService.getFlowLogsWithoutPayloadByFlowChainIdsCreatedDesc(relatedChainIds);
+            List<FlowLogWithoutPayload> relatedFlowLogs = getFlowLogsWithoutPayloadByFlowChainIdsCreatedDesc(relatedChainIds);
             validateResourceId(relatedFlowLogs, resourceIdList);
             flowCheckResponse.setHasActiveFlow(!completed("Flow chain", chainId, relatedChains, relatedFlowLogs));
             flowCheckResponse.setLatestFlowFinalizedAndFailed(isFlowInFailedState(relatedFlowLogs, failHandledEvents));
@@ -179,6 +200,14 @@ public class FlowService {
         return flowCheckResponse;
     }
 
+    private List<FlowLogWithoutPayload> getFlowLogsWithoutPayloadByFlowChainIdsCreatedDesc(Set<String> flowChainIds) {
+        List<FlowLogWithoutPayload> flowLogs = flowLogDBService.getFlowLogsWithoutPayloadByFlowChainIdsCreatedDesc(flowChainIds);
+        if (flowLogs.isEmpty()) {
+            flowLogs = new ArrayList<>(flowLogArchiveService.findAllArchivedByFlowChainIdsOrderByCreatedDesc(flowChainIds));
+        }
+        return flowLogs;
+    }
+
     private void validateResourceId(List<FlowLogWithoutPayload> flowLogs, List<Long> resourceIdList) {
         if (flowLogs.stream().anyMatch(flowLog -> !resourceIdList.contains(flowLog.getResourceId()))) {
             throw new BadRequestException(String.format("The requested chain id %s does not belong to that " +
@@ -187,7 +216,19 @@ public class FlowService {
     }
 
     public FlowCheckResponse getFlowState(String flowId) {
+        RunningFlow runningFlow = flowRegister.getRunningFlow(flowId);
+        if (runningFlow != null && !runningFlow.isFinalizing() && !isFailing(runningFlow)) {
+            LOGGER.debug("Flow {} is running on this node, skip querying its flow logs.", flowId);
+            FlowCheckResponse flowCheckResponse = new FlowCheckResponse();
+            flowCheckResponse.setFlowId(flowId);
+            flowCheckResponse.setHasActiveFlow(true);
+            flowCheckResponse.setLatestFlowFinalizedAndFailed(false);
+            return flowCheckResponse;
+        }
         List<FlowLogWithoutPayload> allByFlowIdOrderByCreatedDesc = flowLogDBService.findAllWithoutPayloadByFlowIdOrderByCreatedDesc(flowId);
+        if (allByFlowIdOrderByCreatedDesc.isEmpty()) {
+            allByFlowIdOrderByCreatedDesc = new ArrayList<>(flowLogArchiveService.findAllArchivedByFlowIdOrderByCreatedDesc(flowId));
+        }
         if (allByFlowIdOrderByCreatedDesc.isEmpty()) {
             throw new NotFoundException(String.format("Flow '%s' not found.", flowId));
         }
@@ -198,6 +239,15 @@ public class FlowService {
         return flowCheckResponse;
     }
 
+    /**
+     * A flow in its failure handling is answered from the flow logs, so the response reflects the failure the same way as on the other nodes.
+     */
+    private boolean isFailing(RunningFlow runningFlow) {
+        Flow flow = runningFlow.getFlow();
+        FlowState currentState = flow.getCurrentState();
+        return flow.isFlowFailed() || (currentState != null && currentState.name().contains(FAIL_STATE_MARKER));
+    }
+
     private boolean completed(String marker, String flowChainId, List<FlowChainLog> flowChainLogs, List<FlowLogWithoutPayload> flowLogs) {
         if (firstIsPending(flowLogs)) {
             return false;
@@ -127,6 +127,13 @@ public class FlowChainLogService {
         return repository.purgeOrphanFlowChainLogs();
     }
 
+    /**
+     * Keeps the chains of archived flows, so the chain history stays available while the archive is kept.
+     */
+    public int purgeOrphanFlowChainLogsWithoutArchive() {
+        return repository.purgeOrphanFlowChainLogsWithoutArchive();
+    }
+
     public FlowChainLog save(FlowChainLog chainLog) {
         return repository.save(chainLog);
     }
@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -18,6 +19,7 @@ import javax.inject.Inject;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Primary;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
@@ -48,6 +50,7 @@ import com.sequenceiq.flow.domain.ClassValue;
 import com.sequenceiq.flow.domain.FlowChainLog;
 import com.sequenceiq.flow.domain.FlowLog;
 import com.sequenceiq.flow.domain.FlowLogIdWithTypeAndTimestamp;
+import com.sequenceiq.flow.domain.FlowLogPayloadFormat;
 import com.sequenceiq.flow.domain.FlowLogWithoutPayload;
 import com.sequenceiq.flow.domain.StateStatus;
 import com.sequenceiq.flow.ha.NodeConfig;
@@ -80,20 +83,30 @@ public class FlowLogDBService implements FlowLogService {
     @Inject
     private Clock clock;
 
+    @Value("${cb.flowlog.payload.format:JSON}")
+    private FlowLogPayloadFormat payloadFormat;
+
     @Override
     public FlowLog save(FlowParameters flowParameters, String flowChainId, String key, Payload payload, Map<Object, Object> variables, Class<?> flowType,
                         FlowState currentState) {
+        return flowLogRepository.save(createFlowLog(flowParameters, flowChainId, key, payload, variables, flowType, currentState));
+    }
+
+    @Override
+    public FlowLog createFlowLog(FlowParameters flowParameters, String flowChainId, String key, Payload payload, Map<Object, Object> variables,
+            Class<?> flowType, FlowState currentState) {
         String payloadJackson = JsonUtil.writeValueAsStringSilent(payload);
         String variablesJackson = TypedJsonUtil.writeValueAsStringSilent(variables);
 
         FlowLog flowLog = new FlowLog(payload.getResourceId(), flowParameters.getFlowId(), flowChainId, flowParameters.getFlowTriggerUserCrn(), key,
-                payloadJackson, ClassValue.of(payload.getClass()), variablesJackson,
+                null, ClassValue.of(payload.getClass()), null,
                 ClassValue.of(flowType), currentState.toString());
+        flowLog.setEncodedPayloadAndVariables(getPayloadFormat(), payloadJackson, variablesJackson);
         flowLog.setOperationType(StringUtils.isNotBlank(flowParameters.getFlowOperationType())
                 ? OperationType.valueOf(flowParameters.getFlowOperationType())
                 : OperationType.UNKNOWN);
         flowLog.setCloudbreakNodeId(nodeConfig.getId());
-        return flowLogRepository.save(flowLog);
+        return flowLog;
     }
 
     @Override
@@ -139,7 +152,7 @@ public class FlowLogDBService implements FlowLogService {
             FlowLog flowLog = new FlowLog(resourceId, flowId, state, Boolean.TRUE, StateStatus.SUCCESSFUL, operationType);
             if (contextParams != null) {
                 String variablesJackson = TypedJsonUtil.writeValueAsStringSilent(contextParams);
-                flowLog.setVariablesJackson(variablesJackson);
+                flowLog.setEncodedPayloadAndVariables(getPayloadFormat(), null, variablesJackson);
             }
             lastFlowLogOpt.ifPresent(lastFlowLog -> {
                 flowLog.setFlowType(lastFlowLog.getFlowType());
@@ -233,21 +246,30 @@ public class FlowLogDBService implements FlowLogService {
         return !flowIds.isEmpty();
     }
 
+    @Override
+    public Set<Long> findAllResourceIdsWithRunningFlow(Collection<Long> resourceIds) {
+        return resourceIds.isEmpty() ? Set.of() : flowLogRepository.findAllResourceIdsWithRunningFlow(resourceIds);
+    }
+
     public boolean repeatedFlowState(FlowLog lastFlowLog, String event) {
         return Optional.ofNullable(lastFlowLog).map(FlowLog::getNextEvent).map(flowLog -> flowLog.equalsIgnoreCase(event)).orElse(false);
     }
 
     public void updateLastFlowLogPayload(FlowLog lastFlowLog, Payload payload, Map<Object, Object> variables) {
-        String payloadJackson = JsonUtil.writeValueAsStringSilent(payload);
-        String variablesJackson = TypedJsonUtil.writeValueAsStringSilent(variables);
         Optional.ofNullable(lastFlowLog)
                 .ifPresent(flowLog -> {
-                    flowLog.setPayloadJackson(payloadJackson);
-                    flowLog.setVariablesJackson(variablesJackson);
+                    setFlowLogPayload(flowLog, payload, variables);
                     flowLogRepository.save(flowLog);
                 });
     }
 
+    @Override
+    public void setFlowLogPayload(FlowLog flowLog, Payload payload, Map<Object, Object> variables) {
+        String payloadJackson = JsonUtil.writeValueAsStringSilent(payload);
+        String variablesJackson = TypedJsonUtil.writeValueAsStringSilent(variables);
+        flowLog.setEncodedPayloadAndVariables(getPayloadFormat(), payloadJackson, variablesJackson);
+    }
+
     @Override
     public Optional<FlowLogWithoutPayload> getLastFlowLog(String flowId) {
         return flowLogRepository.findByFlowIdOrderByCreatedDesc(flowId, Pageable.ofSize(1)).get().findFirst();
@@ -317,6 +339,18 @@ public class FlowLogDBService implements FlowLogService {
         return flowLogRepository.purgeFinalizedFlowLogs(endTimeUpperBound);
     }
 
+    @Override
+    public int compactFinalizedFlowLogPayloads(int batchSize) {
+        FlowLogPayloadFormat targetFormat = getPayloadFormat();
+        if (!targetFormat.isBinary()) {
+            return 0;
+        }
+        List<FlowLog> flowLogs = flowLogRepository.findFinalizedFlowLogsByPayloadFormat(FlowLogPayloadFormat.JSON, Pageable.ofSize(batchSize));
+        flowLogs.forEach(flowLog -> flowLog.setEncodedPayloadAndVariables(targetFormat, flowLog.getPayloadJackson(), flowLog.getVariablesJackson()));
+        flowLogRepository.saveAll(flowLogs);
+        return flowLogs.size();
+    }
+
     @Override
     public List<FlowLog> findAllByFlowIdOrderByCreatedDesc(String flowId) {
         return flowLogRepository.findAllByFlowIdOrderByCreatedDesc(flowId);
@@ -431,4 +465,8 @@ public class FlowLogDBService implements FlowLogService {
                         Collectors.reducing(BinaryOperator.maxBy(Comparator.comparing(FlowLog::getCreated)))))
                 .values().stream().filter(Optional::isPresent).map(Optional::get).collect(Collectors.toList());
     }
+
+    private FlowLogPayloadFormat getPayloadFormat() {
+        return payloadFormat == null ? FlowLogPayloadFormat.JSON : payloadFormat;
+    }
 }
@@ -0,0 +1,240 @@
+package com.sequenceiq.flow.service.flowlog;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sequenceiq.cloudbreak.common.service.TransactionService;
+import com.sequenceiq.cloudbreak.common.service.TransactionService.TransactionExecutionException;
+import com.sequenceiq.flow.domain.FlowLog;
+
+/**
+ * Group commit for flow log state transitions. The flow threads read the last flow log, decide about the transition and prepare
+ * the entities themselves, only the database writes ({@link FlowLogTransition}) are handed over. The writes of concurrent flows
+ * submitted within the linger window are executed in one transaction by the committer thread, and every caller waits for the
+ * transaction of its batch, so a flow never advances before its state transition is durable.
+ * If the shared transaction fails, the writes of the batch are retried one by one in their own transactions, so a single failing flow
+ * cannot fail the others. The writes have no side effects outside of the database, so the retry is safe.
+ * The queue is bounded: when it is full, or group commit is disabled, the caller writes its transition in its own transaction.
+ * A transition is written by whoever claims it first: the committer claims it right before the write, and a caller which waited
+ * longer than the await timeout claims it and writes it itself, so a transition is never written twice or left behind.
+ */
+@Service
+public class FlowLogGroupCommitService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlowLogGroupCommitService.class);
+
+    @Value("${cb.flowlog.groupcommit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cb.flowlog.groupcommit.linger.millis:5}")
+    private long lingerMillis;
+
+    @Value("${cb.flowlog.groupcommit.max.batch.size:100}")
+    private int maxBatchSize;
+
+    @Value("${cb.flowlog.groupcommit.queue.capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${cb.flowlog.groupcommit.await.timeout.millis:10000}")
+    private long awaitTimeoutMillis;
+
+    @Inject
+    private TransactionService transactionService;
+
+    @Inject
+    private FlowLogDBService flowLogDBService;
+
+    private BlockingQueue<PendingTransition> queue;
+
+    private volatile Thread committerThread;
+
+    private volatile boolean running;
+
+    @PostConstruct
+    public void start() {
+        if (enabled) {
+            queue = new ArrayBlockingQueue<>(queueCapacity);
+            running = true;
+            committerThread = new Thread(this::commitLoop, "flowlog-group-committer");
+            committerThread.setDaemon(true);
+            committerThread.start();
+            LOGGER.info("Flow log group commit is enabled with {} ms linger time, {} max batch size and {} queue capacity",
+                    lingerMillis, maxBatchSize, queueCapacity);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (committerThread != null) {
+            committerThread.interrupt();
+        }
+    }
+
+    public boolean isEnabled() {
+        return running;
+    }
+
+    /**
+     * Writes the transition and returns after it is committed.
+     */
+    public void commit(FlowLogTransition transition) throws TransactionExecutionException {
+        PendingTransition pendingTransition = new PendingTransition(transition);
+        if (!running || TransactionSynchronizationManager.isActualTransactionActive() || !queue.offer(pendingTransition)) {
+            transactionService.required(() -> write(List.of(transition)));
+        } else if (!running && queue.remove(pendingTransition)) {
+            LOGGER.debug("Flow log group committer is stopped, committing in the caller thread");
+            transactionService.required(() -> write(List.of(transition)));
+        } else {
+            awaitCommit(pendingTransition);
+        }
+    }
+
+    private void awaitCommit(PendingTransition pendingTransition) throws TransactionExecutionException {
+        try {
+            try {
+                pendingTransition.result.get(awaitTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (pendingTransition.claim()) {
+                    LOGGER.warn("Flow log transition was not committed by the group committer in {} ms, committing in the caller thread",
+                            awaitTimeoutMillis);
+                    queue.remove(pendingTransition);
+                    commitIndividually(pendingTransition);
+                }
+                pendingTransition.result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionExecutionException("Interrupted while waiting for flow log group commit", new IllegalStateException(e));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TransactionExecutionException) {
+                throw (TransactionExecutionException) e.getCause();
+            }
+            throw new TransactionExecutionException("Flow log group commit failed", new IllegalStateException(e.getCause()));
+        }
+    }
+
+    private void commitLoop() {
+        while (running) {
+            try {
+                commitBatch(collectBatch());
+            } catch (InterruptedException e) {
+                LOGGER.info("Flow log group committer interrupted, running: {}", running);
+            } catch (RuntimeException e) {
+                LOGGER.error("Unexpected error in flow log group committer", e);
+            }
+        }
+        List<PendingTransition> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        claim(remaining).forEach(this::commitIndividually);
+    }
+
+    /**
+     * An interrupt during the linger time ends the batch, the transitions collected so far are still committed.
+     */
+    private List<PendingTransition> collectBatch() throws InterruptedException {
+        List<PendingTransition> batch = new ArrayList<>();
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        try {
+            while (batch.size() < maxBatchSize) {
+                long remaining = deadline - System.nanoTime();
+                PendingTransition next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                if (next == null) {
+                    break;
+                }
+                batch.add(next);
+            }
+        } catch (InterruptedException e) {
+            LOGGER.info("Flow log group committer interrupted while collecting a batch, committing {} transitions", batch.size());
+        }
+        return batch;
+    }
+
+    private List<PendingTransition> claim(List<PendingTransition> pendingTransitions) {
+        List<PendingTransition> claimed = new ArrayList<>(pendingTransitions.size());
+        for (PendingTransition pendingTransition : pendingTransitions) {
+            if (pendingTransition.claim()) {
+                claimed.add(pendingTransition);
+            }
+        }
+        return claimed;
+    }
+
+    private void commitBatch(List<PendingTransition> collected) {
+        List<PendingTransition> batch = claim(collected);
+        if (batch.isEmpty()) {
+            LOGGER.debug("Every transition of the batch has been committed by its caller");
+        } else if (batch.size() == 1) {
+            commitIndividually(batch.get(0));
+        } else {
+            List<FlowLogTransition> transitions = new ArrayList<>(batch.size());
+            batch.forEach(pendingTransition -> transitions.add(pendingTransition.transition));
+            try {
+                transactionService.required(() -> write(transitions));
+                LOGGER.debug("Committed {} flow log transitions in one transaction", batch.size());
+                batch.forEach(pendingTransition -> pendingTransition.result.complete(null));
+            } catch (TransactionExecutionException | RuntimeException e) {
+                LOGGER.warn("Flow log group commit of {} transitions failed, committing them one by one", batch.size(), e);
+                batch.forEach(this::commitIndividually);
+            }
+        }
+    }
+
+    private void commitIndividually(PendingTransition pendingTransition) {
+        try {
+            pendingTransition.transition.resetGeneratedId();
+            transactionService.required(() -> write(List.of(pendingTransition.transition)));
+            pendingTransition.result.complete(null);
+        } catch (TransactionExecutionException e) {
+            pendingTransition.result.completeExceptionally(e);
+        } catch (RuntimeException e) {
+            pendingTransition.result.completeExceptionally(new TransactionExecutionException("Transaction failed", e));
+        }
+    }
+
+    private void write(List<FlowLogTransition> transitions) {
+        List<FlowLog> flowLogs = new ArrayList<>(transitions.size());
+        for (FlowLogTransition transition : transitions) {
+            if (transition.getFinishedFlowLog() != null) {
+                flowLogDBService.updateLastFlowLogStatus(transition.getFinishedFlowLog(), transition.isFailureEvent());
+            }
+            flowLogs.add(transition.getFlowLog());
+        }
+        flowLogDBService.saveAll(flowLogs);
+    }
+
+    private static class PendingTransition {
+
+        private final FlowLogTransition transition;
+
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private final AtomicBoolean claimed = new AtomicBoolean();
+
+        PendingTransition(FlowLogTransition transition) {
+            this.transition = transition;
+        }
+
+        boolean claim() {
+            return claimed.compareAndSet(false, true);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.sequenceiq.flow.service.flowlog;
+
+import com.sequenceiq.flow.domain.FlowLog;
+
+/**
+ * Database writes of one flow state transition: closing the status of the previous flow log (if any) and saving the flow log of the new state
+ * (or the previous flow log with an updated payload). The entities are prepared by the flow thread, so the writes can be repeated safely.
+ */
+public class FlowLogTransition {
+
+    private final FlowLog finishedFlowLog;
+
+    private final boolean failureEvent;
+
+    private final FlowLog flowLog;
+
+    private final boolean newFlowLog;
+
+    private FlowLogTransition(FlowLog finishedFlowLog, boolean failureEvent, FlowLog flowLog) {
+        this.finishedFlowLog = finishedFlowLog;
+        this.failureEvent = failureEvent;
+        this.flowLog = flowLog;
+        this.newFlowLog = flowLog.getId() == null;
+    }
+
+    public static FlowLogTransition nextState(FlowLog finishedFlowLog, boolean failureEvent, FlowLog flowLog) {
+        return new FlowLogTransition(finishedFlowLog, failureEvent, flowLog);
+    }
+
+    public static FlowLogTransition payloadUpdate(FlowLog flowLog) {
+        return new FlowLogTransition(null, false, flowLog);
+    }
+
+    public FlowLog getFinishedFlowLog() {
+        return finishedFlowLog;
+    }
+
+    public boolean isFailureEvent() {
+        return failureEvent;
+    }
+
+    public FlowLog getFlowLog() {
+        return flowLog;
+    }
+
+    /**
+     * Clears the id generated for a new flow log by a rolled back transaction, so the flow log is inserted again on retry.
+     */
+    void resetGeneratedId() {
+        if (newFlowLog) {
+            flowLog.setId(null);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FlowLogTransition{" +
+                "finishedFlowLogId=" + (finishedFlowLog == null ? null : finishedFlowLog.getId()) +
+                ", failureEvent=" + failureEvent +
+                ", flowId=" + flowLog.getFlowId() +
+                ", newFlowLog=" + newFlowLog +
+                '}';
+    }
+}
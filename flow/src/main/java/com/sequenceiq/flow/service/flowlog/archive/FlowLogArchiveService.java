@@ -0,0 +1,186 @@
+package com.sequenceiq.flow.service.flowlog.archive;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sequenceiq.cloudbreak.common.exception.CloudbreakServiceException;
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.flow.domain.ArchivedFlowLog;
+import com.sequenceiq.flow.domain.FlowLog;
+import com.sequenceiq.flow.domain.FlowLogArchive;
+import com.sequenceiq.flow.repository.FlowLogArchiveRepository;
+import com.sequenceiq.flow.repository.FlowLogRepository;
+
+/**
+ * Moves finalized flow logs out of the flowlog table. Each batch is written to the {@link FlowLogArchiveStore}, indexed by flow id
+ * and then deleted by primary key, so a cleanup run consists of short transactions on a bounded number of rows instead of one
+ * delete over the whole table. Archived flows can still be read back by flow id, an archive which cannot be read is treated as missing.
+ * Archiving is only possible when a store is configured with {@code cb.flowlog.archive.store}.
+ * Archives are kept for a retention period, after that the index entries and the archives themselves are deleted.
+ */
+@Service
+public class FlowLogArchiveService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlowLogArchiveService.class);
+
+    @Inject
+    private FlowLogRepository flowLogRepository;
+
+    @Inject
+    private FlowLogArchiveRepository flowLogArchiveRepository;
+
+    @Inject
+    private Optional<FlowLogArchiveStore> flowLogArchiveStore;
+
+    @Inject
+    private Clock clock;
+
+    public boolean isArchiveStoreConfigured() {
+        return flowLogArchiveStore.isPresent();
+    }
+
+    /**
+     * Archives and deletes at most {@code batchSize} finalized flow logs which ended before the retention period.
+     * Has to be called in a transaction, so the index entries and the deletion are committed together.
+     * The archive is written before the commit and removed again if the transaction is rolled back.
+     *
+     * @return the number of archived flow logs
+     */
+    public int archiveFinalizedFlowLogs(int retentionPeriodHours, int batchSize) {
+        long endTimeUpperBound = clock.nowMinus(Duration.ofHours(retentionPeriodHours)).toEpochMilli();
+        List<FlowLog> flowLogs = flowLogRepository.findFinalizedFlowLogsEndedBefore(endTimeUpperBound, Pageable.ofSize(batchSize));
+        if (flowLogs.isEmpty()) {
+            return 0;
+        }
+        long archived = clock.getCurrentTimeMillis();
+        String archiveName = String.format("flowlog-%d-%d-%d", flowLogs.get(0).getId(), flowLogs.get(flowLogs.size() - 1).getId(), archived);
+        String location = writeArchive(archiveName, flowLogs);
+        deleteArchiveOnRollback(location);
+        Map<String, FlowLogArchive> archiveEntries = new LinkedHashMap<>();
+        flowLogs.forEach(flowLog -> archiveEntries.computeIfAbsent(flowLog.getFlowId(),
+                flowId -> new FlowLogArchive(flowId, flowLog.getFlowChainId(), flowLog.getResourceId(), location, archived)));
+        flowLogArchiveRepository.saveAll(archiveEntries.values());
+        int deleted = flowLogRepository.deleteByIds(flowLogs.stream().map(FlowLog::getId).collect(Collectors.toList()));
+        LOGGER.debug("Archived {} flow logs of {} flows to {}, deleted {} rows", flowLogs.size(), archiveEntries.size(), location, deleted);
+        return flowLogs.size();
+    }
+
+    /**
+     * Deletes at most {@code batchSize} archives which were archived before the archive retention period, together with their
+     * index entries. Has to be called in a transaction, the archives are deleted only after the index entries are committed.
+     *
+     * @return the number of deleted archives
+     */
+    public int purgeExpiredArchives(int archiveRetentionPeriodHours, int batchSize) {
+        long archivedUpperBound = clock.nowMinus(Duration.ofHours(archiveRetentionPeriodHours)).toEpochMilli();
+        List<String> locations = flowLogArchiveRepository.findLocationsArchivedBefore(archivedUpperBound, Pageable.ofSize(batchSize));
+        if (locations.isEmpty()) {
+            return 0;
+        }
+        int deleted = flowLogArchiveRepository.deleteByLocationIn(locations);
+        deleteArchivesAfterCommit(locations);
+        LOGGER.debug("Purged {} expired flow log archives with {} index entries", locations.size(), deleted);
+        return locations.size();
+    }
+
+    public List<ArchivedFlowLog> findAllArchivedByFlowIdOrderByCreatedDesc(String flowId) {
+        return readArchivedFlowLogs(flowLogArchiveRepository.findAllByFlowId(flowId), flowLog -> flowId.equals(flowLog.getFlowId()));
+    }
+
+    public List<ArchivedFlowLog> findAllArchivedByFlowChainIdsOrderByCreatedDesc(Set<String> flowChainIds) {
+        if (flowChainIds.isEmpty()) {
+            return List.of();
+        }
+        return readArchivedFlowLogs(flowLogArchiveRepository.findAllByFlowChainIdIn(flowChainIds),
+                flowLog -> flowChainIds.contains(flowLog.getFlowChainId()));
+    }
+
+    private List<ArchivedFlowLog> readArchivedFlowLogs(List<FlowLogArchive> archiveEntries, Predicate<ArchivedFlowLog> filter) {
+        return archiveEntries.stream()
+                .map(FlowLogArchive::getLocation)
+                .distinct()
+                .flatMap(location -> readArchive(location).stream())
+                .filter(filter)
+                .sorted(Comparator.comparing(ArchivedFlowLog::getCreated).reversed())
+                .collect(Collectors.toList());
+    }
+
+    private String writeArchive(String archiveName, List<FlowLog> flowLogs) {
+        FlowLogArchiveStore store = flowLogArchiveStore
+                .orElseThrow(() -> new CloudbreakServiceException("Flow log archive store is not configured, cannot archive " + archiveName));
+        try {
+            return store.write(archiveName, flowLogs.stream().map(ArchivedFlowLog::from).collect(Collectors.toList()));
+        } catch (IOException e) {
+            throw new CloudbreakServiceException("Failed to write flow log archive " + archiveName, e);
+        }
+    }
+
+    private void deleteArchiveOnRollback(String location) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        deleteArchive(location);
+                    }
+                }
+            });
+        }
+    }
+
+    private void deleteArchivesAfterCommit(List<String> locations) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    locations.forEach(FlowLogArchiveService.this::deleteArchive);
+                }
+            });
+        } else {
+            locations.forEach(this::deleteArchive);
+        }
+    }
+
+    private void deleteArchive(String location) {
+        if (flowLogArchiveStore.isEmpty()) {
+            LOGGER.warn("Flow log archive store is not configured, cannot delete flow log archive {}", location);
+            return;
+        }
+        try {
+            flowLogArchiveStore.get().delete(location);
+            LOGGER.debug("Flow log archive {} deleted", location);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to delete flow log archive {}", location, e);
+        }
+    }
+
+    private List<ArchivedFlowLog> readArchive(String location) {
+        if (flowLogArchiveStore.isEmpty()) {
+            LOGGER.warn("Flow log archive store is not configured, cannot read flow log archive {}", location);
+            return List.of();
+        }
+        try {
+            return flowLogArchiveStore.get().read(location);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to read flow log archive {}, the archived flow logs are not available", location, e);
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.sequenceiq.flow.service.flowlog.archive;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.sequenceiq.flow.domain.ArchivedFlowLog;
+
+/**
+ * Storage of archived flow logs. An archive is written once and never modified, the returned location is stored in the
+ * flow log archive index and is used to read the archive back.
+ */
+public interface FlowLogArchiveStore {
+
+    /**
+     * Writes the flow logs into a new archive. When this method returns the archive has to be durable.
+     *
+     * @return the location of the archive, which can be passed to {@link #read(String)}
+     */
+    String write(String archiveName, List<ArchivedFlowLog> flowLogs) throws IOException;
+
+    List<ArchivedFlowLog> read(String location) throws IOException;
+
+    /**
+     * Deletes an archive which was written by a rolled back archival. Deleting a missing archive is not an error.
+     */
+    void delete(String location) throws IOException;
+}
@@ -0,0 +1,96 @@
+package com.sequenceiq.flow.service.flowlog.archive;
+
+import java.io.BufferedReader;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.sequenceiq.cloudbreak.common.json.JsonUtil;
+import com.sequenceiq.flow.domain.ArchivedFlowLog;
+
+/**
+ * Writes every archive as a gzip compressed file with one JSON document per flow log row.
+ * The file is written under a temporary name, synced to disk and renamed, so a crash never leaves a partial archive behind.
+ * The archives are read back by every node of the service, so {@code cb.flowlog.archive.path} has to point to storage shared by
+ * the nodes and kept across restarts. The location stored in the index is the file name relative to this path.
+ */
+@Component
+@ConditionalOnProperty(name = "cb.flowlog.archive.store", havingValue = "local")
+public class LocalFileFlowLogArchiveStore implements FlowLogArchiveStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalFileFlowLogArchiveStore.class);
+
+    private static final String ARCHIVE_EXTENSION = ".jsonl.gz";
+
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    @Value("${cb.flowlog.archive.path}")
+    private String archivePath;
+
+    @Override
+    public String write(String archiveName, List<ArchivedFlowLog> flowLogs) throws IOException {
+        Path directory = Paths.get(archivePath);
+        Files.createDirectories(directory);
+        Path temporaryFile = directory.resolve(archiveName + TEMPORARY_EXTENSION);
+        Path archiveFile = directory.resolve(archiveName + ARCHIVE_EXTENSION);
+        try (FileOutputStream fileOutputStream = new FileOutputStream(temporaryFile.toFile());
+                GZIPOutputStream gzipOutputStream = new GZIPOutputStream(fileOutputStream);
+                Writer writer = new OutputStreamWriter(gzipOutputStream, StandardCharsets.UTF_8)) {
+            for (ArchivedFlowLog flowLog : flowLogs) {
+                writer.write(JsonUtil.writeValueAsString(flowLog));
+                writer.write('\n');
+            }
+            writer.flush();
+            gzipOutputStream.finish();
+            fileOutputStream.getFD().sync();
+        } catch (IOException e) {
+            Files.deleteIfExists(temporaryFile);
+            throw e;
+        }
+        Files.move(temporaryFile, archiveFile, StandardCopyOption.ATOMIC_MOVE);
+        LOGGER.debug("{} flow logs archived to {}", flowLogs.size(), archiveFile);
+        return archiveFile.getFileName().toString();
+    }
+
+    @Override
+    public List<ArchivedFlowLog> read(String location) throws IOException {
+        List<ArchivedFlowLog> flowLogs = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(resolve(location))), StandardCharsets.UTF_8))) {
+            String line = reader.readLine();
+            while (line != null) {
+                if (!line.isBlank()) {
+                    flowLogs.add(JsonUtil.readValue(line, ArchivedFlowLog.class));
+                }
+                line = reader.readLine();
+            }
+        }
+        return flowLogs;
+    }
+
+    @Override
+    public void delete(String location) throws IOException {
+        Files.deleteIfExists(resolve(location));
+    }
+
+    private Path resolve(String location) {
+        return Paths.get(archivePath).resolve(Paths.get(location).getFileName());
+    }
+}
@@ -0,0 +1,13 @@
+-- // CB-20512 Add binary payload columns and payload format to flowlog
+-- Migration SQL that makes the change goes here.
+
+ALTER TABLE IF EXISTS flowlog ADD COLUMN IF NOT EXISTS payloadformat varchar(32) DEFAULT 'JSON';
+ALTER TABLE IF EXISTS flowlog ADD COLUMN IF NOT EXISTS payloadbinary bytea;
+ALTER TABLE IF EXISTS flowlog ADD COLUMN IF NOT EXISTS variablesbinary bytea;
+
+-- //@UNDO
+-- SQL to undo the change goes here.
+
+ALTER TABLE IF EXISTS flowlog DROP COLUMN IF EXISTS payloadformat;
+ALTER TABLE IF EXISTS flowlog DROP COLUMN IF EXISTS payloadbinary;
+ALTER TABLE IF EXISTS flowlog DROP COLUMN IF EXISTS variablesbinary;
@@ -0,0 +1,37 @@
+-- // CB-20647 Add flowlogarchive index table and index for finalized flowlog cleanup
+-- Migration SQL that makes the change goes here.
+
+CREATE SEQUENCE IF NOT EXISTS flowlogarchive_id_seq START WITH 1
+  INCREMENT BY 1
+  NO MINVALUE
+  NO MAXVALUE
+  CACHE 1;
+
+CREATE TABLE IF NOT EXISTS flowlogarchive (
+    id bigint NOT NULL DEFAULT nextval('flowlogarchive_id_seq'),
+    flowid varchar(255) NOT NULL,
+    flowchainid varchar(255),
+    resourceid int8 NOT NULL,
+    location text NOT NULL,
+    archived int8 NOT NULL,
+    CONSTRAINT flowlogarchive_pkey PRIMARY KEY (id)
+);
+
+ALTER SEQUENCE flowlogarchive_id_seq OWNED BY flowlogarchive.id;
+
+CREATE INDEX IF NOT EXISTS idx_flowlogarchive_flowid ON flowlogarchive USING btree (flowid);
+
+CREATE INDEX IF NOT EXISTS idx_flowlogarchive_flowchainid ON flowlogarchive USING btree (flowchainid);
+
+CREATE INDEX IF NOT EXISTS idx_flowlogarchive_archived ON flowlogarchive USING btree (archived);
+
+CREATE INDEX IF NOT EXISTS idx_flowlog_endtime_finalized ON flowlog USING btree (endtime) WHERE finalized = true;
+
+-- //@UNDO
+-- SQL to undo the change goes here.
+
+DROP INDEX IF EXISTS idx_flowlog_endtime_finalized;
+
+DROP TABLE IF EXISTS flowlogarchive;
+
+DROP SEQUENCE IF EXISTS flowlogarchive_id_seq;
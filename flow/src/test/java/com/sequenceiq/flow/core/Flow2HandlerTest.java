@@ -54,6 +54,8 @@ import com.sequenceiq.cloudbreak.common.service.TransactionService;
 import com.sequenceiq.cloudbreak.common.service.TransactionService.TransactionExecutionException;
 import com.sequenceiq.cloudbreak.eventbus.Event;
 import com.sequenceiq.cloudbreak.eventbus.Promise;
+import com.sequenceiq.flow.api.model.FlowProgressEvent;
+import com.sequenceiq.flow.api.model.FlowProgressStatus;
 import com.sequenceiq.flow.api.model.operation.OperationType;
 import com.sequenceiq.flow.cleanup.InMemoryCleanup;
 import com.sequenceiq.flow.core.FlowState.FlowStateConstants;
@@ -64,13 +66,18 @@ import com.sequenceiq.flow.core.config.FlowConfiguration;
 import com.sequenceiq.flow.core.config.FlowFinalizerCallback;
 import com.sequenceiq.flow.core.exception.FlowNotTriggerableException;
 import com.sequenceiq.flow.core.helloworld.config.HelloWorldFlowConfig;
+import com.sequenceiq.flow.core.model.FlowAcceptResult;
+import com.sequenceiq.flow.core.model.ResultType;
 import com.sequenceiq.flow.core.restart.DefaultRestartAction;
+import com.sequenceiq.flow.core.stream.FlowProgressHub;
 import com.sequenceiq.flow.domain.ClassValue;
 import com.sequenceiq.flow.domain.FlowChainLog;
 import com.sequenceiq.flow.domain.FlowLog;
 import com.sequenceiq.flow.domain.StateStatus;
 import com.sequenceiq.flow.ha.NodeConfig;
+import com.sequenceiq.flow.reactor.api.event.BaseFlowEvent;
 import com.sequenceiq.flow.service.flowlog.FlowChainLogService;
+import com.sequenceiq.flow.service.flowlog.FlowLogGroupCommitService;
 
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
@@ -149,6 +156,9 @@ class Flow2HandlerTest {
     @Mock
     private TransactionService transactionService;
 
+    @Mock
+    private FlowLogGroupCommitService flowLogGroupCommitService;
+
     @Mock
     private ApplicationFlowInformation applicationFlowInformation;
 
@@ -161,6 +171,9 @@ class Flow2HandlerTest {
     @Mock
     private FlowStatCache flowStatCache;
 
+    @Mock
+    private FlowProgressHub flowProgressHub;
+
     @Mock
     private List<FlowConfiguration<?>> flowConfigs;
 
@@ -196,7 +209,7 @@ class Flow2HandlerTest {
         event.setKey("KEY");
         underTest.accept(event);
         verify(flowConfigurationMap, times(1)).get(anyString());
-        verify(runningFlows, times(1)).put(eq(flow), isNull(String.class));
+        verify(runningFlows, times(1)).put(eq(flow), isNull(String.class), eq(STACK_ID), eq(payload), eq(false));
         verify(flowLogService, times(1))
                 .save(any(FlowParameters.class), nullable(String.class), eq("KEY"), any(Payload.class), any(), eq(flowConfig.getClass()), eq(flowState));
         verify(flow, times(1)).sendEvent(anyString(), isNull(), any(), eq(UNKNOWN_OP_TYPE));
@@ -217,7 +230,7 @@ class Flow2HandlerTest {
         assertThrows(CloudbreakServiceException.class,
                 () -> underTest.accept(event));
         verify(flowConfigurationMap, times(1)).get(anyString());
-        verify(runningFlows, times(1)).put(eq(flow), isNull(String.class));
+        verify(runningFlows, times(1)).put(eq(flow), isNull(String.class), eq(STACK_ID), eq(payload), eq(false));
         verify(flowLogService, times(1))
                 .save(any(FlowParameters.class), nullable(String.class), eq("KEY"), any(Payload.class), any(), eq(flowConfig.getClass()), eq(flowState));
         verify(runningFlows, times(1)).remove(anyString());
@@ -244,7 +257,7 @@ class Flow2HandlerTest {
         verify(accepted, times(1)).onError(any(FlowNotTriggerableException.class));
 
         verify(flowConfigurationMap, times(1)).get(anyString());
-        verify(runningFlows, times(0)).put(eq(flow), isNull(String.class));
+        verify(runningFlows, times(0)).put(eq(flow), isNull(String.class), eq(STACK_ID), eq(payload), eq(false));
         verify(flowLogService, times(0))
                 .save(any(FlowParameters.class), nullable(String.class), eq("KEY"), any(Payload.class), any(), eq(flowConfig.getClass()), eq(flowState));
         verify(runningFlows, times(0)).remove(anyString());
@@ -272,7 +285,7 @@ class Flow2HandlerTest {
 
         verify(accepted, times(0)).onError(any(FlowNotTriggerableException.class));
         verify(flowConfigurationMap, times(1)).get(anyString());
-        verify(runningFlows, times(0)).put(eq(flow), isNull(String.class));
+        verify(runningFlows, times(0)).put(eq(flow), isNull(String.class), eq(STACK_ID), eq(payload), eq(false));
         verify(flowLogService, times(0))
                 .save(any(FlowParameters.class), nullable(String.class), eq("KEY"), any(Payload.class), any(), eq(flowConfig.getClass()), eq(flowState));
         verify(runningFlows, times(0)).remove(anyString());
@@ -295,7 +308,7 @@ class Flow2HandlerTest {
         event.setKey("KEY");
         underTest.accept(event);
         verify(flowConfigurationMap, times(1)).get(anyString());
-        verify(runningFlows, times(1)).put(eq(flow), isNull(String.class));
+        verify(runningFlows, times(1)).put(eq(flow), isNull(String.class), eq(STACK_ID), eq(payload), eq(false));
         verify(flowLogService, times(1)).save(any(FlowParameters.class), nullable(String.class), eq("KEY"), any(Payload.class), any(),
                 ArgumentMatchers.eq(helloWorldFlowConfig.getClass()), eq(flowState));
         verify(flow, times(1)).sendEvent(anyString(), anyString(), any(), eq(UNKNOWN_OP_TYPE));
@@ -308,10 +321,73 @@ class Flow2HandlerTest {
         CloudbreakServiceException exception = assertThrows(CloudbreakServiceException.class, () -> underTest.accept(event));
         assertEquals("Couldn't start process.", exception.getMessage());
         verify(flowConfigurationMap, times(1)).get(anyString());
-        verify(runningFlows, never()).put(any(Flow.class), isNull(String.class));
+        verify(runningFlows, never()).put(any(Flow.class), isNull(String.class), any(), any(), anyBoolean());
         verify(flowLogService, never()).save(any(FlowParameters.class), anyString(), anyString(), any(Payload.class), anyMap(), any(), any(FlowState.class));
     }
 
+    @Test
+    void testNewFlowConflictsWithFlowRunningOnThisNode() throws InterruptedException {
+        BDDMockito.<FlowConfiguration<?>>given(flowConfigurationMap.get(any())).willReturn(flowConfig);
+        given(flowConfig.getFlowTriggerCondition()).willReturn(flowTriggerCondition);
+        given(flowTriggerCondition.isFlowTriggerable(any(Payload.class))).willReturn(FlowTriggerConditionResult.ok());
+        given(flow.getFlowId()).willReturn(FLOW_ID);
+        given(runningFlows.getRunningFlowsByResourceId(STACK_ID)).willReturn(List.of(new RunningFlow(flow, null, STACK_ID, payload, false)));
+        BaseFlowEvent trigger = new BaseFlowEvent("KEY", STACK_ID, "crn");
+        Event<Payload> event = new Event<>(trigger);
+        event.setKey("KEY");
+
+        underTest.accept(event);
+
+        FlowAcceptResult acceptResult = (FlowAcceptResult) trigger.accepted().await();
+        assertEquals(ResultType.ALREADY_EXISTING_FLOW, acceptResult.getResultType());
+        assertEquals(FLOW_ID, acceptResult.getAlreadyRunningFlows().iterator().next().getFlowId());
+        verify(flowLogService, never()).findAllRunningNonTerminationFlowsByResourceId(anyLong());
+        verify(flowLogService, never()).findAllByFlowIdOrderByCreatedDesc(anyString());
+        verify(flowConfig, never()).createFlow(anyString(), any(), anyLong(), any());
+    }
+
+    @Test
+    void testIdempotentTriggerOfFlowRunningOnThisNode() throws InterruptedException {
+        BDDMockito.<FlowConfiguration<?>>given(flowConfigurationMap.get(any())).willReturn(flowConfig);
+        given(flowConfig.getFlowTriggerCondition()).willReturn(flowTriggerCondition);
+        given(flowTriggerCondition.isFlowTriggerable(any(Payload.class))).willReturn(FlowTriggerConditionResult.ok());
+        given(flow.getFlowId()).willReturn(FLOW_ID);
+        BaseFlowEvent runningTrigger = new BaseFlowEvent("KEY", STACK_ID, "crn");
+        given(runningFlows.getRunningFlowsByResourceId(STACK_ID)).willReturn(List.of(new RunningFlow(flow, null, STACK_ID, runningTrigger, false)));
+        BaseFlowEvent trigger = new BaseFlowEvent("KEY", STACK_ID, "crn");
+        Event<Payload> event = new Event<>(trigger);
+        event.setKey("KEY");
+
+        underTest.accept(event);
+
+        FlowAcceptResult acceptResult = (FlowAcceptResult) trigger.accepted().await();
+        assertEquals(ResultType.RUNNING_IN_FLOW, acceptResult.getResultType());
+        assertEquals(FLOW_ID, acceptResult.getPollableId());
+        verify(flowLogService, never()).findAllRunningNonTerminationFlowsByResourceId(anyLong());
+        verify(flowLogService, never()).findAllByFlowIdOrderByCreatedDesc(anyString());
+    }
+
+    @Test
+    void testNewFlowChecksDatabaseWhenOnlyTerminationFlowRunsOnThisNode() {
+        BDDMockito.<FlowConfiguration<?>>given(flowConfigurationMap.get(any())).willReturn(flowConfig);
+        given(flowConfig.createFlow(anyString(), any(), anyLong(), any())).willReturn(flow);
+        given(flowConfig.getFlowTriggerCondition()).willReturn(flowTriggerCondition);
+        given(flowConfig.getFlowOperationType()).willReturn(OperationType.UNKNOWN);
+        given(flowTriggerCondition.isFlowTriggerable(any(Payload.class))).willReturn(FlowTriggerConditionResult.ok());
+        given(flow.getCurrentState()).willReturn(flowState);
+        Flow terminationFlow = mock(Flow.class);
+        doReturn(HelloWorldFlowConfig.class).when(terminationFlow).getFlowConfigClass();
+        doReturn(List.of(HelloWorldFlowConfig.class)).when(applicationFlowInformation).getTerminationFlow();
+        given(runningFlows.getRunningFlowsByResourceId(STACK_ID)).willReturn(List.of(new RunningFlow(terminationFlow, null, STACK_ID, payload, false)));
+        Event<Payload> event = new Event<>(payload);
+        event.setKey("KEY");
+
+        underTest.accept(event);
+
+        verify(flowLogService, times(1)).findAllRunningNonTerminationFlowsByResourceId(STACK_ID);
+        verify(runningFlows, times(1)).put(eq(flow), isNull(String.class), eq(STACK_ID), eq(payload), eq(false));
+    }
+
     @Test
     void testExistingFlow() {
         FlowLog lastFlowLog = mock(FlowLog.class);
@@ -415,7 +491,7 @@ class Flow2HandlerTest {
         verify(flowLogService, times(1)).close(anyLong(), eq(FLOW_ID), eq(false), anyMap());
         verify(runningFlows, times(1)).remove(eq(FLOW_ID));
         verify(runningFlows, never()).get(eq(FLOW_ID));
-        verify(runningFlows, never()).put(any(Flow.class), isNull(String.class));
+        verify(runningFlows, never()).put(any(Flow.class), isNull(String.class), any(), any(), anyBoolean());
         verify(flowChains, never()).removeFlowChain(anyString(), anyBoolean());
         verify(flowChains, never()).triggerNextFlow(anyString(), anyString(), any(Map.class), any(), any());
     }
@@ -430,11 +506,43 @@ class Flow2HandlerTest {
         verify(flowLogService, times(1)).close(anyLong(), eq(FLOW_ID), eq(false), anyMap());
         verify(runningFlows, times(1)).remove(eq(FLOW_ID));
         verify(runningFlows, never()).get(eq(FLOW_ID));
-        verify(runningFlows, never()).put(any(Flow.class), isNull(String.class));
+        verify(runningFlows, never()).put(any(Flow.class), isNull(String.class), any(), any(), anyBoolean());
         verify(flowChains, never()).removeFlowChain(anyString(), anyBoolean());
         verify(flowChains, times(1)).triggerNextFlow(eq(FLOW_CHAIN_ID), eq(FLOW_TRIGGER_USERCRN), any(Map.class), any(), any());
     }
 
+    @Test
+    void testFlowFinalPublishesProgressToFlowAndParentFlowChainSubscribers() throws TransactionExecutionException {
+        given(runningFlows.remove(FLOW_ID)).willReturn(flow);
+        given(flow.getCurrentState()).willReturn(flowState);
+        given(flowProgressHub.hasSubscribers()).willReturn(true);
+        given(flowChains.getFlowChainIdWithParents(FLOW_CHAIN_ID)).willReturn(List.of(FLOW_CHAIN_ID, "parentChainId"));
+        dummyEvent.setKey(FlowConstants.FLOW_FINAL);
+        dummyEvent.getHeaders().set(FlowConstants.FLOW_CHAIN_ID, FLOW_CHAIN_ID);
+        underTest.accept(dummyEvent);
+        ArgumentCaptor<FlowProgressEvent> eventCaptor = ArgumentCaptor.forClass(FlowProgressEvent.class);
+        verify(flowProgressHub, times(1)).publish(eventCaptor.capture(), eq(List.of(FLOW_CHAIN_ID, "parentChainId")));
+        assertEquals(FLOW_ID, eventCaptor.getValue().getFlowId());
+        assertEquals(FLOW_CHAIN_ID, eventCaptor.getValue().getFlowChainId());
+        assertEquals(FlowConstants.FLOW_FINAL, eventCaptor.getValue().getNextEvent());
+        assertEquals(FlowProgressStatus.FINISHED, eventCaptor.getValue().getStatus());
+    }
+
+    @Test
+    void testFlowProgressIsNotPublishedWithoutSubscribers() {
+        BDDMockito.<FlowConfiguration<?>>given(flowConfigurationMap.get(any())).willReturn(flowConfig);
+        given(flowConfig.createFlow(anyString(), any(), anyLong(), any())).willReturn(flow);
+        given(flowConfig.getFlowTriggerCondition()).willReturn(flowTriggerCondition);
+        given(flowConfig.getFlowOperationType()).willReturn(OperationType.UNKNOWN);
+        given(flowTriggerCondition.isFlowTriggerable(any(Payload.class))).willReturn(FlowTriggerConditionResult.ok());
+        given(flow.getCurrentState()).willReturn(flowState);
+        Event<Payload> event = new Event<>(payload);
+        event.setKey("KEY");
+        underTest.accept(event);
+        verify(flowProgressHub, never()).publish(any(), any());
+        verify(flowStatCache, never()).getFlowStatByFlowId(anyString());
+    }
+
     @Test
     void testFlowChainFailureOnNotTriggerableFlowCreatesFailedFlow() throws TransactionExecutionException {
         Map<String, Object> headers = new HashMap<>();
@@ -490,7 +598,7 @@ class Flow2HandlerTest {
         verify(flowLogService, times(1)).close(anyLong(), eq(FLOW_ID), eq(false), anyMap());
         verify(runningFlows, times(1)).remove(eq(FLOW_ID));
         verify(runningFlows, never()).get(eq(FLOW_ID));
-        verify(runningFlows, never()).put(any(Flow.class), isNull(String.class));
+        verify(runningFlows, never()).put(any(Flow.class), isNull(String.class), any(), any(), anyBoolean());
         verify(flowChains, never()).removeFullFlowChain(anyString(), anyBoolean());
         verify(flowChains, never()).triggerNextFlow(anyString(), anyString(), any(Map.class), any(), any());
     }
@@ -506,7 +614,7 @@ class Flow2HandlerTest {
         verify(flowLogService, times(1)).close(anyLong(), eq(FLOW_ID), eq(false), anyMap());
         verify(runningFlows, times(1)).remove(eq(FLOW_ID));
         verify(runningFlows, never()).get(eq(FLOW_ID));
-        verify(runningFlows, never()).put(any(Flow.class), isNull(String.class));
+        verify(runningFlows, never()).put(any(Flow.class), isNull(String.class), any(), any(), anyBoolean());
         verify(flowChains, times(1)).removeFullFlowChain(anyString(), anyBoolean());
         verify(flowChains, never()).triggerNextFlow(anyString(), anyString(), any(Map.class), any(), any());
     }
@@ -0,0 +1,97 @@
+package com.sequenceiq.flow.core;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.sequenceiq.cloudbreak.common.event.Payload;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.flow.reactor.api.event.BaseFlowEvent;
+
+@ExtendWith(MockitoExtension.class)
+class FlowRegisterTest {
+
+    private static final Long RESOURCE_ID = 1L;
+
+    @Mock
+    private MetricService metricService;
+
+    @InjectMocks
+    private FlowRegister underTest;
+
+    @BeforeEach
+    void setUp() {
+        when(metricService.gaugeMapSize(any(), anyMap())).thenAnswer(invocation -> invocation.getArgument(1));
+        underTest.init();
+    }
+
+    @Test
+    void testRunningFlowsAreIndexedByResourceId() {
+        underTest.put(flow("flow1"), "chain1", RESOURCE_ID, null, false);
+        underTest.put(flow("flow2"), null, RESOURCE_ID, null, true);
+        underTest.put(flow("flow3"), null, 2L, null, false);
+
+        List<String> flowIds = underTest.getRunningFlowsByResourceId(RESOURCE_ID).stream()
+                .map(RunningFlow::getFlowId)
+                .sorted()
+                .collect(Collectors.toList());
+
+        assertEquals(List.of("flow1", "flow2"), flowIds);
+        assertEquals("chain1", underTest.getRunningFlow("flow1").getFlowChainId());
+        assertTrue(underTest.getRunningFlow("flow2").isRestored());
+    }
+
+    @Test
+    void testRemoveAndFinalizingFlowsAreNotReportedForResource() {
+        underTest.put(flow("flow1"), null, RESOURCE_ID, null, false);
+        underTest.put(flow("flow2"), null, RESOURCE_ID, null, false);
+
+        underTest.remove("flow1");
+        underTest.markFinalizing("flow2");
+
+        assertTrue(underTest.getRunningFlowsByResourceId(RESOURCE_ID).isEmpty());
+        assertNull(underTest.get("flow1"));
+        assertTrue(underTest.getRunningFlow("flow2").isFinalizing());
+    }
+
+    @Test
+    void testFlowRegisteredWithoutResourceIdIsNotIndexed() {
+        Flow flow = flow("flow1");
+        underTest.put(flow, "chain1");
+
+        assertEquals(flow, underTest.get("flow1"));
+        assertEquals("chain1", underTest.getFlowChainId("flow1"));
+        assertTrue(underTest.getRunningFlowsByResourceId(RESOURCE_ID).isEmpty());
+    }
+
+    @Test
+    void testOnlyIdempotentInitTriggerIsKept() {
+        Payload idempotentTrigger = new BaseFlowEvent("selector", RESOURCE_ID, "crn");
+        Payload otherTrigger = () -> RESOURCE_ID;
+        underTest.put(flow("flow1"), null, RESOURCE_ID, idempotentTrigger, false);
+        underTest.put(flow("flow2"), null, RESOURCE_ID, otherTrigger, false);
+
+        assertEquals(idempotentTrigger, underTest.getRunningFlow("flow1").getIdempotentTrigger());
+        assertNull(underTest.getRunningFlow("flow2").getIdempotentTrigger());
+    }
+
+    private Flow flow(String flowId) {
+        Flow flow = mock(Flow.class);
+        when(flow.getFlowId()).thenReturn(flowId);
+        return flow;
+    }
+}
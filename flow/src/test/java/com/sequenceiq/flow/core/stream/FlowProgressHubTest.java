@@ -0,0 +1,186 @@
+package com.sequenceiq.flow.core.stream;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.ServiceUnavailableException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.flow.api.model.FlowProgressEvent;
+import com.sequenceiq.flow.api.model.FlowProgressStatus;
+
+class FlowProgressHubTest {
+
+    private static final String FLOW_ID = "flowId";
+
+    private static final String FLOW_CHAIN_ID = "flowChainId";
+
+    private static final int BUFFER_SIZE = 2;
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    private static final long SEND_TIMEOUT_MILLIS = 1000L;
+
+    private FlowProgressHub underTest;
+
+    @BeforeEach
+    void setUp() {
+        underTest = new FlowProgressHub();
+        ReflectionTestUtils.setField(underTest, "bufferSize", BUFFER_SIZE);
+        ReflectionTestUtils.setField(underTest, "threads", 1);
+        ReflectionTestUtils.setField(underTest, "maxSubscriptions", 2);
+        ReflectionTestUtils.setField(underTest, "sendTimeoutMillis", SEND_TIMEOUT_MILLIS);
+        underTest.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        underTest.stop();
+    }
+
+    @Test
+    void testCurrentStateIsDeliveredFirstAndSubscriptionClosesWhenFlowIsCompleted() {
+        RecordingListener listener = new RecordingListener();
+        FlowProgressSubscription subscription = underTest.subscribeByFlowId(FLOW_ID, listener);
+        underTest.publish(flowEvent(FLOW_ID, "STATE_1", FlowProgressStatus.RUNNING), List.of());
+
+        underTest.start(subscription, flowEvent(FLOW_ID, "INIT_STATE", FlowProgressStatus.RUNNING));
+        underTest.publish(flowEvent(FLOW_ID, "FINAL_STATE", FlowProgressStatus.FINISHED), List.of());
+
+        await().atMost(TIMEOUT).until(() -> listener.closed);
+        assertEquals(List.of("INIT_STATE", "STATE_1", "FINAL_STATE"), listener.states());
+        assertTrue(subscription.isClosed());
+        assertFalse(underTest.hasSubscribers());
+    }
+
+    @Test
+    void testOldestEventsAreDroppedWhenBufferIsFull() {
+        RecordingListener listener = new RecordingListener();
+        FlowProgressSubscription subscription = underTest.subscribeByFlowId(FLOW_ID, listener);
+        underTest.publish(flowEvent(FLOW_ID, "STATE_1", FlowProgressStatus.RUNNING), List.of());
+        underTest.publish(flowEvent(FLOW_ID, "STATE_2", FlowProgressStatus.RUNNING), List.of());
+        underTest.publish(flowEvent(FLOW_ID, "STATE_3", FlowProgressStatus.FAILED), List.of());
+
+        underTest.start(subscription, flowEvent(FLOW_ID, "INIT_STATE", FlowProgressStatus.RUNNING));
+
+        await().atMost(TIMEOUT).until(() -> listener.closed);
+        assertEquals(List.of("INIT_STATE", "STATE_2", "STATE_3"), listener.states());
+        assertEquals(1L, subscription.getDroppedEvents());
+    }
+
+    @Test
+    void testFlowChainSubscriptionReceivesFlowEventsUntilFlowChainIsCompleted() {
+        RecordingListener listener = new RecordingListener();
+        FlowProgressSubscription subscription = underTest.subscribeByFlowChainId(FLOW_CHAIN_ID, listener);
+        underTest.start(subscription, flowChainEvent(FlowProgressStatus.RUNNING));
+
+        underTest.publish(flowEvent(FLOW_ID, "FINAL_STATE", FlowProgressStatus.FINISHED), List.of("childFlowChainId", FLOW_CHAIN_ID));
+        await().atMost(TIMEOUT).until(() -> listener.events.size() == 2);
+        assertFalse(subscription.isClosed());
+
+        underTest.publishFlowChainCompleted(FLOW_CHAIN_ID, false);
+        await().atMost(TIMEOUT).until(() -> listener.closed);
+        assertEquals(FlowProgressStatus.FAILED, listener.events.get(2).getStatus());
+    }
+
+    @Test
+    void testSubscriptionIsClosedWhenListenerFails() {
+        RecordingListener listener = new RecordingListener();
+        listener.failing = true;
+        FlowProgressSubscription subscription = underTest.subscribeByFlowId(FLOW_ID, listener);
+
+        underTest.start(subscription, flowEvent(FLOW_ID, "INIT_STATE", FlowProgressStatus.RUNNING));
+
+        await().atMost(TIMEOUT).until(() -> listener.closed);
+        assertTrue(subscription.isClosed());
+        assertTrue(underTest.getSubscribedFlowIds().isEmpty());
+    }
+
+    @Test
+    void testStuckSubscriptionIsClosedAndDoesNotBlockOthers() {
+        RecordingListener stuckListener = new RecordingListener();
+        stuckListener.stuck = true;
+        RecordingListener listener = new RecordingListener();
+        FlowProgressSubscription stuckSubscription = underTest.subscribeByFlowId(FLOW_ID, stuckListener);
+        FlowProgressSubscription subscription = underTest.subscribeByFlowChainId(FLOW_CHAIN_ID, listener);
+        underTest.start(stuckSubscription, flowEvent(FLOW_ID, "INIT_STATE", FlowProgressStatus.RUNNING));
+        underTest.start(subscription, flowChainEvent(FlowProgressStatus.RUNNING));
+
+        underTest.publish(flowEvent(FLOW_ID, "STATE_1", FlowProgressStatus.RUNNING), List.of(FLOW_CHAIN_ID));
+        await().atMost(TIMEOUT).until(() -> listener.events.size() == 2);
+        assertFalse(stuckSubscription.isClosed());
+
+        await().atMost(TIMEOUT).until(() -> stuckListener.closed);
+        assertTrue(stuckSubscription.isClosed());
+        assertFalse(subscription.isClosed());
+    }
+
+    @Test
+    void testSubscriptionIsRejectedOverTheLimit() {
+        underTest.subscribeByFlowId(FLOW_ID, new RecordingListener());
+        underTest.subscribeByFlowChainId(FLOW_CHAIN_ID, new RecordingListener());
+
+        assertThrows(ServiceUnavailableException.class, () -> underTest.subscribeByFlowId("otherFlowId", new RecordingListener()));
+    }
+
+    private FlowProgressEvent flowEvent(String flowId, String state, FlowProgressStatus status) {
+        FlowProgressEvent event = new FlowProgressEvent();
+        event.setFlowId(flowId);
+        event.setCurrentState(state);
+        event.setStatus(status);
+        return event;
+    }
+
+    private FlowProgressEvent flowChainEvent(FlowProgressStatus status) {
+        FlowProgressEvent event = new FlowProgressEvent();
+        event.setFlowChainId(FLOW_CHAIN_ID);
+        event.setStatus(status);
+        return event;
+    }
+
+    private static class RecordingListener implements FlowProgressListener {
+
+        private final List<FlowProgressEvent> events = new CopyOnWriteArrayList<>();
+
+        private volatile boolean failing;
+
+        private volatile boolean stuck;
+
+        private volatile boolean closed;
+
+        @Override
+        public CompletionStage<?> onEvent(FlowProgressEvent event) {
+            if (failing) {
+                throw new IllegalStateException("Client disconnected");
+            }
+            if (stuck) {
+                return new CompletableFuture<>();
+            }
+            events.add(event);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public void onClose() {
+            closed = true;
+        }
+
+        List<String> states() {
+            return events.stream().map(FlowProgressEvent::getCurrentState).collect(Collectors.toList());
+        }
+    }
+}
@@ -7,6 +7,7 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
@@ -37,13 +38,19 @@ import com.sequenceiq.flow.api.model.FlowCheckResponse;
 import com.sequenceiq.flow.api.model.FlowLogResponse;
 import com.sequenceiq.flow.converter.FlowLogConverter;
 import com.sequenceiq.flow.converter.FlowProgressResponseConverter;
+import com.sequenceiq.flow.core.Flow;
 import com.sequenceiq.flow.core.FlowConstants;
+import com.sequenceiq.flow.core.FlowRegister;
+import com.sequenceiq.flow.core.FlowState;
+import com.sequenceiq.flow.core.RunningFlow;
+import com.sequenceiq.flow.domain.ArchivedFlowLog;
 import com.sequenceiq.flow.domain.FlowChainLog;
 import com.sequenceiq.flow.domain.FlowLog;
 import com.sequenceiq.flow.domain.FlowLogWithoutPayload;
 import com.sequenceiq.flow.domain.StateStatus;
 import com.sequenceiq.flow.service.flowlog.FlowChainLogService;
 import com.sequenceiq.flow.service.flowlog.FlowLogDBService;
+import com.sequenceiq.flow.service.flowlog.archive.FlowLogArchiveService;
 
 @ExtendWith(MockitoExtension.class)
 public class FlowServiceTest {
@@ -79,6 +86,12 @@ public class FlowServiceTest {
     @Mock
     private FlowLogConverter flowLogConverter;
 
+    @Mock
+    private FlowRegister flowRegister;
+
+    @Mock
+    private FlowLogArchiveService flowLogArchiveService;
+
     @InjectMocks
     private FlowService underTest;
 
@@ -202,6 +215,38 @@ public class FlowServiceTest {
         verifyNoMoreInteractions(flowChainLogService);
     }
 
+    @Test
+    void testFlowRunningOnThisNodeByFlowId() {
+        when(flowRegister.getRunningFlow(FLOW_ID)).thenReturn(new RunningFlow(mock(Flow.class), null, 1L, null, false));
+
+        FlowCheckResponse flowCheckResponse = underTest.getFlowState(FLOW_ID);
+        Assertions.assertTrue(flowCheckResponse.getHasActiveFlow());
+        Assertions.assertFalse(flowCheckResponse.getLatestFlowFinalizedAndFailed());
+        Assertions.assertEquals(FLOW_ID, flowCheckResponse.getFlowId());
+
+        verifyNoInteractions(flowLogDBService);
+    }
+
+    @Test
+    void testFailingFlowRunningOnThisNodeIsAnsweredFromFlowLogs() {
+        Flow flow = mock(Flow.class);
+        FlowState failedState = mock(FlowState.class);
+        when(failedState.name()).thenReturn("STACK_CREATION_FAILED_STATE");
+        when(flow.getCurrentState()).thenReturn(failedState);
+        when(flowRegister.getRunningFlow(FLOW_ID)).thenReturn(new RunningFlow(flow, null, 1L, null, false));
+        setUpFlow(FLOW_ID, List.of(
+                flowLog(FlowConstants.FINISHED_STATE, NO_NEXT_EVENT, 3, FLOW_ID),
+                flowLog(INTERMEDIATE_STATE, FAIL_HANDLED_NEXT_EVENT, 2, FLOW_ID),
+                flowLog(FlowConstants.INIT_STATE, NEXT_EVENT, 1, FLOW_ID)
+        ));
+
+        FlowCheckResponse flowCheckResponse = underTest.getFlowState(FLOW_ID);
+
+        Assertions.assertFalse(flowCheckResponse.getHasActiveFlow());
+        Assertions.assertTrue(flowCheckResponse.getLatestFlowFinalizedAndFailed());
+        verify(flowLogDBService).findAllWithoutPayloadByFlowIdOrderByCreatedDesc(FLOW_ID);
+    }
+
     @Test
     void testNoFlowRunningByFlowId() {
         setUpFlow(FLOW_ID, List.of(
@@ -217,6 +262,27 @@ public class FlowServiceTest {
         verify(flowChainLogService).hasEventInFlowChainQueue(List.of());
     }
 
+    @Test
+    void testArchivedFlowByFlowId() {
+        setUpFlow(FLOW_ID, Collections.emptyList());
+        ArchivedFlowLog finishedFlowLog = new ArchivedFlowLog();
+        finishedFlowLog.setFlowId(FLOW_ID);
+        finishedFlowLog.setCurrentState(FlowConstants.FINISHED_STATE);
+        finishedFlowLog.setFinalized(true);
+        finishedFlowLog.setStateStatus(StateStatus.SUCCESSFUL);
+        ArchivedFlowLog initFlowLog = new ArchivedFlowLog();
+        initFlowLog.setFlowId(FLOW_ID);
+        initFlowLog.setCurrentState(FlowConstants.INIT_STATE);
+        initFlowLog.setNextEvent(NEXT_EVENT);
+        initFlowLog.setFinalized(true);
+        initFlowLog.setStateStatus(StateStatus.SUCCESSFUL);
+        when(flowLogArchiveService.findAllArchivedByFlowIdOrderByCreatedDesc(FLOW_ID)).thenReturn(List.of(finishedFlowLog, initFlowLog));
+
+        FlowCheckResponse flowCheckResponse = underTest.getFlowState(FLOW_ID);
+        Assertions.assertFalse(flowCheckResponse.getHasActiveFlow());
+        Assertions.assertEquals(FLOW_ID, flowCheckResponse.getFlowId());
+    }
+
     @Test
     void testFlowRunningByWrongFlowId() {
         setUpFlow(FLOW_ID, Collections.emptyList());
@@ -330,6 +396,30 @@ public class FlowServiceTest {
         Assertions.assertEquals(FLOW_CHAIN_ID, flowCheckResponse.getFlowChainId());
     }
 
+    @Test
+    void testArchivedFlowChain() {
+        setUpFlowChain(flowChainLog(), false, Collections.emptyList());
+        ArchivedFlowLog finishedFlowLog = new ArchivedFlowLog();
+        finishedFlowLog.setFlowChainId(FLOW_CHAIN_ID);
+        finishedFlowLog.setCurrentState(FlowConstants.FINISHED_STATE);
+        finishedFlowLog.setFinalized(true);
+        finishedFlowLog.setStateStatus(StateStatus.SUCCESSFUL);
+        ArchivedFlowLog initFlowLog = new ArchivedFlowLog();
+        initFlowLog.setFlowChainId(FLOW_CHAIN_ID);
+        initFlowLog.setCurrentState(FlowConstants.INIT_STATE);
+        initFlowLog.setNextEvent(NEXT_EVENT);
+        initFlowLog.setFinalized(true);
+        initFlowLog.setStateStatus(StateStatus.SUCCESSFUL);
+        when(flowLogArchiveService.findAllArchivedByFlowChainIdsOrderByCreatedDesc(Set.of(FLOW_CHAIN_ID)))
+                .thenReturn(List.of(finishedFlowLog, initFlowLog));
+
+        FlowCheckResponse flowCheckResponse = underTest.getFlowChainState(FLOW_CHAIN_ID);
+
+        Assertions.assertFalse(flowCheckResponse.getHasActiveFlow());
+        Assertions.assertFalse(flowCheckResponse.getLatestFlowFinalizedAndFailed());
+        Assertions.assertEquals(FLOW_CHAIN_ID, flowCheckResponse.getFlowChainId());
+    }
+
     private void setUpFlow(String flowId, List<FlowLogWithoutPayload> flowLogs) {
         when(flowLogDBService.findAllWithoutPayloadByFlowIdOrderByCreatedDesc(flowId)).thenReturn(flowLogs);
         lenient().when(flowChainLogService.hasEventInFlowChainQueue(List.of())).thenReturn(false);
@@ -45,6 +45,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.sequenceiq.cloudbreak.auth.crn.CrnTestUtil;
 import com.sequenceiq.cloudbreak.common.event.Payload;
@@ -65,6 +66,7 @@ import com.sequenceiq.flow.core.config.AbstractFlowConfiguration;
 import com.sequenceiq.flow.core.restart.DefaultRestartAction;
 import com.sequenceiq.flow.domain.FlowLog;
 import com.sequenceiq.flow.domain.FlowLogIdWithTypeAndTimestamp;
+import com.sequenceiq.flow.domain.FlowLogPayloadFormat;
 import com.sequenceiq.flow.domain.FlowLogWithoutPayload;
 import com.sequenceiq.flow.domain.StateStatus;
 import com.sequenceiq.flow.ha.NodeConfig;
@@ -509,6 +511,35 @@ class FlowLogDBServiceTest {
         }
     }
 
+    @Test
+    void compactFinalizedFlowLogPayloadsWhenJsonFormatIsConfigured() {
+        int compacted = underTest.compactFinalizedFlowLogPayloads(10);
+
+        assertEquals(0, compacted);
+        verify(flowLogRepository, never()).findFinalizedFlowLogsByPayloadFormat(any(), any());
+    }
+
+    @Test
+    void compactFinalizedFlowLogPayloads() {
+        ReflectionTestUtils.setField(underTest, "payloadFormat", FlowLogPayloadFormat.DEFLATED_JSON);
+        FlowLog flowLog = new FlowLog();
+        flowLog.setPayloadJackson("{\"resourceId\":1}");
+        flowLog.setVariablesJackson("{\"key\":\"value\"}");
+        when(flowLogRepository.findFinalizedFlowLogsByPayloadFormat(FlowLogPayloadFormat.JSON, Pageable.ofSize(10))).thenReturn(List.of(flowLog));
+
+        int compacted = underTest.compactFinalizedFlowLogPayloads(10);
+
+        assertEquals(1, compacted);
+        verify(flowLogRepository).saveAll(List.of(flowLog));
+        assertEquals(FlowLogPayloadFormat.DEFLATED_JSON, flowLog.getPayloadFormat());
+        FlowLog reloaded = new FlowLog();
+        ReflectionTestUtils.setField(reloaded, "payloadFormat", FlowLogPayloadFormat.DEFLATED_JSON);
+        ReflectionTestUtils.setField(reloaded, "payloadBinary", ReflectionTestUtils.getField(flowLog, "payloadBinary"));
+        ReflectionTestUtils.setField(reloaded, "variablesBinary", ReflectionTestUtils.getField(flowLog, "variablesBinary"));
+        assertEquals("{\"resourceId\":1}", reloaded.getPayloadJackson());
+        assertEquals("{\"key\":\"value\"}", reloaded.getVariablesJackson());
+    }
+
     @Entity
     public static class TestEntity {
         @Id
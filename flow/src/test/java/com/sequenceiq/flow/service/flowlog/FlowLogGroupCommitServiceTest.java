@@ -0,0 +1,153 @@
+package com.sequenceiq.flow.service.flowlog;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.common.service.TransactionService;
+import com.sequenceiq.cloudbreak.common.service.TransactionService.TransactionExecutionException;
+import com.sequenceiq.flow.domain.FlowLog;
+
+@ExtendWith(MockitoExtension.class)
+class FlowLogGroupCommitServiceTest {
+
+    private static final int CONCURRENT_TRANSITIONS = 20;
+
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private FlowLogDBService flowLogDBService;
+
+    @InjectMocks
+    private FlowLogGroupCommitService underTest;
+
+    private final AtomicInteger transactionCount = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws TransactionExecutionException {
+        ReflectionTestUtils.setField(underTest, "lingerMillis", 200L);
+        ReflectionTestUtils.setField(underTest, "maxBatchSize", CONCURRENT_TRANSITIONS);
+        ReflectionTestUtils.setField(underTest, "queueCapacity", CONCURRENT_TRANSITIONS);
+        ReflectionTestUtils.setField(underTest, "awaitTimeoutMillis", 5000L);
+        doAnswer(invocation -> {
+            transactionCount.incrementAndGet();
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(transactionService).required(any(Runnable.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        underTest.stop();
+    }
+
+    @Test
+    void testDisabledGroupCommitUsesOwnTransaction() throws TransactionExecutionException {
+        FlowLog finishedFlowLog = flowLog(1L);
+        FlowLog flowLog = flowLog(null);
+
+        underTest.commit(FlowLogTransition.nextState(finishedFlowLog, true, flowLog));
+
+        verify(transactionService, times(1)).required(any(Runnable.class));
+        verify(flowLogDBService).updateLastFlowLogStatus(finishedFlowLog, true);
+        verify(flowLogDBService).saveAll(List.of(flowLog));
+    }
+
+    @Test
+    void testConcurrentTransitionsAreCommittedTogether() throws Exception {
+        ReflectionTestUtils.setField(underTest, "enabled", true);
+        underTest.start();
+        ExecutorService executorService = Executors.newFixedThreadPool(CONCURRENT_TRANSITIONS);
+        try {
+            List<CompletableFuture<Void>> futures = IntStream.range(0, CONCURRENT_TRANSITIONS)
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> commit(FlowLogTransition.nextState(flowLog((long) i), false, flowLog(null))),
+                            executorService))
+                    .collect(Collectors.toList());
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        verify(flowLogDBService, times(CONCURRENT_TRANSITIONS)).updateLastFlowLogStatus(any(FlowLog.class), anyBoolean());
+        assertTrue(transactionCount.get() < CONCURRENT_TRANSITIONS);
+    }
+
+    @Test
+    void testFailingTransitionIsReportedToItsCaller() {
+        ReflectionTestUtils.setField(underTest, "enabled", true);
+        underTest.start();
+        when(flowLogDBService.saveAll(anyIterable())).thenThrow(new IllegalStateException("failed"));
+
+        assertThrows(TransactionExecutionException.class, () -> underTest.commit(FlowLogTransition.payloadUpdate(flowLog(1L))));
+    }
+
+    @Test
+    void testTransitionsCollectedBeforeStopAreCommitted() throws Exception {
+        ReflectionTestUtils.setField(underTest, "enabled", true);
+        ReflectionTestUtils.setField(underTest, "lingerMillis", 60_000L);
+        underTest.start();
+        FlowLog flowLog = flowLog(null);
+        CompletableFuture<Void> commit = CompletableFuture.runAsync(() -> commit(FlowLogTransition.nextState(flowLog(1L), false, flowLog)));
+        Thread.sleep(100L);
+
+        underTest.stop();
+
+        commit.get(2, TimeUnit.SECONDS);
+        verify(flowLogDBService).saveAll(List.of(flowLog));
+    }
+
+    @Test
+    void testCallerCommitsItselfWhenTheCommitterDoesNotAnswer() throws TransactionExecutionException {
+        ReflectionTestUtils.setField(underTest, "awaitTimeoutMillis", 10L);
+        ReflectionTestUtils.setField(underTest, "queue", new ArrayBlockingQueue<>(CONCURRENT_TRANSITIONS));
+        ReflectionTestUtils.setField(underTest, "running", true);
+        FlowLog flowLog = flowLog(null);
+
+        underTest.commit(FlowLogTransition.nextState(flowLog(1L), false, flowLog));
+
+        verify(flowLogDBService, times(1)).saveAll(List.of(flowLog));
+        assertTrue(((BlockingQueue<?>) ReflectionTestUtils.getField(underTest, "queue")).isEmpty());
+    }
+
+    private void commit(FlowLogTransition transition) {
+        try {
+            underTest.commit(transition);
+        } catch (TransactionExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private FlowLog flowLog(Long id) {
+        FlowLog flowLog = new FlowLog();
+        flowLog.setId(id);
+        flowLog.setFlowId("flowId" + id);
+        return flowLog;
+    }
+}
@@ -0,0 +1,169 @@
+package com.sequenceiq.flow.service.flowlog.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.sequenceiq.cloudbreak.common.service.Clock;
+import com.sequenceiq.flow.domain.ArchivedFlowLog;
+import com.sequenceiq.flow.domain.ClassValue;
+import com.sequenceiq.flow.domain.FlowLog;
+import com.sequenceiq.flow.domain.FlowLogArchive;
+import com.sequenceiq.flow.domain.StateStatus;
+import com.sequenceiq.flow.repository.FlowLogArchiveRepository;
+import com.sequenceiq.flow.repository.FlowLogRepository;
+
+@ExtendWith(MockitoExtension.class)
+class FlowLogArchiveServiceTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    @TempDir
+    Path archiveDirectory;
+
+    @Mock
+    private FlowLogRepository flowLogRepository;
+
+    @Mock
+    private FlowLogArchiveRepository flowLogArchiveRepository;
+
+    @Spy
+    private LocalFileFlowLogArchiveStore flowLogArchiveStore;
+
+    @Mock
+    private Clock clock;
+
+    @InjectMocks
+    private FlowLogArchiveService underTest;
+
+    @Captor
+    private ArgumentCaptor<Iterable<FlowLogArchive>> archiveEntriesCaptor;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(flowLogArchiveStore, "archivePath", archiveDirectory.toString());
+        ReflectionTestUtils.setField(underTest, "flowLogArchiveStore", Optional.of(flowLogArchiveStore));
+    }
+
+    @Test
+    void testNothingToArchive() {
+        when(clock.nowMinus(any())).thenReturn(Instant.ofEpochMilli(NOW));
+        when(flowLogRepository.findFinalizedFlowLogsEndedBefore(NOW, Pageable.ofSize(10))).thenReturn(List.of());
+
+        assertEquals(0, underTest.archiveFinalizedFlowLogs(24, 10));
+
+        verify(flowLogRepository, never()).deleteByIds(any());
+        verify(flowLogArchiveRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void testArchivedFlowLogsAreIndexedDeletedAndReadable() {
+        when(clock.nowMinus(any())).thenReturn(Instant.ofEpochMilli(NOW));
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        List<FlowLog> flowLogs = List.of(flowLog(1L, "flow1", 100L), flowLog(2L, "flow1", 200L), flowLog(3L, "flow2", 300L));
+        when(flowLogRepository.findFinalizedFlowLogsEndedBefore(anyLong(), any())).thenReturn(flowLogs);
+        when(flowLogRepository.deleteByIds(List.of(1L, 2L, 3L))).thenReturn(3);
+
+        assertEquals(3, underTest.archiveFinalizedFlowLogs(24, 10));
+
+        verify(flowLogArchiveRepository).saveAll(archiveEntriesCaptor.capture());
+        List<FlowLogArchive> archiveEntries = new ArrayList<>();
+        archiveEntriesCaptor.getValue().forEach(archiveEntries::add);
+        assertEquals(List.of("flow1", "flow2"), archiveEntries.stream().map(FlowLogArchive::getFlowId).collect(Collectors.toList()));
+        assertEquals("flowlog-1-3-" + NOW + ".jsonl.gz", archiveEntries.get(0).getLocation());
+
+        when(flowLogArchiveRepository.findAllByFlowId("flow1")).thenReturn(archiveEntries.subList(0, 1));
+        List<ArchivedFlowLog> archivedFlowLogs = underTest.findAllArchivedByFlowIdOrderByCreatedDesc("flow1");
+        assertEquals(List.of(2L, 1L), archivedFlowLogs.stream().map(ArchivedFlowLog::getId).collect(Collectors.toList()));
+        ArchivedFlowLog archivedFlowLog = archivedFlowLogs.get(0);
+        assertEquals("{\"id\":2}", archivedFlowLog.getPayload());
+        assertEquals(StateStatus.SUCCESSFUL, archivedFlowLog.getStateStatus());
+        assertEquals(FlowLogArchiveServiceTest.class, archivedFlowLog.getFlowType().getClassValue());
+    }
+
+    @Test
+    void testArchiveIsDeletedWhenTransactionIsRolledBack() {
+        when(clock.nowMinus(any())).thenReturn(Instant.ofEpochMilli(NOW));
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        when(flowLogRepository.findFinalizedFlowLogsEndedBefore(anyLong(), any())).thenReturn(List.of(flowLog(1L, "flow1", 100L)));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            underTest.archiveFinalizedFlowLogs(24, 10);
+            assertTrue(archiveDirectory.resolve("flowlog-1-1-" + NOW + ".jsonl.gz").toFile().exists());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(archiveDirectory.resolve("flowlog-1-1-" + NOW + ".jsonl.gz").toFile().exists());
+    }
+
+    @Test
+    void testMissingArchiveIsTreatedAsNotFound() {
+        when(flowLogArchiveRepository.findAllByFlowId("flow1"))
+                .thenReturn(List.of(new FlowLogArchive("flow1", null, 1L, "flowlog-1-1-" + NOW + ".jsonl.gz", NOW)));
+
+        assertTrue(underTest.findAllArchivedByFlowIdOrderByCreatedDesc("flow1").isEmpty());
+    }
+
+    @Test
+    void testExpiredArchivesAreDeletedAfterCommit() {
+        when(clock.nowMinus(any())).thenReturn(Instant.ofEpochMilli(NOW));
+        when(clock.getCurrentTimeMillis()).thenReturn(NOW);
+        when(flowLogRepository.findFinalizedFlowLogsEndedBefore(anyLong(), any())).thenReturn(List.of(flowLog(1L, "flow1", 100L)));
+        underTest.archiveFinalizedFlowLogs(24, 10);
+        String location = "flowlog-1-1-" + NOW + ".jsonl.gz";
+        when(flowLogArchiveRepository.findLocationsArchivedBefore(NOW, Pageable.ofSize(10))).thenReturn(List.of(location));
+        when(flowLogArchiveRepository.deleteByLocationIn(List.of(location))).thenReturn(1);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertEquals(1, underTest.purgeExpiredArchives(720, 10));
+            assertTrue(archiveDirectory.resolve(location).toFile().exists());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertFalse(archiveDirectory.resolve(location).toFile().exists());
+    }
+
+    private FlowLog flowLog(Long id, String flowId, Long created) {
+        FlowLog flowLog = new FlowLog(1L, flowId, null, "userCrn", "NEXT_EVENT", "{\"id\":" + id + "}", null, "{}",
+                ClassValue.of(FlowLogArchiveServiceTest.class), "STATE", created);
+        flowLog.setId(id);
+        flowLog.setCreated(created);
+        flowLog.setFinalized(true);
+        flowLog.setStateStatus(StateStatus.SUCCESSFUL);
+        return flowLog;
+    }
+}
@@ -19,6 +19,8 @@ public class UserModelDescriptions {
     public static final String USER_PASSWORD = "the user's password";
     public static final String USERSYNC_STATE = "state of user synchronization";
     public static final String WORKLOAD_CREDENTIALS_UPDATE_TYPE = "Type of workload credentials update to perform";
+    public static final String USERSYNC_PERIODIC = "Set by the periodic usersync poller. A periodic full sync may skip environments whose UMS state did" +
+            " not change since their last sync, and may diff only the changed users against FreeIPA.";
 
     private UserModelDescriptions() {
     }
@@ -27,6 +27,9 @@ public class SynchronizeAllUsersRequest extends SynchronizeOperationRequestBase
     @ApiModelProperty(value = UserModelDescriptions.WORKLOAD_CREDENTIALS_UPDATE_TYPE)
     private WorkloadCredentialsUpdateType workloadCredentialsUpdateType = WorkloadCredentialsUpdateType.UPDATE_IF_CHANGED;
 
+    @ApiModelProperty(value = UserModelDescriptions.USERSYNC_PERIODIC)
+    private boolean periodicSync;
+
     public SynchronizeAllUsersRequest() {
     }
 
@@ -67,6 +70,14 @@ public class SynchronizeAllUsersRequest extends SynchronizeOperationRequestBase
         this.workloadCredentialsUpdateType = workloadCredentialsUpdateType;
     }
 
+    public boolean isPeriodicSync() {
+        return periodicSync;
+    }
+
+    public void setPeriodicSync(boolean periodicSync) {
+        this.periodicSync = periodicSync;
+    }
+
     public Set<String> getDeletedWorkloadUsers() {
         return deletedWorkloadUsers;
     }
@@ -83,6 +94,7 @@ public class SynchronizeAllUsersRequest extends SynchronizeOperationRequestBase
                 + ", deletedWorkloadUsers=" + deletedWorkloadUsers
                 + ", accountId=" + accountId
                 + ", workloadCredentialsUpdateType=" + workloadCredentialsUpdateType
+                + ", periodicSync=" + periodicSync
                 + ", " + super.fieldsToString()
                 + '}';
     }
@@ -5,10 +5,10 @@ import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import com.sequenceiq.cloudbreak.cache.common.AbstractCacheDefinition;
+import com.sequenceiq.cloudbreak.cache.common.AbstractTieredCacheDefinition;
 
 @Component
-public class EnvironmentCache extends AbstractCacheDefinition {
+public class EnvironmentCache extends AbstractTieredCacheDefinition {
     public static final String FREEIPA_ENVIRONMENT_CACHE = "freeipaEnvironmentCache";
 
     private static final long MAX_ENTRIES = 1000L;
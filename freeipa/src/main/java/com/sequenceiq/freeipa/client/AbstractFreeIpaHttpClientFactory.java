@@ -95,7 +95,7 @@ public abstract class AbstractFreeIpaHttpClientFactory<T> {
 
     private Client createRestClient(HttpClientConfig clientConfig) throws RetryableFreeIpaClientException {
         try {
-            return RestClientUtil.createClient(clientConfig.getServerCert(), clientConfig.getClientCert(), clientConfig.getClientKey(),
+            return RestClientUtil.getSharedClient(clientConfig.getServerCert(), clientConfig.getClientCert(), clientConfig.getClientKey(),
                     getConnectionTimeoutMillis(), getReadTimeoutMillis(), restDebug);
         } catch (Exception e) {
             throw new RetryableFreeIpaClientException("Unable to create client for FreeIPA health checks", e);
@@ -17,6 +17,7 @@ import com.sequenceiq.cloudbreak.structuredevent.rest.controller.CDPStructuredEv
 import com.sequenceiq.cloudbreak.structuredevent.rest.filter.CDPRestAuditFilter;
 import com.sequenceiq.cloudbreak.structuredevent.rest.filter.CDPStructuredEventFilter;
 import com.sequenceiq.flow.controller.FlowPublicController;
+import com.sequenceiq.flow.controller.FlowStreamController;
 import com.sequenceiq.freeipa.api.FreeIpaApi;
 import com.sequenceiq.freeipa.controller.ClientTestV1Controller;
 import com.sequenceiq.freeipa.controller.DiagnosticsV1Controller;
@@ -54,6 +55,7 @@ public class EndpointConfig extends ResourceConfig {
             OperationV1Controller.class,
             FreeIpaV1FlowController.class,
             FlowPublicController.class,
+            FlowStreamController.class,
             AuthorizationInfoController.class,
             DiagnosticsV1Controller.class,
             ProgressV1Controller.class,
@@ -108,7 +108,7 @@ public class UserV1Controller implements UserV1Endpoint {
 
         UserSyncRequestFilter userSyncFilter = new UserSyncRequestFilter(nullToEmpty(request.getUsers()),
                 nullToEmpty(request.getMachineUsers()),
-                getOptionalDeletedWorkloadUser(request.getDeletedWorkloadUsers()));
+                getOptionalDeletedWorkloadUser(request.getDeletedWorkloadUsers()), request.isPeriodicSync());
         Operation syncOperation = userSyncService.synchronizeUsersWithCustomPermissionCheck(accountId, userCrn,
                 nullToEmpty(request.getEnvironments()), userSyncFilter, request.getWorkloadCredentialsUpdateType(),
                 AuthorizationResourceAction.DESCRIBE_ENVIRONMENT);
@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 import javax.ws.rs.BadRequestException;
@@ -58,6 +59,7 @@ import com.sequenceiq.cloudbreak.cloud.model.filesystem.CloudS3View;
 import com.sequenceiq.cloudbreak.common.json.Json;
 import com.sequenceiq.cloudbreak.common.network.NetworkConstants;
 import com.sequenceiq.cloudbreak.common.type.TemporaryStorage;
+import com.sequenceiq.cloudbreak.service.secret.service.SecretAspectService;
 import com.sequenceiq.common.api.cloudstorage.old.AdlsGen2CloudStorageV1Parameters;
 import com.sequenceiq.common.api.telemetry.model.Logging;
 import com.sequenceiq.common.api.telemetry.model.Telemetry;
@@ -103,6 +105,9 @@ public class StackToCloudStackConverter implements Converter<Stack, CloudStack>
     @Inject
     private CachedEnvironmentClientService cachedEnvironmentClientService;
 
+    @Inject
+    private SecretAspectService secretAspectService;
+
     @Override
     public CloudStack convert(Stack stack) {
         return convert(stack, Collections.emptySet());
@@ -227,6 +232,7 @@ public class StackToCloudStackConverter implements Converter<Stack, CloudStack>
         String cloudPlatform = stack.getCloudPlatform();
         // sort by name to avoid shuffling the different instance groups
         Collections.sort(instanceGroups);
+        secretAspectService.preloadSecrets(instanceGroups.stream().map(InstanceGroup::getTemplate).filter(Objects::nonNull).collect(Collectors.toList()));
         List<Group> groups = new ArrayList<>();
         InstanceAuthentication instanceAuthentication = buildInstanceAuthentication(stack.getStackAuthentication());
         for (InstanceGroup instanceGroup : instanceGroups) {
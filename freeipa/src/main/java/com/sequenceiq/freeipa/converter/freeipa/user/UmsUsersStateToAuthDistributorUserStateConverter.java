@@ -4,6 +4,7 @@ import java.util.Collection;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import org.apache.commons.lang3.ObjectUtils;
@@ -19,6 +20,7 @@ import com.cloudera.thunderhead.service.authdistributor.AuthDistributorProto.Use
 import com.cloudera.thunderhead.service.authdistributor.AuthDistributorProto.UserState;
 import com.sequenceiq.freeipa.service.freeipa.user.model.FmsGroup;
 import com.sequenceiq.freeipa.service.freeipa.user.model.FmsUser;
+import com.sequenceiq.freeipa.service.freeipa.user.model.GroupMembershipIndex;
 import com.sequenceiq.freeipa.service.freeipa.user.model.UmsUsersState;
 import com.sequenceiq.freeipa.service.freeipa.user.model.UserMetadata;
 
@@ -36,9 +38,10 @@ public class UmsUsersStateToAuthDistributorUserStateConverter {
                 .filter(Objects::nonNull)
                 .map(this::convert)
                 .collect(Collectors.toSet());
-        Map<String, GroupMembership> groupMemberships = umsUsersState.getUsersState().getGroupMembership().asMap().entrySet().stream()
-                .filter(e -> ObjectUtils.allNotNull(e, e.getKey(), e.getValue()))
-                .collect(Collectors.toMap(e -> e.getKey(), e -> convert(e.getValue())));
+        GroupMembershipIndex groupMembershipIndex = umsUsersState.getUsersState().getGroupMembership();
+        Map<String, GroupMembership> groupMemberships = groupMembershipIndex.getGroups().stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toMap(Function.identity(), group -> convert(groupMembershipIndex.getMembers(group))));
         Map<String, AuthDistributorProto.UserMetadata> userMetadataMap = umsUsersState.getUsersState().getUserMetadataMap().entrySet().stream()
                 .filter(e -> ObjectUtils.allNotNull(e, e.getKey(), e.getValue()))
                 .collect(Collectors.toMap(e -> e.getKey(), e -> convert(e.getValue())));
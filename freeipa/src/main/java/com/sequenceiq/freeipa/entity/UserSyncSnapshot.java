@@ -0,0 +1,101 @@
+package com.sequenceiq.freeipa.entity;
+
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.OneToOne;
+import javax.persistence.SequenceGenerator;
+
+import com.sequenceiq.cloudbreak.common.dal.model.AccountIdAwareResource;
+import com.sequenceiq.cloudbreak.common.json.Json;
+import com.sequenceiq.cloudbreak.common.json.JsonToString;
+
+/**
+ * The UMS users state of the last successful full sync of a stack, in the compact form used by the incremental usersync.
+ * Kept apart from {@link UserSyncStatus} so that the status queries do not load the fingerprints.
+ */
+@Entity
+public class UserSyncSnapshot implements AccountIdAwareResource {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO, generator = "usersyncsnapshot_generator")
+    @SequenceGenerator(name = "usersyncsnapshot_generator", sequenceName = "usersyncsnapshot_id_seq", allocationSize = 1)
+    private Long id;
+
+    @OneToOne
+    private Stack stack;
+
+    @Convert(converter = JsonToString.class)
+    @Column(columnDefinition = "TEXT")
+    private Json umsEventGenerationIds;
+
+    @Column(columnDefinition = "bytea")
+    private byte[] userFingerprints;
+
+    private int incrementalSyncs;
+
+    private Long created;
+
+    public UserSyncSnapshot() {
+    }
+
+    public UserSyncSnapshot(Stack stack) {
+        this.stack = stack;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Stack getStack() {
+        return stack;
+    }
+
+    public void setStack(Stack stack) {
+        this.stack = stack;
+    }
+
+    public Json getUmsEventGenerationIds() {
+        return umsEventGenerationIds;
+    }
+
+    public void setUmsEventGenerationIds(Json umsEventGenerationIds) {
+        this.umsEventGenerationIds = umsEventGenerationIds;
+    }
+
+    public byte[] getUserFingerprints() {
+        return userFingerprints;
+    }
+
+    public void setUserFingerprints(byte[] userFingerprints) {
+        this.userFingerprints = userFingerprints;
+    }
+
+    public int getIncrementalSyncs() {
+        return incrementalSyncs;
+    }
+
+    public void setIncrementalSyncs(int incrementalSyncs) {
+        this.incrementalSyncs = incrementalSyncs;
+    }
+
+    public Long getCreated() {
+        return created;
+    }
+
+    public void setCreated(Long created) {
+        this.created = created;
+    }
+
+    @Override
+    public String getAccountId() {
+        return stack.getAccountId();
+    }
+}
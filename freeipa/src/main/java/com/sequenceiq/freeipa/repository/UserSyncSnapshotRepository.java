@@ -0,0 +1,17 @@
+package com.sequenceiq.freeipa.repository;
+
+import java.util.Optional;
+
+import javax.transaction.Transactional;
+
+import org.springframework.data.repository.CrudRepository;
+
+import com.sequenceiq.freeipa.entity.Stack;
+import com.sequenceiq.freeipa.entity.UserSyncSnapshot;
+
+@Transactional(Transactional.TxType.REQUIRED)
+public interface UserSyncSnapshotRepository extends CrudRepository<UserSyncSnapshot, Long> {
+
+    Optional<UserSyncSnapshot> getByStack(Stack stack);
+
+}
@@ -127,6 +127,6 @@ public class BootstrapService {
     }
 
     private byte[] getStateConfigZip() throws IOException {
-        return compressUtil.generateCompressedOutputFromFolders("salt-common", "freeipa-salt");
+        return compressUtil.getCachedCompressedOutputFromFolders("salt-common", "freeipa-salt");
     }
 }
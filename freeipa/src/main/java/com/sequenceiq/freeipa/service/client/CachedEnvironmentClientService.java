@@ -22,7 +22,7 @@ public class CachedEnvironmentClientService {
     @Inject
     private WebApplicationExceptionHandler webApplicationExceptionHandler;
 
-    @Cacheable(cacheNames = FREEIPA_ENVIRONMENT_CACHE, key = "#environment")
+    @Cacheable(cacheNames = FREEIPA_ENVIRONMENT_CACHE, key = "#environment", sync = true)
     public DetailedEnvironmentResponse getByName(String environment) {
         try {
             return environmentEndpoint.getByName(environment);
@@ -31,7 +31,7 @@ public class CachedEnvironmentClientService {
         }
     }
 
-    @Cacheable(cacheNames = FREEIPA_ENVIRONMENT_CACHE, key = "#environmentCrn")
+    @Cacheable(cacheNames = FREEIPA_ENVIRONMENT_CACHE, key = "#environmentCrn", sync = true)
     public DetailedEnvironmentResponse getByCrn(String environmentCrn) {
         try {
             return environmentEndpoint.getByCrn(environmentCrn);
@@ -37,6 +37,7 @@ import com.sequenceiq.freeipa.service.GatewayConfigService;
 import com.sequenceiq.freeipa.service.binduser.UserSyncBindUserService;
 import com.sequenceiq.freeipa.service.freeipa.FreeIpaClientFactory;
 import com.sequenceiq.freeipa.service.freeipa.user.UserSyncService;
+import com.sequenceiq.freeipa.service.freeipa.user.UserSyncSnapshotService;
 import com.sequenceiq.freeipa.service.recipe.FreeIpaRecipeService;
 import com.sequenceiq.freeipa.service.stack.StackService;
 
@@ -58,6 +59,9 @@ public class FreeIpaPostInstallService {
     @Inject
     private UserSyncService userSyncService;
 
+    @Inject
+    private UserSyncSnapshotService userSyncSnapshotService;
+
     @Inject
     private StackService stackService;
 
@@ -165,6 +169,7 @@ public class FreeIpaPostInstallService {
     }
 
     private void synchronizeUsers(Stack stack) {
+        userSyncSnapshotService.deleteForStack(stack);
         if (entitlementService.isWorkloadIamSyncEnabled(stack.getAccountId())) {
             LOGGER.debug("WORKLOAD_IAM_SYNC entitled. Usersync will be triggered automatically by the Workload IAM service");
         } else if (entitlementService.isWiamUsersyncRoutingEnabled(stack.getAccountId())) {
@@ -2,7 +2,6 @@ package com.sequenceiq.freeipa.service.freeipa.user;
 
 import static com.sequenceiq.freeipa.service.freeipa.user.UserSyncConstants.CDP_USERSYNC_INTERNAL_GROUP;
 
-import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.BiConsumer;
@@ -14,14 +13,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Multimap;
+import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.Sets;
 import com.sequenceiq.freeipa.client.FreeIpaChecks;
 import com.sequenceiq.freeipa.service.freeipa.user.model.FmsGroup;
 import com.sequenceiq.freeipa.service.freeipa.user.model.FmsUser;
+import com.sequenceiq.freeipa.service.freeipa.user.model.GroupMembershipIndex;
 import com.sequenceiq.freeipa.service.freeipa.user.model.UmsUsersState;
 import com.sequenceiq.freeipa.service.freeipa.user.model.UserMetadata;
 import com.sequenceiq.freeipa.service.freeipa.user.model.UserSyncOptions;
@@ -108,13 +107,10 @@ public class UserStateDifferenceCalculator {
     }
 
     public ImmutableSet<String> calculateUsersToRemove(UmsUsersState umsState, UsersState ipaState) {
-        Collection<String> umsStateUsers = umsState.getUsersState().getGroupMembership().get(CDP_USERSYNC_INTERNAL_GROUP);
-        Collection<String> ipaStateUsers = ipaState.getGroupMembership().get(CDP_USERSYNC_INTERNAL_GROUP);
-
-        ImmutableSet<String> usersToRemove = ImmutableSet.copyOf(ipaStateUsers.stream()
-                .filter(ipaUser -> !umsStateUsers.contains(ipaUser))
+        ImmutableSet<String> usersToRemove = ipaState.getGroupMembership()
+                .getMembersNotIn(CDP_USERSYNC_INTERNAL_GROUP, umsState.getUsersState().getGroupMembership()).stream()
                 .filter(ipaUser -> !FreeIpaChecks.IPA_PROTECTED_USERS.contains(ipaUser))
-                .collect(Collectors.toSet()));
+                .collect(ImmutableSet.toImmutableSet());
 
         LOGGER.info("usersToRemove size = {}", usersToRemove.size());
         LOGGER.debug("usersToRemove = {}", usersToRemove);
@@ -124,50 +120,54 @@ public class UserStateDifferenceCalculator {
 
     public ImmutableMultimap<String, String> calculateGroupMembershipToAdd(UmsUsersState umsState, UsersState ipaState,
             UserSyncOptions options, BiConsumer<String, String> warnings) {
-        Multimap<String, String> groupMembershipToAdd = HashMultimap.create();
+        ImmutableSetMultimap.Builder<String, String> groupMembershipToAdd = ImmutableSetMultimap.builder();
         Set<String> groupsExceedingLimit = umsState.getGroupsExceedingLimit().stream()
                 .filter(Predicate.not(UserSyncConstants.ALLOWED_LARGE_GROUP_PREDICATE))
                 .collect(Collectors.toSet());
         boolean enforceGroupLimits = options.isEnforceGroupMembershipLimitEnabled();
         int groupLimit = options.getLargeGroupLimit();
 
-        umsState.getUsersState().getGroupMembership().asMap().forEach((group, users) -> {
+        GroupMembershipIndex umsGroupMembership = umsState.getUsersState().getGroupMembership();
+        umsGroupMembership.getGroups().forEach(group -> {
             if (!FreeIpaChecks.IPA_UNMANAGED_GROUPS.contains(group)) {
                 if (enforceGroupLimits && groupsExceedingLimit.contains(group)) {
-                    String message = String.format(GROUP_SIZE_LIMIT_EXCEEDED_MESSAGE, group, users.size(), groupLimit);
+                    String message = String.format(GROUP_SIZE_LIMIT_EXCEEDED_MESSAGE, group, umsGroupMembership.getMemberCount(group), groupLimit);
                     LOGGER.debug(message);
                     warnings.accept(GROUP_SIZE_LIMIT_EXCEEDED_ERROR, message);
                 } else {
-                    Set<String> usersToAdd = users.stream()
-                            .filter(user -> !ipaState.getGroupMembership().containsEntry(group, user))
-                            .collect(Collectors.toSet());
+                    Set<String> usersToAdd = umsGroupMembership.getMembersNotIn(group, ipaState.getGroupMembership());
                     LOGGER.debug("adding users : {} to group : {}", usersToAdd, group);
                     groupMembershipToAdd.putAll(group, usersToAdd);
                 }
             }
         });
 
-        LOGGER.info("groupMembershipToAdd size = {}", groupMembershipToAdd.size());
-        LOGGER.debug("groupMembershipToAdd = {}", groupMembershipToAdd.asMap());
+        ImmutableSetMultimap<String, String> result = groupMembershipToAdd.build();
+        LOGGER.info("groupMembershipToAdd size = {}", result.size());
+        LOGGER.debug("groupMembershipToAdd = {}", result.asMap());
 
-        return ImmutableMultimap.copyOf(groupMembershipToAdd);
+        return result;
     }
 
     public ImmutableMultimap<String, String> calculateGroupMembershipToRemove(UmsUsersState umsState, UsersState ipaState) {
-        Multimap<String, String> groupMembershipToRemove = HashMultimap.create();
-        ipaState.getGroupMembership().forEach((group, user) -> {
-            if (!FreeIpaChecks.IPA_UNMANAGED_GROUPS.contains(group) &&
-                    ipaState.getGroupMembership().containsEntry(CDP_USERSYNC_INTERNAL_GROUP, user) &&
-                    !umsState.getUsersState().getGroupMembership().containsEntry(group, user)) {
-                LOGGER.debug("removing user : {} to group : {}", user, group);
-                groupMembershipToRemove.put(group, user);
+        ImmutableSetMultimap.Builder<String, String> groupMembershipToRemove = ImmutableSetMultimap.builder();
+        GroupMembershipIndex ipaGroupMembership = ipaState.getGroupMembership();
+        GroupMembershipIndex umsGroupMembership = umsState.getUsersState().getGroupMembership();
+        ipaGroupMembership.getGroups().forEach(group -> {
+            if (!FreeIpaChecks.IPA_UNMANAGED_GROUPS.contains(group)) {
+                Set<String> usersToRemove = ipaGroupMembership.getMembersNotIn(group, umsGroupMembership, CDP_USERSYNC_INTERNAL_GROUP);
+                if (!usersToRemove.isEmpty()) {
+                    LOGGER.debug("removing users : {} from group : {}", usersToRemove, group);
+                    groupMembershipToRemove.putAll(group, usersToRemove);
+                }
             }
         });
 
-        LOGGER.info("groupMembershipToRemove size = {}", groupMembershipToRemove.size());
-        LOGGER.debug("groupMembershipToRemove = {}", groupMembershipToRemove.asMap());
+        ImmutableSetMultimap<String, String> result = groupMembershipToRemove.build();
+        LOGGER.info("groupMembershipToRemove size = {}", result.size());
+        LOGGER.debug("groupMembershipToRemove = {}", result.asMap());
 
-        return ImmutableMultimap.copyOf(groupMembershipToRemove);
+        return result;
     }
 
     public ImmutableSet<String> calculateUsersToDisable(UmsUsersState umsState, UsersState ipaState) {
@@ -231,4 +231,5 @@ public class UserStateDifferenceCalculator {
                 .filter(username -> !FreeIpaChecks.IPA_PROTECTED_USERS.contains(username))
                 .collect(Collectors.toSet()));
     }
+
 }
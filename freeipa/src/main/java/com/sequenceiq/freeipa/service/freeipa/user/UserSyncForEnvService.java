@@ -6,8 +6,10 @@ import static com.sequenceiq.freeipa.service.freeipa.user.UserSyncLogEvent.RETRI
 import static com.sequenceiq.freeipa.service.freeipa.user.UserSyncLogEvent.RETRIEVE_PARTIAL_UMS_STATE;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -25,6 +27,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
 import com.sequenceiq.cloudbreak.auth.altus.EntitlementService;
 import com.sequenceiq.cloudbreak.common.json.Json;
 import com.sequenceiq.freeipa.api.v1.freeipa.user.model.FailureDetails;
@@ -32,6 +35,7 @@ import com.sequenceiq.freeipa.api.v1.freeipa.user.model.SuccessDetails;
 import com.sequenceiq.freeipa.api.v1.freeipa.user.model.SynchronizationStatus;
 import com.sequenceiq.freeipa.configuration.UsersyncConfig;
 import com.sequenceiq.freeipa.entity.Stack;
+import com.sequenceiq.freeipa.entity.UserSyncSnapshot;
 import com.sequenceiq.freeipa.entity.UserSyncStatus;
 import com.sequenceiq.freeipa.service.freeipa.user.model.SyncStatusDetail;
 import com.sequenceiq.freeipa.service.freeipa.user.model.UmsEventGenerationIds;
@@ -74,6 +78,9 @@ public class UserSyncForEnvService {
     @Inject
     private EntitlementService entitlementService;
 
+    @Inject
+    private UserSyncSnapshotService userSyncSnapshotService;
+
     public void synchronizeUsers(String operationId, String accountId, List<Stack> stacks, UserSyncRequestFilter userSyncFilter, UserSyncOptions options,
             long startTime) {
         operationService.tryWithOperationCleanup(operationId, accountId, () -> {
@@ -135,18 +142,29 @@ public class UserSyncForEnvService {
     private Map<String, Future<SyncStatusDetail>> startAsyncSyncsForStacks(String operationId, String accountId, List<Stack> stacks,
             UserSyncRequestFilter userSyncFilter, UserSyncOptions options, Set<String> environmentCrns) {
         if (userSyncFilter.getDeletedWorkloadUser().isEmpty()) {
+            UmsEventGenerationIds umsEventGenerationIds = options.isFullSync() ?
+                    umsEventGenerationIdsProvider.getEventGenerationIds(accountId) : null;
+            Map<String, UserSyncSnapshot> snapshots = options.isIncrementalSyncEnabled() ? findSnapshots(stacks) : Map.of();
+            Set<String> upToDateEnvironmentCrns = snapshots.entrySet().stream()
+                    .filter(entry -> userSyncSnapshotService.isUpToDate(entry.getValue(), umsEventGenerationIds))
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toSet());
+            Set<String> environmentCrnsToSync = Sets.difference(environmentCrns, upToDateEnvironmentCrns).immutableCopy();
+            if (!upToDateEnvironmentCrns.isEmpty()) {
+                LOGGER.info("UMS state did not change since the last sync of environments {}", upToDateEnvironmentCrns);
+            }
             UserSyncLogEvent logRetrieveUmsEvent = options.isFullSync() ? RETRIEVE_FULL_UMS_STATE : RETRIEVE_PARTIAL_UMS_STATE;
-            LOGGER.debug("Starting {} for environments {} ...", logRetrieveUmsEvent, environmentCrns);
-            Map<String, UmsUsersState> envToUmsStateMap = umsUsersStateProviderDispatcher
-                    .getEnvToUmsUsersStateMap(accountId, environmentCrns, userSyncFilter.getUserCrnFilter(),
+            LOGGER.debug("Starting {} for environments {} ...", logRetrieveUmsEvent, environmentCrnsToSync);
+            Map<String, UmsUsersState> envToUmsStateMap = environmentCrnsToSync.isEmpty() ? Map.of() : umsUsersStateProviderDispatcher
+                    .getEnvToUmsUsersStateMap(accountId, environmentCrnsToSync, userSyncFilter.getUserCrnFilter(),
                             userSyncFilter.getMachineUserCrnFilter(), options);
             LOGGER.debug("Finished {}.", logRetrieveUmsEvent);
-            UmsEventGenerationIds umsEventGenerationIds = options.isFullSync() ?
-                    umsEventGenerationIdsProvider.getEventGenerationIds(accountId) : null;
             return stacks.stream()
                     .collect(Collectors.toMap(Stack::getEnvironmentCrn,
-                            stack -> asyncSynchronizeStack(stack, envToUmsStateMap.get(stack.getEnvironmentCrn()), umsEventGenerationIds, options,
-                                    operationId, accountId)));
+                            stack -> upToDateEnvironmentCrns.contains(stack.getEnvironmentCrn()) ?
+                                    asyncRecordUpToDateStack(stack, snapshots.get(stack.getEnvironmentCrn()), umsEventGenerationIds, operationId, accountId) :
+                                    asyncSynchronizeStack(stack, envToUmsStateMap.get(stack.getEnvironmentCrn()), snapshots.get(stack.getEnvironmentCrn()),
+                                            umsEventGenerationIds, options, operationId, accountId)));
         } else {
             String deletedWorkloadUser = userSyncFilter.getDeletedWorkloadUser().get();
             return stacks.stream()
@@ -154,6 +172,13 @@ public class UserSyncForEnvService {
         }
     }
 
+    private Map<String, UserSyncSnapshot> findSnapshots(List<Stack> stacks) {
+        Map<String, UserSyncSnapshot> snapshots = new HashMap<>();
+        stacks.forEach(stack -> userSyncSnapshotService.findForIncrementalSync(stack)
+                .ifPresent(snapshot -> snapshots.put(stack.getEnvironmentCrn(), snapshot)));
+        return snapshots;
+    }
+
     private FailureDetails createFailureDetails(String envCrn, String details, Multimap<String, String> warnings) {
         FailureDetails failureDetails = new FailureDetails(envCrn, details);
         Map<String, String> additionalDetails = failureDetails.getAdditionalDetails();
@@ -161,20 +186,41 @@ public class UserSyncForEnvService {
         return failureDetails;
     }
 
-    private Future<SyncStatusDetail> asyncSynchronizeStack(Stack stack, UmsUsersState umsUsersState, UmsEventGenerationIds umsEventGenerationIds,
-            UserSyncOptions options, String operationId, String accountId) {
+    private Future<SyncStatusDetail> asyncSynchronizeStack(Stack stack, UmsUsersState umsUsersState, UserSyncSnapshot snapshot,
+            UmsEventGenerationIds umsEventGenerationIds, UserSyncOptions options, String operationId, String accountId) {
         return asyncTaskExecutor.submit(() -> {
-            SyncStatusDetail statusDetail = userSyncForStackService.synchronizeStack(stack, umsUsersState, options, operationId);
+            Optional<Set<String>> changedUsers = Optional.ofNullable(snapshot)
+                    .flatMap(s -> userSyncSnapshotService.calculateChangedUsers(s, umsUsersState));
+            SyncStatusDetail statusDetail = changedUsers.isPresent() ?
+                    userSyncForStackService.synchronizeStackIncrementally(stack, umsUsersState,
+                            userSyncSnapshotService.restrictToUsers(umsUsersState, changedUsers.get()), options, operationId) :
+                    userSyncForStackService.synchronizeStack(stack, umsUsersState, options, operationId);
             if (options.isFullSync() && statusDetail.getStatus() == SynchronizationStatus.COMPLETED) {
-                UserSyncStatus userSyncStatus = userSyncStatusService.getOrCreateForStack(stack);
-                userSyncStatus.setUmsEventGenerationIds(new Json(umsEventGenerationIds));
-                userSyncStatus.setLastSuccessfulFullSync(operationService.getOperationForAccountIdAndOperationId(accountId, operationId));
-                userSyncStatusService.save(userSyncStatus);
+                updateUserSyncStatus(stack, umsEventGenerationIds, operationId, accountId);
+                if (options.isIncrementalSyncEnabled()) {
+                    userSyncSnapshotService.saveSnapshot(stack, umsUsersState, umsEventGenerationIds, changedUsers.isPresent());
+                }
             }
             return statusDetail;
         });
     }
 
+    private Future<SyncStatusDetail> asyncRecordUpToDateStack(Stack stack, UserSyncSnapshot snapshot, UmsEventGenerationIds umsEventGenerationIds,
+            String operationId, String accountId) {
+        return asyncTaskExecutor.submit(() -> {
+            userSyncSnapshotService.recordUpToDate(snapshot);
+            updateUserSyncStatus(stack, umsEventGenerationIds, operationId, accountId);
+            return SyncStatusDetail.succeed(stack.getEnvironmentCrn());
+        });
+    }
+
+    private void updateUserSyncStatus(Stack stack, UmsEventGenerationIds umsEventGenerationIds, String operationId, String accountId) {
+        UserSyncStatus userSyncStatus = userSyncStatusService.getOrCreateForStack(stack);
+        userSyncStatus.setUmsEventGenerationIds(new Json(umsEventGenerationIds));
+        userSyncStatus.setLastSuccessfulFullSync(operationService.getOperationForAccountIdAndOperationId(accountId, operationId));
+        userSyncStatusService.save(userSyncStatus);
+    }
+
     private Future<SyncStatusDetail> asyncSynchronizeStackForDeleteUser(Stack stack, String deletedWorkloadUser) {
         return asyncTaskExecutor.submit(() -> userSyncForStackService.synchronizeStackForDeleteUser(stack, deletedWorkloadUser));
     }
@@ -3,12 +3,12 @@ package com.sequenceiq.freeipa.service.freeipa.user;
 import static com.sequenceiq.freeipa.service.freeipa.user.UserSyncLogEvent.ADD_SUDO_RULES;
 import static com.sequenceiq.freeipa.service.freeipa.user.UserSyncLogEvent.APPLY_DIFFERENCE_TO_IPA;
 import static com.sequenceiq.freeipa.service.freeipa.user.UserSyncLogEvent.CALCULATE_UMS_IPA_DIFFERENCE;
+import static com.sequenceiq.freeipa.service.freeipa.user.UserSyncLogEvent.INCREMENTAL_USER_SYNC;
 import static com.sequenceiq.freeipa.service.freeipa.user.UserSyncLogEvent.RETRIEVE_FULL_IPA_STATE;
 import static com.sequenceiq.freeipa.service.freeipa.user.UserSyncLogEvent.RETRIEVE_PARTIAL_IPA_STATE;
 import static com.sequenceiq.freeipa.service.freeipa.user.UserSyncLogEvent.SYNC_CLOUD_IDENTITIES;
 import static com.sequenceiq.freeipa.service.freeipa.user.UserSyncLogEvent.USER_SYNC_DELETE;
 
-import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeoutException;
@@ -31,6 +31,7 @@ import com.sequenceiq.freeipa.client.FreeIpaClient;
 import com.sequenceiq.freeipa.client.FreeIpaClientException;
 import com.sequenceiq.freeipa.entity.Stack;
 import com.sequenceiq.freeipa.service.freeipa.FreeIpaClientFactory;
+import com.sequenceiq.freeipa.service.freeipa.user.model.GroupMembershipIndex;
 import com.sequenceiq.freeipa.service.freeipa.user.model.SyncStatusDetail;
 import com.sequenceiq.freeipa.service.freeipa.user.model.UmsUsersState;
 import com.sequenceiq.freeipa.service.freeipa.user.model.UserSyncOptions;
@@ -67,16 +68,32 @@ public class UserSyncForStackService {
     private AuthDistributorService authDistributorService;
 
     public SyncStatusDetail synchronizeStack(Stack stack, UmsUsersState umsUsersState, UserSyncOptions options, String operationId) {
+        return synchronizeStack(stack, umsUsersState, umsUsersState, false, options, operationId);
+    }
+
+    /**
+     * Full sync which only compares and applies the users of {@code changedUmsUsersState} to FreeIPA. The steps which need the whole
+     * UMS state (cloud identities, auth distributor) still get {@code umsUsersState}.
+     */
+    public SyncStatusDetail synchronizeStackIncrementally(Stack stack, UmsUsersState umsUsersState, UmsUsersState changedUmsUsersState,
+            UserSyncOptions options, String operationId) {
+        LOGGER.debug("Starting {} for {} changed users", INCREMENTAL_USER_SYNC, changedUmsUsersState.getRequestedWorkloadUsernames().size());
+        return synchronizeStack(stack, umsUsersState, changedUmsUsersState, true, options, operationId);
+    }
+
+    private SyncStatusDetail synchronizeStack(Stack stack, UmsUsersState umsUsersState, UmsUsersState ipaSyncUmsUsersState, boolean incremental,
+            UserSyncOptions options, String operationId) {
         MDCBuilder.buildMdcContext(stack);
         String environmentCrn = stack.getEnvironmentCrn();
         Multimap<String, String> warnings = ArrayListMultimap.create();
         logLargeGroupMembershipSizes(environmentCrn, umsUsersState, options);
         try {
             FreeIpaClient freeIpaClient = freeIpaClientFactory.getFreeIpaClientForStack(stack);
-            UsersStateDifference usersStateDifferenceBeforeSync = compareUmsAndFreeIpa(umsUsersState, options, freeIpaClient, warnings::put);
-            stateApplier.applyDifference(umsUsersState, environmentCrn, warnings, usersStateDifferenceBeforeSync, options, freeIpaClient);
+            UsersStateDifference usersStateDifferenceBeforeSync =
+                    compareUmsAndFreeIpa(ipaSyncUmsUsersState, incremental, options, freeIpaClient, warnings::put);
+            stateApplier.applyDifference(ipaSyncUmsUsersState, environmentCrn, warnings, usersStateDifferenceBeforeSync, options, freeIpaClient);
 
-            retrySyncIfBatchCallHasWarnings(stack, umsUsersState, warnings, options, freeIpaClient, usersStateDifferenceBeforeSync);
+            retrySyncIfBatchCallHasWarnings(stack, ipaSyncUmsUsersState, incremental, warnings, options, freeIpaClient, usersStateDifferenceBeforeSync);
 
             if (options.isFullSync()) {
                 // TODO For now we only sync cloud ids during full sync. We should eventually allow more granular syncs (actor level and group level sync).
@@ -116,9 +133,9 @@ public class UserSyncForStackService {
     private void logLargeGroupMembershipSizes(String envCrn, UmsUsersState umsUsersState, UserSyncOptions options) {
         int largeGroupThreshold = options.getLargeGroupThreshold();
         if (LOGGER.isDebugEnabled()) {
-            Map<String, Collection<String>> groupMemberships = umsUsersState.getUsersState().getGroupMembership().asMap();
+            GroupMembershipIndex groupMemberships = umsUsersState.getUsersState().getGroupMembership();
             Map<String, Integer> largeGroups = umsUsersState.getGroupsExceedingThreshold().stream()
-                    .collect(Collectors.toMap(Function.identity(), groupName -> groupMemberships.get(groupName).size()));
+                    .collect(Collectors.toMap(Function.identity(), groupMemberships::getMemberCount));
             if (!largeGroups.isEmpty()) {
                 LOGGER.debug("Environment {} has {} groups with size >= {}. {}",
                         envCrn,
@@ -157,10 +174,11 @@ public class UserSyncForStackService {
         }
     }
 
-    private void retrySyncIfBatchCallHasWarnings(Stack stack, UmsUsersState umsUsersState, Multimap<String, String> warnings, UserSyncOptions options,
-            FreeIpaClient freeIpaClient, UsersStateDifference usersStateDifferenceBeforeSync) throws FreeIpaClientException, TimeoutException {
+    private void retrySyncIfBatchCallHasWarnings(Stack stack, UmsUsersState umsUsersState, boolean incremental, Multimap<String, String> warnings,
+            UserSyncOptions options, FreeIpaClient freeIpaClient, UsersStateDifference usersStateDifferenceBeforeSync)
+            throws FreeIpaClientException, TimeoutException {
         if (options.isFullSync() && !warnings.isEmpty() && options.isFmsToFreeIpaBatchCallEnabled()) {
-            UsersStateDifference usersStateDifferenceAfterSync = compareUmsAndFreeIpa(umsUsersState, options, freeIpaClient, warnings::put);
+            UsersStateDifference usersStateDifferenceAfterSync = compareUmsAndFreeIpa(umsUsersState, incremental, options, freeIpaClient, warnings::put);
             if (userStateDifferenceCalculator.usersStateDifferenceChanged(usersStateDifferenceBeforeSync, usersStateDifferenceAfterSync)) {
                 Multimap<String, String> retryWarnings = ArrayListMultimap.create();
                 try {
@@ -186,11 +204,12 @@ public class UserSyncForStackService {
         }
     }
 
-    private UsersStateDifference compareUmsAndFreeIpa(UmsUsersState umsUsersState, UserSyncOptions options, FreeIpaClient freeIpaClient,
-            BiConsumer<String, String> warnings) throws FreeIpaClientException {
-        UserSyncLogEvent logEvent = options.isFullSync() ? RETRIEVE_FULL_IPA_STATE : RETRIEVE_PARTIAL_IPA_STATE;
+    private UsersStateDifference compareUmsAndFreeIpa(UmsUsersState umsUsersState, boolean incremental, UserSyncOptions options,
+            FreeIpaClient freeIpaClient, BiConsumer<String, String> warnings) throws FreeIpaClientException {
+        boolean retrieveFullIpaState = options.isFullSync() && !incremental;
+        UserSyncLogEvent logEvent = retrieveFullIpaState ? RETRIEVE_FULL_IPA_STATE : RETRIEVE_PARTIAL_IPA_STATE;
         LOGGER.debug("Starting {} ...", logEvent);
-        UsersState ipaUsersState = getIpaUserState(freeIpaClient, umsUsersState, options);
+        UsersState ipaUsersState = getIpaUserState(freeIpaClient, umsUsersState, retrieveFullIpaState, options);
         LOGGER.debug("Finished {}, found {} users and {} groups.", logEvent,
                 ipaUsersState.getUsers().size(), ipaUsersState.getGroups().size());
 
@@ -201,9 +220,9 @@ public class UserSyncForStackService {
         return usersStateDifference;
     }
 
-    private UsersState getIpaUserState(FreeIpaClient freeIpaClient, UmsUsersState umsUsersState, UserSyncOptions options)
+    private UsersState getIpaUserState(FreeIpaClient freeIpaClient, UmsUsersState umsUsersState, boolean retrieveFullIpaState, UserSyncOptions options)
             throws FreeIpaClientException {
-        return options.isFullSync() ? freeIpaUsersStateProvider.getUsersState(freeIpaClient, options.isSplitFreeIPAUserRetrievalEnabled()) :
+        return retrieveFullIpaState ? freeIpaUsersStateProvider.getUsersState(freeIpaClient, options.isSplitFreeIPAUserRetrievalEnabled()) :
                 freeIpaUsersStateProvider.getFilteredFreeIpaState(
                         freeIpaClient, umsUsersState.getRequestedWorkloadUsernames());
     }
@@ -3,6 +3,7 @@ package com.sequenceiq.freeipa.service.freeipa.user;
 public enum UserSyncLogEvent {
     FULL_USER_SYNC,
     PARTIAL_USER_SYNC,
+    INCREMENTAL_USER_SYNC,
     USER_SYNC_DELETE,
     RETRIEVE_FULL_UMS_STATE,
     RETRIEVE_PARTIAL_UMS_STATE,
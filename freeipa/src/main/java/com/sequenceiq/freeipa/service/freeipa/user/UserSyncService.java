@@ -48,6 +48,9 @@ public class UserSyncService {
     @Value("${freeipa.usersync.scale.large-group.limit}")
     private int largeGroupLimit;
 
+    @Value("${freeipa.usersync.incremental.enabled:false}")
+    private boolean incrementalSyncEnabled;
+
     @Value("#{${freeipa.operation.cleanup.timeout-millis} * 0.95 }")
     private Long operationTimeout;
 
@@ -90,7 +93,7 @@ public class UserSyncService {
         UserSyncRequestFilter userSyncFilter = new UserSyncRequestFilter(userCrnFilter, machineUserCrnFilter, Optional.empty());
         checkPartialUserSync(accountId, userSyncFilter);
         List<Stack> stacks = getStacksForSync(accountId, actorCrn, environmentCrnFilter, userSyncFilter);
-        UserSyncOptions options = getUserSyncOptions(accountId, userSyncFilter.isFullSync(), workloadCredentialsUpdateType);
+        UserSyncOptions options = getUserSyncOptions(accountId, userSyncFilter, workloadCredentialsUpdateType);
         return performSyncForStacks(accountId, userSyncFilter, options, stacks);
     }
 
@@ -100,7 +103,7 @@ public class UserSyncService {
         List<Stack> stacks = getStacksForSync(accountId, actorCrn, environmentCrnFilter, userSyncFilter);
         List<String> relatedEnvironmentCrns = stacks.stream().map(Stack::getEnvironmentCrn).collect(Collectors.toList());
         customCheckUtil.run(actorCrn, () -> commonPermissionCheckingUtils.checkPermissionForUserOnResources(action, actorCrn, relatedEnvironmentCrns));
-        UserSyncOptions options = getUserSyncOptions(accountId, userSyncFilter.isFullSync(), workloadCredentialsUpdateType);
+        UserSyncOptions options = getUserSyncOptions(accountId, userSyncFilter, workloadCredentialsUpdateType);
         return performSyncForStacks(accountId, userSyncFilter, options, stacks);
     }
 
@@ -112,7 +115,9 @@ public class UserSyncService {
         }
     }
 
-    private UserSyncOptions getUserSyncOptions(String accountId, boolean fullSync, WorkloadCredentialsUpdateType requestedCredentialsUpdateType) {
+    private UserSyncOptions getUserSyncOptions(String accountId, UserSyncRequestFilter userSyncFilter,
+            WorkloadCredentialsUpdateType requestedCredentialsUpdateType) {
+        boolean fullSync = userSyncFilter.isFullSync();
         WorkloadCredentialsUpdateType credentialsUpdateType = requestedCredentialsUpdateType == WorkloadCredentialsUpdateType.UPDATE_IF_CHANGED &&
                 !entitlementService.usersyncCredentialsUpdateOptimizationEnabled(accountId) ?
                 WorkloadCredentialsUpdateType.FORCE_UPDATE : requestedCredentialsUpdateType;
@@ -124,6 +129,8 @@ public class UserSyncService {
                 .largeGroupThreshold(largeGroupThreshold)
                 .largeGroupLimit(largeGroupLimit)
                 .splitFreeIPAUserRetrievalEnabled(entitlementService.isUserSyncSplitFreeIPAUserRetrievalEnabled(accountId))
+                .incrementalSyncEnabled(incrementalSyncEnabled && fullSync && userSyncFilter.isPeriodicSync()
+                        && credentialsUpdateType == WorkloadCredentialsUpdateType.UPDATE_IF_CHANGED)
                 .build();
         LOGGER.info("Credentials update optimization is{} enabled for this sync request",
                 userSyncOptions.isCredentialsUpdateOptimizationEnabled() ? "" : " not");
@@ -131,6 +138,8 @@ public class UserSyncService {
                 userSyncOptions.isEnforceGroupMembershipLimitEnabled() ? "" : " not");
         LOGGER.info("Split FreeIPA user retrieval is{} enabled for this sync request",
                 userSyncOptions.isSplitFreeIPAUserRetrievalEnabled() ? "" : " not");
+        LOGGER.info("Incremental sync is{} enabled for this sync request",
+                userSyncOptions.isIncrementalSyncEnabled() ? "" : " not");
         return userSyncOptions;
     }
 
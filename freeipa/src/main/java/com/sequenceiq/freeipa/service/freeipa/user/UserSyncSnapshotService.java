@@ -0,0 +1,262 @@
+package com.sequenceiq.freeipa.service.freeipa.user;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.cloudera.thunderhead.service.usermanagement.UserManagementProto.CloudIdentity;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Sets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.sequenceiq.cloudbreak.common.json.Json;
+import com.sequenceiq.freeipa.entity.Stack;
+import com.sequenceiq.freeipa.entity.UserSyncSnapshot;
+import com.sequenceiq.freeipa.repository.UserSyncSnapshotRepository;
+import com.sequenceiq.freeipa.service.freeipa.user.model.FmsGroup;
+import com.sequenceiq.freeipa.service.freeipa.user.model.FmsUser;
+import com.sequenceiq.freeipa.service.freeipa.user.model.UmsEventGenerationIds;
+import com.sequenceiq.freeipa.service.freeipa.user.model.UmsUsersState;
+import com.sequenceiq.freeipa.service.freeipa.user.model.UserMetadata;
+import com.sequenceiq.freeipa.service.freeipa.user.model.UsersState;
+import com.sequenceiq.freeipa.service.freeipa.user.model.WorkloadCredential;
+
+/**
+ * Keeps the UMS users state of the last successful full sync of every stack as a compact, compressed list of per user fingerprints,
+ * so that the next full sync can be narrowed down to the users which changed since then. Everything which can change the result of
+ * the sync for users whose own state did not change (the group list, the workload administration groups, the groups over the size
+ * limit) is covered by a single account level fingerprint; if that changes, the next sync is a real full sync.
+ */
+@Service
+public class UserSyncSnapshotService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserSyncSnapshotService.class);
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final char SEPARATOR = '\0';
+
+    private static final String GLOBAL_FINGERPRINT_KEY = String.valueOf(SEPARATOR);
+
+    @Value("${freeipa.usersync.incremental.max-changed-users:1000}")
+    private int maxChangedUsers;
+
+    @Value("${freeipa.usersync.incremental.full-sync-interval:24}")
+    private int fullSyncInterval;
+
+    @Inject
+    private UserSyncSnapshotRepository userSyncSnapshotRepository;
+
+    /**
+     * Returns the snapshot of the stack if the next full sync can be an incremental one.
+     */
+    public Optional<UserSyncSnapshot> findForIncrementalSync(Stack stack) {
+        Optional<UserSyncSnapshot> snapshot = userSyncSnapshotRepository.getByStack(stack)
+                .filter(s -> s.getUserFingerprints() != null);
+        if (snapshot.isPresent() && snapshot.get().getIncrementalSyncs() >= fullSyncInterval) {
+            LOGGER.debug("{} incremental syncs since the last full sync of environment {}, a full sync is due",
+                    snapshot.get().getIncrementalSyncs(), stack.getEnvironmentCrn());
+            return Optional.empty();
+        }
+        return snapshot;
+    }
+
+    public boolean isUpToDate(UserSyncSnapshot snapshot, UmsEventGenerationIds currentEventGenerationIds) {
+        if (snapshot.getUmsEventGenerationIds() == null || currentEventGenerationIds == null
+                || currentEventGenerationIds.getEventGenerationIds().isEmpty()) {
+            return false;
+        }
+        try {
+            return currentEventGenerationIds.equals(snapshot.getUmsEventGenerationIds().get(UmsEventGenerationIds.class));
+        } catch (IOException e) {
+            LOGGER.warn("Failed to read the UmsEventGenerationIds of the user sync snapshot, assuming it is not up to date", e);
+            return false;
+        }
+    }
+
+    /**
+     * Returns the workload usernames which were added, changed or removed in UMS since the snapshot was taken, or empty if the
+     * sync can not be incremental.
+     */
+    public Optional<Set<String>> calculateChangedUsers(UserSyncSnapshot snapshot, UmsUsersState umsUsersState) {
+        Optional<Map<String, Long>> lastFingerprints = decode(snapshot.getUserFingerprints());
+        if (lastFingerprints.isEmpty()) {
+            return Optional.empty();
+        }
+        Map<String, Long> currentFingerprints = fingerprint(umsUsersState);
+        if (!currentFingerprints.get(GLOBAL_FINGERPRINT_KEY).equals(lastFingerprints.get().get(GLOBAL_FINGERPRINT_KEY))) {
+            LOGGER.debug("Groups changed since the last full sync, incremental sync is not possible");
+            return Optional.empty();
+        }
+        Set<String> changedUsers = Sets.union(currentFingerprints.keySet(), lastFingerprints.get().keySet()).stream()
+                .filter(username -> !Objects.equals(currentFingerprints.get(username), lastFingerprints.get().get(username)))
+                .collect(Collectors.toSet());
+        if (changedUsers.size() > maxChangedUsers) {
+            LOGGER.debug("{} users changed since the last full sync, which is more than {}, incremental sync is not worth it",
+                    changedUsers.size(), maxChangedUsers);
+            return Optional.empty();
+        }
+        return Optional.of(changedUsers);
+    }
+
+    /**
+     * Narrows down the UMS state to the given users. Every group is kept, so group creation and deletion still work, but the
+     * group memberships, credentials and metadata of other users are left out.
+     */
+    public UmsUsersState restrictToUsers(UmsUsersState umsUsersState, Set<String> usernames) {
+        UsersState usersState = umsUsersState.getUsersState();
+        UsersState.Builder usersStateBuilder = UsersState.newBuilder();
+        usersState.getGroups().forEach(usersStateBuilder::addGroup);
+        usersState.getUsers().stream()
+                .filter(user -> usernames.contains(user.getName()))
+                .forEach(usersStateBuilder::addUser);
+        usersState.getGroupMembership().forEachMembership((group, member) -> {
+            if (usernames.contains(member)) {
+                usersStateBuilder.addMemberToGroup(group, member);
+            }
+        });
+        usersState.getUserMetadataMap().forEach((username, metadata) -> {
+            if (usernames.contains(username)) {
+                usersStateBuilder.addUserMetadata(username, metadata);
+            }
+        });
+        UmsUsersState.Builder builder = UmsUsersState.newBuilder()
+                .setUsersState(usersStateBuilder.build())
+                .addAllRequestedWorkloadUsernames(usernames)
+                .setWorkloadAdministrationGroups(umsUsersState.getWorkloadAdministrationGroups())
+                .setGroupsExceedingThreshold(umsUsersState.getGroupsExceedingThreshold())
+                .setGroupsExceedingLimit(umsUsersState.getGroupsExceedingLimit());
+        umsUsersState.getUsersWorkloadCredentialMap().forEach((username, credential) -> {
+            if (usernames.contains(username)) {
+                builder.addWorkloadCredentials(username, credential);
+            }
+        });
+        return builder.build();
+    }
+
+    public void saveSnapshot(Stack stack, UmsUsersState umsUsersState, UmsEventGenerationIds umsEventGenerationIds, boolean incremental) {
+        UserSyncSnapshot snapshot = userSyncSnapshotRepository.getByStack(stack).orElseGet(() -> new UserSyncSnapshot(stack));
+        snapshot.setUserFingerprints(encode(fingerprint(umsUsersState)));
+        snapshot.setUmsEventGenerationIds(new Json(umsEventGenerationIds));
+        snapshot.setIncrementalSyncs(incremental ? snapshot.getIncrementalSyncs() + 1 : 0);
+        snapshot.setCreated(System.currentTimeMillis());
+        userSyncSnapshotRepository.save(snapshot);
+    }
+
+    /**
+     * Drops the snapshot of the stack, so the next sync is a full one. Needed whenever FreeIPA itself might have lost users, e.g. after
+     * a rebuild, because the snapshot only tracks changes on the UMS side.
+     */
+    public void deleteForStack(Stack stack) {
+        userSyncSnapshotRepository.getByStack(stack).ifPresent(userSyncSnapshotRepository::delete);
+    }
+
+    public void recordUpToDate(UserSyncSnapshot snapshot) {
+        snapshot.setIncrementalSyncs(snapshot.getIncrementalSyncs() + 1);
+        userSyncSnapshotRepository.save(snapshot);
+    }
+
+    @VisibleForTesting
+    Map<String, Long> fingerprint(UmsUsersState umsUsersState) {
+        UsersState usersState = umsUsersState.getUsersState();
+        Multimap<String, String> userToGroups = HashMultimap.create();
+        usersState.getGroupMembership().forEachMembership((group, member) -> userToGroups.put(member, group));
+        Map<String, Long> fingerprints = new HashMap<>();
+        for (FmsUser user : usersState.getUsers()) {
+            Hasher hasher = Hashing.murmur3_128().newHasher();
+            putString(hasher, user.getName());
+            putString(hasher, user.getFirstName());
+            putString(hasher, user.getLastName());
+            putString(hasher, String.valueOf(user.getState()));
+            putString(hasher, user.getCrn());
+            putSorted(hasher, userToGroups.get(user.getName()));
+            UserMetadata metadata = usersState.getUserMetadataMap().get(user.getName());
+            putString(hasher, metadata == null ? null : metadata.getCrn() + SEPARATOR + metadata.getWorkloadCredentialsVersion());
+            WorkloadCredential credential = umsUsersState.getUsersWorkloadCredentialMap().get(user.getName());
+            hasher.putLong(credential == null ? -1L : credential.getVersion());
+            List<CloudIdentity> cloudIdentities = umsUsersState.getUserToCloudIdentityMap().get(user.getName());
+            putString(hasher, cloudIdentities == null ? null : cloudIdentities.toString());
+            fingerprints.put(user.getName(), hasher.hash().asLong());
+        }
+        Hasher globalHasher = Hashing.murmur3_128().newHasher();
+        putSorted(globalHasher, usersState.getGroups().stream().map(FmsGroup::getName).collect(Collectors.toSet()));
+        putSorted(globalHasher, umsUsersState.getWorkloadAdministrationGroups().stream().map(FmsGroup::getName).collect(Collectors.toSet()));
+        putSorted(globalHasher, umsUsersState.getGroupsExceedingLimit());
+        fingerprints.put(GLOBAL_FINGERPRINT_KEY, globalHasher.hash().asLong());
+        return fingerprints;
+    }
+
+    @VisibleForTesting
+    byte[] encode(Map<String, Long> fingerprints) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(fingerprints.size());
+            for (Map.Entry<String, Long> entry : fingerprints.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeLong(entry.getValue());
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode user sync snapshot", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    @VisibleForTesting
+    Optional<Map<String, Long>> decode(byte[] encoded) {
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(encoded)))) {
+            int version = in.readInt();
+            if (version != FORMAT_VERSION) {
+                LOGGER.info("User sync snapshot has unknown format version {}, ignoring it", version);
+                return Optional.empty();
+            }
+            int size = in.readInt();
+            Map<String, Long> fingerprints = new HashMap<>(size);
+            for (int i = 0; i < size; i++) {
+                fingerprints.put(in.readUTF(), in.readLong());
+            }
+            return Optional.of(fingerprints);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to decode user sync snapshot, ignoring it", e);
+            return Optional.empty();
+        }
+    }
+
+    private static void putSorted(Hasher hasher, Collection<String> values) {
+        Set<String> sorted = values == null ? Set.of() : new TreeSet<>(values);
+        hasher.putInt(sorted.size());
+        sorted.forEach(value -> putString(hasher, value));
+    }
+
+    private static void putString(Hasher hasher, String value) {
+        if (value == null) {
+            hasher.putInt(-1);
+        } else {
+            hasher.putInt(value.length());
+            hasher.putString(value, StandardCharsets.UTF_8);
+        }
+    }
+}
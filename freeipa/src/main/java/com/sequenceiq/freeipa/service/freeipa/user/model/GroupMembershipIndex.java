@@ -0,0 +1,144 @@
+package com.sequenceiq.freeipa.service.freeipa.user.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Immutable group memberships with interned user and group names and one {@link BitSet} of member ids per group. It takes much less
+ * memory than a multimap of names, and the membership differences of two states are computed with bit operations on the member sets
+ * instead of a {@code containsEntry} lookup per membership.
+ */
+public class GroupMembershipIndex {
+
+    private final NameInterner users;
+
+    private final NameInterner groups;
+
+    private final List<BitSet> membersByGroup;
+
+    private GroupMembershipIndex(NameInterner users, NameInterner groups, List<BitSet> membersByGroup) {
+        this.users = users;
+        this.groups = groups;
+        this.membersByGroup = membersByGroup;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the names of the groups which have at least one member.
+     */
+    public ImmutableSet<String> getGroups() {
+        ImmutableSet.Builder<String> groupNames = ImmutableSet.builder();
+        for (int groupId = 0; groupId < membersByGroup.size(); groupId++) {
+            if (!membersByGroup.get(groupId).isEmpty()) {
+                groupNames.add(groups.nameOf(groupId));
+            }
+        }
+        return groupNames.build();
+    }
+
+    public ImmutableSet<String> getMembers(String group) {
+        return users.namesOf(membersOf(group));
+    }
+
+    public int getMemberCount(String group) {
+        return membersOf(group).cardinality();
+    }
+
+    public int size() {
+        return membersByGroup.stream().mapToInt(BitSet::cardinality).sum();
+    }
+
+    public void forEachMembership(BiConsumer<String, String> action) {
+        for (int groupId = 0; groupId < membersByGroup.size(); groupId++) {
+            String group = groups.nameOf(groupId);
+            membersByGroup.get(groupId).stream().forEach(userId -> action.accept(group, users.nameOf(userId)));
+        }
+    }
+
+    /**
+     * Returns the members of the group which are not members of the same group in the other index.
+     */
+    public ImmutableSet<String> getMembersNotIn(String group, GroupMembershipIndex other) {
+        BitSet memberIds = (BitSet) membersOf(group).clone();
+        memberIds.andNot(translateMembers(other, group));
+        return users.namesOf(memberIds);
+    }
+
+    /**
+     * Returns the members of the group which are also members of {@code memberOfGroup} in this index, but are not members of the group
+     * in the other index.
+     */
+    public ImmutableSet<String> getMembersNotIn(String group, GroupMembershipIndex other, String memberOfGroup) {
+        BitSet memberIds = (BitSet) membersOf(group).clone();
+        memberIds.and(membersOf(memberOfGroup));
+        if (memberIds.isEmpty()) {
+            return ImmutableSet.of();
+        }
+        memberIds.andNot(translateMembers(other, group));
+        return users.namesOf(memberIds);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder toString = new StringBuilder("{");
+        for (int groupId = 0; groupId < membersByGroup.size(); groupId++) {
+            if (!membersByGroup.get(groupId).isEmpty()) {
+                toString.append(toString.length() > 1 ? ", " : "")
+                        .append(groups.nameOf(groupId))
+                        .append('=')
+                        .append(users.namesOf(membersByGroup.get(groupId)));
+            }
+        }
+        return toString.append('}').toString();
+    }
+
+    private BitSet membersOf(String group) {
+        int groupId = groups.idOf(group);
+        return groupId == NameInterner.NOT_FOUND ? new BitSet() : membersByGroup.get(groupId);
+    }
+
+    /**
+     * Returns the members of the group in the other index with the user ids of this index. Users which are unknown here are left out.
+     */
+    private BitSet translateMembers(GroupMembershipIndex other, String group) {
+        BitSet translated = new BitSet();
+        other.membersOf(group).stream().forEach(otherUserId -> {
+            int userId = users.idOf(other.users.nameOf(otherUserId));
+            if (userId != NameInterner.NOT_FOUND) {
+                translated.set(userId);
+            }
+        });
+        return translated;
+    }
+
+    public static class Builder {
+
+        private final NameInterner users = new NameInterner();
+
+        private final NameInterner groups = new NameInterner();
+
+        private final List<BitSet> membersByGroup = new ArrayList<>();
+
+        public Builder addMember(String group, String user) {
+            int groupId = groups.intern(group);
+            if (groupId == membersByGroup.size()) {
+                membersByGroup.add(new BitSet());
+            }
+            membersByGroup.get(groupId).set(users.intern(user));
+            return this;
+        }
+
+        public GroupMembershipIndex build() {
+            List<BitSet> members = new ArrayList<>(membersByGroup.size());
+            membersByGroup.forEach(memberIds -> members.add((BitSet) memberIds.clone()));
+            return new GroupMembershipIndex(new NameInterner(users), new NameInterner(groups), members);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.sequenceiq.freeipa.service.freeipa.user.model;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Maps user or group names to dense int ids, so that memberships can be kept in {@link BitSet}s. Not thread safe; an interner is
+ * only modified while its {@link GroupMembershipIndex} is built.
+ */
+class NameInterner {
+
+    static final int NOT_FOUND = -1;
+
+    private final Map<String, Integer> ids;
+
+    private final List<String> names;
+
+    NameInterner() {
+        ids = new HashMap<>();
+        names = new ArrayList<>();
+    }
+
+    NameInterner(NameInterner interner) {
+        ids = new HashMap<>(interner.ids);
+        names = new ArrayList<>(interner.names);
+    }
+
+    int intern(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            ids.put(name, id);
+            names.add(name);
+        }
+        return id;
+    }
+
+    int idOf(String name) {
+        return ids.getOrDefault(name, NOT_FOUND);
+    }
+
+    String nameOf(int id) {
+        return names.get(id);
+    }
+
+    ImmutableSet<String> namesOf(BitSet idSet) {
+        ImmutableSet.Builder<String> builder = ImmutableSet.builderWithExpectedSize(idSet.cardinality());
+        idSet.stream().forEach(id -> builder.add(names.get(id)));
+        return builder.build();
+    }
+}
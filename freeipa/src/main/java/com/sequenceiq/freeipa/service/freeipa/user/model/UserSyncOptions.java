@@ -20,10 +20,12 @@ public class UserSyncOptions {
 
     private final boolean splitFreeIPAUserRetrievalEnabled;
 
+    private final boolean incrementalSyncEnabled;
+
     @SuppressWarnings("checkstyle:ExecutableStatementCount")
     private UserSyncOptions(boolean fullSync, boolean fmsToFreeIpaBatchCallEnabled,
             WorkloadCredentialsUpdateType workloadCredentialsUpdateType, boolean enforceGroupMembershipLimitEnabled,
-            int largeGroupThreshold, int largeGroupLimit, boolean splitFreeIPAUserRetrievalEnabled) {
+            int largeGroupThreshold, int largeGroupLimit, boolean splitFreeIPAUserRetrievalEnabled, boolean incrementalSyncEnabled) {
         checkArgument(workloadCredentialsUpdateType == WorkloadCredentialsUpdateType.UPDATE_IF_CHANGED ||
                 workloadCredentialsUpdateType == WorkloadCredentialsUpdateType.FORCE_UPDATE);
         this.fullSync = fullSync;
@@ -33,6 +35,7 @@ public class UserSyncOptions {
         this.largeGroupThreshold = largeGroupThreshold;
         this.largeGroupLimit = largeGroupLimit;
         this.splitFreeIPAUserRetrievalEnabled = splitFreeIPAUserRetrievalEnabled;
+        this.incrementalSyncEnabled = incrementalSyncEnabled;
     }
 
     public boolean isFullSync() {
@@ -63,6 +66,13 @@ public class UserSyncOptions {
         return splitFreeIPAUserRetrievalEnabled;
     }
 
+    /**
+     * Whether a full sync may be narrowed down to the users changed since the last successful full sync of the environment.
+     */
+    public boolean isIncrementalSyncEnabled() {
+        return incrementalSyncEnabled;
+    }
+
     public static Builder newBuilder() {
         return new Builder();
     }
@@ -82,6 +92,8 @@ public class UserSyncOptions {
 
         private boolean splitFreeIPAUserRetrievalEnabled;
 
+        private boolean incrementalSyncEnabled;
+
         public Builder fullSync(boolean fullSync) {
             this.fullSync = fullSync;
             return this;
@@ -117,9 +129,14 @@ public class UserSyncOptions {
             return this;
         }
 
+        public Builder incrementalSyncEnabled(boolean incrementalSyncEnabled) {
+            this.incrementalSyncEnabled = incrementalSyncEnabled;
+            return this;
+        }
+
         public UserSyncOptions build() {
             return new UserSyncOptions(fullSync, fmsToFreeIpaBatchCallEnabled, workloadCredentialsUpdateType,
-                    enforceGroupMembershipLimitEnabled, largeGroupThreshold, largeGroupLimit, splitFreeIPAUserRetrievalEnabled);
+                    enforceGroupMembershipLimitEnabled, largeGroupThreshold, largeGroupLimit, splitFreeIPAUserRetrievalEnabled, incrementalSyncEnabled);
         }
     }
 }
@@ -7,26 +7,23 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
-import com.google.common.collect.HashMultimap;
 import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
-import com.google.common.collect.Multimap;
 
 public class UsersState {
     private final ImmutableSet<FmsGroup> groups;
 
     private final ImmutableSet<FmsUser> users;
 
-    private final ImmutableMultimap<String, String> groupMembership;
+    private final GroupMembershipIndex groupMembership;
 
     private final ImmutableMap<String, UserMetadata> userMetadataMap;
 
     public UsersState(
-        Set<FmsGroup> groups, Set<FmsUser> users, Multimap<String, String> groupMembership, Map<String, UserMetadata> userMetadataMap) {
+        Set<FmsGroup> groups, Set<FmsUser> users, GroupMembershipIndex groupMembership, Map<String, UserMetadata> userMetadataMap) {
         this.groups = ImmutableSet.copyOf(requireNonNull(groups, "groups is null"));
         this.users = ImmutableSet.copyOf(requireNonNull(users, "users is null"));
-        this.groupMembership = ImmutableMultimap.copyOf(requireNonNull(groupMembership, "group membership is null"));
+        this.groupMembership = requireNonNull(groupMembership, "group membership is null");
         this.userMetadataMap = ImmutableMap.copyOf(requireNonNull(userMetadataMap, "user metadata map is null"));
     }
 
@@ -38,7 +35,7 @@ public class UsersState {
         return users;
     }
 
-    public ImmutableMultimap<String, String> getGroupMembership() {
+    public GroupMembershipIndex getGroupMembership() {
         return groupMembership;
     }
 
@@ -65,7 +62,7 @@ public class UsersState {
 
         private Set<FmsUser> fmsUsers = new HashSet<>();
 
-        private Multimap<String, String> groupMembership = HashMultimap.create();
+        private GroupMembershipIndex.Builder groupMembership = GroupMembershipIndex.newBuilder();
 
         private Map<String, UserMetadata> userMetadataMap = new HashMap<>();
 
@@ -80,7 +77,7 @@ public class UsersState {
         }
 
         public Builder addMemberToGroup(String group, String user) {
-            groupMembership.put(group, user);
+            groupMembership.addMember(group, user);
             return this;
         }
 
@@ -90,7 +87,7 @@ public class UsersState {
         }
 
         public UsersState build() {
-            return new UsersState(fmsGroups, fmsUsers, groupMembership, userMetadataMap);
+            return new UsersState(fmsGroups, fmsUsers, groupMembership.build(), userMetadataMap);
         }
     }
 }
\ No newline at end of file
@@ -17,6 +17,7 @@ import com.sequenceiq.cloudbreak.auth.crn.Crn;
 import com.sequenceiq.freeipa.service.freeipa.user.UserSyncConstants;
 import com.sequenceiq.freeipa.service.freeipa.user.conversion.FmsGroupConverter;
 import com.sequenceiq.freeipa.service.freeipa.user.model.FmsGroup;
+import com.sequenceiq.freeipa.service.freeipa.user.model.GroupMembershipIndex;
 import com.sequenceiq.freeipa.service.freeipa.user.model.UmsUsersState;
 import com.sequenceiq.freeipa.service.freeipa.user.model.UserSyncOptions;
 import com.sequenceiq.freeipa.service.freeipa.user.model.UsersState;
@@ -98,9 +99,9 @@ public class BaseUmsUsersStateProvider {
     }
 
     private Set<String> getLargeGroups(UsersState usersState, int sizeThreshold) {
-        return usersState.getGroupMembership().asMap().entrySet().stream()
-                .filter(entry -> entry.getValue().size() > sizeThreshold)
-                .map(Map.Entry::getKey)
+        GroupMembershipIndex groupMembership = usersState.getGroupMembership();
+        return groupMembership.getGroups().stream()
+                .filter(group -> groupMembership.getMemberCount(group) > sizeThreshold)
                 .collect(Collectors.toSet());
     }
 }
@@ -0,0 +1,30 @@
+-- // Track the last synchronized UMS users state for incremental usersync
+
+CREATE SEQUENCE IF NOT EXISTS usersyncsnapshot_id_seq START WITH 1
+  INCREMENT BY 1
+  NO MINVALUE
+  NO MAXVALUE
+  CACHE 1;
+
+CREATE TABLE IF NOT EXISTS usersyncsnapshot
+(
+  id bigint default nextval('usersyncsnapshot_id_seq'::regclass) not null
+    constraint usersyncsnapshot_pkey
+      primary key,
+  stack_id bigint not null
+    constraint fk_usersyncsnapshot_stack_id
+      references stack,
+  umseventgenerationids text,
+  userfingerprints bytea,
+  incrementalsyncs integer not null default 0,
+  created bigint
+);
+
+CREATE UNIQUE INDEX IF NOT EXISTS usersyncsnapshot_stack_id_idx
+  on usersyncsnapshot (stack_id);
+
+-- //@UNDO
+
+DROP TABLE IF EXISTS usersyncsnapshot;
+
+DROP SEQUENCE IF EXISTS usersyncsnapshot_id_seq;
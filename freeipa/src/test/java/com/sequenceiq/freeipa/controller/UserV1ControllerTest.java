@@ -206,6 +206,7 @@ public class UserV1ControllerTest {
         request.setUsers(users);
         request.setMachineUsers(machineUsers);
         request.setAccountId(ACCOUNT_ID);
+        request.setPeriodicSync(true);
 
         Operation operation = mock(Operation.class);
         when(userSyncService.synchronizeUsersWithCustomPermissionCheck(any(), any(), any(), any(), any(), any())).thenReturn(operation);
@@ -216,7 +217,7 @@ public class UserV1ControllerTest {
                 .doAsInternalActor("crn:altus:iam:us-west-1:altus:user:__internal__actor__",
                         () -> underTest.synchronizeAllUsers(request)));
 
-        UserSyncRequestFilter userSyncFilter = new UserSyncRequestFilter(users, machineUsers, Optional.empty());
+        UserSyncRequestFilter userSyncFilter = new UserSyncRequestFilter(users, machineUsers, Optional.empty(), true);
         verify(userSyncService, times(1)).synchronizeUsersWithCustomPermissionCheck(ACCOUNT_ID, "crn:altus:iam:us-west-1:altus:user:__internal__actor__",
                 environments, userSyncFilter, WorkloadCredentialsUpdateType.UPDATE_IF_CHANGED, AuthorizationResourceAction.DESCRIBE_ENVIRONMENT);
     }
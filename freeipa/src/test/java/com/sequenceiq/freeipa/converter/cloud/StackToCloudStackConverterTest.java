@@ -30,6 +30,7 @@ import com.sequenceiq.cloudbreak.cloud.model.InstanceTemplate;
 import com.sequenceiq.cloudbreak.cloud.model.Security;
 import com.sequenceiq.cloudbreak.cloud.model.filesystem.CloudFileSystemView;
 import com.sequenceiq.cloudbreak.common.type.TemporaryStorage;
+import com.sequenceiq.cloudbreak.service.secret.service.SecretAspectService;
 import com.sequenceiq.common.api.cloudstorage.old.AdlsGen2CloudStorageV1Parameters;
 import com.sequenceiq.common.api.cloudstorage.old.GcsCloudStorageV1Parameters;
 import com.sequenceiq.common.api.cloudstorage.old.S3CloudStorageV1Parameters;
@@ -93,6 +94,9 @@ public class StackToCloudStackConverterTest {
     @Mock
     private CachedEnvironmentClientService cachedEnvironmentClientService;
 
+    @Mock
+    private SecretAspectService secretAspectService;
+
     @Before
     public void setUp() {
         MockitoAnnotations.initMocks(this);
@@ -111,7 +111,7 @@ class BootstrapServiceTest {
         List<GatewayConfig> gatewayConfigs = List.of();
         when(gatewayConfigService.getGatewayConfigs(eq(stack), anySet())).thenReturn(gatewayConfigs);
         byte[] bytes = {};
-        when(compressUtil.generateCompressedOutputFromFolders("salt-common", "freeipa-salt")).thenReturn(bytes);
+        when(compressUtil.getCachedCompressedOutputFromFolders("salt-common", "freeipa-salt")).thenReturn(bytes);
         ImageEntity image = new ImageEntity();
         image.setOs("ZOS");
         when(imageService.getByStack(stack)).thenReturn(image);
@@ -176,7 +176,7 @@ class BootstrapServiceTest {
         List<GatewayConfig> gatewayConfigs = List.of();
         when(gatewayConfigService.getGatewayConfigs(eq(stack), anySet())).thenReturn(gatewayConfigs);
         byte[] bytes = {};
-        when(compressUtil.generateCompressedOutputFromFolders("salt-common", "freeipa-salt")).thenReturn(bytes);
+        when(compressUtil.getCachedCompressedOutputFromFolders("salt-common", "freeipa-salt")).thenReturn(bytes);
         ImageEntity image = new ImageEntity();
         image.setOs("ZOS");
         when(imageService.getByStack(stack)).thenReturn(image);
@@ -283,7 +283,7 @@ class BootstrapServiceTest {
         List<GatewayConfig> gatewayConfigs = List.of();
         when(gatewayConfigService.getGatewayConfigs(eq(stack), anySet())).thenReturn(gatewayConfigs);
         byte[] bytes = {};
-        when(compressUtil.generateCompressedOutputFromFolders("salt-common", "freeipa-salt")).thenReturn(bytes);
+        when(compressUtil.getCachedCompressedOutputFromFolders("salt-common", "freeipa-salt")).thenReturn(bytes);
         ImageEntity image = new ImageEntity();
         image.setOs("ZOS");
         when(imageService.getByStack(stack)).thenReturn(image);
@@ -309,7 +309,7 @@ class BootstrapServiceTest {
         when(freeIpaService.findByStack(stack)).thenReturn(freeIpa);
         List<GatewayConfig> gatewayConfigs = List.of();
         when(gatewayConfigService.getGatewayConfigs(eq(stack), anySet())).thenReturn(gatewayConfigs);
-        when(compressUtil.generateCompressedOutputFromFolders("salt-common", "freeipa-salt")).thenThrow(new IOException("wow"));
+        when(compressUtil.getCachedCompressedOutputFromFolders("salt-common", "freeipa-salt")).thenThrow(new IOException("wow"));
         ImageEntity image = new ImageEntity();
         image.setOs("ZOS");
         when(imageService.getByStack(stack)).thenReturn(image);
@@ -43,6 +43,7 @@ import com.sequenceiq.freeipa.service.GatewayConfigService;
 import com.sequenceiq.freeipa.service.binduser.UserSyncBindUserService;
 import com.sequenceiq.freeipa.service.freeipa.FreeIpaClientFactory;
 import com.sequenceiq.freeipa.service.freeipa.user.UserSyncService;
+import com.sequenceiq.freeipa.service.freeipa.user.UserSyncSnapshotService;
 import com.sequenceiq.freeipa.service.recipe.FreeIpaRecipeService;
 import com.sequenceiq.freeipa.service.stack.StackService;
 
@@ -88,6 +89,9 @@ class FreeIpaPostInstallServiceTest {
     @Mock
     private UserSyncService userSyncService;
 
+    @Mock
+    private UserSyncSnapshotService userSyncSnapshotService;
+
     @Mock
     private FreeIpaPermissionService freeIpaPermissionService;
 
@@ -48,6 +48,7 @@ import com.sequenceiq.freeipa.api.v1.freeipa.user.model.SynchronizationStatus;
 import com.sequenceiq.freeipa.api.v1.freeipa.user.model.WorkloadCredentialsUpdateType;
 import com.sequenceiq.freeipa.configuration.UsersyncConfig;
 import com.sequenceiq.freeipa.entity.Stack;
+import com.sequenceiq.freeipa.entity.UserSyncSnapshot;
 import com.sequenceiq.freeipa.entity.UserSyncStatus;
 import com.sequenceiq.freeipa.service.freeipa.user.model.SyncStatusDetail;
 import com.sequenceiq.freeipa.service.freeipa.user.model.UmsEventGenerationIds;
@@ -95,6 +96,9 @@ class UserSyncForEnvServiceTest {
     @Mock
     private EntitlementService entitlementService;
 
+    @Mock
+    private UserSyncSnapshotService userSyncSnapshotService;
+
     @InjectMocks
     private UserSyncForEnvService underTest;
 
@@ -340,6 +344,102 @@ class UserSyncForEnvServiceTest {
         assertTrue(successCaptor.getValue().contains(new SuccessDetails(ENV_CRN_2)));
     }
 
+    @Test
+    public void testSyncUsersSkipsUpToDateEnvironmentAndSyncsChangedUsersOnly() {
+        Stack stack1 = mock(Stack.class);
+        when(stack1.getEnvironmentCrn()).thenReturn(ENV_CRN);
+        Stack stack2 = mock(Stack.class);
+        when(stack2.getEnvironmentCrn()).thenReturn(ENV_CRN_2);
+        UserSyncRequestFilter userSyncFilter = new UserSyncRequestFilter(Set.of(), Set.of(), Optional.empty());
+        UserSyncOptions options = createIncrementalUserSyncOptions();
+        doAnswer(inv -> {
+            inv.getArgument(2, Runnable.class).run();
+            return null;
+        }).when(operationService).tryWithOperationCleanup(eq(OPERATION_ID), eq(ACCOUNT_ID), any(Runnable.class));
+        UmsEventGenerationIds umsEventGenerationIds = new UmsEventGenerationIds();
+        when(umsEventGenerationIdsProvider.getEventGenerationIds(eq(ACCOUNT_ID))).thenReturn(umsEventGenerationIds);
+        UserSyncSnapshot snapshot1 = new UserSyncSnapshot();
+        UserSyncSnapshot snapshot2 = new UserSyncSnapshot();
+        when(userSyncSnapshotService.findForIncrementalSync(stack1)).thenReturn(Optional.of(snapshot1));
+        when(userSyncSnapshotService.findForIncrementalSync(stack2)).thenReturn(Optional.of(snapshot2));
+        when(userSyncSnapshotService.isUpToDate(snapshot1, umsEventGenerationIds)).thenReturn(true);
+        when(userSyncSnapshotService.isUpToDate(snapshot2, umsEventGenerationIds)).thenReturn(false);
+        UmsUsersState umsUsersState2 = mock(UmsUsersState.class);
+        UmsUsersState changedUmsUsersState2 = mock(UmsUsersState.class);
+        when(umsUsersStateProviderDispatcher
+                .getEnvToUmsUsersStateMap(eq(ACCOUNT_ID), eq(Set.of(ENV_CRN_2)), eq(Set.of()), eq(Set.of()), eq(options)))
+                .thenReturn(Map.of(ENV_CRN_2, umsUsersState2));
+        when(userSyncSnapshotService.calculateChangedUsers(snapshot2, umsUsersState2)).thenReturn(Optional.of(Set.of("user")));
+        when(userSyncSnapshotService.restrictToUsers(umsUsersState2, Set.of("user"))).thenReturn(changedUmsUsersState2);
+        when(asyncTaskExecutor.submit(any(Callable.class))).thenAnswer(inv -> {
+            SyncStatusDetail result = (SyncStatusDetail) inv.getArgument(0, Callable.class).call();
+            Future future = mock(Future.class);
+            when(future.get()).thenReturn(result);
+            return future;
+        });
+        when(userSyncForStackService.synchronizeStackIncrementally(stack2, umsUsersState2, changedUmsUsersState2, options, OPERATION_ID))
+                .thenReturn(new SyncStatusDetail(ENV_CRN_2, SynchronizationStatus.COMPLETED, "", ImmutableMultimap.of()));
+        when(userSyncStatusService.getOrCreateForStack(stack1)).thenReturn(new UserSyncStatus());
+        when(userSyncStatusService.getOrCreateForStack(stack2)).thenReturn(new UserSyncStatus());
+
+        underTest.synchronizeUsers(OPERATION_ID, ACCOUNT_ID, List.of(stack1, stack2), userSyncFilter, options, System.currentTimeMillis());
+
+        verify(userSyncForStackService, never()).synchronizeStack(any(), any(), any(), any());
+        verify(userSyncSnapshotService).recordUpToDate(snapshot1);
+        verify(userSyncSnapshotService).saveSnapshot(stack2, umsUsersState2, umsEventGenerationIds, true);
+        verify(userSyncStatusService, times(2)).save(any(UserSyncStatus.class));
+        ArgumentCaptor<Collection> successCaptor = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Collection> failureCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(operationService).completeOperation(eq(ACCOUNT_ID), eq(OPERATION_ID), successCaptor.capture(), failureCaptor.capture());
+        assertTrue(failureCaptor.getValue().isEmpty());
+        assertTrue(successCaptor.getValue().contains(new SuccessDetails(ENV_CRN)));
+        assertTrue(successCaptor.getValue().contains(new SuccessDetails(ENV_CRN_2)));
+    }
+
+    @Test
+    public void testSyncUsersFallsBackToFullSyncWithoutUsableSnapshot() {
+        Stack stack1 = mock(Stack.class);
+        when(stack1.getEnvironmentCrn()).thenReturn(ENV_CRN);
+        UserSyncRequestFilter userSyncFilter = new UserSyncRequestFilter(Set.of(), Set.of(), Optional.empty());
+        UserSyncOptions options = createIncrementalUserSyncOptions();
+        doAnswer(inv -> {
+            inv.getArgument(2, Runnable.class).run();
+            return null;
+        }).when(operationService).tryWithOperationCleanup(eq(OPERATION_ID), eq(ACCOUNT_ID), any(Runnable.class));
+        UmsEventGenerationIds umsEventGenerationIds = new UmsEventGenerationIds();
+        when(umsEventGenerationIdsProvider.getEventGenerationIds(eq(ACCOUNT_ID))).thenReturn(umsEventGenerationIds);
+        when(userSyncSnapshotService.findForIncrementalSync(stack1)).thenReturn(Optional.empty());
+        UmsUsersState umsUsersState1 = mock(UmsUsersState.class);
+        when(umsUsersStateProviderDispatcher
+                .getEnvToUmsUsersStateMap(eq(ACCOUNT_ID), eq(Set.of(ENV_CRN)), eq(Set.of()), eq(Set.of()), eq(options)))
+                .thenReturn(Map.of(ENV_CRN, umsUsersState1));
+        when(asyncTaskExecutor.submit(any(Callable.class))).thenAnswer(inv -> {
+            SyncStatusDetail result = (SyncStatusDetail) inv.getArgument(0, Callable.class).call();
+            Future future = mock(Future.class);
+            when(future.get()).thenReturn(result);
+            return future;
+        });
+        when(userSyncForStackService.synchronizeStack(stack1, umsUsersState1, options, OPERATION_ID))
+                .thenReturn(new SyncStatusDetail(ENV_CRN, SynchronizationStatus.COMPLETED, "", ImmutableMultimap.of()));
+        when(userSyncStatusService.getOrCreateForStack(stack1)).thenReturn(new UserSyncStatus());
+
+        underTest.synchronizeUsers(OPERATION_ID, ACCOUNT_ID, List.of(stack1), userSyncFilter, options, System.currentTimeMillis());
+
+        verify(userSyncSnapshotService).saveSnapshot(stack1, umsUsersState1, umsEventGenerationIds, false);
+    }
+
+    private UserSyncOptions createIncrementalUserSyncOptions() {
+        return UserSyncOptions.newBuilder()
+                .fullSync(true)
+                .fmsToFreeIpaBatchCallEnabled(true)
+                .workloadCredentialsUpdateType(WorkloadCredentialsUpdateType.UPDATE_IF_CHANGED)
+                .enforceGroupMembershipLimitEnabled(true)
+                .largeGroupThreshold(500)
+                .largeGroupLimit(750)
+                .incrementalSyncEnabled(true)
+                .build();
+    }
+
     private UserSyncOptions createUserSyncOptions() {
         return UserSyncOptions.newBuilder()
                 .fullSync(true)
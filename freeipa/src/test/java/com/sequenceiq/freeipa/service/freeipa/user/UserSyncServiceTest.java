@@ -239,6 +239,67 @@ public class UserSyncServiceTest {
             return null;
         }).when(customCheckUtil).run(eq(ACTOR_CRN), any(Runnable.class));
 
+        ReflectionTestUtils.setField(underTest, "incrementalSyncEnabled", true);
+
+        Operation result = underTest.synchronizeUsersWithCustomPermissionCheck(ACCOUNT_ID, ACTOR_CRN, Set.of(), userSyncFilter,
+                WorkloadCredentialsUpdateType.UPDATE_IF_CHANGED, AuthorizationResourceAction.DESCRIBE_ENVIRONMENT);
+
+        assertEquals(operation, result);
+        ArgumentCaptor<UserSyncRequestFilter> requestFilterCaptor = ArgumentCaptor.forClass(UserSyncRequestFilter.class);
+        verify(userSyncRequestValidator).validateParameters(eq(ACCOUNT_ID), eq(ACTOR_CRN), eq(Set.of()), requestFilterCaptor.capture());
+        UserSyncRequestFilter requestFilter = requestFilterCaptor.getValue();
+        assertTrue(requestFilter.getUserCrnFilter().isEmpty());
+        assertTrue(requestFilter.getMachineUserCrnFilter().isEmpty());
+        assertTrue(requestFilter.getDeletedWorkloadUser().isEmpty());
+        assertEquals(operation, userSyncStatus.getLastStartedFullSync());
+        verify(userSyncStatusService).save(userSyncStatus);
+        ArgumentCaptor<UserSyncOptions> syncOptionsCaptor = ArgumentCaptor.forClass(UserSyncOptions.class);
+        verify(userSyncForEnvService)
+                .synchronizeUsers(eq(operation.getOperationId()), eq(ACCOUNT_ID), eq(List.of(stack)), eq(requestFilter), syncOptionsCaptor.capture(), anyLong());
+        UserSyncOptions userSyncOptions = syncOptionsCaptor.getValue();
+        assertTrue(userSyncOptions.isFullSync());
+        assertTrue(userSyncOptions.isCredentialsUpdateOptimizationEnabled());
+        assertTrue(userSyncOptions.isFmsToFreeIpaBatchCallEnabled());
+        assertFalse(userSyncOptions.isIncrementalSyncEnabled());
+        verify(commonPermissionCheckingUtils).checkPermissionForUserOnResources(AuthorizationResourceAction.DESCRIBE_ENVIRONMENT, ACTOR_CRN, List.of(ENV_CRN));
+    }
+
+    @Test
+    public void testPeriodicFullSyncIsIncremental() {
+        Stack stack = mock(Stack.class);
+        when(stack.getEnvironmentCrn()).thenReturn(ENV_CRN);
+        when(stackService.getMultipleByEnvironmentCrnOrChildEnvironmantCrnAndAccountId(Set.of(), ACCOUNT_ID)).thenReturn(List.of(stack));
+        Operation operation = createRunningOperation();
+        when(operationService.startOperation(anyString(), any(OperationType.class), anyCollection(), anyCollection()))
+                .thenReturn(operation);
+        doAnswer(inv -> {
+            Runnable runnable = inv.getArgument(2, Runnable.class);
+            runnable.run();
+            return null;
+        }).when(operationService).tryWithOperationCleanup(eq(operation.getOperationId()), eq(ACCOUNT_ID), any(Runnable.class));
+        when(regionAwareInternalCrnGenerator.getInternalCrnForServiceAsString())
+                .thenReturn(INTERNAL_ACTOR);
+        when(regionAwareInternalCrnGeneratorFactory.iam()).thenReturn(regionAwareInternalCrnGenerator);
+        UserSyncStatus userSyncStatus = new UserSyncStatus();
+        when(userSyncStatusService.getOrCreateForStack(stack)).thenReturn(userSyncStatus);
+        when(entitlementService.usersyncCredentialsUpdateOptimizationEnabled(ACCOUNT_ID)).thenReturn(Boolean.TRUE);
+        when(entitlementService.isFmsToFreeipaBatchCallEnabled(ACCOUNT_ID)).thenReturn(Boolean.TRUE);
+        doAnswer(inv -> {
+            Runnable runnable = inv.getArgument(0, Runnable.class);
+            assertEquals(operation.getOperationId(), MDCBuilder.getMdcContextMap().get(LoggerContextKey.OPERATION_ID.toString()));
+            assertEquals(INTERNAL_ACTOR, ThreadBasedUserCrnProvider.getUserCrn());
+            runnable.run();
+            return mock(Future.class);
+        }).when(asyncTaskExecutor).submit(any(Runnable.class));
+        UserSyncRequestFilter userSyncFilter = new UserSyncRequestFilter(Set.of(), Set.of(), Optional.empty(), true);
+        doAnswer(inv -> {
+            Runnable runnable = inv.getArgument(1, Runnable.class);
+            runnable.run();
+            return null;
+        }).when(customCheckUtil).run(eq(ACTOR_CRN), any(Runnable.class));
+
+        ReflectionTestUtils.setField(underTest, "incrementalSyncEnabled", true);
+
         Operation result = underTest.synchronizeUsersWithCustomPermissionCheck(ACCOUNT_ID, ACTOR_CRN, Set.of(), userSyncFilter,
                 WorkloadCredentialsUpdateType.UPDATE_IF_CHANGED, AuthorizationResourceAction.DESCRIBE_ENVIRONMENT);
 
@@ -258,6 +319,7 @@ public class UserSyncServiceTest {
         assertTrue(userSyncOptions.isFullSync());
         assertTrue(userSyncOptions.isCredentialsUpdateOptimizationEnabled());
         assertTrue(userSyncOptions.isFmsToFreeIpaBatchCallEnabled());
+        assertTrue(userSyncOptions.isIncrementalSyncEnabled());
         verify(commonPermissionCheckingUtils).checkPermissionForUserOnResources(AuthorizationResourceAction.DESCRIBE_ENVIRONMENT, ACTOR_CRN, List.of(ENV_CRN));
     }
 
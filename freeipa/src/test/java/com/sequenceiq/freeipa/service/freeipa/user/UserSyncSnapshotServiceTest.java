@@ -0,0 +1,166 @@
+package com.sequenceiq.freeipa.service.freeipa.user;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.common.json.Json;
+import com.sequenceiq.freeipa.entity.Stack;
+import com.sequenceiq.freeipa.entity.UserSyncSnapshot;
+import com.sequenceiq.freeipa.repository.UserSyncSnapshotRepository;
+import com.sequenceiq.freeipa.service.freeipa.user.model.FmsGroup;
+import com.sequenceiq.freeipa.service.freeipa.user.model.FmsUser;
+import com.sequenceiq.freeipa.service.freeipa.user.model.UmsEventGenerationIds;
+import com.sequenceiq.freeipa.service.freeipa.user.model.UmsUsersState;
+import com.sequenceiq.freeipa.service.freeipa.user.model.UserMetadata;
+import com.sequenceiq.freeipa.service.freeipa.user.model.UsersState;
+
+@ExtendWith(MockitoExtension.class)
+class UserSyncSnapshotServiceTest {
+
+    private static final String GROUP = "group";
+
+    private static final String OTHER_GROUP = "otherGroup";
+
+    private static final int MAX_CHANGED_USERS = 10;
+
+    private static final int FULL_SYNC_INTERVAL = 3;
+
+    @Mock
+    private UserSyncSnapshotRepository userSyncSnapshotRepository;
+
+    @InjectMocks
+    private UserSyncSnapshotService underTest;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(underTest, "maxChangedUsers", MAX_CHANGED_USERS);
+        ReflectionTestUtils.setField(underTest, "fullSyncInterval", FULL_SYNC_INTERVAL);
+    }
+
+    @Test
+    void testEncodeDecodeRoundTrip() {
+        Map<String, Long> fingerprints = underTest.fingerprint(createUmsUsersState(Map.of("user1", 1L, "user2", 1L), Set.of(GROUP)));
+
+        assertEquals(Optional.of(fingerprints), underTest.decode(underTest.encode(fingerprints)));
+    }
+
+    @Test
+    void testDecodeIgnoresCorruptSnapshot() {
+        assertTrue(underTest.decode(new byte[]{1, 2, 3}).isEmpty());
+    }
+
+    @Test
+    void testChangedUsersContainAddedChangedAndRemovedUsers() {
+        UserSyncSnapshot snapshot = createSnapshot(createUmsUsersState(Map.of("user1", 1L, "user2", 1L, "user3", 1L), Set.of(GROUP)));
+
+        Optional<Set<String>> changedUsers = underTest.calculateChangedUsers(snapshot,
+                createUmsUsersState(Map.of("user1", 1L, "user2", 2L, "user4", 1L), Set.of(GROUP)));
+
+        assertEquals(Optional.of(Set.of("user2", "user3", "user4")), changedUsers);
+    }
+
+    @Test
+    void testNoIncrementalSyncWhenTooManyUsersChanged() {
+        ReflectionTestUtils.setField(underTest, "maxChangedUsers", 1);
+        UserSyncSnapshot snapshot = createSnapshot(createUmsUsersState(Map.of("user1", 1L, "user2", 1L), Set.of(GROUP)));
+
+        assertTrue(underTest.calculateChangedUsers(snapshot, createUmsUsersState(Map.of("user1", 2L, "user2", 2L), Set.of(GROUP))).isEmpty());
+    }
+
+    @Test
+    void testNoIncrementalSyncWhenGroupsChanged() {
+        UserSyncSnapshot snapshot = createSnapshot(createUmsUsersState(Map.of("user1", 1L), Set.of(GROUP)));
+
+        assertTrue(underTest.calculateChangedUsers(snapshot, createUmsUsersState(Map.of("user1", 1L), Set.of(GROUP, OTHER_GROUP))).isEmpty());
+    }
+
+    @Test
+    void testRestrictToUsersKeepsEveryGroup() {
+        UmsUsersState umsUsersState = createUmsUsersState(Map.of("user1", 1L, "user2", 1L), Set.of(GROUP, OTHER_GROUP));
+
+        UmsUsersState restricted = underTest.restrictToUsers(umsUsersState, Set.of("user1", "deletedUser"));
+
+        assertEquals(Set.of("user1", "deletedUser"), restricted.getRequestedWorkloadUsernames());
+        assertEquals(umsUsersState.getUsersState().getGroups(), restricted.getUsersState().getGroups());
+        assertEquals(Set.of("user1"), restricted.getUsersState().getUserMetadataMap().keySet());
+        assertEquals(Set.of("user1"), restricted.getUsersWorkloadCredentialMap().keySet());
+        assertEquals(Set.of("user1"), restricted.getUsersState().getGroupMembership().getMembers(GROUP));
+    }
+
+    @Test
+    void testFullSyncIsDueAfterTheConfiguredNumberOfIncrementalSyncs() {
+        Stack stack = UserSyncTestUtils.createStack();
+        UserSyncSnapshot snapshot = createSnapshot(createUmsUsersState(Map.of("user1", 1L), Set.of(GROUP)));
+        when(userSyncSnapshotRepository.getByStack(stack)).thenReturn(Optional.of(snapshot));
+
+        assertTrue(underTest.findForIncrementalSync(stack).isPresent());
+        snapshot.setIncrementalSyncs(FULL_SYNC_INTERVAL);
+        assertTrue(underTest.findForIncrementalSync(stack).isEmpty());
+    }
+
+    @Test
+    void testIsUpToDate() {
+        UmsEventGenerationIds eventGenerationIds = UserSyncTestUtils.createUniqueUmsEventGenerationIds();
+        UserSyncSnapshot snapshot = new UserSyncSnapshot();
+        snapshot.setUmsEventGenerationIds(new Json(eventGenerationIds));
+
+        assertTrue(underTest.isUpToDate(snapshot, eventGenerationIds));
+        assertFalse(underTest.isUpToDate(snapshot, UserSyncTestUtils.createUniqueUmsEventGenerationIds()));
+        assertFalse(underTest.isUpToDate(snapshot, new UmsEventGenerationIds()));
+    }
+
+    @Test
+    void testSaveSnapshotCountsIncrementalSyncs() {
+        Stack stack = UserSyncTestUtils.createStack();
+        UserSyncSnapshot snapshot = new UserSyncSnapshot(stack);
+        snapshot.setIncrementalSyncs(1);
+        when(userSyncSnapshotRepository.getByStack(stack)).thenReturn(Optional.of(snapshot));
+        UmsUsersState umsUsersState = createUmsUsersState(Map.of("user1", 1L), Set.of(GROUP));
+
+        underTest.saveSnapshot(stack, umsUsersState, UserSyncTestUtils.createUniqueUmsEventGenerationIds(), true);
+        assertEquals(2, snapshot.getIncrementalSyncs());
+        underTest.saveSnapshot(stack, umsUsersState, UserSyncTestUtils.createUniqueUmsEventGenerationIds(), false);
+
+        ArgumentCaptor<UserSyncSnapshot> captor = ArgumentCaptor.forClass(UserSyncSnapshot.class);
+        verify(userSyncSnapshotRepository, times(2)).save(captor.capture());
+        assertEquals(0, captor.getValue().getIncrementalSyncs());
+        assertEquals(Optional.of(underTest.fingerprint(umsUsersState)), underTest.decode(captor.getValue().getUserFingerprints()));
+    }
+
+    private UserSyncSnapshot createSnapshot(UmsUsersState umsUsersState) {
+        UserSyncSnapshot snapshot = new UserSyncSnapshot();
+        snapshot.setUserFingerprints(underTest.encode(underTest.fingerprint(umsUsersState)));
+        return snapshot;
+    }
+
+    private UmsUsersState createUmsUsersState(Map<String, Long> usersWithCredentialsVersion, Set<String> groups) {
+        UsersState.Builder usersStateBuilder = UsersState.newBuilder();
+        groups.forEach(group -> usersStateBuilder.addGroup(new FmsGroup().withName(group)));
+        UmsUsersState.Builder builder = UmsUsersState.newBuilder();
+        usersWithCredentialsVersion.forEach((username, version) -> {
+            String crn = "crn:" + username;
+            usersStateBuilder.addUser(new FmsUser().withName(username).withCrn(crn).withState(FmsUser.State.ENABLED));
+            usersStateBuilder.addMemberToGroup(GROUP, username);
+            usersStateBuilder.addUserMetadata(username, new UserMetadata(crn, version));
+            builder.addWorkloadCredentials(username, UserSyncTestUtils.createWorkloadCredential("password", version));
+        });
+        return builder.setUsersState(usersStateBuilder.build()).build();
+    }
+}
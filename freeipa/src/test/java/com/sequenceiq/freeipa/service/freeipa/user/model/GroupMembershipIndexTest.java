@@ -0,0 +1,121 @@
+package com.sequenceiq.freeipa.service.freeipa.user.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class GroupMembershipIndexTest {
+
+    private static final String GROUP = "group";
+
+    private static final String OTHER_GROUP = "otherGroup";
+
+    private static final String MANAGED_GROUP = "managedGroup";
+
+    @Test
+    void testGetMembersAndGroups() {
+        GroupMembershipIndex underTest = GroupMembershipIndex.newBuilder()
+                .addMember(GROUP, "user1")
+                .addMember(GROUP, "user2")
+                .addMember(GROUP, "user1")
+                .addMember(OTHER_GROUP, "user2")
+                .build();
+
+        assertEquals(Set.of(GROUP, OTHER_GROUP), underTest.getGroups());
+        assertEquals(Set.of("user1", "user2"), underTest.getMembers(GROUP));
+        assertEquals(Set.of("user2"), underTest.getMembers(OTHER_GROUP));
+        assertEquals(2, underTest.getMemberCount(GROUP));
+        assertEquals(3, underTest.size());
+    }
+
+    @Test
+    void testUnknownGroupHasNoMembers() {
+        GroupMembershipIndex underTest = GroupMembershipIndex.newBuilder()
+                .addMember(GROUP, "user1")
+                .build();
+
+        assertTrue(underTest.getMembers("unknown").isEmpty());
+        assertEquals(0, underTest.getMemberCount("unknown"));
+        assertTrue(underTest.getMembersNotIn("unknown", underTest).isEmpty());
+    }
+
+    @Test
+    void testReturnedSetsAreImmutable() {
+        GroupMembershipIndex underTest = GroupMembershipIndex.newBuilder()
+                .addMember(GROUP, "user1")
+                .build();
+
+        assertThrows(UnsupportedOperationException.class, () -> underTest.getMembers(GROUP).add("user2"));
+        assertThrows(UnsupportedOperationException.class, () -> underTest.getMembers("unknown").add("user2"));
+        assertThrows(UnsupportedOperationException.class, () -> underTest.getGroups().add(OTHER_GROUP));
+        assertEquals(Set.of("user1"), underTest.getMembers(GROUP));
+    }
+
+    @Test
+    void testBuilderChangesAfterBuildDoNotAffectIndex() {
+        GroupMembershipIndex.Builder builder = GroupMembershipIndex.newBuilder()
+                .addMember(GROUP, "user1");
+        GroupMembershipIndex underTest = builder.build();
+
+        builder.addMember(GROUP, "user2")
+                .addMember(OTHER_GROUP, "user3");
+
+        assertEquals(Set.of(GROUP), underTest.getGroups());
+        assertEquals(Set.of("user1"), underTest.getMembers(GROUP));
+        assertEquals(1, underTest.size());
+    }
+
+    @Test
+    void testGetMembersNotIn() {
+        GroupMembershipIndex underTest = GroupMembershipIndex.newBuilder()
+                .addMember(GROUP, "user1")
+                .addMember(GROUP, "user2")
+                .addMember(GROUP, "user3")
+                .build();
+        GroupMembershipIndex other = GroupMembershipIndex.newBuilder()
+                .addMember(OTHER_GROUP, "user1")
+                .addMember(GROUP, "user2")
+                .addMember(GROUP, "unknownHere")
+                .build();
+
+        assertEquals(Set.of("user1", "user3"), underTest.getMembersNotIn(GROUP, other));
+        assertEquals(Set.of("unknownHere"), other.getMembersNotIn(GROUP, underTest));
+        assertEquals(Set.of("user1"), other.getMembersNotIn(OTHER_GROUP, underTest));
+    }
+
+    @Test
+    void testGetMembersNotInRestrictedToMembersOfGroup() {
+        GroupMembershipIndex underTest = GroupMembershipIndex.newBuilder()
+                .addMember(GROUP, "user1")
+                .addMember(GROUP, "user2")
+                .addMember(GROUP, "user3")
+                .addMember(MANAGED_GROUP, "user1")
+                .addMember(MANAGED_GROUP, "user2")
+                .build();
+        GroupMembershipIndex other = GroupMembershipIndex.newBuilder()
+                .addMember(GROUP, "user2")
+                .build();
+
+        assertEquals(Set.of("user1"), underTest.getMembersNotIn(GROUP, other, MANAGED_GROUP));
+        assertTrue(underTest.getMembersNotIn(GROUP, other, "unknown").isEmpty());
+    }
+
+    @Test
+    void testForEachMembership() {
+        GroupMembershipIndex underTest = GroupMembershipIndex.newBuilder()
+                .addMember(GROUP, "user1")
+                .addMember(OTHER_GROUP, "user1")
+                .addMember(OTHER_GROUP, "user2")
+                .build();
+
+        Set<String> memberships = new HashSet<>();
+        underTest.forEachMembership((group, user) -> memberships.add(group + ':' + user));
+
+        assertEquals(Set.of(GROUP + ":user1", OTHER_GROUP + ":user1", OTHER_GROUP + ":user2"), memberships);
+    }
+}
@@ -29,7 +29,6 @@ import com.cloudera.thunderhead.service.usermanagement.UserManagementProto;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
-import com.google.common.collect.Multimaps;
 import com.sequenceiq.cloudbreak.auth.altus.GrpcUmsClient;
 import com.sequenceiq.cloudbreak.auth.crn.CrnTestUtil;
 import com.sequenceiq.freeipa.service.freeipa.user.UserSyncConstants;
@@ -97,8 +96,8 @@ class BaseUmsUsersStateProviderTest {
         Set<String> workloadUsersWithAccess = usersState.getUsers().stream()
                 .map(FmsUser::getName)
                 .collect(Collectors.toSet());
-        Multimap<String, String> groupsPerMember = Multimaps.invertFrom(usersState.getGroupMembership(),
-                ArrayListMultimap.<String, String>create());
+        Multimap<String, String> groupsPerMember = ArrayListMultimap.create();
+        usersState.getGroupMembership().forEachMembership((group, member) -> groupsPerMember.put(member, group));
         testData.users.forEach(u ->
                 verifyActor(u.getCrn(), u.getWorkloadUsername(), workloadUsersWithAccess,
                         groupsPerMember.get(u.getWorkloadUsername()),
@@ -14,14 +14,30 @@ public class MetricsProcessorConfiguration extends AbstractStreamingConfiguratio
 
     private final Integer httpTimeout;
 
+    private final int batchSize;
+
+    private final long lingerMillis;
+
+    private final int maxRetries;
+
+    private final long retryBackoffMillis;
+
     public MetricsProcessorConfiguration(MonitoringConfiguration monitoringConfiguration,
             @Value("${telemetry.monitoring.status-processor.enabled}") boolean enabled,
             @Value("${telemetry.monitoring.status-processor.workers}") int numberOfWorkers,
             @Value("${telemetry.monitoring.status-processor.queue-size-limit}") int queueSizeLimit,
-            @Value("${telemetry.monitoring.status-processor.http-timeout-seconds}") int httpTimeout) {
+            @Value("${telemetry.monitoring.status-processor.http-timeout-seconds}") int httpTimeout,
+            @Value("${telemetry.monitoring.status-processor.batch-size}") int batchSize,
+            @Value("${telemetry.monitoring.status-processor.linger-millis}") long lingerMillis,
+            @Value("${telemetry.monitoring.status-processor.max-retries}") int maxRetries,
+            @Value("${telemetry.monitoring.status-processor.retry-backoff-millis}") long retryBackoffMillis) {
         super(enabled, numberOfWorkers, queueSizeLimit);
         this.monitoringConfiguration = monitoringConfiguration;
         this.httpTimeout = httpTimeout;
+        this.batchSize = batchSize;
+        this.lingerMillis = lingerMillis;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMillis = retryBackoffMillis;
     }
 
     public String getRemoteWriteUrl() {
@@ -42,4 +58,20 @@ public class MetricsProcessorConfiguration extends AbstractStreamingConfiguratio
     public Integer getHttpTimeout() {
         return httpTimeout;
     }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public long getLingerMillis() {
+        return lingerMillis;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public long getRetryBackoffMillis() {
+        return retryBackoffMillis;
+    }
 }
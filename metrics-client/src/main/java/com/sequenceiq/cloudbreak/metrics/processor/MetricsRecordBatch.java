@@ -0,0 +1,74 @@
+package com.sequenceiq.cloudbreak.metrics.processor;
+
+import prometheus.Remote;
+
+/**
+ * Collects the time series of metrics record requests that are sent to the same remote write endpoint into one write request.
+ * The write request builder is reused after every flush.
+ */
+public class MetricsRecordBatch {
+
+    private final String accountId;
+
+    private final boolean saas;
+
+    private final Remote.WriteRequest.Builder writeRequestBuilder = Remote.WriteRequest.newBuilder();
+
+    private int recordCount;
+
+    private long firstRecordTime;
+
+    public MetricsRecordBatch(String accountId, boolean saas) {
+        this.accountId = accountId;
+        this.saas = saas;
+    }
+
+    public void add(MetricsRecordRequest request, long now) {
+        Remote.WriteRequest writeRequest = request.getWriteRequest();
+        if (recordCount == 0) {
+            firstRecordTime = now;
+        }
+        if (writeRequestBuilder.getMetadataCount() == 0) {
+            writeRequestBuilder.addAllMetadata(writeRequest.getMetadataList());
+        }
+        writeRequestBuilder.addAllTimeseries(writeRequest.getTimeseriesList());
+        recordCount++;
+    }
+
+    public boolean isEmpty() {
+        return recordCount == 0;
+    }
+
+    public boolean isFull(int batchSize) {
+        return writeRequestBuilder.getTimeseriesCount() >= batchSize;
+    }
+
+    public boolean isDue(long now, long lingerMillis) {
+        return !isEmpty() && now - firstRecordTime >= lingerMillis;
+    }
+
+    public long getFirstRecordTime() {
+        return firstRecordTime;
+    }
+
+    public Remote.WriteRequest build() {
+        return writeRequestBuilder.build();
+    }
+
+    public void clear() {
+        writeRequestBuilder.clear();
+        recordCount = 0;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public boolean isSaas() {
+        return saas;
+    }
+}
@@ -1,16 +1,24 @@
 package com.sequenceiq.cloudbreak.metrics.processor;
 
+import java.util.Optional;
 import java.util.concurrent.BlockingDeque;
 
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.metrics.type.MetricType;
+import com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodec;
 import com.sequenceiq.cloudbreak.streaming.processor.AbstractRecordProcessor;
 
 @Component
 public class MetricsRecordProcessor extends AbstractRecordProcessor<MetricsProcessorConfiguration, MetricsRecordRequest, MetricsRecordWorker> {
 
-    public MetricsRecordProcessor(MetricsProcessorConfiguration configuration) {
+    private final MetricService metricService;
+
+    public MetricsRecordProcessor(MetricsProcessorConfiguration configuration, @Qualifier("CommonMetricService") MetricService metricService) {
         super(configuration);
+        this.metricService = metricService;
     }
 
     @Override
@@ -18,6 +26,21 @@ public class MetricsRecordProcessor extends AbstractRecordProcessor<MetricsProce
         return new MetricsRecordWorker(threadName, getServiceName(), this, processingQueue, getConfiguration());
     }
 
+    @Override
+    public Optional<RecordRequestCodec<MetricsRecordRequest>> getSpillCodec() {
+        return Optional.of(new MetricsRecordRequestCodec());
+    }
+
+    @Override
+    public void handleDroppedRecordRequest(MetricsRecordRequest input, int sizeLimit) {
+        super.handleDroppedRecordRequest(input, sizeLimit);
+        metricService.incrementMetricCounter(MetricType.METRICS_REMOTE_WRITE_DROPPED, "reason", "queue_full");
+    }
+
+    public MetricService getMetricService() {
+        return metricService;
+    }
+
     @Override
     public String getServiceName() {
         return "PrometheusMetrics";
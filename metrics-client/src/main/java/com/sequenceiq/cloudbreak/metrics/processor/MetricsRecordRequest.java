@@ -31,4 +31,9 @@ public class MetricsRecordRequest extends RecordRequest {
     public boolean isSaas() {
         return saas;
     }
+
+    @Override
+    public Optional<String> getRoutingKey() {
+        return Optional.ofNullable(accountId);
+    }
 }
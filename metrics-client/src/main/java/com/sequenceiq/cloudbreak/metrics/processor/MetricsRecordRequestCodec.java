@@ -0,0 +1,33 @@
+package com.sequenceiq.cloudbreak.metrics.processor;
+
+import static com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodecUtil.readBytes;
+import static com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodecUtil.readString;
+import static com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodecUtil.writeBytes;
+import static com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodecUtil.writeString;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodec;
+
+import prometheus.Remote;
+
+public class MetricsRecordRequestCodec implements RecordRequestCodec<MetricsRecordRequest> {
+
+    @Override
+    public void write(MetricsRecordRequest request, DataOutput output) throws IOException {
+        writeString(output, request.getAccountId());
+        output.writeBoolean(request.isSaas());
+        Remote.WriteRequest writeRequest = request.getWriteRequest();
+        writeBytes(output, writeRequest == null ? null : writeRequest.toByteArray());
+    }
+
+    @Override
+    public MetricsRecordRequest read(DataInput input) throws IOException {
+        String accountId = readString(input);
+        boolean saas = input.readBoolean();
+        byte[] writeRequest = readBytes(input);
+        return new MetricsRecordRequest(writeRequest == null ? null : Remote.WriteRequest.parseFrom(writeRequest), accountId, saas);
+    }
+}
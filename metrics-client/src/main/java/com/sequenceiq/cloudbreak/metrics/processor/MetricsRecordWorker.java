@@ -1,11 +1,20 @@
 package com.sequenceiq.cloudbreak.metrics.processor;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.TimeUnit;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.xerial.snappy.Snappy;
 
+import com.google.protobuf.CodedOutputStream;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.metrics.type.MetricType;
 import com.sequenceiq.cloudbreak.streaming.model.StreamProcessingException;
 import com.sequenceiq.cloudbreak.streaming.processor.RecordWorker;
 import com.squareup.okhttp.MediaType;
@@ -14,55 +23,194 @@ import com.squareup.okhttp.Request;
 import com.squareup.okhttp.RequestBody;
 import com.squareup.okhttp.Response;
 
+import prometheus.Remote;
+
+/**
+ * Batches the metrics record requests per remote write endpoint (account and saas / paas url) and sends one write request per batch.
+ * A batch is flushed when it reaches the configured number of time series or when its oldest record waited for the linger time.
+ */
 public class MetricsRecordWorker extends RecordWorker<MetricsRecordProcessor, MetricsProcessorConfiguration, MetricsRecordRequest> {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsRecordWorker.class);
+
     private static final Integer STATUS_OK = 200;
 
     private static final Integer LAST_REDIRECT_CODE = 399;
 
+    private static final int STATUS_TOO_MANY_REQUESTS = 429;
+
+    private static final int FIRST_SERVER_ERROR_CODE = 500;
+
+    private static final MediaType MEDIA_TYPE = MediaType.parse("application/x-protobuf");
+
     private final OkHttpClient client;
 
     private final String remoteWriteUrlUnformatted;
 
     private final String remoteWritePaasUrlUnformatted;
 
+    private final MetricService metricService;
+
+    private final Map<String, MetricsRecordBatch> batches = new LinkedHashMap<>();
+
+    private byte[] serializedBuffer = new byte[0];
+
+    private byte[] compressedBuffer = new byte[0];
+
     public MetricsRecordWorker(String name, String serviceName, MetricsRecordProcessor recordProcessor, BlockingDeque<MetricsRecordRequest> processingQueue,
             MetricsProcessorConfiguration configuration) {
         super(name, serviceName, recordProcessor, processingQueue, configuration);
         client = createClient();
         remoteWriteUrlUnformatted = configuration.getRemoteWriteUrl().replace("$accountid", "%s");
         remoteWritePaasUrlUnformatted = configuration.getRemotePaasWriteUrl().replace("$accountid", "%s");
+        metricService = recordProcessor.getMetricService();
+    }
+
+    @Override
+    public void processRecordInput(MetricsRecordRequest input) {
+        long now = System.currentTimeMillis();
+        MetricsRecordBatch batch = batches.computeIfAbsent(input.isSaas() + ":" + input.getAccountId(),
+                key -> new MetricsRecordBatch(input.getAccountId(), input.isSaas()));
+        batch.add(input, now);
+        if (batch.isFull(getConfiguration().getBatchSize())) {
+            flush(batch);
+        }
+        flushDueBatches(now);
+    }
+
+    @Override
+    protected MetricsRecordRequest pollRecordInput() throws InterruptedException {
+        long timeout = batches.values().stream()
+                .filter(batch -> !batch.isEmpty())
+                .mapToLong(batch -> batch.getFirstRecordTime() + getConfiguration().getLingerMillis() - System.currentTimeMillis())
+                .min()
+                .orElse(getConfiguration().getLingerMillis());
+        return getProcessingQueue().poll(Math.max(timeout, 0L), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected int getDrainBatchSize() {
+        return getConfiguration().getBatchSize();
+    }
+
+    @Override
+    protected void onIdle() {
+        flushDueBatches(System.currentTimeMillis());
     }
 
     @Override
-    public void processRecordInput(MetricsRecordRequest input) throws StreamProcessingException {
+    public void onInterrupt() {
+        batches.values().stream()
+                .filter(batch -> !batch.isEmpty())
+                .forEach(this::flush);
+        batches.clear();
+    }
+
+    private void flushDueBatches(long now) {
+        Iterator<MetricsRecordBatch> iterator = batches.values().iterator();
+        while (iterator.hasNext()) {
+            MetricsRecordBatch batch = iterator.next();
+            if (batch.isDue(now, getConfiguration().getLingerMillis())) {
+                flush(batch);
+            } else if (batch.isEmpty()) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private void flush(MetricsRecordBatch batch) {
+        long start = System.currentTimeMillis();
+        int recordCount = batch.getRecordCount();
         try {
-            byte[] compressed = Snappy.compress(input.getWriteRequest().toByteArray());
-            MediaType mediaType = MediaType.parse("application/x-protobuf");
-            RequestBody body = RequestBody.create(mediaType, compressed);
-            String unformattedEndpoint = input.isSaas() ? remoteWriteUrlUnformatted : remoteWritePaasUrlUnformatted;
+            Remote.WriteRequest writeRequest = batch.build();
+            metricService.submit(MetricType.METRICS_REMOTE_WRITE_BATCH_SIZE, writeRequest.getTimeseriesCount());
+            int compressedLength = serializeAndCompress(writeRequest);
+            String unformattedEndpoint = batch.isSaas() ? remoteWriteUrlUnformatted : remoteWritePaasUrlUnformatted;
             Request request = new Request.Builder()
-                    .url(String.format(unformattedEndpoint, input.getAccountId()))
+                    .url(String.format(unformattedEndpoint, batch.getAccountId()))
                     .addHeader("Content-Encoding", "snappy")
                     .addHeader("User-Agent", "cb-prometheus-java-client")
                     .addHeader("X-Prometheus-Remote-Write-Version", "0.1.0")
-                    .addHeader("THANOS-TENANT", input.getAccountId())
-                    .post(body)
+                    .addHeader("THANOS-TENANT", batch.getAccountId())
+                    .post(RequestBody.create(MEDIA_TYPE, compressedBuffer, 0, compressedLength))
                     .build();
-            Response response = client.newCall(request).execute();
-            if (response.code() < STATUS_OK || response.code() > LAST_REDIRECT_CODE) {
-                throw new StreamProcessingException(String.format("Response code is not valid. (status code: %s)", response.code()));
+            sendWithRetry(request);
+            metricService.incrementMetricCounterBy(MetricType.METRICS_REMOTE_WRITE_RECORDS, recordCount);
+        } catch (StreamProcessingException | IOException e) {
+            LOGGER.warn("Dropping {} metrics records of account {} after failed remote write.", recordCount, batch.getAccountId(), e);
+            metricService.incrementMetricCounterBy(MetricType.METRICS_REMOTE_WRITE_DROPPED, recordCount, "reason", "remote_write_failed");
+        } finally {
+            batch.clear();
+            metricService.recordTimerMetric(MetricType.METRICS_REMOTE_WRITE_FLUSH, Duration.ofMillis(System.currentTimeMillis() - start));
+        }
+    }
+
+    private int serializeAndCompress(Remote.WriteRequest writeRequest) throws IOException {
+        int serializedSize = writeRequest.getSerializedSize();
+        if (serializedBuffer.length < serializedSize) {
+            serializedBuffer = new byte[serializedSize];
+        }
+        CodedOutputStream outputStream = CodedOutputStream.newInstance(serializedBuffer, 0, serializedSize);
+        writeRequest.writeTo(outputStream);
+        outputStream.checkNoSpaceLeft();
+        int maxCompressedLength = Snappy.maxCompressedLength(serializedSize);
+        if (compressedBuffer.length < maxCompressedLength) {
+            compressedBuffer = new byte[maxCompressedLength];
+        }
+        return Snappy.compress(serializedBuffer, 0, serializedSize, compressedBuffer, 0);
+    }
+
+    private void sendWithRetry(Request request) throws StreamProcessingException {
+        int attempt = 0;
+        while (true) {
+            try {
+                send(request);
+                return;
+            } catch (RetryableRemoteWriteException e) {
+                if (attempt >= getConfiguration().getMaxRetries()) {
+                    throw new StreamProcessingException(e);
+                }
+                long backoff = getConfiguration().getRetryBackoffMillis() << attempt;
+                attempt++;
+                LOGGER.debug("Remote write failed, retrying in {} ms (attempt {}): {}", backoff, attempt, e.getMessage());
+                metricService.incrementMetricCounter(MetricType.METRICS_REMOTE_WRITE_RETRY);
+                waitForRetry(backoff);
             }
+        }
+    }
+
+    private void send(Request request) throws StreamProcessingException, RetryableRemoteWriteException {
+        Response response;
+        try {
+            response = client.newCall(request).execute();
+        } catch (IOException e) {
+            throw new RetryableRemoteWriteException(e.getMessage());
+        }
+        try {
+            int code = response.code();
+            if (code == STATUS_TOO_MANY_REQUESTS || code >= FIRST_SERVER_ERROR_CODE) {
+                throw new RetryableRemoteWriteException(String.format("Response code is not valid. (status code: %s)", code));
+            } else if (code < STATUS_OK || code > LAST_REDIRECT_CODE) {
+                throw new StreamProcessingException(String.format("Response code is not valid. (status code: %s)", code));
+            }
+        } finally {
             if (response.body() != null) {
-                response.body().close();
+                try {
+                    response.body().close();
+                } catch (IOException e) {
+                    LOGGER.debug("Cannot close remote write response body", e);
+                }
             }
-        } catch (IOException e) {
-            throw new StreamProcessingException(e);
         }
     }
 
-    @Override
-    public void onInterrupt() {
+    private void waitForRetry(long millis) throws StreamProcessingException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StreamProcessingException(e);
+        }
     }
 
     private OkHttpClient createClient() {
@@ -73,4 +221,11 @@ public class MetricsRecordWorker extends RecordWorker<MetricsRecordProcessor, Me
         okHttpClient.setWriteTimeout(timeout, TimeUnit.SECONDS);
         return okHttpClient;
     }
+
+    private static class RetryableRemoteWriteException extends Exception {
+
+        RetryableRemoteWriteException(String message) {
+            super(message);
+        }
+    }
 }
@@ -24,7 +24,7 @@ public class MetricsProccorConfigurationTest {
     @BeforeEach
     public void setUp() {
         MockitoAnnotations.openMocks(this);
-        underTest = new MetricsProcessorConfiguration(monitoringConfiguration, true, 0, 0, 0);
+        underTest = new MetricsProcessorConfiguration(monitoringConfiguration, true, 0, 0, 0, 0, 0L, 0, 0L);
     }
 
     @Test
@@ -0,0 +1,75 @@
+package com.sequenceiq.cloudbreak.metrics.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import prometheus.Remote;
+import prometheus.Types;
+
+public class MetricsRecordBatchTest {
+
+    private static final String ACCOUNT_ID = "accountId";
+
+    @Test
+    public void testAddMergesTimeSeriesIntoOneWriteRequest() {
+        // GIVEN
+        MetricsRecordBatch underTest = new MetricsRecordBatch(ACCOUNT_ID, true);
+        // WHEN
+        underTest.add(createRequest("crn1"), 1L);
+        underTest.add(createRequest("crn2"), 2L);
+        underTest.add(createRequest("crn3"), 3L);
+        Remote.WriteRequest result = underTest.build();
+        // THEN
+        assertEquals(3, underTest.getRecordCount());
+        assertEquals(3, result.getTimeseriesCount());
+        assertEquals(1, result.getMetadataCount());
+        assertEquals("crn2", result.getTimeseries(1).getLabels(0).getValue());
+        assertEquals(1L, underTest.getFirstRecordTime());
+    }
+
+    @Test
+    public void testIsFullAndIsDue() {
+        // GIVEN
+        MetricsRecordBatch underTest = new MetricsRecordBatch(ACCOUNT_ID, false);
+        // WHEN
+        underTest.add(createRequest("crn1"), 100L);
+        underTest.add(createRequest("crn2"), 150L);
+        // THEN
+        assertTrue(underTest.isFull(2));
+        assertFalse(underTest.isFull(3));
+        assertFalse(underTest.isDue(199L, 100L));
+        assertTrue(underTest.isDue(200L, 100L));
+    }
+
+    @Test
+    public void testClearResetsBatch() {
+        // GIVEN
+        MetricsRecordBatch underTest = new MetricsRecordBatch(ACCOUNT_ID, true);
+        underTest.add(createRequest("crn1"), 100L);
+        // WHEN
+        underTest.clear();
+        underTest.add(createRequest("crn2"), 300L);
+        // THEN
+        assertEquals(1, underTest.getRecordCount());
+        assertEquals(1, underTest.build().getTimeseriesCount());
+        assertFalse(underTest.isDue(350L, 100L));
+        underTest.clear();
+        assertTrue(underTest.isEmpty());
+        assertFalse(underTest.isDue(1000L, 100L));
+    }
+
+    private MetricsRecordRequest createRequest(String resourceCrn) {
+        Remote.WriteRequest writeRequest = Remote.WriteRequest.newBuilder()
+                .addMetadata(Types.MetricMetadata.newBuilder()
+                        .setType(Types.MetricMetadata.MetricType.INFO)
+                        .build())
+                .addTimeseries(Types.TimeSeries.newBuilder()
+                        .addLabels(Types.Label.newBuilder().setName("resource_crn").setValue(resourceCrn).build())
+                        .addSamples(Types.Sample.newBuilder().setValue(1.0).setTimestamp(1L).build()))
+                .build();
+        return new MetricsRecordRequest(writeRequest, ACCOUNT_ID, true);
+    }
+}
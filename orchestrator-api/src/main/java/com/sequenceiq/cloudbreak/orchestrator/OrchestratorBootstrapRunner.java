@@ -2,6 +2,7 @@ package com.sequenceiq.cloudbreak.orchestrator;
 
 import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,6 +18,8 @@ import com.sequenceiq.cloudbreak.orchestrator.exception.CloudbreakOrchestratorTe
 import com.sequenceiq.cloudbreak.orchestrator.exception.CloudbreakOrchestratorTimeoutException;
 import com.sequenceiq.cloudbreak.orchestrator.state.ExitCriteria;
 import com.sequenceiq.cloudbreak.orchestrator.state.ExitCriteriaModel;
+import com.sequenceiq.cloudbreak.polling.PollingAttemptResult;
+import com.sequenceiq.cloudbreak.polling.PollingEngine;
 
 public class OrchestratorBootstrapRunner implements Callable<Boolean> {
 
@@ -74,59 +77,79 @@ public class OrchestratorBootstrapRunner implements Callable<Boolean> {
         return doCall();
     }
 
-    private Boolean doCall() throws CloudbreakOrchestratorCancelledException, CloudbreakOrchestratorFailedException, CloudbreakOrchestratorTimeoutException {
-        Boolean success = null;
-        int retryCount = 1;
-        int errorCount = 1;
-        Exception actualException = null;
-        String type = orchestratorBootstrap.getClass().getSimpleName().replace("Bootstrap", "");
-        long initialStartTime = System.currentTimeMillis();
-        while (success == null && belowAttemptThreshold(retryCount, errorCount)) {
-            if (isExitNeeded()) {
-                LOGGER.debug(exitCriteria.exitMessage());
-                throw new CloudbreakOrchestratorCancelledException(exitCriteria.exitMessage());
+    /**
+     * Runs the bootstrap with the same retry semantics as {@link #call()}, but the waits between the attempts are scheduled on the
+     * {@link PollingEngine} instead of sleeping on the calling thread.
+     */
+    public CompletableFuture<Boolean> callAsync(PollingEngine pollingEngine) {
+        BootstrapRun run = new BootstrapRun();
+        return pollingEngine.poll(() -> {
+            if (mdcMap != null) {
+                MDC.setContextMap(mdcMap);
             }
-            long startTime = System.currentTimeMillis();
-            try {
-                LOGGER.debug("Calling orchestrator bootstrap: {}, additional info: {}", type, orchestratorBootstrap);
-                orchestratorBootstrap.call();
-                success = Boolean.TRUE;
-                String elapsedTimeLog = createElapseTimeLog(initialStartTime, startTime);
-                LOGGER.debug("Orchestrator component {} successfully started! {}, "
-                        + "additional info: {}", type, elapsedTimeLog, orchestratorBootstrap);
-            } catch (CloudbreakOrchestratorTerminateException te) {
-                actualException = te;
-                success = Boolean.FALSE;
-                String elapsedTimeLog = createElapseTimeLog(initialStartTime, startTime);
-                LOGGER.info("Failed to execute orchestrator component {}! {}, "
-                        + "additional info: {}", type, elapsedTimeLog, orchestratorBootstrap);
-            } catch (CloudbreakOrchestratorInProgressException ex) {
-                actualException = ex;
-                String elapsedTimeLog = createElapseTimeLog(initialStartTime, startTime);
-                LOGGER.debug("Orchestrator component {} start in progress, retrying [{}/{}] {}, Reason: {}, additional info: {}",
-                        type, retryCount, maxRetryCount, elapsedTimeLog, actualException, orchestratorBootstrap);
-                retryCount++;
-                if (retryCount <= maxRetryCount) {
-                    trySleeping();
-                } else {
-                    success = Boolean.FALSE;
-                }
-            } catch (Exception ex) {
-                actualException = ex;
-                String elapsedTimeLog = createElapseTimeLog(initialStartTime, startTime);
-                LOGGER.debug("Orchestrator component {} failed to start, retrying [{}/{}], error count [{}/{}]. {}, Reason: {}, additional info: {}",
-                        type, retryCount, maxRetryCount, errorCount, maxRetryOnError, elapsedTimeLog, actualException, orchestratorBootstrap, actualException);
-                retryCount++;
-                errorCount++;
-                if (belowAttemptThreshold(retryCount, errorCount)) {
-                    trySleeping();
-                } else {
-                    success = Boolean.FALSE;
-                }
+            if (run.inProgress()) {
+                attempt(run);
+            }
+            return run.inProgress()
+                    ? PollingAttemptResult.continueAfter(sleepTime)
+                    : PollingAttemptResult.finish(checkResult(run.success, run.retryCount, run.actualException));
+        }, 0L);
+    }
+
+    private Boolean doCall() throws CloudbreakOrchestratorCancelledException, CloudbreakOrchestratorFailedException, CloudbreakOrchestratorTimeoutException {
+        BootstrapRun run = new BootstrapRun();
+        while (run.inProgress()) {
+            attempt(run);
+            if (run.success == null) {
+                trySleeping();
             }
         }
 
-        return checkResult(success, retryCount, actualException);
+        return checkResult(run.success, run.retryCount, run.actualException);
+    }
+
+    private void attempt(BootstrapRun run) throws CloudbreakOrchestratorCancelledException {
+        if (isExitNeeded()) {
+            LOGGER.debug(exitCriteria.exitMessage());
+            throw new CloudbreakOrchestratorCancelledException(exitCriteria.exitMessage());
+        }
+        String type = run.type;
+        long initialStartTime = run.initialStartTime;
+        long startTime = System.currentTimeMillis();
+        try {
+            LOGGER.debug("Calling orchestrator bootstrap: {}, additional info: {}", type, orchestratorBootstrap);
+            orchestratorBootstrap.call();
+            run.success = Boolean.TRUE;
+            String elapsedTimeLog = createElapseTimeLog(initialStartTime, startTime);
+            LOGGER.debug("Orchestrator component {} successfully started! {}, "
+                    + "additional info: {}", type, elapsedTimeLog, orchestratorBootstrap);
+        } catch (CloudbreakOrchestratorTerminateException te) {
+            run.actualException = te;
+            run.success = Boolean.FALSE;
+            String elapsedTimeLog = createElapseTimeLog(initialStartTime, startTime);
+            LOGGER.info("Failed to execute orchestrator component {}! {}, "
+                    + "additional info: {}", type, elapsedTimeLog, orchestratorBootstrap);
+        } catch (CloudbreakOrchestratorInProgressException ex) {
+            run.actualException = ex;
+            String elapsedTimeLog = createElapseTimeLog(initialStartTime, startTime);
+            LOGGER.debug("Orchestrator component {} start in progress, retrying [{}/{}] {}, Reason: {}, additional info: {}",
+                    type, run.retryCount, maxRetryCount, elapsedTimeLog, run.actualException, orchestratorBootstrap);
+            run.retryCount++;
+            if (run.retryCount > maxRetryCount) {
+                run.success = Boolean.FALSE;
+            }
+        } catch (Exception ex) {
+            run.actualException = ex;
+            String elapsedTimeLog = createElapseTimeLog(initialStartTime, startTime);
+            LOGGER.debug("Orchestrator component {} failed to start, retrying [{}/{}], error count [{}/{}]. {}, Reason: {}, additional info: {}",
+                    type, run.retryCount, maxRetryCount, run.errorCount, maxRetryOnError, elapsedTimeLog, run.actualException, orchestratorBootstrap,
+                    run.actualException);
+            run.retryCount++;
+            run.errorCount++;
+            if (!belowAttemptThreshold(run.retryCount, run.errorCount)) {
+                run.success = Boolean.FALSE;
+            }
+        }
     }
 
     private String createElapseTimeLog(long initialStartTime, long startTime) {
@@ -193,4 +216,23 @@ public class OrchestratorBootstrapRunner implements Callable<Boolean> {
         LOGGER.debug("isExitNeeded: {}", exitNeeded);
         return exitNeeded;
     }
+
+    private class BootstrapRun {
+
+        private final String type = orchestratorBootstrap.getClass().getSimpleName().replace("Bootstrap", "");
+
+        private final long initialStartTime = System.currentTimeMillis();
+
+        private Boolean success;
+
+        private int retryCount = 1;
+
+        private int errorCount = 1;
+
+        private Exception actualException;
+
+        private boolean inProgress() {
+            return success == null && belowAttemptThreshold(retryCount, errorCount);
+        }
+    }
 }
@@ -196,6 +196,9 @@ public class SaltOrchestrator implements HostOrchestrator {
     @Inject
     private SaltBootstrapFactory saltBootstrapFactory;
 
+    @Inject
+    private SaltStateConfigUploadTracker saltStateConfigUploadTracker;
+
     @Override
     public void bootstrap(List<GatewayConfig> allGatewayConfigs, Set<Node> targets, BootstrapParams params,
             ExitCriteriaModel exitModel) throws CloudbreakOrchestratorException {
@@ -204,7 +207,7 @@ public class SaltOrchestrator implements HostOrchestrator {
         Set<String> gatewayTargets = getGatewayPrivateIps(allGatewayConfigs);
         List<SaltConnector> saltConnectors = saltService.createSaltConnector(allGatewayConfigs);
         try (SaltConnector sc = saltService.createSaltConnector(primaryGateway)) {
-            uploadSaltConfig(sc, gatewayTargets, exitModel);
+            uploadSaltConfig(sc, allGatewayConfigs, exitModel);
             Set<String> allTargets = targets.stream().map(Node::getPrivateIp).collect(Collectors.toSet());
             uploadSignKey(sc, primaryGateway, gatewayTargets, allTargets, exitModel);
             OrchestratorBootstrap saltBootstrap = saltBootstrapFactory.of(sc, saltConnectors, allGatewayConfigs, targets, params);
@@ -212,6 +215,7 @@ public class SaltOrchestrator implements HostOrchestrator {
             saltBootstrapRunner.call();
         } catch (Exception e) {
             LOGGER.info("Error occurred during the salt bootstrap", e);
+            saltStateConfigUploadTracker.invalidate(allGatewayConfigs);
             throw new CloudbreakOrchestratorFailedException(e.getMessage(), e);
         } finally {
             saltConnectors.forEach(SaltConnector::close);
@@ -409,13 +413,15 @@ public class SaltOrchestrator implements HostOrchestrator {
             ExitCriteriaModel exitModel) throws CloudbreakOrchestratorException {
         LOGGER.info("Bootstrap new nodes: {}", targets);
         GatewayConfig primaryGateway = saltService.getPrimaryGatewayConfig(allGatewayConfigs);
-        Set<String> gatewayTargets = allGatewayConfigs.stream().filter(gc -> targets.stream().anyMatch(n -> gc.getPrivateAddress().equals(n.getPrivateIp())))
-                .map(GatewayConfig::getPrivateAddress).collect(Collectors.toSet());
+        List<GatewayConfig> targetGatewayConfigs = allGatewayConfigs.stream()
+                .filter(gc -> targets.stream().anyMatch(n -> gc.getPrivateAddress().equals(n.getPrivateIp())))
+                .collect(Collectors.toList());
+        Set<String> gatewayTargets = getGatewayPrivateIps(targetGatewayConfigs);
         List<SaltConnector> saltConnectors = saltService.createSaltConnector(allGatewayConfigs);
         try (SaltConnector sc = saltService.createSaltConnector(primaryGateway)) {
             if (!gatewayTargets.isEmpty()) {
                 LOGGER.info("Gateway targets are not empty, upload salt config: {}", gatewayTargets);
-                uploadSaltConfig(sc, gatewayTargets, stateConfigZip, exitModel);
+                uploadSaltConfig(sc, targetGatewayConfigs, stateConfigZip, exitModel);
                 params.setRestartNeeded(true);
             }
             uploadSignKey(sc, primaryGateway, gatewayTargets, targets.stream().map(Node::getPrivateIp).collect(Collectors.toSet()), exitModel);
@@ -426,6 +432,7 @@ public class SaltOrchestrator implements HostOrchestrator {
             saltBootstrapRunner.call();
         } catch (Exception e) {
             LOGGER.info("Error occurred during salt upscale", e);
+            saltStateConfigUploadTracker.invalidate(targetGatewayConfigs);
             throw new CloudbreakOrchestratorFailedException(e.getMessage(), e);
         } finally {
             saltConnectors.forEach(SaltConnector::close);
@@ -1136,7 +1143,7 @@ public class SaltOrchestrator implements HostOrchestrator {
 
     @Override
     public byte[] getStateConfigZip() throws IOException {
-        return compressUtil.generateCompressedOutputFromFolders("salt-common", "salt");
+        return compressUtil.getCachedCompressedOutputFromFolders("salt-common", "salt");
     }
 
     @Override
@@ -1512,17 +1519,27 @@ public class SaltOrchestrator implements HostOrchestrator {
         saltJobRunBootstrapRunner.call();
     }
 
-    private void uploadSaltConfig(SaltConnector saltConnector, Set<String> targets, ExitCriteriaModel exitCriteriaModel)
+    private void uploadSaltConfig(SaltConnector saltConnector, Collection<GatewayConfig> gateways, ExitCriteriaModel exitCriteriaModel)
             throws CloudbreakOrchestratorFailedException, IOException {
-        uploadSaltConfig(saltConnector, targets, null, exitCriteriaModel);
+        uploadSaltConfig(saltConnector, gateways, null, exitCriteriaModel);
     }
 
-    private void uploadSaltConfig(SaltConnector saltConnector, Set<String> targets, byte[] stateConfigZip, ExitCriteriaModel exitCriteriaModel)
-            throws CloudbreakOrchestratorFailedException, IOException {
+    /**
+     * Used by bootstrap and upscale, where an unchanged salt.zip does not have to be shipped again to a gateway that holds it.
+     */
+    private void uploadSaltConfig(SaltConnector saltConnector, Collection<GatewayConfig> gateways, byte[] stateConfigZip,
+            ExitCriteriaModel exitCriteriaModel) throws CloudbreakOrchestratorFailedException, IOException {
         byte[] byteArray;
         byteArray = stateConfigZip == null || stateConfigZip.length == 0 ? getStateConfigZip() : stateConfigZip;
-        LOGGER.debug("Upload salt.zip to gateways");
-        uploadFileToTargets(saltConnector, targets, exitCriteriaModel, "/srv", "salt.zip", byteArray);
+        String contentHash = saltStateConfigUploadTracker.contentHash(byteArray);
+        Set<GatewayConfig> gatewaysWithoutContent = saltStateConfigUploadTracker.getGatewaysWithoutContent(gateways, contentHash);
+        if (gatewaysWithoutContent.isEmpty()) {
+            LOGGER.debug("Every gateway holds salt.zip {} already, skip upload", contentHash);
+        } else {
+            LOGGER.debug("Upload salt.zip {} to gateways", contentHash);
+            uploadFileToTargets(saltConnector, getGatewayPrivateIps(gatewaysWithoutContent), exitCriteriaModel, "/srv", "salt.zip", byteArray);
+            saltStateConfigUploadTracker.uploaded(gatewaysWithoutContent, contentHash);
+        }
     }
 
     private void uploadSignKey(SaltConnector saltConnector, GatewayConfig gateway, Set<String> gatewayTargets,
@@ -1603,11 +1620,14 @@ public class SaltOrchestrator implements HostOrchestrator {
     public void uploadStates(List<GatewayConfig> allGatewayConfigs, ExitCriteriaModel exitModel) throws CloudbreakOrchestratorException {
         LOGGER.debug("Start upload to gateways: {}", allGatewayConfigs);
         GatewayConfig primaryGateway = saltService.getPrimaryGatewayConfig(allGatewayConfigs);
-        Set<String> gatewayTargets = getGatewayPrivateIps(allGatewayConfigs);
         try (SaltConnector sc = saltService.createSaltConnector(primaryGateway)) {
-            uploadSaltConfig(sc, gatewayTargets, exitModel);
+            byte[] stateConfigZip = getStateConfigZip();
+            LOGGER.debug("Upload salt.zip to every gateway");
+            uploadFileToTargets(sc, getGatewayPrivateIps(allGatewayConfigs), exitModel, "/srv", "salt.zip", stateConfigZip);
+            saltStateConfigUploadTracker.uploaded(allGatewayConfigs, saltStateConfigUploadTracker.contentHash(stateConfigZip));
         } catch (Exception e) {
             LOGGER.info("Error occurred during the salt state upload", e);
+            saltStateConfigUploadTracker.invalidate(allGatewayConfigs);
             throw new CloudbreakOrchestratorFailedException(e.getMessage(), e);
         }
         LOGGER.debug("Upload state finished");
@@ -0,0 +1,118 @@
+package com.sequenceiq.cloudbreak.orchestrator.salt;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import javax.annotation.PostConstruct;
+
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.sequenceiq.cloudbreak.orchestrator.model.GatewayConfig;
+
+/**
+ * Remembers the content hash of the salt.zip that was last uploaded to a gateway instance, so an identical archive is not shipped
+ * again to the same gateway by the next bootstrap or upscale. Explicit state uploads (salt update) always ship the archive, as the
+ * states on the gateway may have been changed outside of the tracked uploads. A gateway is identified by its instance id and
+ * private address, a replaced instance is therefore always a new gateway. Gateways without instance id are never skipped and the
+ * entries expire, so a gateway cannot miss an upload for long if its salt.zip was changed in any other way.
+ */
+@Component
+public class SaltStateConfigUploadTracker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SaltStateConfigUploadTracker.class);
+
+    @Value("${cb.salt.state.upload.skip.unchanged:true}")
+    private boolean skipUnchanged;
+
+    @Value("${cb.salt.state.upload.tracker.max.size:10000}")
+    private long maxSize;
+
+    @Value("${cb.salt.state.upload.tracker.ttl.minutes:60}")
+    private long ttlMinutes;
+
+    private Cache<GatewayKey, String> uploadedContentHashes;
+
+    @PostConstruct
+    public void init() {
+        uploadedContentHashes = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES)
+                .build();
+    }
+
+    public String contentHash(byte[] content) {
+        return Hashing.sha256().hashBytes(content).toString();
+    }
+
+    /**
+     * Returns the gateways that do not hold the content with the given hash according to the previous uploads.
+     */
+    public Set<GatewayConfig> getGatewaysWithoutContent(Collection<GatewayConfig> gateways, String contentHash) {
+        Set<GatewayConfig> gatewaysWithoutContent = gateways.stream()
+                .filter(gateway -> !skipUnchanged || !isTracked(gateway) || !contentHash.equals(uploadedContentHashes.getIfPresent(new GatewayKey(gateway))))
+                .collect(Collectors.toSet());
+        LOGGER.debug("Gateways without salt state config {}: {}, gateways already holding it: {}", contentHash, getPrivateAddresses(gatewaysWithoutContent),
+                gateways.size() - gatewaysWithoutContent.size());
+        return gatewaysWithoutContent;
+    }
+
+    public void uploaded(Collection<GatewayConfig> gateways, String contentHash) {
+        gateways.stream()
+                .filter(this::isTracked)
+                .forEach(gateway -> uploadedContentHashes.put(new GatewayKey(gateway), contentHash));
+    }
+
+    public void invalidate(Collection<GatewayConfig> gateways) {
+        LOGGER.debug("Forget uploaded salt state config of gateways: {}", getPrivateAddresses(gateways));
+        gateways.stream()
+                .filter(this::isTracked)
+                .forEach(gateway -> uploadedContentHashes.invalidate(new GatewayKey(gateway)));
+    }
+
+    private boolean isTracked(GatewayConfig gateway) {
+        return StringUtils.isNotEmpty(gateway.getInstanceId()) && StringUtils.isNotEmpty(gateway.getPrivateAddress());
+    }
+
+    private Set<String> getPrivateAddresses(Collection<GatewayConfig> gateways) {
+        return gateways.stream().map(GatewayConfig::getPrivateAddress).collect(Collectors.toSet());
+    }
+
+    private static class GatewayKey {
+
+        private final String instanceId;
+
+        private final String privateAddress;
+
+        GatewayKey(GatewayConfig gateway) {
+            instanceId = gateway.getInstanceId();
+            privateAddress = gateway.getPrivateAddress();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            GatewayKey that = (GatewayKey) o;
+            return Objects.equals(instanceId, that.instanceId) && Objects.equals(privateAddress, that.privateAddress);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(instanceId, privateAddress);
+        }
+    }
+}
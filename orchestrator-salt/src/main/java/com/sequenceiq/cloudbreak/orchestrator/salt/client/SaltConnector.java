@@ -90,14 +90,17 @@ public class SaltConnector implements Closeable {
 
     private final String hostname;
 
+    private final String gatewayUrl;
+
     public SaltConnector(GatewayConfig gatewayConfig, SaltErrorResolver saltErrorResolver, boolean debug,
             int connectTimeoutMs, OptionalInt readTimeout) {
         try {
-            restClient = RestClientUtil.createClient(gatewayConfig.getServerCert(), gatewayConfig.getClientCert(), gatewayConfig.getClientKey(),
+            restClient = RestClientUtil.getSharedClient(gatewayConfig.getServerCert(), gatewayConfig.getClientCert(), gatewayConfig.getClientKey(),
                     connectTimeoutMs, readTimeout, debug);
             this.hostname = gatewayConfig.getHostname();
+            gatewayUrl = gatewayConfig.getGatewayUrl();
             String saltBootPasswd = Optional.ofNullable(gatewayConfig.getSaltBootPassword()).orElse(SALT_BOOT_PASSWORD);
-            saltTarget = restClient.target(gatewayConfig.getGatewayUrl())
+            saltTarget = restClient.target(gatewayUrl)
                     .register(HttpAuthenticationFeature.basic(SALT_BOOT_USER, saltBootPasswd))
                     .register(new DisableProxyAuthFeature())
                     .register(new SetProxyTimeoutFeature(PROXY_TIMEOUT));
@@ -374,6 +377,10 @@ public class SaltConnector implements Closeable {
         return hostname;
     }
 
+    public String getGatewayUrl() {
+        return gatewayUrl;
+    }
+
     private String toJson(Object target) {
         try {
             return MAPPER.writeValueAsString(target);
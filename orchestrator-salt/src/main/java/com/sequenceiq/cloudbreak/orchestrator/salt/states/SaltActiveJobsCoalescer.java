@@ -0,0 +1,119 @@
+package com.sequenceiq.cloudbreak.orchestrator.salt.states;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.sequenceiq.cloudbreak.orchestrator.exception.CloudbreakOrchestratorFailedException;
+import com.sequenceiq.cloudbreak.orchestrator.salt.client.SaltConnector;
+import com.sequenceiq.cloudbreak.orchestrator.salt.domain.RunningJobsResponse;
+
+/**
+ * Shares the salt-api {@code jobs.active} call of a gateway between the job trackers polling it at the same time.
+ * <p>
+ * At most one call is in flight per gateway. Requests arriving while a call is in flight join the next call, so every caller gets an
+ * answer that was requested after it asked. The first caller of a call runs it with its own {@link SaltConnector}, the others wait for
+ * its result. A failed call is rethrown to every caller of that call, so the trackers see the same exception as with their own call.
+ */
+@Component
+public class SaltActiveJobsCoalescer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SaltActiveJobsCoalescer.class);
+
+    private final Map<String, GatewayCalls> gatewayCalls = new ConcurrentHashMap<>();
+
+    public RunningJobsResponse getRunningJobs(SaltConnector sc, ActiveJobsCall activeJobsCall) throws CloudbreakOrchestratorFailedException {
+        String gatewayKey = gatewayKey(sc);
+        GatewayCalls calls = gatewayCalls.computeIfAbsent(gatewayKey, key -> new GatewayCalls());
+        ActiveJobsBatch batch;
+        CompletableFuture<RunningJobsResponse> previous = null;
+        boolean leader = false;
+        synchronized (calls) {
+            if (calls.inFlight == null) {
+                calls.inFlight = new ActiveJobsBatch();
+                batch = calls.inFlight;
+                leader = true;
+            } else {
+                if (calls.next == null) {
+                    calls.next = new ActiveJobsBatch();
+                    previous = calls.inFlight.result;
+                    leader = true;
+                }
+                batch = calls.next;
+            }
+        }
+        if (leader) {
+            if (previous != null) {
+                previous.handle((response, throwable) -> null).join();
+            }
+            runBatch(gatewayKey, calls, batch, sc, activeJobsCall);
+        } else {
+            LOGGER.debug("Waiting for the shared jobs.active call of gateway {}", sc.getHostname());
+        }
+        return await(batch.result);
+    }
+
+    private void runBatch(String gatewayKey, GatewayCalls calls, ActiveJobsBatch batch, SaltConnector sc, ActiveJobsCall activeJobsCall) {
+        RunningJobsResponse response = null;
+        Throwable failure = null;
+        try {
+            response = activeJobsCall.call(sc);
+        } catch (CloudbreakOrchestratorFailedException | RuntimeException | Error e) {
+            failure = e;
+        }
+        synchronized (calls) {
+            calls.inFlight = calls.next;
+            calls.next = null;
+            if (calls.inFlight == null) {
+                gatewayCalls.remove(gatewayKey, calls);
+            }
+        }
+        if (failure == null) {
+            batch.result.complete(response);
+        } else {
+            batch.result.completeExceptionally(failure);
+        }
+    }
+
+    private RunningJobsResponse await(CompletableFuture<RunningJobsResponse> result) throws CloudbreakOrchestratorFailedException {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CloudbreakOrchestratorFailedException) {
+                throw (CloudbreakOrchestratorFailedException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private String gatewayKey(SaltConnector sc) {
+        return sc.getGatewayUrl() + '|' + sc.getHostname();
+    }
+
+    @FunctionalInterface
+    public interface ActiveJobsCall {
+        RunningJobsResponse call(SaltConnector sc) throws CloudbreakOrchestratorFailedException;
+    }
+
+    private static class GatewayCalls {
+
+        private ActiveJobsBatch inFlight;
+
+        private ActiveJobsBatch next;
+    }
+
+    private static class ActiveJobsBatch {
+
+        private final CompletableFuture<RunningJobsResponse> result = new CompletableFuture<>();
+    }
+}
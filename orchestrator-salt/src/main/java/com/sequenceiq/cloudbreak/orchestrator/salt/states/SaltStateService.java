@@ -76,6 +76,9 @@ public class SaltStateService {
     @Inject
     private MinionUtil minionUtil;
 
+    @Inject
+    private SaltActiveJobsCoalescer activeJobsCoalescer;
+
     public Map<String, String> getUuidList(SaltConnector sc) {
         ApplyResponse applyResponse = applyStateAllSync(sc, "disks.get-uuid-list");
         List<Map<String, JsonNode>> result = (List<Map<String, JsonNode>>) applyResponse.getResult();
@@ -209,6 +212,10 @@ public class SaltStateService {
     }
 
     public RunningJobsResponse getRunningJobs(SaltConnector sc) throws CloudbreakOrchestratorFailedException {
+        return activeJobsCoalescer.getRunningJobs(sc, this::fetchRunningJobs);
+    }
+
+    private RunningJobsResponse fetchRunningJobs(SaltConnector sc) throws CloudbreakOrchestratorFailedException {
         RunningJobsResponse runningInfo = sc.run("jobs.active", RUNNER, RunningJobsResponse.class);
         LOGGER.debug("Active salt jobs: {}", runningInfo);
         validateRunningInfoResultNotNull(runningInfo);
@@ -46,6 +46,7 @@ import org.mockito.Captor;
 import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.util.ReflectionTestUtils;
@@ -152,6 +153,9 @@ class SaltOrchestratorTest {
     @Mock
     private SaltBootstrap saltBootstrap;
 
+    @Spy
+    private SaltStateConfigUploadTracker saltStateConfigUploadTracker = new SaltStateConfigUploadTracker();
+
     @InjectMocks
     private SaltOrchestrator saltOrchestrator;
 
@@ -162,6 +166,10 @@ class SaltOrchestratorTest {
 
     @BeforeEach
     void setUp() throws Exception {
+        ReflectionTestUtils.setField(saltStateConfigUploadTracker, "skipUnchanged", true);
+        ReflectionTestUtils.setField(saltStateConfigUploadTracker, "maxSize", 10L);
+        ReflectionTestUtils.setField(saltStateConfigUploadTracker, "ttlMinutes", 1L);
+        saltStateConfigUploadTracker.init();
         gatewayConfig = new GatewayConfig("172.16.252.43", "1.1.1.1", "10.0.0.1", "10-0-0-1", 9443, "instanceid", "servercert", "clientcert", "clientkey",
                 "saltpasswd", "saltbootpassword", "signkey", false, true, "privatekey", "publickey", null, null);
         targets = new HashSet<>();
@@ -189,7 +197,7 @@ class SaltOrchestratorTest {
 
     @Test
     void bootstrapTest() throws Exception {
-        when(compressUtil.generateCompressedOutputFromFolders("salt-common", "salt")).thenReturn(new byte[] {});
+        when(compressUtil.getCachedCompressedOutputFromFolders("salt-common", "salt")).thenReturn(new byte[] {});
 
         BootstrapParams bootstrapParams = mock(BootstrapParams.class);
         List<GatewayConfig> allGatewayConfigs = Collections.singletonList(gatewayConfig);
@@ -267,7 +275,7 @@ class SaltOrchestratorTest {
     @Test
     void bootstrapNewNodesTest() throws Exception {
         BootstrapParams bootstrapParams = mock(BootstrapParams.class);
-        when(compressUtil.generateCompressedOutputFromFolders("salt-common", "salt")).thenReturn(new byte[] {});
+        when(compressUtil.getCachedCompressedOutputFromFolders("salt-common", "salt")).thenReturn(new byte[] {});
 
         saltOrchestrator.bootstrapNewNodes(Collections.singletonList(gatewayConfig), targets, targets, null, bootstrapParams, exitCriteriaModel);
 
@@ -277,6 +285,21 @@ class SaltOrchestratorTest {
                 .of(eq(saltConnector), eq(saltConnectors), eq(Collections.singletonList(gatewayConfig)), eq(targets), eq(bootstrapParams));
     }
 
+    @Test
+    void bootstrapNewNodesSkipsUploadOfUnchangedStateConfig() throws Exception {
+        BootstrapParams bootstrapParams = mock(BootstrapParams.class);
+        byte[] stateConfigZip = {1, 2, 3};
+
+        saltOrchestrator.bootstrapNewNodes(Collections.singletonList(gatewayConfig), targets, targets, stateConfigZip, bootstrapParams, exitCriteriaModel);
+        saltOrchestrator.bootstrapNewNodes(Collections.singletonList(gatewayConfig), targets, targets, stateConfigZip, bootstrapParams, exitCriteriaModel);
+        saltOrchestrator.bootstrapNewNodes(Collections.singletonList(gatewayConfig), targets, targets, new byte[] {4}, bootstrapParams, exitCriteriaModel);
+
+        ArgumentCaptor<OrchestratorBootstrap> bootstrapCaptor = ArgumentCaptor.forClass(OrchestratorBootstrap.class);
+        verify(saltRunner, times(8)).runnerWithConfiguredErrorCount(bootstrapCaptor.capture(), any(ExitCriteria.class), any(ExitCriteriaModel.class));
+        assertEquals(2L, bootstrapCaptor.getAllValues().stream().filter(bootstrap -> bootstrap instanceof SaltUpload)
+                .filter(bootstrap -> bootstrap.toString().contains("fileName='salt.zip'")).count());
+    }
+
     @Test
     void reBootstrapExistingNodesTest() throws Exception {
         BootstrapParams bootstrapParams = mock(BootstrapParams.class);
@@ -799,6 +822,17 @@ class SaltOrchestratorTest {
         assertEquals(Set.of(gatewayConfig.getPrivateAddress()), saltUpload.getTargets());
     }
 
+    @Test
+    void testUploadStatesAlwaysUploadsUnchangedContent() throws Exception {
+        List<GatewayConfig> allGatewayConfigs = Collections.singletonList(gatewayConfig);
+
+        saltOrchestrator.uploadStates(allGatewayConfigs, exitCriteriaModel);
+        saltOrchestrator.uploadStates(allGatewayConfigs, exitCriteriaModel);
+
+        verify(saltRunner, times(2)).runnerWithConfiguredErrorCount(any(SaltUpload.class), eq(exitCriteria), eq(exitCriteriaModel));
+        verify(saltStateConfigUploadTracker, never()).getGatewaysWithoutContent(any(), any());
+    }
+
     @Test
     void testRunCommandOnHosts() throws Exception {
         List<GatewayConfig> allGatewayConfigs = Collections.singletonList(gatewayConfig);
@@ -0,0 +1,211 @@
+package com.sequenceiq.cloudbreak.orchestrator.salt.states;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.certificate.PkiUtil;
+import com.sequenceiq.cloudbreak.orchestrator.exception.CloudbreakOrchestratorFailedException;
+import com.sequenceiq.cloudbreak.orchestrator.exception.CloudbreakOrchestratorInProgressException;
+import com.sequenceiq.cloudbreak.orchestrator.model.GatewayConfig;
+import com.sequenceiq.cloudbreak.orchestrator.salt.SaltErrorResolver;
+import com.sequenceiq.cloudbreak.orchestrator.salt.client.SaltConnector;
+import com.sequenceiq.cloudbreak.orchestrator.salt.domain.JobId;
+import com.sequenceiq.cloudbreak.orchestrator.salt.domain.JobState;
+import com.sequenceiq.cloudbreak.orchestrator.salt.poller.SaltJobIdTracker;
+import com.sequenceiq.cloudbreak.orchestrator.salt.poller.SaltJobRunner;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+class SaltActiveJobsCoalescerTest {
+
+    private static final int TRACKER_COUNT = 10;
+
+    private static final long WAIT_SECONDS = 10L;
+
+    private final Map<String, AtomicInteger> callsByFunction = new ConcurrentHashMap<>();
+
+    private final CountDownLatch firstActiveJobsCall = new CountDownLatch(1);
+
+    private final CountDownLatch releaseActiveJobsCalls = new CountDownLatch(1);
+
+    private final ExecutorService saltApiExecutor = Executors.newCachedThreadPool();
+
+    private HttpServer saltApi;
+
+    private String activeJobsResponse;
+
+    private SaltStateService saltStateService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        saltApi = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        saltApi.createContext("/saltapi/run", this::handleRun);
+        saltApi.setExecutor(saltApiExecutor);
+        saltApi.start();
+        saltStateService = new SaltStateService();
+        ReflectionTestUtils.setField(saltStateService, "activeJobsCoalescer", new SaltActiveJobsCoalescer());
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseActiveJobsCalls.countDown();
+        saltApi.stop(0);
+        saltApiExecutor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentTrackersShareTheJobsActiveCallOfTheGateway() throws Exception {
+        activeJobsResponse = activeJobs(IntStream.range(0, TRACKER_COUNT).mapToObj(String::valueOf).collect(Collectors.toList()));
+        Map<String, Throwable> outcomes = new ConcurrentHashMap<>();
+        try (SaltConnector saltConnector = saltConnector()) {
+            Thread leader = startTracker(saltConnector, "0", outcomes);
+            assertThat(firstActiveJobsCall.await(WAIT_SECONDS, TimeUnit.SECONDS)).isTrue();
+            List<Thread> trackers = new ArrayList<>();
+            for (int i = 1; i < TRACKER_COUNT; i++) {
+                trackers.add(startTracker(saltConnector, String.valueOf(i), outcomes));
+            }
+            awaitWaiting(trackers);
+            releaseActiveJobsCalls.countDown();
+            trackers.add(leader);
+            for (Thread tracker : trackers) {
+                tracker.join(TimeUnit.SECONDS.toMillis(WAIT_SECONDS));
+            }
+        }
+
+        assertThat(outcomes).hasSize(TRACKER_COUNT);
+        assertThat(outcomes.values()).allMatch(CloudbreakOrchestratorInProgressException.class::isInstance);
+        assertThat(callsByFunction.get("jobs.active").get()).isEqualTo(2);
+        assertThat(callsByFunction).doesNotContainKey("jobs.lookup_jid");
+    }
+
+    @Test
+    void testFailedJobsActiveCallIsReportedToEveryWaitingTracker() throws Exception {
+        activeJobsResponse = "{}";
+        Map<String, Throwable> outcomes = new ConcurrentHashMap<>();
+        try (SaltConnector saltConnector = saltConnector()) {
+            Thread leader = startTracker(saltConnector, "0", outcomes);
+            assertThat(firstActiveJobsCall.await(WAIT_SECONDS, TimeUnit.SECONDS)).isTrue();
+            List<Thread> trackers = new ArrayList<>();
+            for (int i = 1; i < TRACKER_COUNT; i++) {
+                trackers.add(startTracker(saltConnector, String.valueOf(i), outcomes));
+            }
+            awaitWaiting(trackers);
+            releaseActiveJobsCalls.countDown();
+            trackers.add(leader);
+            for (Thread tracker : trackers) {
+                tracker.join(TimeUnit.SECONDS.toMillis(WAIT_SECONDS));
+            }
+        }
+
+        assertThat(outcomes).hasSize(TRACKER_COUNT);
+        assertThat(outcomes.values()).allMatch(CloudbreakOrchestratorFailedException.class::isInstance);
+        assertThat(callsByFunction.get("jobs.active").get()).isEqualTo(2);
+    }
+
+    @Test
+    void testSequentialTrackersGetAFreshAnswer() throws Exception {
+        releaseActiveJobsCalls.countDown();
+        try (SaltConnector saltConnector = saltConnector()) {
+            activeJobsResponse = activeJobs(List.of("1"));
+            assertThat(saltStateService.jobIsRunning(saltConnector, "1")).isTrue();
+            activeJobsResponse = activeJobs(List.of());
+            assertThat(saltStateService.jobIsRunning(saltConnector, "1")).isFalse();
+        }
+
+        assertThat(callsByFunction.get("jobs.active").get()).isEqualTo(2);
+    }
+
+    private Thread startTracker(SaltConnector saltConnector, String jid, Map<String, Throwable> outcomes) {
+        SaltJobRunner saltJobRunner = mock(SaltJobRunner.class);
+        when(saltJobRunner.getJid()).thenReturn(JobId.jobId(jid));
+        when(saltJobRunner.getJobState()).thenReturn(JobState.IN_PROGRESS);
+        when(saltJobRunner.getTargetHostnames()).thenReturn(Set.of("10.0.0.1"));
+        SaltJobIdTracker tracker = new SaltJobIdTracker(saltStateService, saltConnector, saltJobRunner);
+        Thread thread = new Thread(() -> {
+            try {
+                tracker.call();
+                outcomes.put(jid, new AssertionError("Job " + jid + " should not be finished"));
+            } catch (Exception e) {
+                outcomes.put(jid, e);
+            }
+        }, "salt-job-tracker-" + jid);
+        thread.start();
+        return thread;
+    }
+
+    private void awaitWaiting(List<Thread> threads) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(WAIT_SECONDS);
+        while (!threads.stream().allMatch(thread -> thread.getState() == Thread.State.WAITING)) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10L);
+        }
+    }
+
+    private void handleRun(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        String function = formParam(body, "fun");
+        callsByFunction.computeIfAbsent(function, f -> new AtomicInteger()).incrementAndGet();
+        if ("jobs.active".equals(function)) {
+            firstActiveJobsCall.countDown();
+            try {
+                releaseActiveJobsCalls.await(WAIT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        byte[] response = ("jobs.active".equals(function) ? activeJobsResponse : "{\"return\":[{}]}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, response.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(response);
+        }
+    }
+
+    private String formParam(String body, String name) {
+        for (String param : body.split("&")) {
+            String[] keyValue = param.split("=", 2);
+            if (keyValue.length == 2 && name.equals(keyValue[0])) {
+                return URLDecoder.decode(keyValue[1], StandardCharsets.UTF_8);
+            }
+        }
+        return "";
+    }
+
+    private String activeJobs(List<String> jids) {
+        return jids.stream()
+                .map(jid -> '"' + jid + "\":{\"Function\":\"state.highstate\"}")
+                .collect(Collectors.joining(",", "{\"return\":[{", "}]}"));
+    }
+
+    private SaltConnector saltConnector() {
+        String signatureKey = PkiUtil.convert(PkiUtil.generateKeypair().getPrivate());
+        GatewayConfig gatewayConfig = new GatewayConfig("localhost", null, null, "gateway.example.com", saltApi.getAddress().getPort(), "i-1",
+                null, null, null, null, null, signatureKey, false, true, null, null, null, null)
+                .withProtocol("http");
+        return new SaltConnector(gatewayConfig, new SaltErrorResolver(), false);
+    }
+}
@@ -46,6 +46,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -94,6 +95,9 @@ class SaltStateServiceTest {
     @Mock
     private MinionUtil minionUtil;
 
+    @Spy
+    private SaltActiveJobsCoalescer activeJobsCoalescer;
+
     @InjectMocks
     private SaltStateService underTest;
 
@@ -24,6 +24,10 @@ public interface DBStackRepository extends JpaRepository<DBStack, Long>, JobReso
     @Query("SELECT d.id FROM DBStack d LEFT JOIN d.dbStackStatus dss WHERE dss.status IN :statuses")
     Set<Long> findAllByStatusIn(@Param("statuses") Set<Status> statuses);
 
+    @Query("SELECT d.id FROM DBStack d LEFT JOIN d.dbStackStatus dss WHERE dss.status IN :statuses AND MOD(d.id, :shardCount) = :shardIndex")
+    Set<Long> findAllIdsOfShardByStatusIn(@Param("statuses") Set<Status> statuses, @Param("shardIndex") int shardIndex,
+            @Param("shardCount") int shardCount);
+
     @Query("SELECT d.id FROM DBStack d LEFT JOIN d.dbStackStatus dss WHERE d.id IN :dbStackIds AND dss.status IN :statuses")
     Set<Long> findAllByIdInAndStatusIn(@Param("dbStackIds") Set<Long> dbStackIds, @Param("statuses") Set<Status> statuses);
 
@@ -1,5 +1,7 @@
 package com.sequenceiq.redbeams.service.stack;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
@@ -63,6 +65,14 @@ public class DBStackService implements PayloadContextProvider, ResourceIdProvide
         return dbStackRepository.findAllDbStackByStatusIn(Status.getAutoSyncStatuses());
     }
 
+    public Set<Long> findAllIdsForAutoSync(int shardIndex, int shardCount) {
+        return dbStackRepository.findAllIdsOfShardByStatusIn(Status.getAutoSyncStatuses(), shardIndex, shardCount);
+    }
+
+    public List<DBStack> findAllById(Collection<Long> ids) {
+        return dbStackRepository.findAllById(ids);
+    }
+
     public DBStack save(DBStack dbStack) {
         return dbStackRepository.save(dbStack);
     }
@@ -0,0 +1,65 @@
+package com.sequenceiq.redbeams.sync;
+
+import static com.sequenceiq.cloudbreak.util.Benchmark.measure;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.inject.Inject;
+
+import org.quartz.DisallowConcurrentExecution;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sequenceiq.cloudbreak.auth.ThreadBasedUserCrnProvider;
+import com.sequenceiq.cloudbreak.auth.crn.RegionAwareInternalCrnGeneratorFactory;
+import com.sequenceiq.cloudbreak.quartz.statuschecker.job.BatchStatusCheckerJob;
+import com.sequenceiq.flow.core.FlowLogService;
+import com.sequenceiq.redbeams.domain.stack.DBStack;
+import com.sequenceiq.redbeams.service.stack.DBStackService;
+
+@DisallowConcurrentExecution
+public class DBStackBatchStatusSyncJob extends BatchStatusCheckerJob {
+
+    public static final String NAME = "db-stack-status-sync";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DBStackBatchStatusSyncJob.class);
+
+    @Inject
+    private FlowLogService flowLogService;
+
+    @Inject
+    private DBStackService dbStackService;
+
+    @Inject
+    private DBStackStatusSyncService dbStackStatusSyncService;
+
+    @Inject
+    private RegionAwareInternalCrnGeneratorFactory regionAwareInternalCrnGeneratorFactory;
+
+    @Override
+    protected Collection<Long> getResourceIdsForSync(int shardIndex, int shardCount) {
+        return dbStackService.findAllIdsForAutoSync(shardIndex, shardCount);
+    }
+
+    @Override
+    protected void syncBatch(List<Long> dbStackIds) {
+        Set<Long> dbStackIdsWithRunningFlow = flowLogService.findAllResourceIdsWithRunningFlow(dbStackIds);
+        if (!dbStackIdsWithRunningFlow.isEmpty()) {
+            LOGGER.debug("DB stacks are skipped by the batch status check, because flow is running for them: {}", dbStackIdsWithRunningFlow);
+        }
+        List<DBStack> dbStacks = dbStackService.findAllById(dbStackIds).stream()
+                .filter(dbStack -> !dbStackIdsWithRunningFlow.contains(dbStack.getId()))
+                .collect(Collectors.toList());
+        measure(() -> {
+            ThreadBasedUserCrnProvider.doAsInternalActor(
+                    regionAwareInternalCrnGeneratorFactory.iam().getInternalCrnForServiceAsString(),
+                    () -> {
+                        dbStackStatusSyncService.syncBatch(dbStacks);
+                    }
+            );
+        }, LOGGER, ":::Auto sync::: DB stack batch sync in {}ms");
+    }
+}
@@ -27,6 +27,11 @@ public class DBStackJobInizializer implements JobInitializer {
 
     @Override
     public void initJobs() {
+        if (dbStackJobService.isBatchSyncEnabled()) {
+            dbStackJobService.scheduleBatchSync();
+            LOGGER.info("Auto syncer is inited with batched DB stack sync on start");
+            return;
+        }
         Set<JobResource> dbStacks = checkedMeasure(() -> dbStackService.findAllForAutoSync(), LOGGER, ":::Auto sync::: db stacks are fetched from db in {}ms");
         for (JobResource jobResource : dbStacks) {
             dbStackJobService.schedule(jobResource);
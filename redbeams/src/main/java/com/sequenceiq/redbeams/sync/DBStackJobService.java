@@ -7,6 +7,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 import com.sequenceiq.cloudbreak.quartz.model.JobResource;
+import com.sequenceiq.cloudbreak.quartz.statuschecker.StatusCheckerConfig;
+import com.sequenceiq.cloudbreak.quartz.statuschecker.service.BatchStatusCheckerJobService;
 import com.sequenceiq.cloudbreak.quartz.statuschecker.service.StatusCheckerJobService;
 
 @Component
@@ -20,18 +22,35 @@ public class DBStackJobService {
     @Inject
     private StatusCheckerJobService jobService;
 
+    @Inject
+    private BatchStatusCheckerJobService batchJobService;
+
+    @Inject
+    private StatusCheckerConfig statusCheckerConfig;
+
     public void schedule(JobResource jobResource) {
-        if (autoSyncConfig.isEnabled()) {
+        if (autoSyncConfig.isEnabled() && !statusCheckerConfig.isBatchSyncEnabled()) {
             jobService.schedule(new DBStackJobAdapter(jobResource));
         }
     }
 
     public void schedule(Long id) {
-        if (autoSyncConfig.isEnabled()) {
+        if (autoSyncConfig.isEnabled() && !statusCheckerConfig.isBatchSyncEnabled()) {
             jobService.schedule(id, DBStackJobAdapter.class);
         }
     }
 
+    public boolean isBatchSyncEnabled() {
+        return autoSyncConfig.isEnabled() && statusCheckerConfig.isBatchSyncEnabled();
+    }
+
+    /**
+     * Schedules the shard jobs that sync every DB stack in batches, the DB stacks are picked up by the shards without scheduling.
+     */
+    public void scheduleBatchSync() {
+        batchJobService.schedule(DBStackBatchStatusSyncJob.NAME, DBStackBatchStatusSyncJob.class);
+    }
+
     public void unschedule(Long id, String name) {
         jobService.unschedule(String.valueOf(id));
         LOGGER.info("{} is unscheduled, it will not auto sync anymore", name);
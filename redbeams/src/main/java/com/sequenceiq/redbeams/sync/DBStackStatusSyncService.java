@@ -6,7 +6,12 @@ import static com.sequenceiq.cloudbreak.cloud.model.Region.region;
 import static java.util.Optional.empty;
 import static java.util.Optional.ofNullable;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import javax.inject.Inject;
 
@@ -14,6 +19,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import com.google.common.base.Suppliers;
 import com.sequenceiq.cloudbreak.cloud.CloudConnector;
 import com.sequenceiq.cloudbreak.cloud.context.AuthenticatedContext;
 import com.sequenceiq.cloudbreak.cloud.context.CloudContext;
@@ -55,7 +61,29 @@ public class DBStackStatusSyncService {
     private DBStackJobService dbStackJobService;
 
     public void sync(DBStack dbStack) {
-        DetailedDBStackStatus detailedDBStackStatus = getDetailedDBStackStatusFromProvider(dbStack);
+        sync(dbStack, () -> getCloudCredential(dbStack.getEnvironmentId()));
+    }
+
+    /**
+     * Syncs the status of a batch of DB stacks. The credential of an environment is fetched and converted only once for its DB stacks.
+     */
+    public void syncBatch(Collection<DBStack> dbStacks) {
+        Map<String, List<DBStack>> dbStacksByEnvironment = dbStacks.stream()
+                .collect(Collectors.groupingBy(DBStack::getEnvironmentId));
+        dbStacksByEnvironment.forEach((environmentId, environmentDbStacks) -> {
+            Supplier<CloudCredential> cloudCredential = Suppliers.memoize(() -> getCloudCredential(environmentId));
+            for (DBStack dbStack : environmentDbStacks) {
+                try {
+                    sync(dbStack, cloudCredential);
+                } catch (Exception e) {
+                    LOGGER.info(":::Auto sync::: Error occurred during the sync of DB stack {}: {}", dbStack.getId(), e.getMessage(), e);
+                }
+            }
+        });
+    }
+
+    private void sync(DBStack dbStack, Supplier<CloudCredential> cloudCredential) {
+        DetailedDBStackStatus detailedDBStackStatus = getDetailedDBStackStatusFromProvider(dbStack, cloudCredential);
         Status status = detailedDBStackStatus.getStatus();
 
         if (dbStack.getStatus() != status) {
@@ -75,8 +103,8 @@ public class DBStackStatusSyncService {
         }
     }
 
-    private DetailedDBStackStatus getDetailedDBStackStatusFromProvider(DBStack dbStack) {
-        Optional<ExternalDatabaseStatus> externalDatabaseStatus = getExternalDatabaseStatus(dbStack);
+    private DetailedDBStackStatus getDetailedDBStackStatusFromProvider(DBStack dbStack, Supplier<CloudCredential> cloudCredential) {
+        Optional<ExternalDatabaseStatus> externalDatabaseStatus = getExternalDatabaseStatus(dbStack, cloudCredential);
         DetailedDBStackStatus detailedDBStackStatus = externalDatabaseStatus
                 .map(this::convert)
                 .orElse(DetailedDBStackStatus.UNKNOWN);
@@ -99,7 +127,7 @@ public class DBStackStatusSyncService {
         }
     }
 
-    private Optional<ExternalDatabaseStatus> getExternalDatabaseStatus(DBStack dbStack) {
+    private Optional<ExternalDatabaseStatus> getExternalDatabaseStatus(DBStack dbStack, Supplier<CloudCredential> cloudCredential) {
         try {
             Location location = location(region(dbStack.getRegion()), availabilityZone(dbStack.getAvailabilityZone()));
             String accountId = dbStack.getOwnerCrn().getAccountId();
@@ -113,11 +141,9 @@ public class DBStackStatusSyncService {
                     .withUserName(dbStack.getUserName())
                     .withAccountId(accountId)
                     .build();
-            Credential credential = credentialService.getCredentialByEnvCrn(dbStack.getEnvironmentId());
-            CloudCredential cloudCredential = credentialConverter.convert(credential);
 
             CloudConnector connector = cloudPlatformConnectors.get(cloudContext.getPlatformVariant());
-            AuthenticatedContext ac = connector.authentication().authenticate(cloudContext, cloudCredential);
+            AuthenticatedContext ac = connector.authentication().authenticate(cloudContext, cloudCredential.get());
             DatabaseStack databaseStack = databaseStackConverter.convert(dbStack);
 
             return ofNullable(connector.resources().getDatabaseServerStatus(ac, databaseStack));
@@ -126,4 +152,9 @@ public class DBStackStatusSyncService {
             return empty();
         }
     }
+
+    private CloudCredential getCloudCredential(String environmentId) {
+        Credential credential = credentialService.getCredentialByEnvCrn(environmentId);
+        return credentialConverter.convert(credential);
+    }
 }
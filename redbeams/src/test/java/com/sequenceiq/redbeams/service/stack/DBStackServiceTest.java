@@ -89,4 +89,12 @@ public class DBStackServiceTest {
 
 
     }
+
+    @Test
+    public void testFindAllIdsForAutoSyncQueriesTheShardOnly() {
+        Set<Long> expected = Set.of(1L, 4L);
+        when(dbStackRepository.findAllIdsOfShardByStatusIn(Status.getAutoSyncStatuses(), 1, 3)).thenReturn(expected);
+
+        assertEquals(expected, underTest.findAllIdsForAutoSync(1, 3));
+    }
 }
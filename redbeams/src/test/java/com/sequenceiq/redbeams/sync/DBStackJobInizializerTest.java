@@ -1,7 +1,10 @@
 package com.sequenceiq.redbeams.sync;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.Set;
@@ -38,4 +41,15 @@ public class DBStackJobInizializerTest {
 
         verify(dbStackJobService).schedule(jobResource);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void shouldScheduleBatchSyncWhenEnabled() {
+        when(dbStackJobService.isBatchSyncEnabled()).thenReturn(true);
+
+        victim.initJobs();
+
+        verify(dbStackJobService).scheduleBatchSync();
+        verify(dbStackJobService, never()).schedule(any(JobResource.class));
+        verifyNoInteractions(dbStackService);
+    }
+}
@@ -10,6 +10,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.sequenceiq.cloudbreak.quartz.statuschecker.StatusCheckerConfig;
+import com.sequenceiq.cloudbreak.quartz.statuschecker.service.BatchStatusCheckerJobService;
 import com.sequenceiq.cloudbreak.quartz.statuschecker.service.StatusCheckerJobService;
 import com.sequenceiq.redbeams.domain.stack.DBStack;
 
@@ -24,6 +26,12 @@ public class DBStackJobServiceTest {
     @Mock
     private StatusCheckerJobService jobService;
 
+    @Mock
+    private BatchStatusCheckerJobService batchJobService;
+
+    @Mock
+    private StatusCheckerConfig statusCheckerConfig;
+
     @Mock
     private DBStack dbStack;
 
@@ -48,6 +56,23 @@ public class DBStackJobServiceTest {
         verifyNoInteractions(jobService);
     }
 
+    @Test
+    public void shouldNotScheduleJobWhenBatchSyncEnabled() {
+        when(autoSyncConfig.isEnabled()).thenReturn(true);
+        when(statusCheckerConfig.isBatchSyncEnabled()).thenReturn(true);
+
+        victim.schedule(DB_STACK_ID);
+
+        verifyNoInteractions(jobService);
+    }
+
+    @Test
+    public void shouldScheduleBatchSync() {
+        victim.scheduleBatchSync();
+
+        verify(batchJobService).schedule(DBStackBatchStatusSyncJob.NAME, DBStackBatchStatusSyncJob.class);
+    }
+
     @Test
     public void shouldUnscheduleJob() {
         victim.unschedule(DB_STACK_ID, "name");
@@ -1,10 +1,12 @@
 package com.sequenceiq.redbeams.sync;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
 import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -166,4 +168,25 @@ public class DBStackStatusSyncServiceTest {
         verify(dbStackStatusUpdater).updateStatus(DB_STACK_ID, DetailedDBStackStatus.DELETE_COMPLETED);
         verify(dbStackJobService).unschedule(DB_STACK_ID, DB_NAME);
     }
+
+    @Test
+    public void shouldFetchCredentialOnceForTheDbStacksOfAnEnvironmentInBatch() throws Exception {
+        DBStack otherDbStack = Mockito.mock(DBStack.class);
+        when(otherDbStack.getEnvironmentId()).thenReturn(ENVIRONMENT_ID);
+        when(otherDbStack.getResourceCrn()).thenReturn(dbStack.getResourceCrn());
+        when(otherDbStack.getId()).thenReturn(DB_STACK_ID + 1);
+        when(otherDbStack.getStatus()).thenReturn(Status.AVAILABLE);
+        when(otherDbStack.getOwnerCrn()).thenReturn(crn);
+        when(databaseStackConverter.convert(otherDbStack)).thenReturn(databaseStack);
+        when(dbStack.getId()).thenReturn(DB_STACK_ID);
+        when(dbStack.getStatus()).thenReturn(Status.AVAILABLE);
+        when(dbStack.getOwnerCrn()).thenReturn(crn);
+        when(resourceConnector.getDatabaseServerStatus(authenticatedContext, databaseStack)).thenReturn(ExternalDatabaseStatus.STOPPED);
+
+        victim.syncBatch(List.of(dbStack, otherDbStack));
+
+        verify(credentialService, times(1)).getCredentialByEnvCrn(ENVIRONMENT_ID);
+        verify(dbStackStatusUpdater).updateStatus(DB_STACK_ID, DetailedDBStackStatus.STOPPED);
+        verify(dbStackStatusUpdater).updateStatus(DB_STACK_ID + 1, DetailedDBStackStatus.STOPPED);
+    }
 }
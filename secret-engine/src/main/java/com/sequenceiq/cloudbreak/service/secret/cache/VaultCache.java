@@ -1,15 +1,27 @@
 package com.sequenceiq.cloudbreak.service.secret.cache;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import com.sequenceiq.cloudbreak.cache.common.AbstractCacheDefinition;
+import com.sequenceiq.cloudbreak.cache.common.AbstractTieredCacheDefinition;
 
+/**
+ * Short lived cache of the secrets read from the secret store. The time to live bounds how long a node can serve a secret which was
+ * rotated on another node, so it is kept in seconds. The secrets preloaded by
+ * {@link com.sequenceiq.cloudbreak.service.secret.service.SecretAspectService#preloadSecrets} are only served from here, so the
+ * cache has to hold every secret of a preloaded batch for as long as the batch is converted: raise the max entries for larger batches,
+ * the time to live for slower conversions.
+ */
 @Service
-public class VaultCache extends AbstractCacheDefinition {
+public class VaultCache extends AbstractTieredCacheDefinition {
 
-    private static final long MAX_ENTRIES = 1000L;
+    private static final long NEGATIVE_TTL_IN_SECONDS = 1L;
 
-    private static final long TTL_IN_SECONDS = 5L;
+    @Value("${secret.cache.max.entries:1000}")
+    private long maxEntries;
+
+    @Value("${secret.cache.seconds.ttl:5}")
+    private long ttlSeconds;
 
     @Override
     protected String getName() {
@@ -18,11 +30,16 @@ public class VaultCache extends AbstractCacheDefinition {
 
     @Override
     protected long getMaxEntries() {
-        return MAX_ENTRIES;
+        return maxEntries;
     }
 
     @Override
     protected long getTimeToLiveSeconds() {
-        return TTL_IN_SECONDS;
+        return ttlSeconds;
+    }
+
+    @Override
+    protected long getNegativeTimeToLiveSeconds() {
+        return NEGATIVE_TTL_IN_SECONDS;
     }
 }
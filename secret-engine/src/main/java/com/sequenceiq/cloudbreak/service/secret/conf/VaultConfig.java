@@ -82,6 +82,9 @@ public class VaultConfig extends AbstractVaultConfiguration {
     @Value("${vault.auth.kubernetes.service.account.token.path:}")
     private String kubernetesSATokenPath;
 
+    @Value("${vault.http.max.connections:50}")
+    private int maxConnections;
+
     @Value("${https.proxyUser:}")
     private String httpsProxyUser;
 
@@ -159,6 +162,8 @@ public class VaultConfig extends AbstractVaultConfiguration {
 
             httpClientBuilder.setDefaultRequestConfig(requestConfig);
 
+            httpClientBuilder.setMaxConnTotal(maxConnections);
+            httpClientBuilder.setMaxConnPerRoute(maxConnections);
             httpClientBuilder.setRedirectStrategy(new LaxRedirectStrategy());
             return new HttpComponentsClientHttpRequestFactory(httpClientBuilder.build());
         }
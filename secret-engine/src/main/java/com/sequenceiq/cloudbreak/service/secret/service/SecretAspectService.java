@@ -1,13 +1,19 @@
 package com.sequenceiq.cloudbreak.service.secret.service;
 
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.inject.Inject;
 
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -25,6 +31,8 @@ public class SecretAspectService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SecretAspectService.class);
 
+    private final Map<Class<?>, List<Field>> secretFields = new ConcurrentHashMap<>();
+
     private SecretService secretService;
 
     @Inject
@@ -34,32 +42,33 @@ public class SecretAspectService {
 
     public Object proceedSave(ProceedingJoinPoint proceedingJoinPoint) {
         Collection<Object> entities = convertFirstArgToCollection(proceedingJoinPoint);
-        for (Object entity : entities) {
-            try {
-                for (Field field : entity.getClass().getDeclaredFields()) {
-                    if (field.isAnnotationPresent(SecretValue.class)) {
-                        LOGGER.debug("Found SecretValue annotation on {}", field);
-                        ReflectionUtils.makeAccessible(field);
-                        Secret value = (Secret) field.get(entity);
-                        if (value != null && value.getRaw() != null && value.getSecret() == null) {
-                            String accountId = findAccountId(entity);
-                            String path = String.format("%s/%s/%s/%s-%s", accountId,
-                                    entity.getClass().getSimpleName().toLowerCase(), field.getName().toLowerCase(),
-                                    UUID.randomUUID(), Long.toHexString(System.currentTimeMillis()));
-                            String secret = secretService.put(path, value.getRaw());
-                            LOGGER.debug("Field: '{}' is saved at path: {}", field.getName(), path);
-                            field.set(entity, new SecretProxy(secretService, secret));
-                        }
+        Map<String, PendingSecret> pendingSecrets = new LinkedHashMap<>();
+        try {
+            for (Object entity : entities) {
+                for (Field field : getSecretFields(entity.getClass())) {
+                    Secret value = (Secret) field.get(entity);
+                    if (value != null && value.getRaw() != null && value.getSecret() == null) {
+                        String accountId = findAccountId(entity);
+                        String path = String.format("%s/%s/%s/%s-%s", accountId,
+                                entity.getClass().getSimpleName().toLowerCase(), field.getName().toLowerCase(),
+                                UUID.randomUUID(), Long.toHexString(System.currentTimeMillis()));
+                        pendingSecrets.put(path, new PendingSecret(entity, field, value.getRaw()));
                     }
                 }
-            } catch (IllegalArgumentException e) {
-                LOGGER.error("Given entity isn't instance of {}. Secret is not updated!",
-                        AccountIdAwareResource.class.getSimpleName(), e);
-                throw new SecretOperationException(e.getMessage());
-            } catch (Exception e) {
-                LOGGER.warn("Looks like something went wrong with Secret store. Secret is not updated!", e);
-                throw new SecretOperationException(e.getMessage());
             }
+            Map<String, String> secrets = putSecrets(pendingSecrets);
+            for (Map.Entry<String, PendingSecret> pendingSecret : pendingSecrets.entrySet()) {
+                PendingSecret secret = pendingSecret.getValue();
+                LOGGER.debug("Field: '{}' is saved at path: {}", secret.field.getName(), pendingSecret.getKey());
+                secret.field.set(secret.entity, new SecretProxy(secretService, secrets.get(pendingSecret.getKey())));
+            }
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Given entity isn't instance of {}. Secret is not updated!",
+                    AccountIdAwareResource.class.getSimpleName(), e);
+            throw new SecretOperationException(e.getMessage());
+        } catch (Exception e) {
+            LOGGER.warn("Looks like something went wrong with Secret store. Secret is not updated!", e);
+            throw new SecretOperationException(e.getMessage());
         }
 
         Object proceed;
@@ -78,29 +87,29 @@ public class SecretAspectService {
 
     public Object proceedDelete(ProceedingJoinPoint proceedingJoinPoint) {
         Collection<Object> entities = convertFirstArgToCollection(proceedingJoinPoint);
-        for (Object entity : entities) {
-            try {
-                for (Field field : entity.getClass().getDeclaredFields()) {
-                    if (field.isAnnotationPresent(SecretValue.class)) {
-                        LOGGER.debug("Found SecretValue annotation on {}", field);
-                        ReflectionUtils.makeAccessible(field);
-                        Secret path = (Secret) field.get(entity);
-                        if (path != null && path.getSecret() != null) {
-                            secretService.delete(path.getSecret());
-                            LOGGER.debug("Secret deleted at path: {}", path);
-                        } else {
-                            LOGGER.debug("Secret is null for field: {}.{}", field.getDeclaringClass(), field.getName());
-                        }
+        List<String> secrets = new ArrayList<>();
+        try {
+            for (Object entity : entities) {
+                for (Field field : getSecretFields(entity.getClass())) {
+                    Secret path = (Secret) field.get(entity);
+                    if (path != null && path.getSecret() != null) {
+                        secrets.add(path.getSecret());
+                    } else {
+                        LOGGER.debug("Secret is null for field: {}.{}", field.getDeclaringClass(), field.getName());
                     }
                 }
-            } catch (IllegalArgumentException e) {
-                LOGGER.error("Given entity isn't instance of {}. Secret is not deleted!",
-                        AccountIdAwareResource.class.getSimpleName(), e);
-                throw new SecretOperationException(e.getMessage());
-            } catch (Exception e) {
-                LOGGER.warn("Looks like something went wrong with Secret store. Secret is not deleted!", e);
-                throw new SecretOperationException(e.getMessage());
             }
+            if (!secrets.isEmpty()) {
+                secretService.deleteAll(secrets);
+                LOGGER.debug("{} secrets deleted", secrets.size());
+            }
+        } catch (IllegalArgumentException e) {
+            LOGGER.error("Given entity isn't instance of {}. Secret is not deleted!",
+                    AccountIdAwareResource.class.getSimpleName(), e);
+            throw new SecretOperationException(e.getMessage());
+        } catch (Exception e) {
+            LOGGER.warn("Looks like something went wrong with Secret store. Secret is not deleted!", e);
+            throw new SecretOperationException(e.getMessage());
         }
 
         Object proceed;
@@ -125,6 +134,54 @@ public class SecretAspectService {
         return arg instanceof Collection ? (Collection<Object>) arg : Collections.singleton(arg);
     }
 
+    /**
+     * Fetches the secrets of the given entities with parallel requests, so the secret store cache serves the following reads of the
+     * secrets, e.g. while a large entity graph is converted. Lazy loaded entities are unproxied, as the secret fields of a proxy are
+     * not populated.
+     */
+    public void preloadSecrets(Collection<?> entities) {
+        List<String> secrets = new ArrayList<>();
+        for (Object proxiedEntity : entities) {
+            Object entity = Hibernate.unproxy(proxiedEntity);
+            if (entity == null) {
+                continue;
+            }
+            for (Field field : getSecretFields(entity.getClass())) {
+                Secret secret = (Secret) ReflectionUtils.getField(field, entity);
+                if (secret != null && secret.getSecret() != null) {
+                    secrets.add(secret.getSecret());
+                }
+            }
+        }
+        if (!secrets.isEmpty()) {
+            secretService.getAll(secrets);
+        }
+    }
+
+    private Map<String, String> putSecrets(Map<String, PendingSecret> pendingSecrets) throws Exception {
+        if (pendingSecrets.size() == 1) {
+            Map.Entry<String, PendingSecret> pendingSecret = pendingSecrets.entrySet().iterator().next();
+            return Map.of(pendingSecret.getKey(), secretService.put(pendingSecret.getKey(), pendingSecret.getValue().raw));
+        }
+        Map<String, String> keyValues = new LinkedHashMap<>();
+        pendingSecrets.forEach((path, pendingSecret) -> keyValues.put(path, pendingSecret.raw));
+        return keyValues.isEmpty() ? keyValues : secretService.putAll(keyValues);
+    }
+
+    private List<Field> getSecretFields(Class<?> entityClass) {
+        return secretFields.computeIfAbsent(entityClass, clazz -> {
+            List<Field> fields = new ArrayList<>();
+            for (Field field : clazz.getDeclaredFields()) {
+                if (field.isAnnotationPresent(SecretValue.class)) {
+                    LOGGER.debug("Found SecretValue annotation on {}", field);
+                    ReflectionUtils.makeAccessible(field);
+                    fields.add(field);
+                }
+            }
+            return fields;
+        });
+    }
+
     private String findAccountId(Object entity) throws IllegalArgumentException {
         if (entity != null) {
             if (entity instanceof AccountIdAwareResource) {
@@ -141,4 +198,19 @@ public class SecretAspectService {
             throw new IllegalArgumentException("The entity is null");
         }
     }
+
+    private static class PendingSecret {
+
+        private final Object entity;
+
+        private final Field field;
+
+        private final String raw;
+
+        PendingSecret(Object entity, Field field, String raw) {
+            this.entity = entity;
+            this.field = field;
+            this.raw = raw;
+        }
+    }
 }
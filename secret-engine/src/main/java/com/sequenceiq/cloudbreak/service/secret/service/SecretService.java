@@ -3,22 +3,38 @@ package com.sequenceiq.cloudbreak.service.secret.service;
 import static java.lang.String.format;
 
 import java.security.InvalidKeyException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.gson.Gson;
 import com.sequenceiq.cloudbreak.common.metrics.MetricService;
 import com.sequenceiq.cloudbreak.common.metrics.type.MetricType;
+import com.sequenceiq.cloudbreak.logger.concurrent.MDCCopyingThreadPoolExecutor;
 import com.sequenceiq.cloudbreak.service.secret.SecretEngine;
 import com.sequenceiq.cloudbreak.service.secret.conf.VaultConfig;
 import com.sequenceiq.cloudbreak.service.secret.model.SecretResponse;
@@ -32,9 +48,17 @@ public class SecretService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SecretService.class);
 
+    private static final ThreadLocal<Boolean> IN_BATCH_OPERATION = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
     @Value("${secret.engine:}")
     private String engineClass;
 
+    @Value("${secret.batch.parallelism:8}")
+    private int batchParallelism;
+
+    @Value("${secret.batch.queue.size:64}")
+    private int batchQueueSize;
+
     private final MetricService metricService;
 
     private final List<SecretEngine> engines;
@@ -43,6 +67,8 @@ public class SecretService {
 
     private final VaultRetryService vaultRetryService;
 
+    private ExecutorService batchExecutor;
+
     public SecretService(MetricService metricService, List<SecretEngine> engines, VaultRetryService vaultRetryService) {
         this.metricService = metricService;
         this.engines = engines;
@@ -55,6 +81,17 @@ public class SecretService {
             persistentEngine = engines.stream().filter(e -> e.getClass().getCanonicalName().startsWith(engineClass)).findFirst()
                     .orElseThrow(() -> new RuntimeException(format("Selected secret engine (%s) is not found, please check secret.engine", engineClass)));
         }
+        int threads = Math.max(1, batchParallelism);
+        batchExecutor = new MDCCopyingThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(Math.max(1, batchQueueSize)),
+                new ThreadFactoryBuilder().setNameFormat("secret-batch-%d").setDaemon(true).build(), new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (batchExecutor != null) {
+            batchExecutor.shutdownNow();
+        }
     }
 
     /**
@@ -82,6 +119,82 @@ public class SecretService {
         return secret;
     }
 
+    /**
+     * Stores many secrets in Secret's key-value store. The secrets are written with parallel requests, as the key-value store has no
+     * batch write.
+     *
+     * @param keyValues Secret contents by the paths where they will be stored
+     * @return The stored secrets by their paths
+     * @throws Exception is thrown if any of the secrets could not be stored
+     */
+    public Map<String, String> putAll(Map<String, String> keyValues) throws Exception {
+        Map<String, Callable<String>> puts = new LinkedHashMap<>();
+        keyValues.forEach((key, value) -> puts.put(key, () -> put(key, value)));
+        return executeAll(puts);
+    }
+
+    /**
+     * Fetches many secrets from Secret's store with parallel requests. Secrets that are not found are mapped to null.
+     *
+     * @param secrets Key-value secrets in Secret
+     * @return Secret contents by their secrets
+     */
+    public Map<String, String> getAll(Collection<String> secrets) {
+        Map<String, Callable<String>> gets = new LinkedHashMap<>();
+        new LinkedHashSet<>(secrets).stream()
+                .filter(Objects::nonNull)
+                .forEach(secret -> gets.put(secret, () -> get(secret)));
+        try {
+            return executeAll(gets);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Runs the operations on the batch executor. The queue of the executor is bounded, when it is full the caller runs the operation
+     * itself, so a large batch slows down its caller instead of piling up. A batch started by an operation of another batch runs in the
+     * calling worker thread, as waiting for the pool from the pool could deadlock it.
+     */
+    private Map<String, String> executeAll(Map<String, Callable<String>> operations) throws Exception {
+        Map<String, String> results = new LinkedHashMap<>();
+        if (operations.size() == 1 || IN_BATCH_OPERATION.get()) {
+            for (Map.Entry<String, Callable<String>> operation : operations.entrySet()) {
+                results.put(operation.getKey(), operation.getValue().call());
+            }
+            return results;
+        }
+        long start = System.currentTimeMillis();
+        List<String> keys = new ArrayList<>(operations.keySet());
+        List<Callable<String>> batchOperations = new ArrayList<>(operations.size());
+        operations.values().forEach(operation -> batchOperations.add(() -> callInBatch(operation)));
+        List<Future<String>> futures = batchExecutor.invokeAll(batchOperations);
+        try {
+            for (int i = 0; i < keys.size(); i++) {
+                results.put(keys.get(i), futures.get(i).get());
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+        LOGGER.debug("{} secret operations took {} ms", operations.size(), System.currentTimeMillis() - start);
+        return results;
+    }
+
+    private String callInBatch(Callable<String> operation) throws Exception {
+        IN_BATCH_OPERATION.set(Boolean.TRUE);
+        try {
+            return operation.call();
+        } finally {
+            IN_BATCH_OPERATION.remove();
+        }
+    }
+
     /**
      * Fetches the secret from Secret's store. If the secret is not found then null is returned.
      * If the secret is null then null is returned.
@@ -135,6 +248,7 @@ public class SecretService {
      *
      * @param secret Key-value secret in Secret
      */
+    @CacheEvict(cacheNames = "vaultCache", allEntries = true)
     public void delete(String secret) {
         metricService.incrementMetricCounter(() -> "secret.delete." + convertSecretToMetric(secret));
         long start = System.currentTimeMillis();
@@ -146,6 +260,23 @@ public class SecretService {
         LOGGER.trace("Secret delete took {} ms", duration);
     }
 
+    /**
+     * Deletes many secrets from Secret's store with parallel requests. The vault cache is evicted once, in the caller thread after
+     * all the secrets are deleted, so a transaction of the caller defers a single invalidation broadcast to its commit.
+     *
+     * @param secrets Key-value secrets in Secret
+     * @throws Exception is thrown if any of the secrets could not be deleted
+     */
+    @CacheEvict(cacheNames = "vaultCache", allEntries = true)
+    public void deleteAll(Collection<String> secrets) throws Exception {
+        Map<String, Callable<String>> deletes = new LinkedHashMap<>();
+        new LinkedHashSet<>(secrets).forEach(secret -> deletes.put(secret, () -> {
+            delete(secret);
+            return null;
+        }));
+        executeAll(deletes);
+    }
+
     public List<String> listEntries(String secretPathPrefix) {
         return persistentEngine.listEntries(secretPathPrefix);
     }
@@ -11,7 +11,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 import org.springframework.vault.core.VaultTemplate;
@@ -56,7 +55,7 @@ public class VaultKvV1Engine extends AbstractVaultEngine<VaultKvV1Engine> {
     }
 
     @Override
-    @Cacheable(cacheNames = "vaultCache")
+    @Cacheable(cacheNames = "vaultCache", sync = true)
     public String get(@NotNull String secret) {
         return Optional.ofNullable(convertToVaultSecret(secret)).map(s -> {
             VaultResponse response = template.read(s.getPath());
@@ -65,7 +64,6 @@ public class VaultKvV1Engine extends AbstractVaultEngine<VaultKvV1Engine> {
     }
 
     @Override
-    @CacheEvict(cacheNames = "vaultCache", allEntries = true)
     public void delete(String secret) {
         Optional.ofNullable(convertToVaultSecret(secret)).ifPresent(s -> template.delete(s.getPath()));
     }
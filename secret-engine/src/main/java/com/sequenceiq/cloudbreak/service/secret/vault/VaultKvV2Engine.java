@@ -55,7 +55,7 @@ public class VaultKvV2Engine extends AbstractVaultEngine<VaultKvV2Engine> {
     }
 
     @Override
-    @Cacheable(cacheNames = "vaultCache")
+    @Cacheable(cacheNames = "vaultCache", sync = true)
     public String get(@NotNull String secret) {
         return Optional.ofNullable(convertToVaultSecret(secret)).map(s -> {
             Versioned<Map<String, Object>> response = template.opsForVersionedKeyValue(s.getEnginePath()).get(s.getPath());
@@ -64,7 +64,6 @@ public class VaultKvV2Engine extends AbstractVaultEngine<VaultKvV2Engine> {
     }
 
     @Override
-    @CacheEvict(cacheNames = "vaultCache", allEntries = true)
     public void delete(String secret) {
         Optional.ofNullable(convertToVaultSecret(secret)).ifPresent(s -> deleteAllVersionsOfSecret(s.getEnginePath(), s.getPath()));
     }
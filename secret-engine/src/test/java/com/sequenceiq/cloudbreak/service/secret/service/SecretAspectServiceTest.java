@@ -1,9 +1,17 @@
 package com.sequenceiq.cloudbreak.service.secret.service;
 
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.Signature;
 import org.aspectj.lang.reflect.SourceLocation;
@@ -51,6 +59,24 @@ public class SecretAspectServiceTest {
         Assert.assertEquals(valueCaptor.getValue(), "super");
     }
 
+    @Test
+    public void testVaultPutWhenMoreEntitiesAreSavedThenSecretsMustBeWrittenInOneBatch() throws Exception {
+        VaultTest first = new VaultTest("justice-league", "super");
+        VaultTest second = new VaultTest("justice-league", "strength");
+        VaultTestProceedingJoinPoint proceedingJoinPoint = new VaultTestProceedingJoinPoint(List.of(first, second));
+
+        when(secretService.putAll(anyMap())).then(invocation -> {
+            Map<String, String> keyValues = invocation.getArgument(0);
+            return keyValues.keySet().stream().collect(Collectors.toMap(key -> key, key -> "secret-" + keyValues.get(key)));
+        });
+
+        underTest.proceedSave(proceedingJoinPoint);
+
+        verify(secretService, never()).put(anyString(), anyString());
+        Assert.assertEquals("secret-super", first.getPower().getSecret());
+        Assert.assertEquals("secret-strength", second.getPower().getSecret());
+    }
+
     @Test
     public void testVaultPutWhenAccountIdNotImplementedThenShouldThrowIllegalArgumentException() throws Exception {
         VaultWrongTest vaultTest = new VaultWrongTest("super");
@@ -81,13 +107,25 @@ public class SecretAspectServiceTest {
                 new Secret("super", "justice-league/vaulttest/power/123-123-123-123"));
         VaultTestProceedingJoinPoint proceedingJoinPoint = new VaultTestProceedingJoinPoint(vaultTest);
 
-        ArgumentCaptor<String> keyCaptor = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Collection<String>> keyCaptor = ArgumentCaptor.forClass(Collection.class);
+
+        doNothing().when(secretService).deleteAll(keyCaptor.capture());
+
+        underTest.proceedDelete(proceedingJoinPoint);
 
-        doNothing().when(secretService).delete(keyCaptor.capture());
+        Assert.assertEquals(List.of("justice-league/vaulttest/power/123-123-123-123"), List.copyOf(keyCaptor.getValue()));
+    }
+
+    @Test
+    public void testVaultDeleteWhenMoreEntitiesAreDeletedThenSecretsMustBeDeletedInOneBatch() throws Exception {
+        VaultTest first = new VaultTest("justice-league", new Secret("super", "justice-league/vaulttest/power/1"));
+        VaultTest second = new VaultTest("justice-league", new Secret("strength", "justice-league/vaulttest/power/2"));
+        VaultTestProceedingJoinPoint proceedingJoinPoint = new VaultTestProceedingJoinPoint(List.of(first, second));
 
         underTest.proceedDelete(proceedingJoinPoint);
 
-        Assert.assertTrue(keyCaptor.getValue().startsWith("justice-league/vaulttest/power/123-123-123-123"));
+        verify(secretService).deleteAll(List.of("justice-league/vaulttest/power/1", "justice-league/vaulttest/power/2"));
+        verify(secretService, never()).delete(anyString());
     }
 
     private static class VaultTestProceedingJoinPoint implements ProceedingJoinPoint {
@@ -11,6 +11,7 @@ import static org.mockito.Mockito.when;
 import java.lang.reflect.Field;
 import java.security.InvalidKeyException;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Supplier;
 
 import org.junit.Assert;
@@ -90,6 +91,44 @@ public class SecretServiceTest {
         Assert.assertEquals("secret", result);
     }
 
+    @Test
+    public void testPutAllOk() throws Exception {
+        initBatchExecutor();
+        when(persistentEngine.put("key1", "value1")).thenReturn("secret1");
+        when(persistentEngine.put("key2", "value2")).thenReturn("secret2");
+
+        Map<String, String> result = underTest.putAll(Map.of("key1", "value1", "key2", "value2"));
+
+        verify(persistentEngine, times(2)).exists(anyString());
+        Assert.assertEquals(Map.of("key1", "secret1", "key2", "secret2"), result);
+    }
+
+    @Test
+    public void testPutAllFailsWhenAnyKeyExists() throws Exception {
+        initBatchExecutor();
+        when(persistentEngine.exists("key1")).thenReturn(false);
+        when(persistentEngine.exists("key2")).thenReturn(true);
+        when(persistentEngine.put("key1", "value1")).thenReturn("secret1");
+
+        thrown.expect(InvalidKeyException.class);
+
+        underTest.putAll(Map.of("key1", "value1", "key2", "value2"));
+    }
+
+    @Test
+    public void testGetAllOk() {
+        initBatchExecutor();
+        when(persistentEngine.get("secret1")).thenReturn("value1");
+        when(persistentEngine.get("secret2")).thenReturn("null");
+
+        Map<String, String> result = underTest.getAll(List.of("secret1", "secret2", "secret1"));
+
+        verify(persistentEngine, times(1)).get("secret1");
+        Assert.assertEquals("value1", result.get("secret1"));
+        Assert.assertTrue(result.containsKey("secret2"));
+        Assert.assertNull(result.get("secret2"));
+    }
+
     @Test
     public void testGetNullSecret() {
         Assert.assertNull(underTest.get(null));
@@ -138,4 +177,43 @@ public class SecretServiceTest {
         verify(persistentEngine, times(1)).delete(anyString());
         verify(metricService, times(1)).submit(eq(MetricType.VAULT_WRITE), anyDouble());
     }
+
+    @Test
+    public void testDeleteAllOk() throws Exception {
+        initBatchExecutor();
+
+        underTest.deleteAll(List.of("secret1", "secret2", "secret1"));
+
+        verify(persistentEngine, times(1)).delete("secret1");
+        verify(persistentEngine, times(1)).delete("secret2");
+    }
+
+    @Test
+    public void testNestedBatchRunsInTheWorkerThread() {
+        initBatchExecutor();
+        when(persistentEngine.get(anyString())).then(invocation -> {
+            String secret = invocation.getArgument(0);
+            if (secret.startsWith("outer")) {
+                Map<String, String> inner = underTest.getAll(List.of(secret + "-inner1", secret + "-inner2"));
+                return String.join(",", inner.values());
+            }
+            return secret.toUpperCase();
+        });
+
+        Map<String, String> result = underTest.getAll(List.of("outer1", "outer2", "outer3", "outer4"));
+
+        Assert.assertEquals("OUTER1-INNER1,OUTER1-INNER2", result.get("outer1"));
+        Assert.assertEquals("OUTER4-INNER1,OUTER4-INNER2", result.get("outer4"));
+        Assert.assertEquals(4, result.size());
+    }
+
+    private void initBatchExecutor() {
+        Field persistentEngineField = ReflectionUtils.findField(SecretService.class, "persistentEngine");
+        ReflectionUtils.makeAccessible(persistentEngineField);
+        ReflectionUtils.setField(persistentEngineField, underTest, persistentEngine);
+        Field batchParallelismField = ReflectionUtils.findField(SecretService.class, "batchParallelism");
+        ReflectionUtils.makeAccessible(batchParallelismField);
+        ReflectionUtils.setField(batchParallelismField, underTest, 2);
+        underTest.init();
+    }
 }
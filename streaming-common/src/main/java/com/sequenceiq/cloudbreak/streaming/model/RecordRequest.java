@@ -37,6 +37,14 @@ public class RecordRequest {
         return forceRawOutput;
     }
 
+    /**
+     * Records with the same routing key are processed by the same worker in the order of their arrival.
+     * Override this to keep the ordering of related records (e.g. per account or resource).
+     */
+    public Optional<String> getRoutingKey() {
+        return Optional.empty();
+    }
+
     @Override
     public String toString() {
         return "RecordRequest{" +
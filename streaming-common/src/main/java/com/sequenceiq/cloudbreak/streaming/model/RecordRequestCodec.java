@@ -0,0 +1,16 @@
+package com.sequenceiq.cloudbreak.streaming.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Serializes record requests so they can be spilled to disk when the processing queues are full.
+ * @param <R> type of the request that is processed.
+ */
+public interface RecordRequestCodec<R extends RecordRequest> {
+
+    void write(R request, DataOutput output) throws IOException;
+
+    R read(DataInput input) throws IOException;
+}
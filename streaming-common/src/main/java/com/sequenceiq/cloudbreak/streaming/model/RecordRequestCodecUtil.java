@@ -0,0 +1,56 @@
+package com.sequenceiq.cloudbreak.streaming.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import com.google.protobuf.GeneratedMessageV3;
+import com.google.protobuf.Parser;
+
+/**
+ * Helpers for {@link RecordRequestCodec} implementations. Every value is written with a presence flag, so nulls are kept.
+ */
+public class RecordRequestCodecUtil {
+
+    private RecordRequestCodecUtil() {
+    }
+
+    public static void writeString(DataOutput output, String value) throws IOException {
+        writeBytes(output, value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static String readString(DataInput input) throws IOException {
+        byte[] bytes = readBytes(input);
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static void writeBytes(DataOutput output, byte[] value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeInt(value.length);
+            output.write(value);
+        }
+    }
+
+    public static byte[] readBytes(DataInput input) throws IOException {
+        if (!input.readBoolean()) {
+            return null;
+        }
+        byte[] bytes = new byte[input.readInt()];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    public static void writeMessage(DataOutput output, GeneratedMessageV3 message) throws IOException {
+        writeBytes(output, message == null ? null : message.toByteArray());
+    }
+
+    /**
+     * Reads a protobuf message with the parser of the expected message type.
+     */
+    public static <M extends GeneratedMessageV3> M readMessage(DataInput input, Parser<M> parser) throws IOException {
+        byte[] bytes = readBytes(input);
+        return bytes == null ? null : parser.parseFrom(bytes);
+    }
+}
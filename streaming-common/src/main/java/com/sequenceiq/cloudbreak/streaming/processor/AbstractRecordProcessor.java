@@ -1,5 +1,8 @@
 package com.sequenceiq.cloudbreak.streaming.processor;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Optional;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -9,8 +12,10 @@ import javax.annotation.PostConstruct;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 
 import com.sequenceiq.cloudbreak.streaming.model.RecordRequest;
+import com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodec;
 import com.sequenceiq.cloudbreak.streaming.model.StreamProcessingException;
 import com.sequenceiq.cloudbreak.telemetry.streaming.CommonStreamingConfiguration;
 
@@ -29,6 +34,8 @@ public abstract class AbstractRecordProcessor<C extends CommonStreamingConfigura
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AbstractRecordProcessor.class);
 
+    private static final long BYTES_IN_MB = 1024L * 1024L;
+
     private final AtomicBoolean processingEnabled;
 
     private final int numberOfWorkers;
@@ -39,6 +46,12 @@ public abstract class AbstractRecordProcessor<C extends CommonStreamingConfigura
 
     private final C configuration;
 
+    @Value("${telemetry.streaming.spill.directory:}")
+    private String spillDirectory;
+
+    @Value("${telemetry.streaming.spill.max-size-mb:512}")
+    private long spillMaxSizeMb;
+
     public AbstractRecordProcessor(C configuration) {
         this.configuration = configuration;
         this.numberOfWorkers = configuration.getNumberOfWorkers();
@@ -80,7 +93,7 @@ public abstract class AbstractRecordProcessor<C extends CommonStreamingConfigura
         } else {
             LOGGER.debug("Starting record worker for {} processing service.", getServiceName());
             RoundRobinStreamProcessingQueues<C, R, W> processingQueues = new RoundRobinStreamProcessingQueues<>(
-                    numberOfWorkers, queueSizeLimit, this);
+                    numberOfWorkers, queueSizeLimit, this, createSpillFile());
             processingQueuesRef.set(processingQueues);
             getProcessingQueues().startWorkers();
         }
@@ -107,6 +120,14 @@ public abstract class AbstractRecordProcessor<C extends CommonStreamingConfigura
         LOGGER.warn("Blocking queue reached size limit: {}. Dropping {} record input: {}", sizeLimit, getProcessorTypeForLog(), input);
     }
 
+    /**
+     * Override this to allow spilling records to disk when the processing queues are full.
+     * Spilling is used only if a spill directory is configured as well. Default behaviour: records are not spilled, but dropped.
+     */
+    public Optional<RecordRequestCodec<R>> getSpillCodec() {
+        return Optional.empty();
+    }
+
     /**
      * Override this to change the default behavior when an stream record processing error happens.
      * Default behaviour: log the exception.
@@ -168,6 +189,21 @@ public abstract class AbstractRecordProcessor<C extends CommonStreamingConfigura
         return configuration;
     }
 
+    private RecordSpillFile<R> createSpillFile() {
+        Optional<RecordRequestCodec<R>> spillCodec = getSpillCodec();
+        if (StringUtils.isBlank(spillDirectory) || spillCodec.isEmpty()) {
+            return null;
+        }
+        Path spillPath = Path.of(spillDirectory, getServiceName().toLowerCase() + ".spill");
+        try {
+            LOGGER.debug("Records of {} processing are spilled to {} when the processing queues are full.", getServiceName(), spillPath);
+            return new RecordSpillFile<>(spillPath, spillCodec.get(), spillMaxSizeMb * BYTES_IN_MB);
+        } catch (IOException e) {
+            LOGGER.warn("Cannot open spill file {}, records will be dropped when the processing queues are full.", spillPath, e);
+            return null;
+        }
+    }
+
     private boolean messageIsNotEmpty(R input) {
         return input != null &&
                 (rawMessageIsNotEmpty(input) || input.getMessageBody().isPresent());
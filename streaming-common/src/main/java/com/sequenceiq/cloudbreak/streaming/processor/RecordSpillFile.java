@@ -0,0 +1,262 @@
+package com.sequenceiq.cloudbreak.streaming.processor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sequenceiq.cloudbreak.streaming.model.RecordRequest;
+import com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodec;
+
+/**
+ * Append-only local file that holds the records which did not fit into the processing queues.
+ * The file starts with a header that holds the offset of the first record which is not committed yet, followed by length prefixed frames.
+ * Records are read back in the order of writing, but the read offset is only advanced (and synced to disk) by {@link #commit()},
+ * so records which were read but not handed over before a restart are read again (at least once delivery).
+ * The file is truncated when every record is committed. When the committed part of the file grows over half of the size limit,
+ * the uncommitted records are copied into a new file which replaces the old one, so a file that never drains completely still
+ * frees up space for new records. A partially written last frame from a previous run is dropped, a corrupt frame is dropped
+ * together with every record after it, as the frames after it cannot be found.
+ * The pending record count is guarded by the monitor of this object, callers can synchronize on it to combine a check with an append.
+ * @param <R> type of the request that is processed.
+ */
+public class RecordSpillFile<R extends RecordRequest> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RecordSpillFile.class);
+
+    private static final int HEADER_SIZE = Long.BYTES;
+
+    private static final int FRAME_HEADER_SIZE = Integer.BYTES;
+
+    private static final long SYNC_INTERVAL_MILLIS = 1000L;
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String COMPACTION_SUFFIX = ".compact";
+
+    private final Path path;
+
+    private final RecordRequestCodec<R> codec;
+
+    private final long maxSizeInBytes;
+
+    private RandomAccessFile file;
+
+    private long readOffset;
+
+    private long uncommittedOffset;
+
+    private long uncommittedRecords;
+
+    private long pendingRecords;
+
+    private boolean dirty;
+
+    private long lastSync;
+
+    public RecordSpillFile(Path path, RecordRequestCodec<R> codec, long maxSizeInBytes) throws IOException {
+        this.path = path;
+        this.codec = codec;
+        this.maxSizeInBytes = maxSizeInBytes;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.file = new RandomAccessFile(path.toFile(), "rw");
+        recover();
+    }
+
+    /**
+     * Appends a record to the end of the file. The file is synced to disk at most once per second by the appends,
+     * and on every {@link #read(int)} and {@link #commit()}.
+     * @return false if the record does not fit into the file size limit
+     */
+    public synchronized boolean append(R request) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        codec.write(request, new DataOutputStream(bytes));
+        long length = file.length();
+        if (length + FRAME_HEADER_SIZE + bytes.size() > maxSizeInBytes) {
+            return false;
+        }
+        file.seek(length);
+        file.writeInt(bytes.size());
+        file.write(bytes.toByteArray());
+        pendingRecords++;
+        dirty = true;
+        if (System.currentTimeMillis() - lastSync >= SYNC_INTERVAL_MILLIS) {
+            sync();
+        }
+        return true;
+    }
+
+    /**
+     * Reads the next records after the committed offset without committing them. Records which cannot be decoded are skipped.
+     * Calling it again before {@link #commit()} returns the same records.
+     * @param maxRecords maximum number of records to read
+     */
+    public synchronized List<R> read(int maxRecords) throws IOException {
+        sync();
+        List<R> records = new ArrayList<>();
+        long length = file.length();
+        long offset = readOffset;
+        long frames = 0L;
+        file.seek(offset);
+        while (records.size() < maxRecords && offset < length) {
+            int frameLength = file.readInt();
+            if (frameLength < 0 || offset + FRAME_HEADER_SIZE + frameLength > length) {
+                dropCorruptFrames(offset, frames, frameLength);
+                break;
+            }
+            byte[] frame = new byte[frameLength];
+            file.readFully(frame);
+            offset += FRAME_HEADER_SIZE + frame.length;
+            frames++;
+            try {
+                records.add(codec.read(new DataInputStream(new ByteArrayInputStream(frame))));
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Skipping spilled record that cannot be decoded from {}", path, e);
+            }
+        }
+        uncommittedOffset = offset;
+        uncommittedRecords = frames;
+        return records;
+    }
+
+    /**
+     * Marks the records returned by the last {@link #read(int)} as handed over and persists the new read offset.
+     * Compacts the file if the committed records take up more than half of the size limit.
+     */
+    public synchronized void commit() throws IOException {
+        if (uncommittedRecords == 0L) {
+            return;
+        }
+        pendingRecords -= uncommittedRecords;
+        if (uncommittedOffset >= file.length()) {
+            file.setLength(HEADER_SIZE);
+            readOffset = HEADER_SIZE;
+        } else {
+            readOffset = uncommittedOffset;
+        }
+        file.seek(0L);
+        file.writeLong(readOffset);
+        uncommittedRecords = 0L;
+        dirty = true;
+        sync();
+        if (readOffset - HEADER_SIZE > maxSizeInBytes / 2) {
+            compact();
+        }
+    }
+
+    public synchronized long getPendingRecords() {
+        return pendingRecords;
+    }
+
+    public synchronized void close() {
+        try {
+            sync();
+            file.close();
+        } catch (IOException e) {
+            LOGGER.debug("Cannot close spill file {}", path, e);
+        }
+    }
+
+    /**
+     * Copies the uncommitted records into a new file and replaces the spill file with it. The new file is synced before the rename,
+     * so after a crash either the old or the new file is found, both with the same uncommitted records.
+     */
+    private void compact() throws IOException {
+        Path compactedPath = path.resolveSibling(path.getFileName() + COMPACTION_SUFFIX);
+        long length = file.length();
+        try (RandomAccessFile compacted = new RandomAccessFile(compactedPath.toFile(), "rw")) {
+            compacted.setLength(0L);
+            compacted.writeLong(HEADER_SIZE);
+            byte[] buffer = new byte[COPY_BUFFER_SIZE];
+            file.seek(readOffset);
+            long remaining = length - readOffset;
+            while (remaining > 0) {
+                int read = file.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new EOFException("Spill file " + path + " ended during compaction");
+                }
+                compacted.write(buffer, 0, read);
+                remaining -= read;
+            }
+            compacted.getFD().sync();
+        }
+        file.close();
+        try {
+            Files.move(compactedPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            readOffset = HEADER_SIZE;
+        } finally {
+            file = new RandomAccessFile(path.toFile(), "rw");
+        }
+        LOGGER.debug("Compacted spill file {} from {} to {} bytes", path, length, file.length());
+    }
+
+    /**
+     * The frames after a corrupt frame length cannot be located, so the file is truncated at the corrupt frame.
+     */
+    private void dropCorruptFrames(long offset, long framesBefore, int frameLength) throws IOException {
+        long dropped = pendingRecords - framesBefore;
+        LOGGER.warn("Corrupt record with length {} at offset {} in spill file {}, dropping it and the {} records after it",
+                frameLength, offset, path, Math.max(dropped - 1, 0L));
+        file.setLength(offset);
+        pendingRecords = framesBefore;
+        dirty = true;
+        sync();
+    }
+
+    private void sync() throws IOException {
+        if (dirty) {
+            file.getFD().sync();
+            dirty = false;
+        }
+        lastSync = System.currentTimeMillis();
+    }
+
+    private void recover() throws IOException {
+        long length = file.length();
+        if (length < HEADER_SIZE) {
+            file.setLength(0L);
+            file.writeLong(HEADER_SIZE);
+            length = HEADER_SIZE;
+            dirty = true;
+        }
+        file.seek(0L);
+        readOffset = file.readLong();
+        if (readOffset < HEADER_SIZE || readOffset > length) {
+            LOGGER.warn("Invalid read offset {} in spill file {}, reading it from the beginning.", readOffset, path);
+            readOffset = HEADER_SIZE;
+        }
+        long offset = readOffset;
+        try {
+            while (offset < length) {
+                file.seek(offset);
+                int frameLength = file.readInt();
+                if (frameLength < 0 || offset + FRAME_HEADER_SIZE + frameLength > length) {
+                    throw new EOFException("Partially written frame");
+                }
+                offset += FRAME_HEADER_SIZE + frameLength;
+                pendingRecords++;
+            }
+        } catch (EOFException e) {
+            LOGGER.warn("Dropping partially written record at the end of spill file {}", path);
+            file.setLength(offset);
+            dirty = true;
+        }
+        sync();
+        if (pendingRecords > 0) {
+            LOGGER.info("Found {} spilled records from a previous run in {}", pendingRecords, path);
+        }
+    }
+}
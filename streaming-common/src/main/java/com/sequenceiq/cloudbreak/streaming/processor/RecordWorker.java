@@ -1,5 +1,7 @@
 package com.sequenceiq.cloudbreak.streaming.processor;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.BlockingDeque;
 
 import org.slf4j.Logger;
@@ -12,6 +14,7 @@ import com.sequenceiq.cloudbreak.telemetry.streaming.CommonStreamingConfiguratio
 /**
  * Worker class that should use specific/custom clients for record processing.
  * It process data in order from a blocking queue. Blocking queues and workers has a one-to-one relation.
+ * After a record arrived, the worker drains up to {@link #getDrainBatchSize()} records from the queue at once.
  *
  * @param <C> type of the streaming configuration.
  * @param <R> type of the request that is processed.
@@ -53,15 +56,17 @@ public abstract class RecordWorker<P extends AbstractRecordProcessor, C extends
         LOGGER.info("Start processing {} records. [name:{}]", serviceName, getName());
         while (true) {
             try {
-                R input = processingQueue.take();
-                try {
-                    processRecordInput(input);
-                } catch (StreamProcessingException e) {
-                    LOGGER.warn("Unexpected error happened during data processing for {} service ", serviceName);
-                    recordProcessor.handleDataStreamingException(input, e);
-                } catch (Exception e) {
-                    LOGGER.warn("Unexpected error happened during data processing for {} service ", serviceName);
-                    recordProcessor.handleUnexpectedException(input, e);
+                R input = pollRecordInput();
+                if (input == null) {
+                    onIdle();
+                    continue;
+                }
+                processRecordInputSafely(input);
+                int drainBatchSize = getDrainBatchSize();
+                if (drainBatchSize > 1) {
+                    List<R> batch = new ArrayList<>(drainBatchSize - 1);
+                    processingQueue.drainTo(batch, drainBatchSize - 1);
+                    batch.forEach(this::processRecordInputSafely);
                 }
             } catch (InterruptedException ie) {
                 onInterrupt();
@@ -75,6 +80,18 @@ public abstract class RecordWorker<P extends AbstractRecordProcessor, C extends
         return configuration;
     }
 
+    private void processRecordInputSafely(R input) {
+        try {
+            processRecordInput(input);
+        } catch (StreamProcessingException e) {
+            LOGGER.warn("Unexpected error happened during data processing for {} service ", serviceName);
+            recordProcessor.handleDataStreamingException(input, e);
+        } catch (Exception e) {
+            LOGGER.warn("Unexpected error happened during data processing for {} service ", serviceName);
+            recordProcessor.handleUnexpectedException(input, e);
+        }
+    }
+
     /**
      * Consumes a record from the blocking queue (FIFO) and processing it with a custom client.
      *
@@ -87,4 +104,29 @@ public abstract class RecordWorker<P extends AbstractRecordProcessor, C extends
      * Triggered when the worker thread interrupted. It should cleanup resources or close clients.
      */
     public abstract void onInterrupt();
+
+    /**
+     * Waits for the next record of the blocking queue. Override this to wait only for a limited time, in that case null is returned
+     * when no record arrived in time and {@link #onIdle()} is triggered.
+     *
+     * @return the next record from the blocking queue or null if there was no record in time
+     * @throws InterruptedException if the worker thread is interrupted while waiting
+     */
+    protected R pollRecordInput() throws InterruptedException {
+        return processingQueue.take();
+    }
+
+    /**
+     * Triggered when {@link #pollRecordInput()} returned without a record. Workers buffering records can flush them here.
+     */
+    protected void onIdle() {
+    }
+
+    /**
+     * Maximum number of records processed after one wake up of the worker. Override this to drain the queue in batches
+     * instead of waiting for every record separately. Default: 1 (one record per wake up).
+     */
+    protected int getDrainBatchSize() {
+        return 1;
+    }
 }
\ No newline at end of file
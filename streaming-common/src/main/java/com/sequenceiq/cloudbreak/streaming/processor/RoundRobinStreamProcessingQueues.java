@@ -1,18 +1,27 @@
 package com.sequenceiq.cloudbreak.streaming.processor;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.BlockingDeque;
 import java.util.concurrent.LinkedBlockingDeque;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.sequenceiq.cloudbreak.streaming.model.RecordRequest;
 import com.sequenceiq.cloudbreak.telemetry.streaming.CommonStreamingConfiguration;
 
 /**
  * Holds list of processing queues (blocking) and record worker (as pairs) for record processing.
- * It uses round robin scheduling algorithm for the data processing. (when putting record data into the blocking queue)
+ * Records with a routing key are always put into the same queue, so the records of the same key are processed in order by one worker.
+ * Records without a routing key are put into the least loaded queue, ties are broken with round robin scheduling.
+ * If a spill file is provided, records that do not fit into the queues are appended to it and moved back to the queues
+ * by a background thread when the queues have free capacity. The spilled records are committed in the file only after they are put into the queues.
+ * Until every spilled record is committed, every new record goes through the spill file to keep ordering.
  * @param <C> type of the streaming configuration.
  * @param <R> type of the request that is processed.
  * @param <W> type of the worker that implements the client specific mechanism for the processing.
@@ -20,8 +29,12 @@ import com.sequenceiq.cloudbreak.telemetry.streaming.CommonStreamingConfiguratio
 public class RoundRobinStreamProcessingQueues
         <C extends CommonStreamingConfiguration, R extends RecordRequest, W extends RecordWorker> implements Iterable<BlockingDeque<R>> {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(RoundRobinStreamProcessingQueues.class);
+
     private static final int DEFAULT_SIZE_LIMIT = 2000;
 
+    private static final long SPILL_DRAIN_WAIT_MILLIS = 100L;
+
     private final List<BlockingDeque<R>> processingQueueList;
 
     private final List<W> workers;
@@ -34,12 +47,20 @@ public class RoundRobinStreamProcessingQueues
 
     private final int sizeLimit;
 
+    private final RecordSpillFile<R> spillFile;
+
     public RoundRobinStreamProcessingQueues(int numberOfQueues, int sizeLimit, AbstractRecordProcessor<C, R, W> recordProcessor) {
+        this(numberOfQueues, sizeLimit, recordProcessor, null);
+    }
+
+    public RoundRobinStreamProcessingQueues(int numberOfQueues, int sizeLimit, AbstractRecordProcessor<C, R, W> recordProcessor,
+            RecordSpillFile<R> spillFile) {
         this.numberOfQueues = numberOfQueues > 0 ? numberOfQueues : 1;
         this.sizeLimit = sizeLimit > 0 ? sizeLimit : DEFAULT_SIZE_LIMIT;
         this.workers = new ArrayList<>();
         this.processingQueueList = new ArrayList<>();
         this.recordProcessor = recordProcessor;
+        this.spillFile = spillFile;
         initProcessingQueuesAndWorkers();
     }
 
@@ -54,24 +75,41 @@ public class RoundRobinStreamProcessingQueues
     }
 
     /**
-     * Start record workers as daemons.
+     * Start record workers (and the spill drainer if there is a spill file) as daemons.
      */
     public void startWorkers() {
         for (W recordWorker : workers) {
             recordWorker.setDaemon(true);
             recordWorker.start();
         }
+        if (spillFile != null) {
+            Thread spillDrainer = new Thread(this::drainSpillFile,
+                    String.format("%s-spill-drainer", recordProcessor.getServiceName().toLowerCase()));
+            spillDrainer.setDaemon(true);
+            spillDrainer.start();
+        }
     }
 
     /**
-     * Put a record into a processing queue. Uses round robin scheduling for picking the queue (for the record location).
+     * Put a record into a processing queue. The queue is picked by the routing key of the record or by the queue loads.
+     * If the queue is full, the record is spilled to disk (if there is a spill file) or dropped.
      */
     public void process(R input) throws InterruptedException {
-        BlockingDeque<R> queue = iterator().next();
-        if (queue.size() >= sizeLimit) {
-            recordProcessor.handleDroppedRecordRequest(input, sizeLimit);
-        } else {
+        if (spillFile != null) {
+            synchronized (spillFile) {
+                if (spillFile.getPendingRecords() > 0) {
+                    spill(input);
+                    return;
+                }
+            }
+        }
+        BlockingDeque<R> queue = selectQueue(input);
+        if (queue.size() < sizeLimit) {
             queue.put(input);
+        } else if (spillFile != null) {
+            spill(input);
+        } else {
+            recordProcessor.handleDroppedRecordRequest(input, sizeLimit);
         }
     }
 
@@ -79,6 +117,78 @@ public class RoundRobinStreamProcessingQueues
         return processingQueueList;
     }
 
+    long getSpilledRecordCount() {
+        return spillFile != null ? spillFile.getPendingRecords() : 0L;
+    }
+
+    BlockingDeque<R> selectQueue(R input) {
+        Optional<String> routingKey = input.getRoutingKey();
+        if (routingKey.isPresent()) {
+            return processingQueueList.get(Math.floorMod(routingKey.get().hashCode(), numberOfQueues));
+        }
+        BlockingDeque<R> selected = iterator().next();
+        for (BlockingDeque<R> queue : processingQueueList) {
+            if (queue.size() < selected.size()) {
+                selected = queue;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Moves spilled records back to the processing queues. Returns the number of moved records.
+     * The records are read in batches and a batch is put into the queues only when the queues are not full.
+     * The batch is committed in the spill file after every record of it is in the queues.
+     */
+    int moveSpilledRecords() throws IOException, InterruptedException {
+        List<R> records = spillFile.read(sizeLimit);
+        for (R record : records) {
+            BlockingDeque<R> queue = selectQueue(record);
+            while (queue.size() >= sizeLimit) {
+                Thread.sleep(SPILL_DRAIN_WAIT_MILLIS);
+            }
+            queue.put(record);
+        }
+        spillFile.commit();
+        return records.size();
+    }
+
+    private void spill(R input) {
+        try {
+            if (!spillFile.append(input)) {
+                recordProcessor.handleDroppedRecordRequest(input, sizeLimit);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Cannot spill {} record to disk.", recordProcessor.getServiceName(), e);
+            recordProcessor.handleDroppedRecordRequest(input, sizeLimit);
+        }
+    }
+
+    private void drainSpillFile() {
+        LOGGER.info("Start draining spilled {} records.", recordProcessor.getServiceName());
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                if (moveSpilledRecords() == 0) {
+                    Thread.sleep(SPILL_DRAIN_WAIT_MILLIS);
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Cannot read spilled {} records.", recordProcessor.getServiceName(), e);
+                sleepQuietly();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        spillFile.close();
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(SPILL_DRAIN_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     @Override
     public Iterator<BlockingDeque<R>> iterator() {
         return new Iterator<>() {
@@ -0,0 +1,152 @@
+package com.sequenceiq.cloudbreak.streaming.processor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sequenceiq.cloudbreak.streaming.model.RecordRequest;
+import com.sequenceiq.cloudbreak.streaming.processor.RoundRobinStreamProcessingQueuesTest.DummyRequest;
+import com.sequenceiq.cloudbreak.streaming.processor.RoundRobinStreamProcessingQueuesTest.DummyRequestCodec;
+
+class RecordSpillFileTest {
+
+    private static final long MAX_SIZE = 1024L * 1024L;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testAppendAndReadInOrder() throws Exception {
+        RecordSpillFile<RecordRequest> underTest = new RecordSpillFile<>(tempDir.resolve("test.spill"), new DummyRequestCodec(), MAX_SIZE);
+
+        underTest.append(new DummyRequest("first", "key"));
+        underTest.append(new DummyRequest("second", null));
+        underTest.append(new DummyRequest("third", null));
+
+        assertEquals(3L, underTest.getPendingRecords());
+        List<RecordRequest> firstRead = underTest.read(2);
+        assertEquals(2, firstRead.size());
+        assertEquals("first", firstRead.get(0).getRawBody().get());
+        assertEquals("key", firstRead.get(0).getRoutingKey().get());
+        assertEquals("second", firstRead.get(1).getRawBody().get());
+        assertEquals(3L, underTest.getPendingRecords());
+        underTest.commit();
+        assertEquals(1L, underTest.getPendingRecords());
+        List<RecordRequest> secondRead = underTest.read(2);
+        assertEquals(1, secondRead.size());
+        assertEquals("third", secondRead.get(0).getRawBody().get());
+        underTest.commit();
+        assertEquals(0L, underTest.getPendingRecords());
+        assertEquals(Long.BYTES, Files.size(tempDir.resolve("test.spill")));
+        underTest.close();
+    }
+
+    @Test
+    void testAppendOverSizeLimit() throws Exception {
+        RecordSpillFile<RecordRequest> underTest = new RecordSpillFile<>(tempDir.resolve("test.spill"), new DummyRequestCodec(), 28L);
+
+        assertTrue(underTest.append(new DummyRequest("first", null)));
+        assertFalse(underTest.append(new DummyRequest("second", null)));
+        assertEquals(1L, underTest.getPendingRecords());
+        underTest.close();
+    }
+
+    @Test
+    void testCommittedRecordsAreCompactedWithoutFullDrain() throws Exception {
+        Path path = tempDir.resolve("test.spill");
+        RecordSpillFile<RecordRequest> underTest = new RecordSpillFile<>(path, new DummyRequestCodec(), 100L);
+        int appended = 0;
+        while (underTest.append(new DummyRequest("record" + appended, null))) {
+            appended++;
+        }
+
+        underTest.read(appended - 1);
+        underTest.commit();
+
+        assertEquals(1L, underTest.getPendingRecords());
+        assertTrue(underTest.append(new DummyRequest("next", null)));
+        List<RecordRequest> records = underTest.read(10);
+        assertEquals(List.of("record" + (appended - 1), "next"),
+                records.stream().map(record -> record.getRawBody().get()).collect(Collectors.toList()));
+        underTest.close();
+
+        RecordSpillFile<RecordRequest> afterRestart = new RecordSpillFile<>(path, new DummyRequestCodec(), 100L);
+        assertEquals(2L, afterRestart.getPendingRecords());
+        afterRestart.close();
+    }
+
+    @Test
+    void testCorruptFrameLengthIsDroppedOnRead() throws Exception {
+        Path path = tempDir.resolve("test.spill");
+        RecordSpillFile<RecordRequest> underTest = new RecordSpillFile<>(path, new DummyRequestCodec(), MAX_SIZE);
+        underTest.append(new DummyRequest("first", null));
+        long secondOffset = Files.size(path);
+        underTest.append(new DummyRequest("second", null));
+        underTest.append(new DummyRequest("third", null));
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(secondOffset);
+            file.writeInt(Integer.MAX_VALUE);
+        }
+
+        List<RecordRequest> records = underTest.read(10);
+
+        assertEquals(1, records.size());
+        assertEquals("first", records.get(0).getRawBody().get());
+        assertEquals(1L, underTest.getPendingRecords());
+        assertEquals(secondOffset, Files.size(path));
+        underTest.commit();
+        assertEquals(0L, underTest.getPendingRecords());
+        underTest.close();
+    }
+
+    @Test
+    void testRecoverAfterRestartDropsPartialRecord() throws Exception {
+        Path path = tempDir.resolve("test.spill");
+        RecordSpillFile<RecordRequest> previousRun = new RecordSpillFile<>(path, new DummyRequestCodec(), MAX_SIZE);
+        previousRun.append(new DummyRequest("first", null));
+        previousRun.append(new DummyRequest("second", null));
+        previousRun.close();
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(file.length() - 1);
+        }
+
+        RecordSpillFile<RecordRequest> underTest = new RecordSpillFile<>(path, new DummyRequestCodec(), MAX_SIZE);
+
+        assertEquals(1L, underTest.getPendingRecords());
+        List<RecordRequest> records = underTest.read(10);
+        assertEquals(1, records.size());
+        assertEquals("first", records.get(0).getRawBody().get());
+        underTest.close();
+    }
+
+    @Test
+    void testReadWithoutCommitIsReadAgainAfterRestart() throws Exception {
+        Path path = tempDir.resolve("test.spill");
+        RecordSpillFile<RecordRequest> previousRun = new RecordSpillFile<>(path, new DummyRequestCodec(), MAX_SIZE);
+        previousRun.append(new DummyRequest("first", null));
+        previousRun.append(new DummyRequest("second", null));
+        previousRun.append(new DummyRequest("third", null));
+        previousRun.read(1);
+        previousRun.commit();
+        previousRun.read(1);
+        previousRun.close();
+
+        RecordSpillFile<RecordRequest> underTest = new RecordSpillFile<>(path, new DummyRequestCodec(), MAX_SIZE);
+
+        assertEquals(2L, underTest.getPendingRecords());
+        List<RecordRequest> records = underTest.read(10);
+        assertEquals(2, records.size());
+        assertEquals("second", records.get(0).getRawBody().get());
+        assertEquals("third", records.get(1).getRawBody().get());
+        underTest.close();
+    }
+}
@@ -2,14 +2,23 @@ package com.sequenceiq.cloudbreak.streaming.processor;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Date;
+import java.util.Optional;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -17,6 +26,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import com.google.protobuf.GeneratedMessageV3;
 import com.sequenceiq.cloudbreak.streaming.config.AbstractStreamingConfiguration;
 import com.sequenceiq.cloudbreak.streaming.model.RecordRequest;
+import com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodec;
+import com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodecUtil;
 
 @ExtendWith(MockitoExtension.class)
 public class RoundRobinStreamProcessingQueuesTest {
@@ -30,6 +41,9 @@ public class RoundRobinStreamProcessingQueuesTest {
     @Mock
     private RecordWorker recordWorker;
 
+    @TempDir
+    private Path tempDir;
+
     @Test
     public void testProcess() throws InterruptedException {
         // GIVEN
@@ -51,10 +65,113 @@ public class RoundRobinStreamProcessingQueuesTest {
         verify(recordProcessor, times(1)).handleDroppedRecordRequest(input, 2);
     }
 
+    @Test
+    public void testProcessWithRoutingKeyUsesSameQueue() throws InterruptedException {
+        // GIVEN
+        given(recordProcessor.getServiceName()).willReturn("DummyService");
+        RoundRobinStreamProcessingQueues<AbstractStreamingConfiguration, RecordRequest, RecordWorker> underTest =
+                new RoundRobinStreamProcessingQueues<>(4, 10, recordProcessor);
+        DummyRequest input = new DummyRequest("body", "account1");
+        // WHEN
+        underTest.process(input);
+        underTest.process(input);
+        underTest.process(input);
+        // THEN
+        assertEquals(3, underTest.selectQueue(input).size());
+        assertEquals(3, underTest.getProcessingQueueList().stream().mapToInt(q -> q.size()).sum());
+    }
+
+    @Test
+    public void testProcessWithoutRoutingKeyUsesLeastLoadedQueue() throws InterruptedException {
+        // GIVEN
+        given(recordProcessor.getServiceName()).willReturn("DummyService");
+        RoundRobinStreamProcessingQueues<AbstractStreamingConfiguration, RecordRequest, RecordWorker> underTest =
+                new RoundRobinStreamProcessingQueues<>(2, 10, recordProcessor);
+        underTest.getProcessingQueueList().get(0).put(new DummyRequest("body", null));
+        underTest.getProcessingQueueList().get(0).put(new DummyRequest("body", null));
+        // WHEN
+        underTest.process(new DummyRequest("body", null));
+        underTest.process(new DummyRequest("body", null));
+        // THEN
+        assertEquals(2, underTest.getProcessingQueueList().get(0).size());
+        assertEquals(2, underTest.getProcessingQueueList().get(1).size());
+    }
+
+    @Test
+    public void testProcessSpillsWhenQueuesAreFull() throws Exception {
+        // GIVEN
+        given(recordProcessor.getServiceName()).willReturn("DummyService");
+        RecordSpillFile<RecordRequest> spillFile = new RecordSpillFile<>(tempDir.resolve("dummy.spill"), new DummyRequestCodec(), 1024L * 1024L);
+        RoundRobinStreamProcessingQueues<AbstractStreamingConfiguration, RecordRequest, RecordWorker> underTest =
+                new RoundRobinStreamProcessingQueues<>(1, 2, recordProcessor, spillFile);
+        // WHEN
+        underTest.process(new DummyRequest("first", null));
+        underTest.process(new DummyRequest("second", null));
+        underTest.process(new DummyRequest("third", null));
+        underTest.process(new DummyRequest("fourth", null));
+        // THEN
+        verify(recordProcessor, never()).handleDroppedRecordRequest(any(), anyInt());
+        assertEquals(2, underTest.getProcessingQueueList().get(0).size());
+        assertEquals(2L, underTest.getSpilledRecordCount());
+        underTest.getProcessingQueueList().get(0).clear();
+        assertEquals(2, underTest.moveSpilledRecords());
+        assertEquals(0L, underTest.getSpilledRecordCount());
+        assertEquals("third", underTest.getProcessingQueueList().get(0).take().getRawBody().get());
+        assertEquals("fourth", underTest.getProcessingQueueList().get(0).take().getRawBody().get());
+    }
+
+    @Test
+    public void testProcessKeepsOrderWhileRecordsAreSpilled() throws Exception {
+        // GIVEN
+        given(recordProcessor.getServiceName()).willReturn("DummyService");
+        RecordSpillFile<RecordRequest> spillFile = new RecordSpillFile<>(tempDir.resolve("dummy.spill"), new DummyRequestCodec(), 1024L * 1024L);
+        RoundRobinStreamProcessingQueues<AbstractStreamingConfiguration, RecordRequest, RecordWorker> underTest =
+                new RoundRobinStreamProcessingQueues<>(1, 1, recordProcessor, spillFile);
+        underTest.process(new DummyRequest("first", null));
+        underTest.process(new DummyRequest("second", null));
+        RecordRequest first = underTest.getProcessingQueueList().get(0).take();
+        // WHEN
+        underTest.process(new DummyRequest("third", null));
+        // THEN
+        assertEquals(0, underTest.getProcessingQueueList().get(0).size());
+        assertEquals("first", first.getRawBody().get());
+        assertEquals(1, underTest.moveSpilledRecords());
+        assertEquals("second", underTest.getProcessingQueueList().get(0).take().getRawBody().get());
+        assertEquals(1, underTest.moveSpilledRecords());
+        assertEquals("third", underTest.getProcessingQueueList().get(0).take().getRawBody().get());
+    }
+
     static class DummyRequest extends RecordRequest {
 
+        private final String routingKey;
+
         DummyRequest(String rawBody, GeneratedMessageV3 messageBody, long timestamp, boolean forceRawOutput) {
             super(rawBody, messageBody, timestamp, forceRawOutput);
+            this.routingKey = null;
+        }
+
+        DummyRequest(String rawBody, String routingKey) {
+            super(rawBody, null, 0L, false);
+            this.routingKey = routingKey;
+        }
+
+        @Override
+        public Optional<String> getRoutingKey() {
+            return Optional.ofNullable(routingKey);
+        }
+    }
+
+    static class DummyRequestCodec implements RecordRequestCodec<RecordRequest> {
+
+        @Override
+        public void write(RecordRequest request, DataOutput output) throws IOException {
+            RecordRequestCodecUtil.writeString(output, request.getRawBody().orElse(null));
+            RecordRequestCodecUtil.writeString(output, request.getRoutingKey().orElse(null));
+        }
+
+        @Override
+        public RecordRequest read(DataInput input) throws IOException {
+            return new DummyRequest(RecordRequestCodecUtil.readString(input), RecordRequestCodecUtil.readString(input));
         }
     }
 }
@@ -0,0 +1,381 @@
+package com.sequenceiq.cloudbreak.structuredevent.file;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sequenceiq.cloudbreak.common.metrics.MetricService;
+import com.sequenceiq.cloudbreak.common.metrics.type.MetricType;
+import com.sequenceiq.cloudbreak.structuredevent.conf.StructuredEventEnablementConfig;
+
+/**
+ * Append-only journal of the structured events for the audit file.
+ * Events are collected in a lock-free queue from any number of threads and written by a single writer thread,
+ * so callers do not wait for the disk. If the queue is full, the caller waits up to {@code cb.audit.journal.append.timeout.ms}
+ * for free space, and the event is only dropped (and counted in a metric) if the writer cannot catch up within that time.
+ * The writer serializes into a reused buffer, collects the lines in a direct buffer
+ * and writes them through one open file channel. The channel is synced to disk after a batch of events or after a time interval.
+ * After a sync the file is reopened if it was moved or deleted, so external rotation (e.g. logrotate without copytruncate) works.
+ * Built-in rotation is disabled by default. If a rotation size or interval is set, the journal is rotated by size or age,
+ * rotated files are compressed with gzip on a separate thread, so the writer is not stalled by the compression,
+ * and only the latest {@code cb.audit.journal.rotation.max.files} of them are kept.
+ */
+@Component
+public class StructuredEventFileJournal {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StructuredEventFileJournal.class);
+
+    private static final DateTimeFormatter ROTATION_SUFFIX_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+
+    private static final String GZIP_EXTENSION = ".gz";
+
+    private static final int BYTES_IN_KB = 1024;
+
+    private static final long WRITER_SHUTDOWN_TIMEOUT_MILLIS = 5000L;
+
+    private static final long APPEND_RETRY_NANOS = TimeUnit.MILLISECONDS.toNanos(1L);
+
+    private static final byte NEW_LINE = '\n';
+
+    private final StructuredEventEnablementConfig structuredEventEnablementConfig;
+
+    private final int queueCapacity;
+
+    private final long appendTimeoutNanos;
+
+    private final int fsyncBatchSize;
+
+    private final long fsyncIntervalMillis;
+
+    private final long rotationSizeInBytes;
+
+    private final long rotationIntervalMillis;
+
+    private final int maxRotatedFiles;
+
+    private final Optional<MetricService> metricService;
+
+    private final LongAdder droppedEvents = new LongAdder();
+
+    private final ObjectMapper objectMapper = new ObjectMapper().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+    private final Queue<Object> events = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger queuedEvents = new AtomicInteger();
+
+    private final ReusableByteArrayOutputStream serializationBuffer = new ReusableByteArrayOutputStream();
+
+    private final ByteBuffer writeBuffer;
+
+    private volatile boolean running;
+
+    private volatile Thread writerThread;
+
+    private ExecutorService compressionExecutor;
+
+    private Path journalPath;
+
+    private FileChannel channel;
+
+    private long fileSize;
+
+    private long fileOpenedAt;
+
+    private Object fileKey;
+
+    private int unsyncedEvents;
+
+    private long lastSync;
+
+    public StructuredEventFileJournal(StructuredEventEnablementConfig structuredEventEnablementConfig,
+            @Value("${cb.audit.journal.queue.capacity:100000}") int queueCapacity,
+            @Value("${cb.audit.journal.append.timeout.ms:1000}") long appendTimeoutMillis,
+            @Value("${cb.audit.journal.buffer.size.kb:256}") int bufferSizeInKb,
+            @Value("${cb.audit.journal.fsync.batch.size:1000}") int fsyncBatchSize,
+            @Value("${cb.audit.journal.fsync.interval.ms:1000}") long fsyncIntervalMillis,
+            @Value("${cb.audit.journal.rotation.size.kb:0}") long rotationSizeInKb,
+            @Value("${cb.audit.journal.rotation.interval.minutes:0}") long rotationIntervalMinutes,
+            @Value("${cb.audit.journal.rotation.max.files:10}") int maxRotatedFiles,
+            Optional<MetricService> metricService) {
+        this.structuredEventEnablementConfig = structuredEventEnablementConfig;
+        this.queueCapacity = queueCapacity;
+        this.appendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(appendTimeoutMillis);
+        this.writeBuffer = ByteBuffer.allocateDirect(bufferSizeInKb * BYTES_IN_KB);
+        this.fsyncBatchSize = fsyncBatchSize;
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+        this.rotationSizeInBytes = rotationSizeInKb * BYTES_IN_KB;
+        this.rotationIntervalMillis = TimeUnit.MINUTES.toMillis(rotationIntervalMinutes);
+        this.maxRotatedFiles = maxRotatedFiles;
+        this.metricService = metricService;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (structuredEventEnablementConfig.isFilePathConfigured()) {
+            journalPath = Path.of(structuredEventEnablementConfig.getAuditFilePath());
+            metricService.ifPresent(service -> service.registerFunctionCounterMetric(MetricType.STRUCTURED_EVENT_JOURNAL_DROPPED, droppedEvents,
+                    LongAdder::doubleValue, Map.of()));
+            compressionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread compressor = new Thread(runnable, "structured-event-journal-compress");
+                compressor.setDaemon(true);
+                return compressor;
+            });
+            Thread writer = new Thread(this::writeEvents, "structured-event-journal");
+            writer.setDaemon(true);
+            writerThread = writer;
+            running = true;
+            writer.start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        Thread writer = writerThread;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            writer.join(WRITER_SHUTDOWN_TIMEOUT_MILLIS);
+        }
+        if (compressionExecutor != null) {
+            compressionExecutor.shutdown();
+            compressionExecutor.awaitTermination(WRITER_SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Queues an event for writing into the journal. If the queue is full, waits for free space up to the append timeout,
+     * the event is dropped and counted only if the writer does not catch up within that time.
+     * @param event object to be written as one json line
+     */
+    public void append(Object event) {
+        if (!running) {
+            LOGGER.debug("Structured event journal is not running, event is not written to file.");
+        } else if (reserveQueueSlot()) {
+            events.offer(event);
+            LockSupport.unpark(writerThread);
+        } else {
+            droppedEvents.increment();
+            LOGGER.warn("Structured event journal queue reached its capacity ({}) and did not free up in time, dropping event.", queueCapacity);
+        }
+    }
+
+    private boolean reserveQueueSlot() {
+        long deadline = System.nanoTime() + appendTimeoutNanos;
+        while (queuedEvents.incrementAndGet() > queueCapacity) {
+            queuedEvents.decrementAndGet();
+            if (!running || System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(APPEND_RETRY_NANOS);
+        }
+        return true;
+    }
+
+    private void writeEvents() {
+        LOGGER.info("Start writing structured events to {}", journalPath);
+        while (running || !events.isEmpty()) {
+            Object event = events.poll();
+            try {
+                if (event == null) {
+                    syncIfNeeded();
+                    reopenIfMoved();
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMillis));
+                } else {
+                    queuedEvents.decrementAndGet();
+                    write(event);
+                    syncIfNeeded();
+                    rotateIfNeeded();
+                }
+            } catch (IOException e) {
+                LOGGER.error("Can not write structured event to file " + journalPath, e);
+                closeChannel();
+            }
+        }
+        try {
+            sync();
+        } catch (IOException e) {
+            LOGGER.error("Can not sync structured events to file " + journalPath, e);
+        }
+        closeChannel();
+    }
+
+    private void write(Object event) throws IOException {
+        serializationBuffer.reset();
+        try {
+            objectMapper.writeValue(serializationBuffer, event);
+        } catch (IOException e) {
+            LOGGER.error("Can not serialize structured event for file " + journalPath, e);
+            return;
+        }
+        serializationBuffer.write(NEW_LINE);
+        openChannelIfNeeded();
+        if (writeBuffer.remaining() < serializationBuffer.size()) {
+            flushWriteBuffer();
+        }
+        if (writeBuffer.remaining() < serializationBuffer.size()) {
+            writeFully(ByteBuffer.wrap(serializationBuffer.getBuffer(), 0, serializationBuffer.size()));
+        } else {
+            writeBuffer.put(serializationBuffer.getBuffer(), 0, serializationBuffer.size());
+        }
+        unsyncedEvents++;
+    }
+
+    private void syncIfNeeded() throws IOException {
+        if (unsyncedEvents > 0 && (unsyncedEvents >= fsyncBatchSize || System.currentTimeMillis() - lastSync >= fsyncIntervalMillis)) {
+            sync();
+            reopenIfMoved();
+        }
+    }
+
+    private void reopenIfMoved() {
+        if (channel == null || fileKey == null) {
+            return;
+        }
+        try {
+            if (!Objects.equals(fileKey, Files.readAttributes(journalPath, BasicFileAttributes.class).fileKey())) {
+                LOGGER.info("Structured event file {} was replaced, reopening it.", journalPath);
+                closeChannel();
+            }
+        } catch (NoSuchFileException e) {
+            LOGGER.info("Structured event file {} was moved or deleted, reopening it.", journalPath);
+            closeChannel();
+        } catch (IOException e) {
+            LOGGER.debug("Can not read attributes of structured event file {}", journalPath, e);
+        }
+    }
+
+    private void sync() throws IOException {
+        if (channel != null) {
+            flushWriteBuffer();
+            channel.force(false);
+        }
+        unsyncedEvents = 0;
+        lastSync = System.currentTimeMillis();
+    }
+
+    private void flushWriteBuffer() throws IOException {
+        writeBuffer.flip();
+        writeFully(writeBuffer);
+        writeBuffer.clear();
+    }
+
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            fileSize += channel.write(buffer);
+        }
+    }
+
+    private void rotateIfNeeded() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        long pendingSize = fileSize + writeBuffer.position();
+        boolean sizeReached = rotationSizeInBytes > 0 && pendingSize >= rotationSizeInBytes;
+        boolean ageReached = rotationIntervalMillis > 0 && pendingSize > 0 && System.currentTimeMillis() - fileOpenedAt >= rotationIntervalMillis;
+        if (sizeReached || ageReached) {
+            sync();
+            closeChannel();
+            Path rotatedPath = journalPath.resolveSibling(journalPath.getFileName() + "." + LocalDateTime.now().format(ROTATION_SUFFIX_FORMATTER));
+            Files.move(journalPath, rotatedPath);
+            compressionExecutor.execute(() -> {
+                compress(rotatedPath);
+                deleteOldRotatedFiles();
+            });
+        }
+    }
+
+    private void compress(Path rotatedPath) {
+        Path compressedPath = rotatedPath.resolveSibling(rotatedPath.getFileName() + GZIP_EXTENSION);
+        try (InputStream inputStream = Files.newInputStream(rotatedPath);
+                OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(compressedPath))) {
+            inputStream.transferTo(outputStream);
+        } catch (IOException e) {
+            LOGGER.warn("Can not compress rotated structured event file {}, it is kept uncompressed.", rotatedPath, e);
+            return;
+        }
+        try {
+            Files.delete(rotatedPath);
+        } catch (IOException e) {
+            LOGGER.warn("Can not delete compressed structured event file {}", rotatedPath, e);
+        }
+    }
+
+    private void deleteOldRotatedFiles() {
+        String rotatedPrefix = journalPath.getFileName() + ".";
+        try (Stream<Path> files = Files.list(journalPath.toAbsolutePath().getParent())) {
+            List<Path> rotatedFiles = files
+                    .filter(file -> file.getFileName().toString().startsWith(rotatedPrefix) && file.getFileName().toString().endsWith(GZIP_EXTENSION))
+                    .sorted()
+                    .collect(Collectors.toList());
+            for (Path file : rotatedFiles.subList(0, Math.max(rotatedFiles.size() - maxRotatedFiles, 0))) {
+                Files.delete(file);
+            }
+        } catch (IOException e) {
+            LOGGER.warn("Can not delete old rotated structured event files of {}", journalPath, e);
+        }
+    }
+
+    private void openChannelIfNeeded() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(journalPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            fileSize = channel.size();
+            fileOpenedAt = System.currentTimeMillis();
+            fileKey = Files.readAttributes(journalPath, BasicFileAttributes.class).fileKey();
+            writeBuffer.clear();
+        }
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.debug("Can not close structured event file {}", journalPath, e);
+            }
+            channel = null;
+        }
+    }
+
+    private static class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+
+        byte[] getBuffer() {
+            return buf;
+        }
+    }
+}
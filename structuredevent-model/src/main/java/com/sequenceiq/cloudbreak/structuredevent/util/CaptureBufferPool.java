@@ -0,0 +1,43 @@
+package com.sequenceiq.cloudbreak.structuredevent.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool of the fixed size byte buffers that are used to capture the request and response bodies for the structured events.
+ * Every buffer can hold {@link LoggingStream#MAX_CONTENT_LENGTH} bytes and one more byte to detect truncation.
+ * At most {@link #MAX_POOLED_BUFFERS} buffers are kept, the rest are left for the garbage collector.
+ */
+public class CaptureBufferPool {
+
+    public static final int BUFFER_SIZE = LoggingStream.MAX_CONTENT_LENGTH + 1;
+
+    private static final int MAX_POOLED_BUFFERS = 64;
+
+    private static final Queue<byte[]> BUFFERS = new ConcurrentLinkedQueue<>();
+
+    private static final AtomicInteger POOLED_BUFFERS = new AtomicInteger();
+
+    private CaptureBufferPool() {
+    }
+
+    public static byte[] acquire() {
+        byte[] buffer = BUFFERS.poll();
+        if (buffer == null) {
+            return new byte[BUFFER_SIZE];
+        }
+        POOLED_BUFFERS.decrementAndGet();
+        return buffer;
+    }
+
+    public static void release(byte[] buffer) {
+        if (buffer != null && buffer.length == BUFFER_SIZE) {
+            if (POOLED_BUFFERS.incrementAndGet() <= MAX_POOLED_BUFFERS) {
+                BUFFERS.offer(buffer);
+            } else {
+                POOLED_BUFFERS.decrementAndGet();
+            }
+        }
+    }
+}
@@ -1,42 +1,97 @@
 package com.sequenceiq.cloudbreak.structuredevent.util;
 
-import java.io.ByteArrayOutputStream;
 import java.io.FilterOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.Charset;
 
+/**
+ * Passes the response entity through and keeps the first {@link #MAX_CONTENT_LENGTH} bytes of it for the structured event.
+ * The bytes are captured in a pooled buffer and decoded only once, when the captured content is requested.
+ */
 public class LoggingStream extends FilterOutputStream {
 
     public static final int MAX_CONTENT_LENGTH = 65535;
 
-    private final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    private static final String TRUNCATION_MARKER = "...more...";
 
     private final Boolean contentLogging;
 
+    private byte[] buffer;
+
+    private int capturedLength;
+
+    private boolean truncated;
+
+    private String capturedContent;
+
     public LoggingStream(OutputStream inner, Boolean contentLogging) {
         super(inner);
         this.contentLogging = contentLogging;
     }
 
-    public StringBuffer getStringBuilder(Charset charset) {
-        StringBuffer b = new StringBuffer();
-        if (contentLogging) {
-            byte[] entity = baos.toByteArray();
-            b.append(new String(entity, 0, Math.min(entity.length, MAX_CONTENT_LENGTH), charset));
-            if (entity.length > MAX_CONTENT_LENGTH) {
-                b.append("...more...");
-            }
-            b.append('\n');
+    /**
+     * Decodes the captured content on the first call and gives the capture buffer back to the pool. Later calls return the same content.
+     * @return the captured content with a truncation marker if the entity was longer than the limit, or an empty string if content logging is disabled
+     */
+    public synchronized String getCapturedContent(Charset charset) {
+        if (!Boolean.TRUE.equals(contentLogging)) {
+            return "";
+        }
+        if (capturedContent != null) {
+            return capturedContent;
         }
-        return b;
+        StringBuilder content = new StringBuilder(capturedLength + TRUNCATION_MARKER.length() + 1);
+        if (buffer != null) {
+            content.append(new String(buffer, 0, capturedLength, charset));
+            CaptureBufferPool.release(buffer);
+            buffer = null;
+        }
+        if (truncated) {
+            content.append(TRUNCATION_MARKER);
+        }
+        capturedContent = content.append('\n').toString();
+        return capturedContent;
     }
 
     @Override
     public void write(int i) throws IOException {
-        if (contentLogging && baos.size() <= MAX_CONTENT_LENGTH) {
-            baos.write(i);
-        }
+        capture(i);
         out.write(i);
     }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        capture(b, off, len);
+        out.write(b, off, len);
+    }
+
+    private synchronized void capture(int b) {
+        if (isCapturing(1)) {
+            if (capturedLength < MAX_CONTENT_LENGTH) {
+                buffer[capturedLength++] = (byte) b;
+            } else {
+                truncated = true;
+            }
+        }
+    }
+
+    private synchronized void capture(byte[] b, int off, int len) {
+        if (isCapturing(len)) {
+            int captured = Math.min(len, MAX_CONTENT_LENGTH - capturedLength);
+            System.arraycopy(b, off, buffer, capturedLength, captured);
+            capturedLength += captured;
+            truncated = captured < len;
+        }
+    }
+
+    private boolean isCapturing(int len) {
+        if (!Boolean.TRUE.equals(contentLogging) || truncated || capturedContent != null || len <= 0) {
+            return false;
+        }
+        if (buffer == null && capturedLength == 0) {
+            buffer = CaptureBufferPool.acquire();
+        }
+        return buffer != null;
+    }
 }
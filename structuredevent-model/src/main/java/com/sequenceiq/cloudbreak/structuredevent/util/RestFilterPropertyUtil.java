@@ -25,6 +25,19 @@ public class RestFilterPropertyUtil {
 
     private static final List<String> SKIPPED_HEADERS_LIST = Lists.newArrayList("authorization");
 
+    private static final List<MediaType> NOT_CAPTURED_MEDIA_TYPES = Lists.newArrayList(
+            MediaType.APPLICATION_OCTET_STREAM_TYPE,
+            MediaType.MULTIPART_FORM_DATA_TYPE,
+            MediaType.SERVER_SENT_EVENTS_TYPE,
+            new MediaType("multipart", MediaType.MEDIA_TYPE_WILDCARD),
+            new MediaType("image", MediaType.MEDIA_TYPE_WILDCARD),
+            new MediaType("audio", MediaType.MEDIA_TYPE_WILDCARD),
+            new MediaType("video", MediaType.MEDIA_TYPE_WILDCARD),
+            new MediaType("application", "zip"),
+            new MediaType("application", "gzip"),
+            new MediaType("application", "x-tar"),
+            new MediaType("application", "pdf"));
+
     private RestFilterPropertyUtil() {
     }
 
@@ -62,12 +75,20 @@ public class RestFilterPropertyUtil {
     public static void extractAndSetResponseEntityStreamIfAbsent(ContainerRequestContext requestContext, ContainerResponseContext responseContext,
             Boolean contentLogging) {
         if (Objects.isNull(requestContext.getProperty(CDPJaxRsFilterPropertyKeys.RESPONSE_LOGGING_STREAM))) {
-            OutputStream stream = new LoggingStream(responseContext.getEntityStream(), contentLogging);
+            OutputStream stream = new LoggingStream(responseContext.getEntityStream(),
+                    Boolean.TRUE.equals(contentLogging) && isContentCapturable(responseContext.getMediaType()));
             responseContext.setEntityStream(stream);
             requestContext.setProperty(CDPJaxRsFilterPropertyKeys.RESPONSE_LOGGING_STREAM, stream);
         }
     }
 
+    /**
+     * Streaming and binary entities are not captured for the structured events, they would only fill the capture buffer with unreadable content.
+     */
+    public static boolean isContentCapturable(MediaType mediaType) {
+        return mediaType == null || NOT_CAPTURED_MEDIA_TYPES.stream().noneMatch(notCaptured -> notCaptured.isCompatible(mediaType));
+    }
+
     private static Map<String, String> convertHeaders(ContainerRequestContext requestContext) {
         return requestContext.getHeaders().entrySet().stream().filter(e -> !SKIPPED_HEADERS_LIST.contains(e.getKey())).collect(
                 Collectors.toMap(Map.Entry::getKey, e -> StringUtils.join(e.getValue(), ",")));
@@ -21,13 +21,17 @@ public class RestFilterRequestBodyLogger {
                 stream = new BufferedInputStream(stream, MAX_CONTENT_LENGTH + 1);
             }
             stream.mark(MAX_CONTENT_LENGTH + 1);
-            byte[] entity = new byte[MAX_CONTENT_LENGTH + 1];
-            int entitySize = IOUtils.read(stream, entity);
-            if (entitySize != -1) {
-                outContent.append(new String(entity, 0, Math.min(entitySize, MAX_CONTENT_LENGTH), charset));
-                if (entitySize > MAX_CONTENT_LENGTH) {
-                    outContent.append("...more...");
+            byte[] entity = CaptureBufferPool.acquire();
+            try {
+                int entitySize = IOUtils.read(stream, entity);
+                if (entitySize != -1) {
+                    outContent.append(new String(entity, 0, Math.min(entitySize, MAX_CONTENT_LENGTH), charset));
+                    if (entitySize > MAX_CONTENT_LENGTH) {
+                        outContent.append("...more...");
+                    }
                 }
+            } finally {
+                CaptureBufferPool.release(entity);
             }
             outContent.append('\n');
             stream.reset();
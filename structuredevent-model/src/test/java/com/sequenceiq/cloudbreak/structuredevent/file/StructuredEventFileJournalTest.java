@@ -0,0 +1,137 @@
+package com.sequenceiq.cloudbreak.structuredevent.file;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.sequenceiq.cloudbreak.structuredevent.conf.StructuredEventEnablementConfig;
+
+@ExtendWith(MockitoExtension.class)
+class StructuredEventFileJournalTest {
+
+    private static final long REOPEN_WAIT_MILLIS = 100L;
+
+    private static final long WAIT_TIMEOUT_MILLIS = 5000L;
+
+    private static final long APPEND_TIMEOUT_MILLIS = 5000L;
+
+    private static final int EVENT_COUNT = 1000;
+
+    @Mock
+    private StructuredEventEnablementConfig structuredEventEnablementConfig;
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void testEventsAreWrittenAsJsonLines() throws Exception {
+        Path auditFile = tempDir.resolve("audit.log");
+        StructuredEventFileJournal underTest = createJournal(auditFile, 100L);
+
+        underTest.append(Map.of("id", 1));
+        underTest.append(Map.of("id", 2));
+        underTest.shutdown();
+
+        assertEquals(List.of("{\"id\":1}", "{\"id\":2}"), Files.readAllLines(auditFile));
+    }
+
+    @Test
+    void testJournalIsRotatedAndCompressed() throws Exception {
+        Path auditFile = tempDir.resolve("audit.log");
+        StructuredEventFileJournal underTest = createJournal(auditFile, 1L);
+
+        underTest.append(Map.of("id", "x".repeat(2048)));
+        underTest.shutdown();
+
+        assertFalse(Files.exists(auditFile));
+        List<Path> rotatedFiles = listRotatedFiles();
+        assertEquals(1, rotatedFiles.size());
+        assertTrue(rotatedFiles.get(0).getFileName().toString().endsWith(".gz"));
+    }
+
+    @Test
+    void testAppendWaitsForFreeSpaceInsteadOfDroppingEvents() throws Exception {
+        Path auditFile = tempDir.resolve("audit.log");
+        StructuredEventFileJournal underTest = createJournal(auditFile, 1, 0L);
+
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            underTest.append(Map.of("id", i));
+        }
+        underTest.shutdown();
+
+        List<String> expected = IntStream.range(0, EVENT_COUNT).mapToObj(i -> "{\"id\":" + i + '}').collect(Collectors.toList());
+        assertEquals(expected, Files.readAllLines(auditFile));
+    }
+
+    @Test
+    void testJournalIsReopenedAfterExternalRotation() throws Exception {
+        Path auditFile = tempDir.resolve("audit.log");
+        Path movedFile = tempDir.resolve("audit.log.1");
+        StructuredEventFileJournal underTest = createJournal(auditFile, 0L);
+
+        underTest.append(Map.of("id", 1));
+        waitUntilSize(auditFile);
+        Files.move(auditFile, movedFile);
+        Thread.sleep(REOPEN_WAIT_MILLIS);
+        underTest.append(Map.of("id", 2));
+        underTest.shutdown();
+
+        assertEquals(List.of("{\"id\":1}"), Files.readAllLines(movedFile));
+        assertEquals(List.of("{\"id\":2}"), Files.readAllLines(auditFile));
+    }
+
+    @Test
+    void testEventIsDroppedWhenJournalIsNotRunning() throws Exception {
+        when(structuredEventEnablementConfig.isFilePathConfigured()).thenReturn(false);
+        StructuredEventFileJournal underTest = new StructuredEventFileJournal(structuredEventEnablementConfig, 10, APPEND_TIMEOUT_MILLIS, 1, 10, 10L, 1L, 0L, 2,
+                Optional.empty());
+        underTest.init();
+
+        underTest.append(Map.of("id", 1));
+
+        assertEquals(0L, Files.list(tempDir).count());
+    }
+
+    private StructuredEventFileJournal createJournal(Path auditFile, long rotationSizeInKb) {
+        return createJournal(auditFile, 10, rotationSizeInKb);
+    }
+
+    private StructuredEventFileJournal createJournal(Path auditFile, int queueCapacity, long rotationSizeInKb) {
+        when(structuredEventEnablementConfig.isFilePathConfigured()).thenReturn(true);
+        when(structuredEventEnablementConfig.getAuditFilePath()).thenReturn(auditFile.toString());
+        StructuredEventFileJournal journal = new StructuredEventFileJournal(structuredEventEnablementConfig, queueCapacity, APPEND_TIMEOUT_MILLIS, 1, 10, 10L,
+                rotationSizeInKb, 0L, 2, Optional.empty());
+        journal.init();
+        return journal;
+    }
+
+    private void waitUntilSize(Path file) throws Exception {
+        long deadline = System.currentTimeMillis() + WAIT_TIMEOUT_MILLIS;
+        while ((!Files.exists(file) || Files.size(file) == 0L) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(REOPEN_WAIT_MILLIS);
+        }
+    }
+
+    private List<Path> listRotatedFiles() throws IOException {
+        try (Stream<Path> files = Files.list(tempDir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("audit.log.")).collect(Collectors.toList());
+        }
+    }
+}
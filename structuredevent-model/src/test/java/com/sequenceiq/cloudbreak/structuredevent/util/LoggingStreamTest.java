@@ -0,0 +1,66 @@
+package com.sequenceiq.cloudbreak.structuredevent.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.jupiter.api.Test;
+
+class LoggingStreamTest {
+
+    @Test
+    void testCapturedContentWhenShorterThanMax() throws IOException {
+        ByteArrayOutputStream inner = new ByteArrayOutputStream();
+        LoggingStream underTest = new LoggingStream(inner, true);
+
+        underTest.write("{\"name\":".getBytes(StandardCharsets.UTF_8));
+        underTest.write('"');
+        underTest.write("\u00e9\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("{\"name\":\"\u00e9\"}", inner.toString(StandardCharsets.UTF_8));
+        assertEquals("{\"name\":\"\u00e9\"}\n", underTest.getCapturedContent(StandardCharsets.UTF_8));
+        assertEquals("{\"name\":\"\u00e9\"}\n", underTest.getCapturedContent(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testCapturedContentIsTruncatedWhenLongerThanMax() throws IOException {
+        ByteArrayOutputStream inner = new ByteArrayOutputStream();
+        LoggingStream underTest = new LoggingStream(inner, true);
+        byte[] entity = "a".repeat(LoggingStream.MAX_CONTENT_LENGTH * 2).getBytes(StandardCharsets.UTF_8);
+
+        underTest.write(entity, 0, LoggingStream.MAX_CONTENT_LENGTH - 1);
+        underTest.write(entity, LoggingStream.MAX_CONTENT_LENGTH - 1, entity.length - LoggingStream.MAX_CONTENT_LENGTH + 1);
+
+        assertArrayEquals(entity, inner.toByteArray());
+        String captured = underTest.getCapturedContent(StandardCharsets.UTF_8);
+        assertEquals(LoggingStream.MAX_CONTENT_LENGTH + "...more...\n".length(), captured.length());
+        assertTrue(captured.endsWith("a...more...\n"));
+    }
+
+    @Test
+    void testCapturedContentIsEmptyWhenContentLoggingDisabled() throws IOException {
+        ByteArrayOutputStream inner = new ByteArrayOutputStream();
+        LoggingStream underTest = new LoggingStream(inner, false);
+
+        underTest.write("body".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals("body", inner.toString(StandardCharsets.UTF_8));
+        assertEquals("", underTest.getCapturedContent(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testIsContentCapturable() {
+        assertTrue(RestFilterPropertyUtil.isContentCapturable(null));
+        assertTrue(RestFilterPropertyUtil.isContentCapturable(MediaType.APPLICATION_JSON_TYPE));
+        assertFalse(RestFilterPropertyUtil.isContentCapturable(MediaType.APPLICATION_OCTET_STREAM_TYPE));
+        assertFalse(RestFilterPropertyUtil.isContentCapturable(MediaType.SERVER_SENT_EVENTS_TYPE));
+        assertFalse(RestFilterPropertyUtil.isContentCapturable(new MediaType("image", "png")));
+    }
+}
@@ -97,7 +97,8 @@ public class CDPRestAuditFilter implements WriterInterceptor, ContainerRequestFi
         if (Objects.isNull(requestContext.getProperty(REQUEST_DETAILS))) {
             StringBuilder body = new StringBuilder();
             requestContext.setEntityStream(RestFilterRequestBodyLogger.logInboundEntity(body, requestContext.getEntityStream(),
-                    MessageUtils.getCharset(requestContext.getMediaType()), Boolean.TRUE));
+                    MessageUtils.getCharset(requestContext.getMediaType()),
+                    RestFilterPropertyUtil.isContentCapturable(requestContext.getMediaType())));
             requestContext.setProperty(REQUEST_DETAILS, RestFilterPropertyUtil.createRequestDetails(requestContext, body.toString()));
         }
     }
@@ -106,8 +107,8 @@ public class CDPRestAuditFilter implements WriterInterceptor, ContainerRequestFi
         Long requestTime = (Long) context.getProperty(REQUEST_TIME);
         RestRequestDetails restRequest = (RestRequestDetails) context.getProperty(REQUEST_DETAILS);
         RestResponseDetails restResponse = (RestResponseDetails) context.getProperty(RESPONSE_DETAILS);
-        String responseBody = ((LoggingStream) context.getProperty(RESPONSE_LOGGING_STREAM)).getStringBuilder(
-                MessageUtils.getCharset(context.getMediaType())).toString();
+        String responseBody = ((LoggingStream) context.getProperty(RESPONSE_LOGGING_STREAM)).getCapturedContent(
+                MessageUtils.getCharset(context.getMediaType()));
         Map<String, String> restParams = (Map<String, String>) context.getProperty(AUDIT_REST_PARAMS);
         if (restParams == null) {
             restParams = new HashMap<>();
@@ -80,7 +80,8 @@ public class CDPStructuredEventFilter implements WriterInterceptor, ContainerReq
             requestContext.setProperty(REQUEST_TIME, System.currentTimeMillis());
             StringBuilder body = new StringBuilder();
             requestContext.setEntityStream(RestFilterRequestBodyLogger.logInboundEntity(body, requestContext.getEntityStream(),
-                    MessageUtils.getCharset(requestContext.getMediaType()), contentLogging));
+                    MessageUtils.getCharset(requestContext.getMediaType()),
+                    Boolean.TRUE.equals(contentLogging) && RestFilterPropertyUtil.isContentCapturable(requestContext.getMediaType())));
             requestContext.setProperty(REST_PARAMS, getRequestUrlParameters(requestContext));
             requestContext.setProperty(REQUEST_DETAILS, RestFilterPropertyUtil.createRequestDetails(requestContext, body.toString()));
         }
@@ -123,8 +124,8 @@ public class CDPStructuredEventFilter implements WriterInterceptor, ContainerReq
         Long requestTime = (Long) context.getProperty(REQUEST_TIME);
         RestRequestDetails restRequest = (RestRequestDetails) context.getProperty(REQUEST_DETAILS);
         RestResponseDetails restResponse = (RestResponseDetails) context.getProperty(RESPONSE_DETAILS);
-        String responseBody = ((LoggingStream) context.getProperty(RESPONSE_LOGGING_STREAM)).getStringBuilder(
-                MessageUtils.getCharset(context.getMediaType())).toString();
+        String responseBody = ((LoggingStream) context.getProperty(RESPONSE_LOGGING_STREAM)).getCapturedContent(
+                MessageUtils.getCharset(context.getMediaType()));
         Map<String, String> restParams = (Map<String, String>) context.getProperty(REST_PARAMS);
         if (restParams == null) {
             restParams = new HashMap<>();
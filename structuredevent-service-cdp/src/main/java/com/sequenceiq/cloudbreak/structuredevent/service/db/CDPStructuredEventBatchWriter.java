@@ -0,0 +1,136 @@
+package com.sequenceiq.cloudbreak.structuredevent.service.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.sequenceiq.cloudbreak.structuredevent.domain.CDPStructuredEventEntity;
+import com.sequenceiq.cloudbreak.structuredevent.repository.CDPStructuredEventRepository;
+
+/**
+ * Write-behind store for the structured event entities. The entities are put into a bounded queue and saved in batches
+ * by a background thread, so the audited REST calls and flows do not wait for the database.
+ * If the queue is full or the writer is stopped, the entity is saved in the caller thread. A failed batch is saved again entity by entity.
+ * It is disabled by default, because the events are not part of the caller's transaction any more and a read right after
+ * the audited operation can miss its event.
+ * <p>
+ * On shutdown the writer thread is stopped by a flag instead of an interrupt, so the batch in flight and the remaining queued
+ * entities are saved with a usable JDBC connection.
+ */
+@Component
+public class CDPStructuredEventBatchWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CDPStructuredEventBatchWriter.class);
+
+    private static final long SHUTDOWN_TIMEOUT_MILLIS = 10000L;
+
+    @Inject
+    private CDPStructuredEventRepository structuredEventRepository;
+
+    @Value("${cdp.structuredevent.db.writer.enabled:false}")
+    private boolean enabled;
+
+    @Value("${cdp.structuredevent.db.writer.queue.capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${cdp.structuredevent.db.writer.batch.size:100}")
+    private int batchSize;
+
+    @Value("${cdp.structuredevent.db.writer.flush.interval.ms:500}")
+    private long flushIntervalMillis;
+
+    private BlockingQueue<CDPStructuredEventEntity> queue;
+
+    private Thread writerThread;
+
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() {
+        if (enabled) {
+            queue = new ArrayBlockingQueue<>(queueCapacity);
+            running = true;
+            writerThread = new Thread(this::writeEntities, "cdp-structured-event-writer");
+            writerThread.setDaemon(true);
+            writerThread.start();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writerThread != null) {
+            running = false;
+            writerThread.join(SHUTDOWN_TIMEOUT_MILLIS);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues the entity for saving. The entity is saved in the caller thread if the queue is full or the writer is stopped.
+     */
+    public void write(CDPStructuredEventEntity entity) {
+        if (!running) {
+            LOGGER.debug("Structured event writer is stopped, saving event in the caller thread.");
+            structuredEventRepository.save(entity);
+        } else if (!queue.offer(entity)) {
+            LOGGER.debug("Structured event write queue is full ({}), saving event in the caller thread.", queueCapacity);
+            structuredEventRepository.save(entity);
+        }
+    }
+
+    private void writeEntities() {
+        List<CDPStructuredEventEntity> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                CDPStructuredEventEntity entity = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (entity != null) {
+                    batch.add(entity);
+                    queue.drainTo(batch, batchSize - 1);
+                    saveBatch(batch);
+                }
+            } catch (InterruptedException e) {
+                LOGGER.warn("Structured event writer is interrupted, saving the queued events and stopping.");
+                running = false;
+            } catch (Exception e) {
+                LOGGER.warn("Unexpected error during saving structured events.", e);
+            } finally {
+                batch.clear();
+            }
+        }
+        queue.drainTo(batch);
+        LOGGER.info("Saving {} queued structured events before shutdown.", batch.size());
+        saveBatch(batch);
+    }
+
+    private void saveBatch(List<CDPStructuredEventEntity> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            structuredEventRepository.saveAll(batch);
+        } catch (Exception e) {
+            LOGGER.warn("Saving a batch of {} structured events failed, saving them one by one.", batch.size(), e);
+            for (CDPStructuredEventEntity entity : batch) {
+                try {
+                    structuredEventRepository.save(entity);
+                } catch (Exception saveException) {
+                    LOGGER.warn("Structured event of resource {} cannot be saved.", entity.getResourceCrn(), saveException);
+                }
+            }
+        }
+    }
+}
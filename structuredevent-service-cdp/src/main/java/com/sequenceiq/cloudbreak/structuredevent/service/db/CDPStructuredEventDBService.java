@@ -48,6 +48,9 @@ public class CDPStructuredEventDBService extends AbstractAccountAwareResourceSer
     @Inject
     private CDPStructuredEventEntityToCDPStructuredEventConverter cdpStructuredEventEntityToCDPStructuredEventConverter;
 
+    @Inject
+    private CDPStructuredEventBatchWriter structuredEventBatchWriter;
+
     @Override
     public void create(CDPStructuredEvent structuredEvent) {
         LOGGER.info("Stored StructuredEvent type: {}, payload: {}", structuredEvent.getType(),
@@ -58,7 +61,11 @@ public class CDPStructuredEventDBService extends AbstractAccountAwareResourceSer
         } else {
             CDPStructuredEventEntity structuredEventEntityEntity = cdpStructuredEventToCDPStructuredEventEntityConverter
                     .convert(structuredEvent);
-            create(structuredEventEntityEntity, structuredEventEntityEntity.getAccountId());
+            if (structuredEventBatchWriter.isEnabled()) {
+                structuredEventBatchWriter.write(structuredEventEntityEntity);
+            } else {
+                create(structuredEventEntityEntity, structuredEventEntityEntity.getAccountId());
+            }
         }
     }
 
@@ -4,18 +4,15 @@ import javax.inject.Inject;
 
 import org.springframework.stereotype.Component;
 
-import com.sequenceiq.cloudbreak.eventbus.Event;
-import com.sequenceiq.cloudbreak.eventbus.EventBus;
 import com.sequenceiq.cloudbreak.structuredevent.conf.StructuredEventEnablementConfig;
 import com.sequenceiq.cloudbreak.structuredevent.event.cdp.CDPStructuredEvent;
 import com.sequenceiq.cloudbreak.structuredevent.event.cdp.CDPStructuredEventSenderService;
+import com.sequenceiq.cloudbreak.structuredevent.file.StructuredEventFileJournal;
 import com.sequenceiq.flow.reactor.ErrorHandlerAwareReactorEventFactory;
 
 @Component
 public class CDPAsyncFileStructuredEventSender implements CDPStructuredEventSenderService {
 
-    public static final String SAVE_STRUCTURED_EVENT_TO_FILE = "CDP_SAVE_STRUCTURED_EVENT_TO_FILE";
-
     @Inject
     private StructuredEventEnablementConfig structuredEventEnablementConfig;
 
@@ -23,7 +20,7 @@ public class CDPAsyncFileStructuredEventSender implements CDPStructuredEventSend
     private ErrorHandlerAwareReactorEventFactory eventFactory;
 
     @Inject
-    private EventBus eventBus;
+    private StructuredEventFileJournal structuredEventFileJournal;
 
     @Override
     public boolean isEnabled() {
@@ -32,11 +29,7 @@ public class CDPAsyncFileStructuredEventSender implements CDPStructuredEventSend
 
     @Override
     public void create(CDPStructuredEvent structuredEvent) {
-        sendAsyncEvent(SAVE_STRUCTURED_EVENT_TO_FILE, eventFactory.createEvent(structuredEvent));
-    }
-
-    private void sendAsyncEvent(String selector, Event<?> event) {
-        eventBus.notify(selector, event);
+        structuredEventFileJournal.append(eventFactory.createEvent(structuredEvent));
     }
 
 }
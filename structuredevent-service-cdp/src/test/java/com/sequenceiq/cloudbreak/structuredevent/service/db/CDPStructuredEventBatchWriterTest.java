@@ -0,0 +1,134 @@
+package com.sequenceiq.cloudbreak.structuredevent.service.db;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.sequenceiq.cloudbreak.structuredevent.domain.CDPStructuredEventEntity;
+import com.sequenceiq.cloudbreak.structuredevent.repository.CDPStructuredEventRepository;
+
+@ExtendWith(MockitoExtension.class)
+class CDPStructuredEventBatchWriterTest {
+
+    private static final long VERIFY_TIMEOUT_MILLIS = 5000L;
+
+    @InjectMocks
+    private CDPStructuredEventBatchWriter underTest;
+
+    @Mock
+    private CDPStructuredEventRepository structuredEventRepository;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        underTest.shutdown();
+    }
+
+    @Test
+    void testWriteSavesEntitiesInBatch() {
+        init(10);
+        CDPStructuredEventEntity first = new CDPStructuredEventEntity();
+        CDPStructuredEventEntity second = new CDPStructuredEventEntity();
+
+        underTest.write(first);
+        underTest.write(second);
+
+        verify(structuredEventRepository, timeout(VERIFY_TIMEOUT_MILLIS).atLeastOnce()).saveAll(anyList());
+    }
+
+    @Test
+    void testWriteSavesEntitiesOneByOneWhenBatchFails() {
+        doThrow(new RuntimeException("batch failed")).when(structuredEventRepository).saveAll(anyList());
+        init(10);
+        CDPStructuredEventEntity entity = new CDPStructuredEventEntity();
+
+        underTest.write(entity);
+
+        verify(structuredEventRepository, timeout(VERIFY_TIMEOUT_MILLIS)).saveAll(List.of(entity));
+        verify(structuredEventRepository, timeout(VERIFY_TIMEOUT_MILLIS)).save(entity);
+    }
+
+    @Test
+    void testWriteSavesEntityInCallerThreadWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch saveStarted = new CountDownLatch(1);
+        CountDownLatch releaseSave = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            saveStarted.countDown();
+            releaseSave.await(VERIFY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            return invocation.getArgument(0);
+        }).when(structuredEventRepository).saveAll(anyList());
+        init(1);
+        underTest.write(new CDPStructuredEventEntity());
+        assertTrue(saveStarted.await(VERIFY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        CDPStructuredEventEntity queued = new CDPStructuredEventEntity();
+        CDPStructuredEventEntity overflow = new CDPStructuredEventEntity();
+
+        underTest.write(queued);
+        underTest.write(overflow);
+        releaseSave.countDown();
+
+        verify(structuredEventRepository).save(overflow);
+        verify(structuredEventRepository, never()).save(queued);
+    }
+
+    @Test
+    void testShutdownSavesBatchInFlightWithoutInterrupt() throws InterruptedException {
+        CountDownLatch saveStarted = new CountDownLatch(1);
+        CountDownLatch shutdownStarted = new CountDownLatch(1);
+        AtomicBoolean interruptedDuringSave = new AtomicBoolean();
+        doAnswer(invocation -> {
+            saveStarted.countDown();
+            shutdownStarted.await(VERIFY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            Thread.sleep(50L);
+            interruptedDuringSave.set(Thread.currentThread().isInterrupted());
+            return invocation.getArgument(0);
+        }).when(structuredEventRepository).saveAll(anyList());
+        init(10);
+        CDPStructuredEventEntity inFlight = new CDPStructuredEventEntity();
+        underTest.write(inFlight);
+        assertTrue(saveStarted.await(VERIFY_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+
+        shutdownStarted.countDown();
+        underTest.shutdown();
+
+        assertFalse(interruptedDuringSave.get());
+        verify(structuredEventRepository, never()).save(any());
+    }
+
+    @Test
+    void testWriteSavesEntityInCallerThreadAfterShutdown() throws InterruptedException {
+        init(10);
+        underTest.shutdown();
+        CDPStructuredEventEntity entity = new CDPStructuredEventEntity();
+
+        underTest.write(entity);
+
+        verify(structuredEventRepository).save(entity);
+    }
+
+    private void init(int queueCapacity) {
+        ReflectionTestUtils.setField(underTest, "enabled", true);
+        ReflectionTestUtils.setField(underTest, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(underTest, "batchSize", 10);
+        ReflectionTestUtils.setField(underTest, "flushIntervalMillis", 10L);
+        underTest.init();
+    }
+}
@@ -49,6 +49,9 @@ public class CDPStructuredEventDBServiceTest {
     @Mock
     private CDPStructuredEventEntityToCDPStructuredEventConverter cdpStructuredEventEntityToCDPStructuredEventConverter;
 
+    @Mock
+    private CDPStructuredEventBatchWriter structuredEventBatchWriter;
+
     @Test
     public void testGetPagedEventsOfResourceWhenEventTypesEmpty() {
         ArgumentCaptor<List> eventTypes = ArgumentCaptor.forClass(List.class);
@@ -105,4 +108,18 @@ public class CDPStructuredEventDBServiceTest {
         verify(cdpStructuredEventToCDPStructuredEventEntityConverter, Mockito.times(1)).convert(event);
         verify(structuredEventRepository, Mockito.times(1)).save(entity);
     }
+
+    @Test
+    public void testCreateWhenBatchWriterIsEnabled() {
+        CDPStructuredEvent event = new CDPStructuredRestCallEvent();
+        CDPOperationDetails operation = new CDPOperationDetails();
+        operation.setResourceCrn("crn:cdp:cloudbreak:us-west-1:someone:stack:12345");
+        event.setOperation(operation);
+        CDPStructuredEventEntity entity = new CDPStructuredEventEntity();
+        when(cdpStructuredEventToCDPStructuredEventEntityConverter.convert(event)).thenReturn(entity);
+        when(structuredEventBatchWriter.isEnabled()).thenReturn(true);
+        underTest.create(event);
+        verify(structuredEventBatchWriter, Mockito.times(1)).write(entity);
+        verify(structuredEventRepository, never()).save(entity);
+    }
 }
@@ -143,7 +143,8 @@ public class LegacyStructuredEventFilter implements WriterInterceptor, Container
             requestContext.setProperty(REQUEST_TIME, System.currentTimeMillis());
             StringBuilder body = new StringBuilder();
             requestContext.setEntityStream(
-                    logInboundEntity(body, requestContext.getEntityStream(), MessageUtils.getCharset(requestContext.getMediaType()), contentLogging));
+                    logInboundEntity(body, requestContext.getEntityStream(), MessageUtils.getCharset(requestContext.getMediaType()),
+                            Boolean.TRUE.equals(contentLogging) && RestFilterPropertyUtil.isContentCapturable(requestContext.getMediaType())));
             requestContext.setProperty(REST_PARAMS, getRequestUrlParameters(requestContext));
             requestContext.setProperty(REQUEST_DETAILS, RestFilterPropertyUtil.createRequestDetails(requestContext, body.toString()));
         }
@@ -172,8 +173,8 @@ public class LegacyStructuredEventFilter implements WriterInterceptor, Container
             Long requestTime = (Long) context.getProperty(REQUEST_TIME);
             RestRequestDetails restRequest = (RestRequestDetails) context.getProperty(REQUEST_DETAILS);
             RestResponseDetails restResponse = (RestResponseDetails) context.getProperty(RESPONSE_DETAILS);
-            String responseBody = ((LoggingStream) context.getProperty(RESPONSE_LOGGING_STREAM)).getStringBuilder(
-                    MessageUtils.getCharset(context.getMediaType())).toString();
+            String responseBody = ((LoggingStream) context.getProperty(RESPONSE_LOGGING_STREAM)).getCapturedContent(
+                    MessageUtils.getCharset(context.getMediaType()));
             Map<String, String> restParams = (Map<String, String>) context.getProperty(REST_PARAMS);
             if (restParams == null) {
                 restParams = new HashMap<>();
@@ -4,18 +4,15 @@ import javax.inject.Inject;
 
 import org.springframework.stereotype.Component;
 
-import com.sequenceiq.cloudbreak.eventbus.Event;
-import com.sequenceiq.cloudbreak.eventbus.EventBus;
 import com.sequenceiq.cloudbreak.structuredevent.StructuredEventSenderService;
 import com.sequenceiq.cloudbreak.structuredevent.conf.StructuredEventEnablementConfig;
 import com.sequenceiq.cloudbreak.structuredevent.event.StructuredEvent;
+import com.sequenceiq.cloudbreak.structuredevent.file.StructuredEventFileJournal;
 import com.sequenceiq.flow.reactor.ErrorHandlerAwareReactorEventFactory;
 
 @Component
 public class LegacyAsyncFileStructuredEventSender implements StructuredEventSenderService {
 
-    public static final String SAVE_STRUCTURED_EVENT_TO_FILE = "SAVE_STRUCTURED_EVENT_TO_FILE";
-
     @Inject
     private StructuredEventEnablementConfig structuredEventEnablementConfig;
 
@@ -23,7 +20,7 @@ public class LegacyAsyncFileStructuredEventSender implements StructuredEventSend
     private ErrorHandlerAwareReactorEventFactory eventFactory;
 
     @Inject
-    private EventBus eventBus;
+    private StructuredEventFileJournal structuredEventFileJournal;
 
     @Override
     public boolean isEnabled() {
@@ -32,11 +29,7 @@ public class LegacyAsyncFileStructuredEventSender implements StructuredEventSend
 
     @Override
     public void create(StructuredEvent structuredEvent) {
-        sendAsyncEvent(SAVE_STRUCTURED_EVENT_TO_FILE, eventFactory.createEvent(structuredEvent));
-    }
-
-    private void sendAsyncEvent(String selector, Event<?> event) {
-        eventBus.notify(selector, event);
+        structuredEventFileJournal.append(eventFactory.createEvent(structuredEvent));
     }
 
 }
@@ -1,5 +1,6 @@
 package com.sequenceiq.cloudbreak.usage.http;
 
+import java.util.Optional;
 import java.util.concurrent.BlockingDeque;
 
 import org.apache.commons.lang3.StringUtils;
@@ -7,6 +8,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
+import com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodec;
 import com.sequenceiq.cloudbreak.streaming.model.StreamProcessingException;
 import com.sequenceiq.cloudbreak.streaming.processor.AbstractRecordProcessor;
 import com.sequenceiq.cloudbreak.usage.strategy.LoggingUsageProcessingStrategy;
@@ -34,6 +36,11 @@ public class UsageHttpRecordProcessor extends AbstractRecordProcessor<UsageHttpC
         return "usage-http";
     }
 
+    @Override
+    public Optional<RecordRequestCodec<UsageHttpRecordRequest>> getSpillCodec() {
+        return Optional.of(new UsageHttpRecordRequestCodec());
+    }
+
     @Override
     public void handleDroppedRecordRequest(UsageHttpRecordRequest input, int sizeLimit) {
         LOGGER.debug("Usage http record dropped because of queue size limit ({}). Falling back to usage logging.", sizeLimit);
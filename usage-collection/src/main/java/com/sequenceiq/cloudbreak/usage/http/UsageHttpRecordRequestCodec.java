@@ -0,0 +1,29 @@
+package com.sequenceiq.cloudbreak.usage.http;
+
+import static com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodecUtil.readMessage;
+import static com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodecUtil.readString;
+import static com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodecUtil.writeMessage;
+import static com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodecUtil.writeString;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import com.cloudera.thunderhead.service.common.usage.UsageProto;
+import com.sequenceiq.cloudbreak.streaming.model.RecordRequestCodec;
+
+public class UsageHttpRecordRequestCodec implements RecordRequestCodec<UsageHttpRecordRequest> {
+
+    @Override
+    public void write(UsageHttpRecordRequest request, DataOutput output) throws IOException {
+        writeString(output, request.getRawBody().orElse(null));
+        writeMessage(output, request.getMessageBody().orElse(null));
+        output.writeLong(request.getTimestamp());
+        output.writeBoolean(request.isForceRawOutput());
+    }
+
+    @Override
+    public UsageHttpRecordRequest read(DataInput input) throws IOException {
+        return new UsageHttpRecordRequest(readString(input), readMessage(input, UsageProto.Event.parser()), input.readLong(), input.readBoolean());
+    }
+}
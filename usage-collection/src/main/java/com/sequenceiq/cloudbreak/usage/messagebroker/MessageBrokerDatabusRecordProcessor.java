@@ -1,10 +1,14 @@
 package com.sequenceiq.cloudbreak.usage.messagebroker;
 
 import java.util.Map;
+import java.util.Optional;
 
 import org.springframework.stereotype.Component;
 
+import com.cloudera.thunderhead.service.common.usage.UsageProto;
 import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.GeneratedMessageV3;
+import com.google.protobuf.Parser;
 import com.sequenceiq.cloudbreak.auth.crn.RegionAwareInternalCrnGeneratorFactory;
 import com.sequenceiq.cloudbreak.sigmadbus.config.SigmaDatabusConfig;
 import com.sequenceiq.cloudbreak.sigmadbus.processor.AbstractDatabusRecordProcessor;
@@ -29,4 +33,9 @@ public class MessageBrokerDatabusRecordProcessor extends AbstractDatabusRecordPr
     public Map<String, String> getOptionalUsageHeaders() {
         return optionalUsageHeaders;
     }
+
+    @Override
+    public Optional<Parser<? extends GeneratedMessageV3>> getMessageParser() {
+        return Optional.of(UsageProto.Event.parser());
+    }
 }
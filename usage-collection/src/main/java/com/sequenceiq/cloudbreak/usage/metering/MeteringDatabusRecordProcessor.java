@@ -1,7 +1,12 @@
 package com.sequenceiq.cloudbreak.usage.metering;
 
+import java.util.Optional;
+
 import org.springframework.stereotype.Component;
 
+import com.cloudera.thunderhead.service.metering.events.MeteringEventsProto;
+import com.google.protobuf.GeneratedMessageV3;
+import com.google.protobuf.Parser;
 import com.sequenceiq.cloudbreak.auth.crn.RegionAwareInternalCrnGeneratorFactory;
 import com.sequenceiq.cloudbreak.sigmadbus.config.SigmaDatabusConfig;
 import com.sequenceiq.cloudbreak.sigmadbus.processor.AbstractDatabusRecordProcessor;
@@ -14,4 +19,9 @@ public class MeteringDatabusRecordProcessor extends AbstractDatabusRecordProcess
             RegionAwareInternalCrnGeneratorFactory regionAwareInternalCrnGeneratorFactory) {
         super(sigmaDatabusConfig, configuration, regionAwareInternalCrnGeneratorFactory);
     }
+
+    @Override
+    public Optional<Parser<? extends GeneratedMessageV3>> getMessageParser() {
+        return Optional.of(MeteringEventsProto.MeteringEvent.parser());
+    }
 }